@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.benchmarks;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
+import com.github.tomakehurst.wiremock.jetty9.VirtualThreadPoolFactory;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.BufferingResponseListener;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Compares the queued container thread pool with virtual threads when serving many concurrent
+ * connections whose requests all block. Each request is proxied to a slow upstream, so it holds its
+ * container thread while the blocking proxy client waits. A fixed delay wouldn't do, as delayed responses
+ * are sent asynchronously and hold no thread in either pool. Each invocation opens <code>connections</code>
+ * connections at once and waits for every response. The auxiliary counters report the peak number of live
+ * platform threads, which doesn't include virtual threads, and the heap in use once all the responses are
+ * back. The virtual thread runs need Java 21 or later. Run with <code>./gradlew jmh</code>, adding
+ * <code>-prof gc</code> to the JMH arguments for allocation figures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentDelayedConnectionsBenchmark {
+
+    private static final int DELAY_MILLIS = 500;
+
+    @Param({"queued", "virtual"})
+    public String threadPool;
+
+    @Param({"10000"})
+    public int connections;
+
+    private WireMockServer upstream;
+    private WireMockServer wireMockServer;
+    private HttpClient client;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ThreadPoolFactory threadPoolFactory = threadPool.equals("virtual") ?
+            new VirtualThreadPoolFactory() :
+            new QueuedThreadPoolFactory();
+
+        // The upstream's delay is asynchronous, so it answers every connection without running out of threads
+        upstream = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .disableRequestJournal()
+            .jettyAcceptQueueSize(connections));
+        upstream.start();
+        upstream.stubFor(get("/slow").willReturn(ok("Done").withFixedDelay(DELAY_MILLIS)));
+
+        wireMockServer = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .disableRequestJournal()
+            .jettyAcceptQueueSize(connections)
+            .proxyMaxConnections(connections)
+            .proxyMaxConnectionsPerRoute(connections)
+            .threadPoolFactory(threadPoolFactory));
+        wireMockServer.start();
+        wireMockServer.stubFor(get("/slow").willReturn(aResponse().proxiedFrom(upstream.baseUrl())));
+        url = "http://localhost:" + wireMockServer.port() + "/slow";
+
+        QueuedThreadPool clientThreads = new QueuedThreadPool(50);
+        clientThreads.setDaemon(true);
+        client = new HttpClient();
+        client.setExecutor(clientThreads);
+        client.setMaxConnectionsPerDestination(connections);
+        client.setMaxRequestsQueuedPerDestination(connections);
+        client.setIdleTimeout(60000);
+        client.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        client.stop();
+        wireMockServer.stop();
+        upstream.stop();
+    }
+
+    @Benchmark
+    public int serveSlowProxiedResponses(ResourceUsage usage) throws Exception {
+        final CountDownLatch done = new CountDownLatch(connections);
+        final AtomicInteger succeeded = new AtomicInteger();
+        for (int i = 0; i < connections; i++) {
+            client.newRequest(url).send(new BufferingResponseListener() {
+                @Override
+                public void onComplete(Result result) {
+                    if (result.isSucceeded() && result.getResponse().getStatus() == 200) {
+                        succeeded.incrementAndGet();
+                    }
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await(5, TimeUnit.MINUTES);
+        usage.record(connections, succeeded.get());
+        return succeeded.get();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResourceUsage {
+
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        // ThreadMXBean only counts platform threads
+        public long peakPlatformThreads;
+        public long heapUsedMegabytes;
+        public long failedResponses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            threads.resetPeakThreadCount();
+            peakPlatformThreads = 0;
+            heapUsedMegabytes = 0;
+            failedResponses = 0;
+        }
+
+        void record(int sent, int succeeded) {
+            peakPlatformThreads = threads.getPeakThreadCount();
+            heapUsedMegabytes = memory.getHeapMemoryUsage().getUsed() / (1024 * 1024);
+            failedResponses = sent - succeeded;
+        }
+    }
+}
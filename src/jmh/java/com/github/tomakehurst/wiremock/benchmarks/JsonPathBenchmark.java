@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.benchmarks;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.helpers.HandlebarsJsonPathHelper;
+import com.github.tomakehurst.wiremock.matching.MatchesJsonPathPattern;
+import com.github.tomakehurst.wiremock.matching.ParsedBodyCache;
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSONPath evaluation on the request matching path and in response templates.
+ * Run with <code>./gradlew jmh</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonPathBenchmark {
+
+    private static final String JSON =
+        "{\n" +
+        "  \"id\": \"abc123\",\n" +
+        "  \"things\": [\n" +
+        "    { \"name\": \"one\", \"value\": 1 },\n" +
+        "    { \"name\": \"two\", \"value\": 2 },\n" +
+        "    { \"name\": \"three\", \"value\": 3 }\n" +
+        "  ]\n" +
+        "}";
+
+    private MatchesJsonPathPattern pattern;
+    private Template template;
+    private Map<String, Object> model;
+
+    @Setup
+    public void setup() throws IOException {
+        pattern = new MatchesJsonPathPattern("$.things[?(@.name == 'two')].value");
+
+        Handlebars handlebars = new Handlebars();
+        handlebars.registerHelper("jsonPath", new HandlebarsJsonPathHelper());
+        template = handlebars.compileInline("{{jsonPath body '$.things[1].value'}}");
+        model = ImmutableMap.<String, Object>of("body", JSON);
+    }
+
+    @Benchmark
+    public boolean matchesJsonPath() {
+        try {
+            return pattern.match(JSON).isExactMatch();
+        } finally {
+            // Each request parses its own body, so don't let the parse be shared between invocations
+            ParsedBodyCache.clear();
+        }
+    }
+
+    @Benchmark
+    public String rendersJsonPathHelper() throws IOException {
+        return template.apply(model);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.benchmarks;
+
+import com.github.tomakehurst.wiremock.matching.EqualToXmlPattern;
+import com.github.tomakehurst.wiremock.matching.MatchesXPathPattern;
+import com.github.tomakehurst.wiremock.matching.ParsedBodyCache;
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+
+/**
+ * Measures matching a SOAP request body with XPath and equalToXml patterns.
+ * Run with <code>./gradlew jmh</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlMatchingBenchmark {
+
+    private static final String SOAP_REQUEST =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+        "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:ord=\"http://example.com/orders\">\n" +
+        "  <soap:Header/>\n" +
+        "  <soap:Body>\n" +
+        "    <ord:GetOrder>\n" +
+        "      <ord:OrderId>12345</ord:OrderId>\n" +
+        "      <ord:IncludeLines>true</ord:IncludeLines>\n" +
+        "    </ord:GetOrder>\n" +
+        "  </soap:Body>\n" +
+        "</soap:Envelope>";
+
+    private MatchesXPathPattern xPathPattern;
+    private MatchesXPathPattern namespacedXPathPattern;
+    private MatchesXPathPattern xPathValuePattern;
+    private EqualToXmlPattern equalToXmlPattern;
+
+    @Setup
+    public void setup() {
+        xPathPattern = new MatchesXPathPattern("//*[local-name()='OrderId' and text()='12345']");
+        namespacedXPathPattern = new MatchesXPathPattern(
+            "/soap:Envelope/soap:Body/ord:GetOrder/ord:OrderId",
+            ImmutableMap.of(
+                "soap", "http://schemas.xmlsoap.org/soap/envelope/",
+                "ord", "http://example.com/orders"
+            )
+        );
+        xPathValuePattern = new MatchesXPathPattern("//*[local-name()='OrderId']/text()", equalTo("12345"));
+        equalToXmlPattern = new EqualToXmlPattern(SOAP_REQUEST);
+    }
+
+    @Benchmark
+    public boolean matchesXPath() {
+        return matchAndClear(xPathPattern);
+    }
+
+    @Benchmark
+    public boolean matchesNamespacedXPath() {
+        return matchAndClear(namespacedXPathPattern);
+    }
+
+    @Benchmark
+    public boolean matchesXPathWithValuePattern() {
+        return matchAndClear(xPathValuePattern);
+    }
+
+    @Benchmark
+    public boolean matchesEqualToXml() {
+        return equalToXmlPattern.match(SOAP_REQUEST).isExactMatch();
+    }
+
+    private static boolean matchAndClear(MatchesXPathPattern pattern) {
+        try {
+            return pattern.match(SOAP_REQUEST).isExactMatch();
+        } finally {
+            // Each request parses its own body, so don't let the parse be shared between invocations
+            ParsedBodyCache.clear();
+        }
+    }
+}
@@ -140,10 +140,12 @@ public class WireMockServer implements Container, Stubbing, Admin {
 
     public void stop() {
         httpServer.stop();
+        wireMockApp.stop();
 	}
 
 	public void start() {
         try {
+            wireMockApp.start();
 		    httpServer.start();
         } catch (Exception e) {
             throw new FatalStartupException(e);
@@ -356,6 +358,11 @@ public class WireMockServer implements Container, Stubbing, Admin {
         return wireMockApp.getServeEvents();
     }
 
+    @Override
+    public GetServeEventsResult getServeEvents(ServeEventQuery query) {
+        return wireMockApp.getServeEvents(query);
+    }
+
     @Override
     public SingleServedStubResult getServedStub(UUID id) {
         return wireMockApp.getServedStub(id);
@@ -416,11 +423,41 @@ public class WireMockServer implements Container, Stubbing, Admin {
         return wireMockApp.getAllScenarios();
     }
 
+    @Override
+    public GetProxyConnectionPoolsResult getProxyConnectionPools() {
+        return wireMockApp.getProxyConnectionPools();
+    }
+
+    @Override
+    public GetProxyResponseCacheResult getProxyResponseCache() {
+        return wireMockApp.getProxyResponseCache();
+    }
+
+    @Override
+    public void resetProxyResponseCache() {
+        wireMockApp.resetProxyResponseCache();
+    }
+
+    @Override
+    public GetDelayedResponsesResult getDelayedResponses() {
+        return wireMockApp.getDelayedResponses();
+    }
+
+    @Override
+    public GetStubMetricsResult getStubMetrics() {
+        return wireMockApp.getStubMetrics();
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
         return wireMockApp.findTopNearMissesFor(loggedRequest);
     }
 
+    @Override
+    public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest, NearMissBudget budget) {
+        return wireMockApp.findTopNearMissesFor(loggedRequest, budget);
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(RequestPattern requestPattern) {
         return wireMockApp.findTopNearMissesFor(requestPattern);
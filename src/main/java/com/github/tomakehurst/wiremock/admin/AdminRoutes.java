@@ -107,6 +107,13 @@ public class AdminRoutes {
         router.add(POST, "/settings", GlobalSettingsUpdateTask.class);
         router.add(PATCH, "/settings/extended", PatchExtendedSettingsTask.class);
 
+        router.add(GET, "/proxy/connection-pools", GetProxyConnectionPoolsTask.class);
+        router.add(GET, "/proxy/cache", GetProxyResponseCacheTask.class);
+        router.add(DELETE, "/proxy/cache", ResetProxyResponseCacheTask.class);
+        router.add(GET, "/delayed-responses", GetDelayedResponsesTask.class);
+        router.add(GET, "/metrics", GetStubMetricsTask.class);
+        router.add(GET, "/metrics/prometheus", GetPrometheusMetricsTask.class);
+
         router.add(POST, "/shutdown", ShutdownServerTask.class);
 
         router.add(GET, "/docs/swagger", GetSwaggerSpecTask.class);
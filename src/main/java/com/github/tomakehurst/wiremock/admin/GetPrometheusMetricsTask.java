@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin;
+
+import com.github.tomakehurst.wiremock.admin.model.GetStubMetricsResult;
+import com.github.tomakehurst.wiremock.admin.model.LatencyStats;
+import com.github.tomakehurst.wiremock.admin.model.PathParams;
+import com.github.tomakehurst.wiremock.admin.model.StubMetrics;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.Map;
+
+import static java.net.HttpURLConnection.HTTP_OK;
+
+/**
+ * Renders the stub serving metrics in the Prometheus text exposition format. Request counts are counters
+ * and the latency of each phase is a summary with quantiles taken from the histograms.
+ */
+public class GetPrometheusMetricsTask implements AdminTask {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String[] QUANTILES = { "0.5", "0.9", "0.99", "0.999" };
+
+    @Override
+    public ResponseDefinition execute(Admin admin, Request request, PathParams pathParams) {
+        return new ResponseDefinitionBuilder()
+            .withStatus(HTTP_OK)
+            .withHeader("Content-Type", CONTENT_TYPE)
+            .withBody(render(admin.getStubMetrics()))
+            .build();
+    }
+
+    static String render(GetStubMetricsResult metrics) {
+        StringBuilder sb = new StringBuilder();
+
+        header(sb, "wiremock_stub_requests_total", "counter", "Requests served by each stub.");
+        for (StubMetrics stub: metrics.getStubs()) {
+            sb.append("wiremock_stub_requests_total{").append(stubLabels(stub)).append("} ")
+                .append(stub.getRequests()).append('\n');
+        }
+
+        header(sb, "wiremock_unmatched_requests_total", "counter", "Requests that didn't match any stub.");
+        sb.append("wiremock_unmatched_requests_total ").append(metrics.getUnmatched().getRequests()).append('\n');
+
+        header(sb, "wiremock_suppressed_not_matched_diagnostics_total", "counter", "Unmatched requests whose diagnostics were skipped or not logged.");
+        sb.append("wiremock_suppressed_not_matched_diagnostics_total ").append(metrics.getSuppressedNotMatchedDiagnostics()).append('\n');
+
+        header(sb, "wiremock_stub_latency_seconds", "summary", "Time spent matching, rendering and sending the responses served by each stub.");
+        for (StubMetrics stub: metrics.getStubs()) {
+            phases(sb, "wiremock_stub_latency_seconds", stubLabels(stub) + ",", stub);
+        }
+
+        header(sb, "wiremock_unmatched_latency_seconds", "summary", "Time spent matching, rendering and sending the responses to unmatched requests.");
+        phases(sb, "wiremock_unmatched_latency_seconds", "", metrics.getUnmatched());
+
+        header(sb, "wiremock_request_phase_seconds", "summary", "Time spent in each phase of serving a request, across all requests.");
+        for (Map.Entry<String, LatencyStats> phase: metrics.getPhases().entrySet()) {
+            summary(sb, "wiremock_request_phase_seconds", "phase=\"" + phase.getKey() + "\"", phase.getValue());
+        }
+
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void phases(StringBuilder sb, String name, String labels, StubMetrics metrics) {
+        summary(sb, name, labels + "phase=\"match\"", metrics.getMatch());
+        summary(sb, name, labels + "phase=\"render\"", metrics.getRender());
+        summary(sb, name, labels + "phase=\"send\"", metrics.getSend());
+        summary(sb, name, labels + "phase=\"total\"", metrics.getTotal());
+    }
+
+    private static void summary(StringBuilder sb, String name, String labels, LatencyStats stats) {
+        double[] quantileValues = { stats.getP50Millis(), stats.getP90Millis(), stats.getP99Millis(), stats.getP999Millis() };
+        for (int i = 0; i < QUANTILES.length; i++) {
+            sb.append(name).append('{').append(labels).append(",quantile=\"").append(QUANTILES[i]).append("\"} ")
+                .append(quantileValues[i] / 1000).append('\n');
+        }
+
+        sb.append(name).append("_sum{").append(labels).append("} ").append(stats.getTotalMillis() / 1000).append('\n');
+        sb.append(name).append("_count{").append(labels).append("} ").append(stats.getCount()).append('\n');
+    }
+
+    private static String stubLabels(StubMetrics stub) {
+        String labels = "stub_id=\"" + stub.getId() + "\"";
+        return stub.getName() != null ?
+            labels + ",stub_name=\"" + escape(stub.getName()) + "\"" :
+            labels;
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue
+            .replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\n", "\\n");
+    }
+}
@@ -30,13 +30,19 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 public class LimitAndSinceDatePaginator implements Paginator<ServeEvent> {
 
-    private final List<ServeEvent> source;
+    private final Iterable<ServeEvent> source;
+    private final int total;
     private final Integer limit;
     private final Date since;
 
     public LimitAndSinceDatePaginator(List<ServeEvent> source, Integer limit, Date since) {
+        this(source, source.size(), limit, since);
+    }
+
+    public LimitAndSinceDatePaginator(Iterable<ServeEvent> source, int total, Integer limit, Date since) {
         checkArgument(limit == null || limit >= 0, "limit must be 0 or greater");
         this.source = source;
+        this.total = total;
         this.limit = limit;
         this.since = since;
     }
@@ -60,13 +66,13 @@ public class LimitAndSinceDatePaginator implements Paginator<ServeEvent> {
             }
         })
         .limit(
-            firstNonNull(limit, source.size())
+            firstNonNull(limit, Integer.MAX_VALUE)
         )
         .toList();
     }
     
     @Override
     public int getTotal() {
-        return source.size();
+        return total;
     }
 }
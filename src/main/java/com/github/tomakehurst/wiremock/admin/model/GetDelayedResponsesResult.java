@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
+
+public class GetDelayedResponsesResult {
+
+    public static final GetDelayedResponsesResult NONE = new GetDelayedResponsesResult(0, 0, 0, 0);
+
+    private final int pending;
+    private final long sent;
+    private final double meanLagMillis;
+    private final long maxLagMillis;
+
+    @JsonCreator
+    public GetDelayedResponsesResult(@JsonProperty("pending") int pending,
+                                     @JsonProperty("sent") long sent,
+                                     @JsonProperty("meanLagMillis") double meanLagMillis,
+                                     @JsonProperty("maxLagMillis") long maxLagMillis) {
+        this.pending = pending;
+        this.sent = sent;
+        this.meanLagMillis = meanLagMillis;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public static GetDelayedResponsesResult from(HashedWheelTimer timer) {
+        return new GetDelayedResponsesResult(
+            timer.getPendingTasks(),
+            timer.getFiredTasks(),
+            timer.getMeanLagMillis(),
+            timer.getMaxLagMillis()
+        );
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public double getMeanLagMillis() {
+        return meanLagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+}
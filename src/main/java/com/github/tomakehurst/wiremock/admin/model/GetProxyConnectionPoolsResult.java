@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.tomakehurst.wiremock.http.ConnectionPoolStats;
+import com.github.tomakehurst.wiremock.http.Http2ConnectionStats;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+public class GetProxyConnectionPoolsResult {
+
+    private final ConnectionPoolStats reverseProxy;
+    private final ConnectionPoolStats browserProxy;
+    private final Http2ConnectionStats reverseProxyHttp2;
+
+    public GetProxyConnectionPoolsResult(ConnectionPoolStats reverseProxy, ConnectionPoolStats browserProxy) {
+        this(reverseProxy, browserProxy, null);
+    }
+
+    @JsonCreator
+    public GetProxyConnectionPoolsResult(@JsonProperty("reverseProxy") ConnectionPoolStats reverseProxy,
+                                         @JsonProperty("browserProxy") ConnectionPoolStats browserProxy,
+                                         @JsonProperty("reverseProxyHttp2") Http2ConnectionStats reverseProxyHttp2) {
+        this.reverseProxy = reverseProxy;
+        this.browserProxy = browserProxy;
+        this.reverseProxyHttp2 = reverseProxyHttp2;
+    }
+
+    public ConnectionPoolStats getReverseProxy() {
+        return reverseProxy;
+    }
+
+    public ConnectionPoolStats getBrowserProxy() {
+        return browserProxy;
+    }
+
+    @JsonInclude(NON_NULL)
+    public Http2ConnectionStats getReverseProxyHttp2() {
+        return reverseProxyHttp2;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.tomakehurst.wiremock.http.ProxyResponseCache;
+
+public class GetProxyResponseCacheResult {
+
+    private final long hits;
+    private final long misses;
+    private final long coalesced;
+    private final long evictions;
+    private final long entries;
+    private final long sizeBytes;
+    private final long maxBytes;
+
+    @JsonCreator
+    public GetProxyResponseCacheResult(@JsonProperty("hits") long hits,
+                                       @JsonProperty("misses") long misses,
+                                       @JsonProperty("coalesced") long coalesced,
+                                       @JsonProperty("evictions") long evictions,
+                                       @JsonProperty("entries") long entries,
+                                       @JsonProperty("sizeBytes") long sizeBytes,
+                                       @JsonProperty("maxBytes") long maxBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.coalesced = coalesced;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.sizeBytes = sizeBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    public static GetProxyResponseCacheResult from(ProxyResponseCache cache) {
+        return new GetProxyResponseCacheResult(
+            cache.getHitCount(),
+            cache.getMissCount(),
+            cache.getCoalescedCount(),
+            cache.getEvictionCount(),
+            cache.getEntryCount(),
+            cache.getSizeBytes(),
+            cache.getMaxBytes()
+        );
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class GetStubMetricsResult {
+
+    private final List<StubMetrics> stubs;
+    private final StubMetrics unmatched;
+    private final Map<String, LatencyStats> phases;
+    private final long suppressedNotMatchedDiagnostics;
+
+    @JsonCreator
+    public GetStubMetricsResult(@JsonProperty("stubs") List<StubMetrics> stubs,
+                                @JsonProperty("unmatched") StubMetrics unmatched,
+                                @JsonProperty("phases") Map<String, LatencyStats> phases,
+                                @JsonProperty("suppressedNotMatchedDiagnostics") long suppressedNotMatchedDiagnostics) {
+        this.stubs = stubs;
+        this.unmatched = unmatched;
+        this.phases = phases;
+        this.suppressedNotMatchedDiagnostics = suppressedNotMatchedDiagnostics;
+    }
+
+    public List<StubMetrics> getStubs() {
+        return stubs;
+    }
+
+    public StubMetrics getUnmatched() {
+        return unmatched;
+    }
+
+    /**
+     * Latency of each phase of serving a request, across all requests, keyed by phase name
+     */
+    public Map<String, LatencyStats> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Unmatched requests whose diagnostics were skipped or not logged since startup, to bound their cost
+     */
+    public long getSuppressedNotMatchedDiagnostics() {
+        return suppressedNotMatchedDiagnostics;
+    }
+
+    public StubMetrics forStub(UUID id) {
+        for (StubMetrics stubMetrics: stubs) {
+            if (stubMetrics.getId().equals(id)) {
+                return stubMetrics;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.tomakehurst.wiremock.common.LatencyHistogram;
+
+public class LatencyStats {
+
+    public static final LatencyStats NONE = new LatencyStats(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final long count;
+    private final double totalMillis;
+    private final double meanMillis;
+    private final double maxMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+
+    @JsonCreator
+    public LatencyStats(@JsonProperty("count") long count,
+                        @JsonProperty("totalMillis") double totalMillis,
+                        @JsonProperty("meanMillis") double meanMillis,
+                        @JsonProperty("maxMillis") double maxMillis,
+                        @JsonProperty("p50Millis") double p50Millis,
+                        @JsonProperty("p90Millis") double p90Millis,
+                        @JsonProperty("p99Millis") double p99Millis,
+                        @JsonProperty("p999Millis") double p999Millis) {
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.p999Millis = p999Millis;
+    }
+
+    public static LatencyStats from(LatencyHistogram.Snapshot snapshot) {
+        return new LatencyStats(
+            snapshot.getCount(),
+            toMillis(snapshot.getTotalMicros()),
+            snapshot.getMeanMicros() / 1000,
+            toMillis(snapshot.getMaxMicros()),
+            toMillis(snapshot.getValueAtPercentile(50)),
+            toMillis(snapshot.getValueAtPercentile(90)),
+            toMillis(snapshot.getValueAtPercentile(99)),
+            toMillis(snapshot.getValueAtPercentile(99.9))
+        );
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getP999Millis() {
+        return p999Millis;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.common.InvalidInputException;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.admin.Conversions.toDate;
+import static com.github.tomakehurst.wiremock.admin.Conversions.toInt;
+
+/**
+ * Selects a page of the request journal, newest first. {@code after} is an opaque cursor - the ID of the
+ * last event on the previous page - and {@code since} and {@code limit} apply to the events that follow it.
+ */
+public class ServeEventQuery {
+
+    public static final ServeEventQuery ALL = new ServeEventQuery(null, null, null);
+
+    private final UUID after;
+    private final Integer limit;
+    private final Date since;
+
+    public ServeEventQuery(UUID after, Integer limit, Date since) {
+        this.after = after;
+        this.limit = limit;
+        this.since = since;
+    }
+
+    public static ServeEventQuery fromRequest(Request request) {
+        return new ServeEventQuery(
+            toUuid(request.queryParameter("after")),
+            toInt(request.queryParameter("limit")),
+            toDate(request.queryParameter("since"))
+        );
+    }
+
+    public static ServeEventQuery after(UUID id, int limit) {
+        return new ServeEventQuery(id, limit, null);
+    }
+
+    public UUID getAfter() {
+        return after;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public Date getSince() {
+        return since;
+    }
+
+    private static UUID toUuid(QueryParameter parameter) {
+        if (!parameter.isPresent()) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(parameter.firstValue());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(Errors.validation("/after", parameter.firstValue() + " is not a valid serve event ID"));
+        }
+    }
+}
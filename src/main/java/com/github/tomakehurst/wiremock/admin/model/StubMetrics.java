@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@JsonInclude(NON_NULL)
+public class StubMetrics {
+
+    private final UUID id;
+    private final String name;
+    private final long requests;
+    private final LatencyStats match;
+    private final LatencyStats render;
+    private final LatencyStats send;
+    private final LatencyStats total;
+
+    @JsonCreator
+    public StubMetrics(@JsonProperty("id") UUID id,
+                       @JsonProperty("name") String name,
+                       @JsonProperty("requests") long requests,
+                       @JsonProperty("match") LatencyStats match,
+                       @JsonProperty("render") LatencyStats render,
+                       @JsonProperty("send") LatencyStats send,
+                       @JsonProperty("total") LatencyStats total) {
+        this.id = id;
+        this.name = name;
+        this.requests = requests;
+        this.match = match;
+        this.render = render;
+        this.send = send;
+        this.total = total;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public LatencyStats getMatch() {
+        return match;
+    }
+
+    public LatencyStats getRender() {
+        return render;
+    }
+
+    public LatencyStats getSend() {
+        return send;
+    }
+
+    public LatencyStats getTotal() {
+        return total;
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.github.tomakehurst.wiremock.client;
 
+import com.fasterxml.jackson.databind.util.ISO8601Utils;
 import com.github.tomakehurst.wiremock.admin.*;
 import com.github.tomakehurst.wiremock.admin.model.*;
 import com.github.tomakehurst.wiremock.admin.tasks.*;
@@ -39,9 +40,11 @@ import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.verification.*;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.methods.*;
+import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 
+import java.net.URISyntaxException;
 import java.util.List;
 import java.util.UUID;
 
@@ -206,6 +209,27 @@ public class HttpAdminClient implements Admin {
         );
     }
 
+    @Override
+    public GetServeEventsResult getServeEvents(ServeEventQuery query) {
+        try {
+            URIBuilder uri = new URIBuilder(urlFor(GetAllRequestsTask.class));
+            if (query.getAfter() != null) {
+                uri.addParameter("after", query.getAfter().toString());
+            }
+            if (query.getLimit() != null) {
+                uri.addParameter("limit", query.getLimit().toString());
+            }
+            if (query.getSince() != null) {
+                uri.addParameter("since", ISO8601Utils.format(query.getSince(), true));
+            }
+
+            String body = getJsonAssertOkAndReturnBody(uri.toString());
+            return Json.read(body, GetServeEventsResult.class);
+        } catch (URISyntaxException e) {
+            return throwUnchecked(e, GetServeEventsResult.class);
+        }
+    }
+
     @Override
     public SingleServedStubResult getServedStub(UUID id) {
         return executeRequest(
@@ -269,6 +293,12 @@ public class HttpAdminClient implements Admin {
         return Json.read(body, FindNearMissesResult.class);
     }
 
+    @Override
+    public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest, NearMissBudget budget) {
+        // The budget protects the server from its own unmatched traffic, so remote callers always get the full search
+        return findTopNearMissesFor(loggedRequest);
+    }
+
     @Override
     public GetScenariosResult getAllScenarios() {
         return executeRequest(
@@ -277,6 +307,43 @@ public class HttpAdminClient implements Admin {
         );
     }
 
+    @Override
+    public GetProxyConnectionPoolsResult getProxyConnectionPools() {
+        return executeRequest(
+            adminRoutes.requestSpecForTask(GetProxyConnectionPoolsTask.class),
+            GetProxyConnectionPoolsResult.class
+        );
+    }
+
+    @Override
+    public GetProxyResponseCacheResult getProxyResponseCache() {
+        return executeRequest(
+            adminRoutes.requestSpecForTask(GetProxyResponseCacheTask.class),
+            GetProxyResponseCacheResult.class
+        );
+    }
+
+    @Override
+    public void resetProxyResponseCache() {
+        executeRequest(adminRoutes.requestSpecForTask(ResetProxyResponseCacheTask.class));
+    }
+
+    @Override
+    public GetDelayedResponsesResult getDelayedResponses() {
+        return executeRequest(
+            adminRoutes.requestSpecForTask(GetDelayedResponsesTask.class),
+            GetDelayedResponsesResult.class
+        );
+    }
+
+    @Override
+    public GetStubMetricsResult getStubMetrics() {
+        return executeRequest(
+            adminRoutes.requestSpecForTask(GetStubMetricsTask.class),
+            GetStubMetricsResult.class
+        );
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
         String body = postJsonAssertOkAndReturnBody(
@@ -44,6 +44,7 @@ public class ResponseDefinitionBuilder {
     protected DelayDistribution delayDistribution;
     protected ChunkedDribbleDelay chunkedDribbleDelay;
     protected String proxyBaseUrl;
+    protected ProxyCacheSettings proxyCache;
     protected Fault fault;
     protected List<String> responseTransformerNames;
     protected Map<String, Object> transformerParameters = newHashMap();
@@ -63,6 +64,7 @@ public class ResponseDefinitionBuilder {
         builder.delayDistribution = responseDefinition.getDelayDistribution();
         builder.chunkedDribbleDelay = responseDefinition.getChunkedDribbleDelay();
         builder.proxyBaseUrl = responseDefinition.getProxyBaseUrl();
+        builder.proxyCache = responseDefinition.getProxyCache();
         builder.fault = responseDefinition.getFault();
         builder.responseTransformerNames = responseDefinition.getTransformers();
         builder.transformerParameters = responseDefinition.getTransformerParameters() != null ? Parameters.from(responseDefinition.getTransformerParameters()) : Parameters.empty();
@@ -206,6 +208,7 @@ public class ResponseDefinitionBuilder {
             this.delayDistribution = from.delayDistribution;
             this.chunkedDribbleDelay = from.chunkedDribbleDelay;
             this.proxyBaseUrl = from.proxyBaseUrl;
+            this.proxyCache = from.proxyCache;
             this.responseTransformerNames = from.responseTransformerNames;
             this.transformerParameters = from.transformerParameters;
         }
@@ -215,6 +218,11 @@ public class ResponseDefinitionBuilder {
             return this;
         }
 
+        public ProxyResponseDefinitionBuilder withCache(ProxyCacheSettings proxyCache) {
+            this.proxyCache = proxyCache;
+            return this;
+        }
+
         @Override
         public ResponseDefinition build() {
             return !additionalRequestHeaders.isEmpty() ? super.build(new HttpHeaders(additionalRequestHeaders)) : super.build();
@@ -255,6 +263,7 @@ public class ResponseDefinitionBuilder {
                     delayDistribution,
                     chunkedDribbleDelay,
                     proxyBaseUrl,
+                    proxyCache,
                     fault,
                     responseTransformerNames,
                     transformerParameters,
@@ -274,6 +283,7 @@ public class ResponseDefinitionBuilder {
                     delayDistribution,
                     chunkedDribbleDelay,
                     proxyBaseUrl,
+                    proxyCache,
                     fault,
                     responseTransformerNames,
                     transformerParameters,
@@ -292,6 +302,7 @@ public class ResponseDefinitionBuilder {
                     delayDistribution,
                     chunkedDribbleDelay,
                     proxyBaseUrl,
+                    proxyCache,
                     fault,
                     responseTransformerNames,
                     transformerParameters,
@@ -17,28 +17,81 @@ package com.github.tomakehurst.wiremock.common;
 
 import com.google.common.io.ByteStreams;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static java.nio.file.StandardOpenOption.READ;
 
 public class BinaryFile implements InputStreamSource {
 
 	private URI uri;
+	private final FileContentsCache contentsCache;
 
 	public BinaryFile(URI uri) {
+		this(uri, null);
+	}
+
+	public BinaryFile(URI uri, FileContentsCache contentsCache) {
 		this.uri = uri;
+		this.contentsCache = contentsCache;
 	}
 
 	public byte[] readContents() {
-		try(InputStream stream = getStream()) {
+		return isCached() ?
+			contentsCache.contentsOf(this) :
+			readUncachedContents();
+	}
+
+	byte[] readUncachedContents() {
+		try(InputStream stream = openStream()) {
 			return ByteStreams.toByteArray(stream);
 		} catch (final IOException ioe) {
 			return throwUnchecked(ioe, byte[].class);
 		}
 	}
 
+	public boolean isCached() {
+		return contentsCache != null;
+	}
+
+	public boolean isLocalFile() {
+		return "file".equals(uri.getScheme());
+	}
+
+	/**
+	 * The size of the file in bytes, taken from the file system for local files
+	 * so that the contents don't need to be read.
+	 */
+	public long getLength() {
+		if (isCached() || !isLocalFile()) {
+			return readContents().length;
+		}
+
+		try {
+			return Files.size(Paths.get(uri));
+		} catch (IOException e) {
+			return throwUnchecked(e, Long.class);
+		}
+	}
+
+	public FileChannel openChannel() {
+		if (!isLocalFile()) {
+			throw new UnsupportedOperationException(name() + " is not a local file");
+		}
+
+		try {
+			return FileChannel.open(Paths.get(uri), READ);
+		} catch (IOException e) {
+			return throwUnchecked(e, FileChannel.class);
+		}
+	}
+
 	protected URI getUri() {
 		return uri;
 	}
@@ -54,6 +107,12 @@ public class BinaryFile implements InputStreamSource {
 
 	@Override
 	public InputStream getStream() {
+		return isCached() ?
+			new ByteArrayInputStream(readContents()) :
+			openStream();
+	}
+
+	private InputStream openStream() {
 		try {
 			return uri.toURL().openStream();
 		} catch (IOException e) {
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Wraps another file source, remembering where each file name resolves to and keeping the contents
+ * of recently read files in a {@link FileContentsCache}. Resolving a name normally means checking the
+ * canonical paths of the file and root directory, so caching it saves those file system calls for files
+ * that are served repeatedly. Child sources share their parent's caches.
+ */
+public class CachingFileSource implements FileSource {
+
+    private static final int MAX_RESOLVED_NAMES = 10000;
+
+    private final FileSource delegate;
+    private final FileContentsCache contentsCache;
+    private final Cache<String, URI> resolvedNames;
+
+    public CachingFileSource(FileSource delegate, long maxBytes) {
+        this(
+            delegate,
+            new FileContentsCache(maxBytes),
+            CacheBuilder.newBuilder().maximumSize(MAX_RESOLVED_NAMES).<String, URI>build()
+        );
+    }
+
+    private CachingFileSource(FileSource delegate, FileContentsCache contentsCache, Cache<String, URI> resolvedNames) {
+        this.delegate = delegate;
+        this.contentsCache = contentsCache;
+        this.resolvedNames = resolvedNames;
+    }
+
+    @Override
+    public BinaryFile getBinaryFileNamed(String name) {
+        URI uri = resolvedNames.getIfPresent(keyFor(name));
+        if (uri == null) {
+            uri = remember(name, delegate.getBinaryFileNamed(name));
+        }
+
+        return new BinaryFile(uri, contentsCache);
+    }
+
+    @Override
+    public TextFile getTextFileNamed(String name) {
+        URI uri = resolvedNames.getIfPresent(keyFor(name));
+        if (uri == null) {
+            uri = remember(name, delegate.getTextFileNamed(name));
+        }
+
+        return new TextFile(uri, contentsCache);
+    }
+
+    @Override
+    public void createIfNecessary() {
+        delegate.createIfNecessary();
+    }
+
+    @Override
+    public FileSource child(String subDirectoryName) {
+        return new CachingFileSource(delegate.child(subDirectoryName), contentsCache, resolvedNames);
+    }
+
+    @Override
+    public String getPath() {
+        return delegate.getPath();
+    }
+
+    @Override
+    public URI getUri() {
+        return delegate.getUri();
+    }
+
+    @Override
+    public List<TextFile> listFilesRecursively() {
+        return delegate.listFilesRecursively();
+    }
+
+    @Override
+    public void writeTextFile(String name, String contents) {
+        delegate.writeTextFile(name, contents);
+        invalidate(name);
+    }
+
+    @Override
+    public void writeBinaryFile(String name, byte[] contents) {
+        delegate.writeBinaryFile(name, contents);
+        invalidate(name);
+    }
+
+    @Override
+    public boolean exists() {
+        return delegate.exists();
+    }
+
+    @Override
+    public void deleteFile(String name) {
+        delegate.deleteFile(name);
+        invalidate(name);
+    }
+
+    public FileContentsCache getContentsCache() {
+        return contentsCache;
+    }
+
+    private URI remember(String name, BinaryFile file) {
+        URI uri = file.getUri();
+        resolvedNames.put(keyFor(name), uri);
+        return uri;
+    }
+
+    private void invalidate(String name) {
+        contentsCache.invalidate(delegate.getBinaryFileNamed(name));
+    }
+
+    private String keyFor(String name) {
+        return delegate.getPath() + '\u0000' + name;
+    }
+
+    @Override
+    public String toString() {
+        return CachingFileSource.class.getSimpleName() + ": " + delegate;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+import java.io.File;
+import java.net.URI;
+
+/**
+ * Holds the contents of recently read files in memory, up to a maximum total number of bytes,
+ * evicting the least recently used when full. Entries for local files are checked against the
+ * file's modification time and length on each read, so edits made on disk are picked up.
+ * Files inside jars can't change, so their entries are never checked.
+ */
+public class FileContentsCache {
+
+    private final long maxBytes;
+    private final Cache<URI, Entry> entries;
+
+    public FileContentsCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        // A single segment, as Guava splits the maximum weight between segments and would
+        // otherwise evict any file larger than a fraction of maxBytes as soon as it was added
+        this.entries = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maxBytes)
+                .weigher(new Weigher<URI, Entry>() {
+                    @Override
+                    public int weigh(URI key, Entry value) {
+                        return value.contents.length;
+                    }
+                })
+                .build();
+    }
+
+    byte[] contentsOf(BinaryFile file) {
+        URI uri = file.getUri();
+        if (!file.isLocalFile()) {
+            Entry entry = entries.getIfPresent(uri);
+            if (entry == null) {
+                entry = cacheIfSmallEnough(uri, new Entry(0, file.readUncachedContents()));
+            }
+            return entry.contents;
+        }
+
+        File localFile = new File(uri);
+        long lastModified = localFile.lastModified();
+        Entry entry = entries.getIfPresent(uri);
+        if (entry != null && entry.lastModified == lastModified && entry.contents.length == localFile.length()) {
+            return entry.contents;
+        }
+
+        return cacheIfSmallEnough(uri, new Entry(lastModified, file.readUncachedContents())).contents;
+    }
+
+    public void invalidate(BinaryFile file) {
+        entries.invalidate(file.getUri());
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    private Entry cacheIfSmallEnough(URI uri, Entry entry) {
+        if (entry.contents.length <= maxBytes) {
+            entries.put(uri, entry);
+        }
+
+        return entry;
+    }
+
+    private static class Entry {
+
+        private final long lastModified;
+        private final byte[] contents;
+
+        Entry(long lastModified, byte[] contents) {
+            this.lastModified = lastModified;
+            this.contents = contents;
+        }
+    }
+}
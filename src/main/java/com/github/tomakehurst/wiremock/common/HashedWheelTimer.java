@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Runs tasks after a delay using a hashed timer wheel, so scheduling costs the same however many tasks are
+ * pending, where a heap-based scheduler slows down as its queue grows. Tasks fire up to one tick late, never early,
+ * and are handed to an executor so that a slow task doesn't hold up the wheel.
+ * The wheel's thread is started on demand and exits after a period with nothing scheduled. Stopping the timer
+ * discards any tasks still waiting and {@link #start()} makes it accept new ones again.
+ */
+public class HashedWheelTimer {
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final long IDLE_EXIT_NANOS = SECONDS.toNanos(30);
+
+    private final String name;
+    private final long tickNanos;
+    private final long idleExitNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final Executor taskExecutor;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    private volatile Thread worker;
+    private volatile boolean idle;
+    private volatile boolean stopped;
+    private volatile int generation;
+
+    public HashedWheelTimer(String name, Executor taskExecutor) {
+        this(name, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, taskExecutor);
+    }
+
+    public HashedWheelTimer(String name, long tickMillis, int wheelSize, Executor taskExecutor) {
+        this(name, tickMillis, wheelSize, IDLE_EXIT_NANOS, taskExecutor);
+    }
+
+    HashedWheelTimer(String name, long tickMillis, int wheelSize, long idleExitNanos, Executor taskExecutor) {
+        checkArgument(tickMillis > 0, "Tick duration must be greater than zero");
+        checkArgument(Integer.bitCount(wheelSize) == 1, "Wheel size must be a power of two");
+
+        this.name = name;
+        this.tickNanos = MILLISECONDS.toNanos(tickMillis);
+        this.idleExitNanos = idleExitNanos;
+        this.mask = wheelSize - 1;
+        this.taskExecutor = taskExecutor;
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+    }
+
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new RejectedExecutionException(name + " has been stopped");
+        }
+
+        pending.incrementAndGet();
+        newTimeouts.offer(new Timeout(task, System.nanoTime() + unit.toNanos(delay), generation));
+
+        Thread currentWorker = worker;
+        if (currentWorker == null) {
+            startWorkerIfStopped();
+        } else if (idle) {
+            LockSupport.unpark(currentWorker);
+        }
+    }
+
+    public synchronized void start() {
+        stopped = false;
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        // Tasks scheduled before now are dropped even if the timer is started again before the worker notices
+        generation++;
+        Thread currentWorker = worker;
+        if (currentWorker != null) {
+            LockSupport.unpark(currentWorker);
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting for their delay to elapse
+     */
+    public int getPendingTasks() {
+        return pending.get();
+    }
+
+    public long getFiredTasks() {
+        return fired.get();
+    }
+
+    /**
+     * @return the mean time in milliseconds between a task becoming due and it starting to run
+     */
+    public double getMeanLagMillis() {
+        long count = fired.get();
+        return count > 0 ? totalLagNanos.get() / (double) count / 1000000 : 0;
+    }
+
+    public long getMaxLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get());
+    }
+
+    private synchronized void startWorkerIfStopped() {
+        if (worker == null && !stopped) {
+            worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    turnWheel();
+                }
+            }, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void exit() {
+        synchronized (this) {
+            if (stopped) {
+                discardScheduledTasks();
+            }
+            worker = null;
+        }
+
+        // schedule() only starts a worker when it finds none, so a task offered while this one was on its way out
+        // would otherwise wait until the next task is scheduled
+        if (!newTimeouts.isEmpty()) {
+            startWorkerIfStopped();
+        }
+    }
+
+    private void discardScheduledTasks() {
+        for (Bucket bucket : wheel) {
+            pending.addAndGet(-bucket.timeouts.size());
+            bucket.timeouts.clear();
+        }
+
+        while (newTimeouts.poll() != null) {
+            pending.decrementAndGet();
+        }
+    }
+
+    private void turnWheel() {
+        long startNanos = System.nanoTime();
+        long tick = 0;
+        while (!stopped) {
+            if (pending.get() == 0) {
+                waitForNewTimeouts();
+                if (stopped || newTimeouts.isEmpty()) {
+                    break;
+                }
+
+                // The wheel is empty, so it can be realigned to start from now
+                startNanos = System.nanoTime();
+                tick = 0;
+            }
+
+            waitUntil(startNanos + (tick + 1) * tickNanos);
+            transferNewTimeouts(startNanos, tick);
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+
+        exit();
+    }
+
+    private void waitForNewTimeouts() {
+        idle = true;
+        long exitAt = System.nanoTime() + idleExitNanos;
+        long remaining;
+        while (!stopped && newTimeouts.isEmpty() && (remaining = exitAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+        idle = false;
+    }
+
+    private void waitUntil(long deadlineNanos) {
+        long remaining;
+        while (!stopped && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    private void transferNewTimeouts(long startNanos, long tick) {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            long dueTick = Math.max((timeout.deadlineNanos - startNanos) / tickNanos, tick);
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            wheel[(int) (dueTick & mask)].timeouts.add(timeout);
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        List<Timeout> timeouts = bucket.timeouts;
+        int kept = 0;
+        for (int i = 0; i < timeouts.size(); i++) {
+            Timeout timeout = timeouts.get(i);
+            if (timeout.generation != generation) {
+                pending.decrementAndGet();
+            } else if (timeout.remainingRounds <= 0) {
+                fire(timeout);
+            } else {
+                timeout.remainingRounds--;
+                timeouts.set(kept++, timeout);
+            }
+        }
+
+        timeouts.subList(kept, timeouts.size()).clear();
+    }
+
+    private void fire(final Timeout timeout) {
+        pending.decrementAndGet();
+        try {
+            taskExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    recordLag(System.nanoTime() - timeout.deadlineNanos);
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        notifier().error(name + " task failed", e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // The executor is shutting down along with the server
+        }
+    }
+
+    private void recordLag(long lagNanos) {
+        long lag = Math.max(0, lagNanos);
+        fired.incrementAndGet();
+        totalLagNanos.addAndGet(lag);
+
+        long max;
+        while (lag > (max = maxLagNanos.get()) && !maxLagNanos.compareAndSet(max, lag)) {
+            // Retry until the new maximum sticks or a larger one has been recorded
+        }
+    }
+
+    private static class Bucket {
+        private final List<Timeout> timeouts = new ArrayList<>();
+    }
+
+    private static class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final int generation;
+        private long remainingRounds;
+
+        Timeout(Runnable task, long deadlineNanos, int generation) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+            this.generation = generation;
+        }
+    }
+}
@@ -18,9 +18,12 @@ package com.github.tomakehurst.wiremock.common;
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -86,6 +89,20 @@ public final class Json {
 		}
 	}
 
+    /**
+     * Writes the same JSON as {@link #write(Object)} through a generator straight to the stream,
+     * without building the whole document as a String first. The stream is flushed but left open.
+     */
+    public static <T> void write(T object, OutputStream out) throws IOException {
+        ObjectMapper mapper = getObjectMapper();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            mapper.writerWithDefaultPrettyPrinter()
+                .withView(PublicView.class)
+                .writeValue(generator, object);
+        }
+    }
+
 
     public static ObjectMapper getObjectMapper() {
         return objectMapperHolder.get();
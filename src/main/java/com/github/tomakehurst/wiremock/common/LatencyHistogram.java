@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A lock-free latency histogram in the style of HdrHistogram. Durations are counted in microseconds in
+ * log-linear buckets, with each power of two split into eight, so a percentile is never overstated by more
+ * than 12.5% however large the value. Recording is a few atomic operations and the histogram is a fixed
+ * few kilobytes, so one can be kept per stub and updated on every request.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(NANOSECONDS.toMicros(nanos), 0), MAX_VALUE);
+        counts.incrementAndGet(bucketIndexOf(micros));
+        totalMicros.add(micros);
+
+        long currentMax = maxMicros.get();
+        while (micros > currentMax && !maxMicros.compareAndSet(currentMax, micros)) {
+            currentMax = maxMicros.get();
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] snapshotCounts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshotCounts[i] = counts.get(i);
+            count += snapshotCounts[i];
+        }
+
+        return new Snapshot(snapshotCounts, count, totalMicros.sum(), maxMicros.get());
+    }
+
+    static int bucketIndexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+
+        int highestBit = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int bucketIndex) {
+        if (bucketIndex < SUB_BUCKETS) {
+            return bucketIndex;
+        }
+
+        int shift = (bucketIndex - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucketIndex - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowestValue = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalMicros;
+        private final long maxMicros;
+
+        private Snapshot(long[] counts, long count, long totalMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalMicros() {
+            return totalMicros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        public double getMeanMicros() {
+            return count > 0 ? (double) totalMicros / count : 0;
+        }
+
+        /**
+         * @return the highest value in the bucket holding the given percentile, capped at the largest value recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            checkArgument(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+            if (count == 0) {
+                return 0;
+            }
+
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestValueIn(i), maxMicros);
+                }
+            }
+
+            return maxMicros;
+        }
+    }
+}
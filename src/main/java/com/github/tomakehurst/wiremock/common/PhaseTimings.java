@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+
+/**
+ * Nanosecond timings for each phase of serving a request. A phase that didn't run for the request,
+ * such as filtering when no filters are registered, is zero.
+ */
+public class PhaseTimings {
+
+    public enum Phase {
+        FILTERS("filters"),
+        MATCH("match"),
+        DEFINITION_TRANSFORMERS("definitionTransformers"),
+        RENDER("render"),
+        RESPONSE_TRANSFORMERS("responseTransformers"),
+        JOURNAL_WRITE("journalWrite");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static final PhaseTimings NONE = new PhaseTimings(new long[Phase.values().length]);
+
+    private final long[] nanos;
+
+    private PhaseTimings(long[] nanos) {
+        this.nanos = nanos;
+    }
+
+    @JsonCreator
+    public PhaseTimings(@JsonProperty("filtersNanos") long filtersNanos,
+                        @JsonProperty("matchNanos") long matchNanos,
+                        @JsonProperty("definitionTransformersNanos") long definitionTransformersNanos,
+                        @JsonProperty("renderNanos") long renderNanos,
+                        @JsonProperty("responseTransformersNanos") long responseTransformersNanos,
+                        @JsonProperty("journalWriteNanos") long journalWriteNanos) {
+        this(new long[] {
+            filtersNanos,
+            matchNanos,
+            definitionTransformersNanos,
+            renderNanos,
+            responseTransformersNanos,
+            journalWriteNanos
+        });
+    }
+
+    public PhaseTimings with(Phase phase, long phaseNanos) {
+        long[] newNanos = Arrays.copyOf(nanos, nanos.length);
+        newNanos[phase.ordinal()] = phaseNanos;
+        return new PhaseTimings(newNanos);
+    }
+
+    public long get(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Time spent running request filters
+     */
+    public long getFiltersNanos() {
+        return get(Phase.FILTERS);
+    }
+
+    /**
+     * Time spent finding the stub mapping that matches the request
+     */
+    public long getMatchNanos() {
+        return get(Phase.MATCH);
+    }
+
+    /**
+     * Time spent in response definition transformers, including response templating
+     */
+    public long getDefinitionTransformersNanos() {
+        return get(Phase.DEFINITION_TRANSFORMERS);
+    }
+
+    /**
+     * Time spent building the response, including fetching it from the target when proxying
+     */
+    public long getRenderNanos() {
+        return get(Phase.RENDER);
+    }
+
+    /**
+     * Time spent in response transformers
+     */
+    public long getResponseTransformersNanos() {
+        return get(Phase.RESPONSE_TRANSFORMERS);
+    }
+
+    /**
+     * Time spent adding the serve event to the request journal
+     */
+    public long getJournalWriteNanos() {
+        return get(Phase.JOURNAL_WRITE);
+    }
+}
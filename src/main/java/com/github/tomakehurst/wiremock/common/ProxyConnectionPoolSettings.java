@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+/**
+ * Sizing and lifetime settings for the pools of upstream connections used by proxy stubs.
+ * Connections aren't reused unless a keep-alive time is set. With HTTP/2 enabled, reverse proxy requests are
+ * multiplexed as streams over a few long-lived connections to each upstream instead.
+ */
+public class ProxyConnectionPoolSettings {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 1000;
+    public static final int DEFAULT_SOCKET_TIMEOUT = 5 * 60 * 1000;
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+    public static final ProxyConnectionPoolSettings DEFAULTS = new ProxyConnectionPoolSettings(
+        DEFAULT_MAX_CONNECTIONS,
+        DEFAULT_MAX_CONNECTIONS,
+        -1,
+        DEFAULT_SOCKET_TIMEOUT,
+        0,
+        0,
+        DEFAULT_VALIDATE_AFTER_INACTIVITY,
+        false
+    );
+
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final int connectTimeoutMillis;
+    private final int socketTimeoutMillis;
+    private final long keepAliveMillis;
+    private final long maxIdleMillis;
+    private final int validateAfterInactivityMillis;
+    private final boolean http2;
+
+    public ProxyConnectionPoolSettings(int maxConnections,
+                                       int maxConnectionsPerRoute,
+                                       int connectTimeoutMillis,
+                                       int socketTimeoutMillis,
+                                       long keepAliveMillis,
+                                       long maxIdleMillis,
+                                       int validateAfterInactivityMillis) {
+        this(
+            maxConnections,
+            maxConnectionsPerRoute,
+            connectTimeoutMillis,
+            socketTimeoutMillis,
+            keepAliveMillis,
+            maxIdleMillis,
+            validateAfterInactivityMillis,
+            false
+        );
+    }
+
+    public ProxyConnectionPoolSettings(int maxConnections,
+                                       int maxConnectionsPerRoute,
+                                       int connectTimeoutMillis,
+                                       int socketTimeoutMillis,
+                                       long keepAliveMillis,
+                                       long maxIdleMillis,
+                                       int validateAfterInactivityMillis,
+                                       boolean http2) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.socketTimeoutMillis = socketTimeoutMillis;
+        this.keepAliveMillis = keepAliveMillis;
+        this.maxIdleMillis = maxIdleMillis;
+        this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+        this.http2 = http2;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * @return the connect timeout, or -1 to use the system default
+     */
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getSocketTimeoutMillis() {
+        return socketTimeoutMillis;
+    }
+
+    /**
+     * @return the longest time a connection is kept open for reuse, capped by the upstream's own Keep-Alive
+     * header, or 0 if connections are closed after each request
+     */
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public boolean isConnectionReuseEnabled() {
+        return keepAliveMillis > 0;
+    }
+
+    /**
+     * @return how long a pooled connection may sit idle before a background thread closes it, or 0 to never close idle connections
+     */
+    public long getMaxIdleMillis() {
+        return maxIdleMillis;
+    }
+
+    public int getValidateAfterInactivityMillis() {
+        return validateAfterInactivityMillis;
+    }
+
+    /**
+     * @return whether reverse proxy requests use HTTP/2, negotiated via ALPN for https upstreams
+     * and with prior knowledge (h2c) for plain http ones
+     */
+    public boolean isHttp2Enabled() {
+        return http2;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+/**
+ * Whether proxied response bodies are piped straight from the upstream connection to the client,
+ * and how many bytes of each are kept for the request journal and recording.
+ */
+public class ProxyStreamingSettings {
+
+    public static final int DEFAULT_MAX_CAPTURED_BODY_BYTES = 1024 * 1024;
+    public static final ProxyStreamingSettings DISABLED = new ProxyStreamingSettings(false, DEFAULT_MAX_CAPTURED_BODY_BYTES);
+
+    private final boolean enabled;
+    private final int maxCapturedBodyBytes;
+
+    public ProxyStreamingSettings(boolean enabled, int maxCapturedBodyBytes) {
+        this.enabled = enabled;
+        this.maxCapturedBodyBytes = maxCapturedBodyBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxCapturedBodyBytes() {
+        return maxCapturedBodyBytes;
+    }
+}
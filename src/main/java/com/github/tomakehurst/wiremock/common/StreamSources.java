@@ -33,10 +33,25 @@ public class StreamSources {
     }
 
     public static InputStreamSource forBytes(final byte[] bytes) {
-        return new InputStreamSource() {
+        return new ByteArraySource(bytes);
+    }
+
+    public static StreamingBodySource forJson(final Object object) {
+        return new StreamingBodySource() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                Json.write(object, out);
+            }
+
             @Override
             public InputStream getStream() {
-                return bytes == null ? null : new ByteArrayInputStream(bytes);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try {
+                    writeTo(out);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                return new ByteArrayInputStream(out.toByteArray());
             }
         };
     }
@@ -25,9 +25,13 @@ public class TextFile extends BinaryFile {
 	public TextFile(URI uri) {
         super(uri);
 	}
+
+	public TextFile(URI uri, FileContentsCache contentsCache) {
+		super(uri, contentsCache);
+	}
 	
 	public String readContentsAsString() {
-        return new String(super.readContents(), UTF_8);
+        return new String(readContents(), UTF_8);
 	}
 
     public String getPath() {
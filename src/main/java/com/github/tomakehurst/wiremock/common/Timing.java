@@ -15,8 +15,11 @@
  */
 package com.github.tomakehurst.wiremock.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
 
 public class Timing {
 
@@ -25,20 +28,23 @@ public class Timing {
     private final int addedDelay;
     private final int processTime;
     private final int responseSendTime;
+    private final PhaseTimings phases;
 
     public Timing(int addedDelay, int processTime) {
-        this(addedDelay, processTime, -1, -1, -1);
+        this(addedDelay, processTime, -1, -1, -1, null);
     }
 
     private Timing(@JsonProperty("addedDelay") int addedDelay,
                    @JsonProperty("processTime") int processTime,
                    @JsonProperty("responseSendTime") int responseSendTime,
                    @JsonProperty("serveTime") int ignored1,
-                   @JsonProperty("totalTime") int ignored2
+                   @JsonProperty("totalTime") int ignored2,
+                   @JsonProperty("phases") PhaseTimings phases
                    ) {
         this.addedDelay = addedDelay;
         this.processTime = processTime;
         this.responseSendTime = responseSendTime;
+        this.phases = phases;
     }
 
     /**
@@ -76,7 +82,19 @@ public class Timing {
         return getServeTime() + addedDelay;
     }
 
+    /**
+     * A breakdown of the processing time by phase, in nanoseconds
+     */
+    @JsonInclude(NON_NULL)
+    public PhaseTimings getPhases() {
+        return phases;
+    }
+
     public Timing withResponseSendTime(int responseSendTimeMillis) {
-        return new Timing(addedDelay, processTime, responseSendTimeMillis, -1, -1);
+        return new Timing(addedDelay, processTime, responseSendTimeMillis, -1, -1, phases);
+    }
+
+    public Timing withPhases(PhaseTimings phases) {
+        return new Timing(addedDelay, processTime, responseSendTime, -1, -1, phases);
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common.xml;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xmlunit.util.Convert;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static javax.xml.xpath.XPathConstants.NODESET;
+
+/**
+ * An XPath expression and its namespace bindings, compiled once and reused across evaluations.
+ * Compiled expressions aren't thread safe, so each evaluation borrows one from a pool that grows
+ * to the number of threads evaluating the expression concurrently.
+ */
+public class CompiledXPath {
+
+    private final String expression;
+    private final NamespaceContext namespaceContext;
+    private final XPathExpressionException compilationFailure;
+    private final Queue<XPathExpression> idle = new ConcurrentLinkedQueue<>();
+
+    private CompiledXPath(String expression, Map<String, String> namespaces) {
+        this.expression = expression;
+        this.namespaceContext = namespaces != null ?
+                Convert.toNamespaceContext(addStandardNamespaces(namespaces)) :
+                null;
+
+        XPathExpressionException failure = null;
+        try {
+            idle.offer(newExpression());
+        } catch (XPathExpressionException e) {
+            failure = e;
+        }
+        compilationFailure = failure;
+    }
+
+    public static CompiledXPath compile(String expression) {
+        return compile(expression, null);
+    }
+
+    public static CompiledXPath compile(String expression, Map<String, String> namespaces) {
+        return new CompiledXPath(expression, namespaces);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public boolean isValid() {
+        return compilationFailure == null;
+    }
+
+    boolean isNamespaceAware() {
+        return namespaceContext != null;
+    }
+
+    NodeList evaluate(Node node) {
+        if (compilationFailure != null) {
+            throw XPathException.fromXPathException(compilationFailure);
+        }
+
+        try {
+            XPathExpression xPathExpression = idle.poll();
+            if (xPathExpression == null) {
+                xPathExpression = newExpression();
+            }
+
+            NodeList nodeList = (NodeList) xPathExpression.evaluate(node, NODESET);
+            idle.offer(xPathExpression);
+            return nodeList;
+        } catch (XPathExpressionException e) {
+            throw XPathException.fromXPathException(e);
+        }
+    }
+
+    private XPathExpression newExpression() throws XPathExpressionException {
+        final XPath xPath = XmlNode.XPATH_CACHE.get();
+        xPath.reset();
+        if (namespaceContext != null) {
+            xPath.setNamespaceContext(namespaceContext);
+        }
+
+        return xPath.compile(expression);
+    }
+
+    private static Map<String, String> addStandardNamespaces(Map<String, String> namespaces) {
+        Map<String, String> result = new HashMap<String, String>();
+        for (String prefix: namespaces.keySet()) {
+            String uri = namespaces.get(prefix);
+            // according to the Javadocs only the constants defined in
+            // XMLConstants are allowed as prefixes for the following
+            // two URIs
+            if (!XMLConstants.XML_NS_URI.equals(uri)
+                    && !XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(uri)) {
+                result.put(prefix, uri);
+            }
+        }
+        result.put(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI);
+        result.put(XMLConstants.XMLNS_ATTRIBUTE,
+                XMLConstants.XMLNS_ATTRIBUTE_NS_URI);
+
+        return result;
+    }
+}
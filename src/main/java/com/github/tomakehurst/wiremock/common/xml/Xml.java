@@ -28,6 +28,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
@@ -45,6 +46,41 @@ import static javax.xml.transform.OutputKeys.OMIT_XML_DECLARATION;
 
 public class Xml {
 
+    private static final EntityResolver RESOLVE_TO_EMPTY_STRING = new ResolveToEmptyString();
+
+    private static final ThreadLocal<Transformer> RENDER_TRANSFORMER = new ThreadLocal<Transformer>() {
+        @Override
+        protected Transformer initialValue() {
+            try {
+                Transformer transformer = TransformerFactory.newInstance().newTransformer();
+                transformer.setOutputProperty(OMIT_XML_DECLARATION, "yes");
+                transformer.setOutputProperty(INDENT, "yes");
+                return transformer;
+            } catch (TransformerConfigurationException e) {
+                return throwUnchecked(e, Transformer.class);
+            }
+        }
+    };
+
+    private static final ThreadLocal<DocumentBuilder> NAMESPACE_AWARE_DB_CACHE = new ThreadLocal<DocumentBuilder>() {
+        @Override
+        protected DocumentBuilder initialValue() {
+            try {
+                DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+                dbf.setNamespaceAware(true);
+                dbf.setFeature("http://xml.org/sax/features/validation", false);
+                dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
+                dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+                DocumentBuilder documentBuilder = dbf.newDocumentBuilder();
+                documentBuilder.setEntityResolver(RESOLVE_TO_EMPTY_STRING);
+                documentBuilder.setErrorHandler(new SilentErrorHandler());
+                return documentBuilder;
+            } catch (ParserConfigurationException e) {
+                return throwUnchecked(e, DocumentBuilder.class);
+            }
+        }
+    };
+
     private Xml() {
         // Hide constructor
     }
@@ -84,30 +120,18 @@ public class Xml {
     }
 
     public static String prettyPrint(Document doc) {
+        Transformer transformer = XmlNode.TRANSFORMER_CACHE.get();
         try {
-            TransformerFactory transformerFactory = createTransformerFactory();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty(INDENT, "yes");
-            transformer.setOutputProperty(OMIT_XML_DECLARATION, "yes");
             StreamResult result = new StreamResult(new StringWriter());
             DOMSource source = new DOMSource(doc);
             transformer.transform(source, result);
             return result.getWriter().toString();
         } catch (Exception e) {
+            XmlNode.TRANSFORMER_CACHE.remove();
             return throwUnchecked(e, String.class);
         }
     }
 
-    private static TransformerFactory createTransformerFactory() {
-        try {
-            TransformerFactory transformerFactory = (TransformerFactory) Class.forName("com.sun.org.apache.xalan.internal.xsltc.trax.TransformerFactoryImpl").newInstance();
-            transformerFactory.setAttribute("indent-number", 2);
-            return transformerFactory;
-        } catch (Exception e) {
-            return TransformerFactory.newInstance();
-        }
-    }
-
     public static Document read(String xml) {
         try {
             DocumentBuilderFactory dbf = newDocumentBuilderFactory();
@@ -136,12 +160,10 @@ public class Xml {
     private static String render(Node node) {
         try {
             StringWriter sw = new StringWriter();
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            transformer.setOutputProperty(OMIT_XML_DECLARATION, "yes");
-            transformer.setOutputProperty(INDENT, "yes");
-            transformer.transform(new DOMSource(node), new StreamResult(sw));
+            RENDER_TRANSFORMER.get().transform(new DOMSource(node), new StreamResult(sw));
             return sw.toString();
         } catch (TransformerException e) {
+            RENDER_TRANSFORMER.remove();
             return throwUnchecked(e, String.class);
         }
     }
@@ -149,7 +171,7 @@ public class Xml {
     public static XmlDocument parse(String xml) {
         try {
             InputSource source = new InputSource(new StringReader(xml));
-            return new XmlDocument(getDocumentBuilder().parse(source));
+            return new XmlDocument(getDocumentBuilder().parse(source), xml);
         } catch (SAXException | IOException e) {
             throw new XmlException(Errors.single(50, e.getMessage()));
         }
@@ -163,6 +185,10 @@ public class Xml {
         }
     }
 
+    static DocumentBuilder getNamespaceAwareDocumentBuilder() {
+        return NAMESPACE_AWARE_DB_CACHE.get();
+    }
+
     public static DocumentBuilderFactory newDocumentBuilderFactory() {
         return new SkipResolvingEntitiesDocumentBuilderFactory();
     }
@@ -198,7 +224,7 @@ public class Xml {
             @Override
             public DocumentBuilder get() {
                 DocumentBuilder documentBuilder = super.get();
-                documentBuilder.setEntityResolver(new ResolveToEmptyString());
+                documentBuilder.setEntityResolver(RESOLVE_TO_EMPTY_STRING);
                 documentBuilder.setErrorHandler(null);
                 return documentBuilder;
             }
@@ -209,13 +235,6 @@ public class Xml {
             return DB_CACHE.get();
         }
 
-        private static class ResolveToEmptyString implements EntityResolver {
-            @Override
-            public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
-                return new InputSource(new StringReader(""));
-            }
-        }
-
         @Override
         public void setAttribute(String name, Object value) {
             DBF_CACHE.get().setAttribute(name, value);
@@ -236,4 +255,11 @@ public class Xml {
             return DBF_CACHE.get().getFeature(name);
         }
     }
+
+    private static class ResolveToEmptyString implements EntityResolver {
+        @Override
+        public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
+            return new InputSource(new StringReader(""));
+        }
+    }
 }
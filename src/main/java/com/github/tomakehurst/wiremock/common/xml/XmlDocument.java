@@ -15,36 +15,33 @@
  */
 package com.github.tomakehurst.wiremock.common.xml;
 
+import com.github.tomakehurst.wiremock.common.Errors;
 import com.github.tomakehurst.wiremock.common.ListOrSingle;
-import org.custommonkey.xmlunit.SimpleNamespaceContext;
-import org.custommonkey.xmlunit.jaxp13.XMLUnitNamespaceContext2Jaxp13;
 import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 import org.xmlunit.util.Convert;
 
-import javax.xml.XMLConstants;
-import javax.xml.namespace.NamespaceContext;
-import javax.xml.transform.Transformer;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpressionException;
-
-import java.io.StringWriter;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Map;
 
-import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
-import static javax.xml.xpath.XPathConstants.NODESET;
-
 public class XmlDocument extends XmlNode {
 
     private final Document document;
+    private final String source;
+    private volatile Document namespaceAwareDocument;
 
     public XmlDocument(Document document) {
+        this(document, null);
+    }
+
+    XmlDocument(Document document, String source) {
         super(document);
         this.document = document;
+        this.source = source;
     }
 
     public ListOrSingle<XmlNode> findNodes(String xPathExpression) {
@@ -52,43 +49,30 @@ public class XmlDocument extends XmlNode {
     }
 
     public ListOrSingle<XmlNode> findNodes(String xPathExpression, Map<String, String> namespaces) {
-        try {
-            final XPath xPath = XPATH_CACHE.get();
-            xPath.reset();
-
-            NodeList nodeSet;
-            if (namespaces != null) {
-                Map<String, String> fullNamespaces = addStandardNamespaces(namespaces);
-                NamespaceContext namespaceContext = Convert.toNamespaceContext(fullNamespaces);
-                xPath.setNamespaceContext(namespaceContext);
-                nodeSet = (NodeList) xPath.evaluate(xPathExpression, Convert.toInputSource(new DOMSource(document)), NODESET);
-            } else {
-                nodeSet = (NodeList) xPath.evaluate(xPathExpression, document, NODESET);
-            }
+        return findNodes(CompiledXPath.compile(xPathExpression, namespaces));
+    }
 
-            return toListOrSingle(nodeSet);
-        } catch (XPathExpressionException e) {
-            throw XPathException.fromXPathException(e);
-        }
+    public ListOrSingle<XmlNode> findNodes(CompiledXPath xPath) {
+        Node target = xPath.isNamespaceAware() ? getNamespaceAwareDocument() : document;
+        return toListOrSingle(xPath.evaluate(target));
     }
 
-    private static Map<String, String> addStandardNamespaces(Map<String, String> namespaces) {
-        Map<String, String> result = new HashMap<String, String>();
-        for (String prefix: namespaces.keySet()) {
-            String uri = namespaces.get(prefix);
-            // according to the Javadocs only the constants defined in
-            // XMLConstants are allowed as prefixes for the following
-            // two URIs
-            if (!XMLConstants.XML_NS_URI.equals(uri)
-                    && !XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(uri)) {
-                result.put(prefix, uri);
+    // Documents are parsed without namespace awareness, so expressions with namespace bindings are evaluated
+    // against a namespace aware copy, parsed once from the original text where we have it.
+    private Document getNamespaceAwareDocument() {
+        Document result = namespaceAwareDocument;
+        if (result == null) {
+            try {
+                InputSource inputSource = source != null ?
+                        new InputSource(new StringReader(source)) :
+                        Convert.toInputSource(new DOMSource(document));
+                result = Xml.getNamespaceAwareDocumentBuilder().parse(inputSource);
+                namespaceAwareDocument = result;
+            } catch (SAXException | IOException e) {
+                throw new XPathException(e, Errors.single(51, e.getMessage()));
             }
         }
-        result.put(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI);
-        result.put(XMLConstants.XMLNS_ATTRIBUTE,
-                XMLConstants.XMLNS_ATTRIBUTE_NS_URI);
 
         return result;
     }
-
 }
@@ -43,7 +43,7 @@ import static javax.xml.transform.OutputKeys.OMIT_XML_DECLARATION;
 
 public class XmlNode {
 
-    protected static final InheritableThreadLocal<XPath> XPATH_CACHE = new InheritableThreadLocal<XPath>() {
+    protected static final ThreadLocal<XPath> XPATH_CACHE = new ThreadLocal<XPath>() {
         @Override
         protected XPath initialValue() {
             final XPathFactory xPathfactory = XPathFactory.newInstance();
@@ -51,7 +51,7 @@ public class XmlNode {
         }
     };
 
-    protected static final InheritableThreadLocal<Transformer> TRANSFORMER_CACHE = new InheritableThreadLocal<Transformer>() {
+    protected static final ThreadLocal<Transformer> TRANSFORMER_CACHE = new ThreadLocal<Transformer>() {
         @Override
         protected Transformer initialValue() {
             TransformerFactory transformerFactory;
@@ -145,6 +145,7 @@ public class XmlNode {
             transformer.transform(source, result);
             return result.getWriter().toString();
         } catch (Exception e) {
+            TRANSFORMER_CACHE.remove();
             return throwUnchecked(e, String.class);
         }
     }
@@ -47,6 +47,7 @@ public interface Admin {
     void resetToDefaultMappings();
 
     GetServeEventsResult getServeEvents();
+    GetServeEventsResult getServeEvents(ServeEventQuery query);
     SingleServedStubResult getServedStub(UUID id);
     VerificationResult countRequestsMatching(RequestPattern requestPattern);
     FindRequestsResult findRequestsMatching(RequestPattern requestPattern);
@@ -57,11 +58,20 @@ public interface Admin {
     FindServeEventsResult removeServeEventsForStubsMatchingMetadata(StringValuePattern pattern);
 
     FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest);
+    FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest, NearMissBudget budget);
     FindNearMissesResult findTopNearMissesFor(RequestPattern requestPattern);
     FindNearMissesResult findNearMissesForUnmatchedRequests();
 
     GetScenariosResult getAllScenarios();
 
+    GetProxyConnectionPoolsResult getProxyConnectionPools();
+    GetProxyResponseCacheResult getProxyResponseCache();
+    void resetProxyResponseCache();
+
+    GetDelayedResponsesResult getDelayedResponses();
+
+    GetStubMetricsResult getStubMetrics();
+
     void updateGlobalSettings(GlobalSettings settings);
 
     SnapshotRecordResult snapshotRecord();
@@ -22,9 +22,12 @@ import com.github.tomakehurst.wiremock.common.HttpsSettings;
 import com.github.tomakehurst.wiremock.common.JettySettings;
 import com.github.tomakehurst.wiremock.common.Notifier;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import com.github.tomakehurst.wiremock.common.ProxyStreamingSettings;
 import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.ResponseBodyCapture;
 import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
 import com.github.tomakehurst.wiremock.http.trafficlistener.WiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.security.Authenticator;
@@ -74,6 +77,11 @@ public interface Options {
     Authenticator getAdminAuthenticator();
     boolean getHttpsRequiredForAdminApi();
     NotMatchedRenderer getNotMatchedRenderer();
+    ResponseBodyCapture getJournalResponseBodyCapture();
+    long getBodyFileCacheMaxBytes();
+    ProxyStreamingSettings getProxyStreamingSettings();
+    ProxyConnectionPoolSettings getProxyConnectionPoolSettings();
+    long getProxyResponseCacheMaxBytes();
     AsynchronousResponseSettings getAsynchronousResponseSettings();
     ChunkedEncodingPolicy getChunkedEncodingPolicy();
     boolean getGzipDisabled();
@@ -17,9 +17,15 @@ package com.github.tomakehurst.wiremock.core;
 
 import com.github.tomakehurst.wiremock.admin.AdminRoutes;
 import com.github.tomakehurst.wiremock.admin.LimitAndOffsetPaginator;
+import com.github.tomakehurst.wiremock.admin.LimitAndSinceDatePaginator;
 import com.github.tomakehurst.wiremock.admin.model.*;
 import com.github.tomakehurst.wiremock.common.BrowserProxySettings;
+import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.common.CachingFileSource;
 import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
+import com.github.tomakehurst.wiremock.common.InvalidInputException;
+import com.github.tomakehurst.wiremock.common.PhaseTimings;
 import com.github.tomakehurst.wiremock.common.xml.Xml;
 import com.github.tomakehurst.wiremock.extension.*;
 import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilter;
@@ -33,11 +39,13 @@ import com.github.tomakehurst.wiremock.recording.*;
 import com.github.tomakehurst.wiremock.standalone.MappingsLoader;
 import com.github.tomakehurst.wiremock.stubbing.*;
 import com.github.tomakehurst.wiremock.verification.*;
+import com.github.tomakehurst.wiremock.verification.notmatched.NotMatchedRenderer;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
 
 import java.util.Collections;
 import java.util.List;
@@ -68,8 +76,13 @@ public class WireMockApp implements StubServer, Admin {
     private final NearMissCalculator nearMissCalculator;
     private final Recorder recorder;
     private final List<GlobalSettingsListener> globalSettingsListeners;
+    private final FileSource fileSource;
+    private final StubServingMetrics servingMetrics = new StubServingMetrics();
 
     private Options options;
+    private volatile ProxyResponseRenderer proxyResponseRenderer;
+    private volatile HashedWheelTimer delayedResponseTimer;
+    private volatile NotMatchedRenderer notMatchedRenderer;
 
     static {
         Xml.optimizeFactoriesLoading();
@@ -78,13 +91,15 @@ public class WireMockApp implements StubServer, Admin {
     public WireMockApp(Options options, Container container) {
         this.options = options;
 
-        FileSource fileSource = options.filesRoot();
+        fileSource = options.getBodyFileCacheMaxBytes() > 0 ?
+            new CachingFileSource(options.filesRoot(), options.getBodyFileCacheMaxBytes()) :
+            options.filesRoot();
 
         this.browserProxyingEnabled = options.browserProxySettings().enabled();
         this.defaultMappingsLoader = options.mappingsLoader();
         this.mappingsSaver = options.mappingsSaver();
         globalSettingsHolder = new GlobalSettingsHolder();
-        requestJournal = options.requestJournalDisabled() ? new DisabledRequestJournal() : new InMemoryRequestJournal(options.maxRequestJournalEntries());
+        requestJournal = createRequestJournal(options.requestJournalDisabled(), options.maxRequestJournalEntries());
         Map<String, RequestMatcherExtension> customMatchers = options.extensionsOfType(RequestMatcherExtension.class);
 
         scenarios = new Scenarios();
@@ -118,8 +133,9 @@ public class WireMockApp implements StubServer, Admin {
         this.defaultMappingsLoader = defaultMappingsLoader;
         this.mappingsSaver = mappingsSaver;
         globalSettingsHolder = new GlobalSettingsHolder();
-        requestJournal = requestJournalDisabled ? new DisabledRequestJournal() : new InMemoryRequestJournal(maxRequestJournalEntries);
+        requestJournal = createRequestJournal(requestJournalDisabled, maxRequestJournalEntries);
         scenarios = new Scenarios();
+        fileSource = rootFileSource;
         stubMappings = new InMemoryStubMappings(scenarios, requestMatchers, transformers, rootFileSource, Collections.<StubLifecycleListener>emptyList());
         this.container = container;
         nearMissCalculator = new NearMissCalculator(stubMappings, requestJournal, scenarios);
@@ -129,9 +145,11 @@ public class WireMockApp implements StubServer, Admin {
     }
 
     public AdminRequestHandler buildAdminRequestHandler() {
+        // Kept so that its suppressed diagnostics count can be reported with the metrics
+        notMatchedRenderer = options.getNotMatchedRenderer();
         AdminRoutes adminRoutes = AdminRoutes.defaultsPlus(
             options.extensionsOfType(AdminApiExtension.class).values(),
-            options.getNotMatchedRenderer()
+            notMatchedRenderer
         );
         return new AdminRequestHandler(
             adminRoutes,
@@ -146,27 +164,41 @@ public class WireMockApp implements StubServer, Admin {
     public StubRequestHandler buildStubRequestHandler() {
         Map<String, PostServeAction> postServeActions = options.extensionsOfType(PostServeAction.class);
         BrowserProxySettings browserProxySettings = options.browserProxySettings();
+        proxyResponseRenderer = new ProxyResponseRenderer(
+            options.proxyVia(),
+            options.httpsSettings().trustStore(),
+            options.shouldPreserveHostHeader(),
+            options.proxyHostHeader(),
+            globalSettingsHolder,
+            browserProxySettings.trustAllProxyTargets(),
+            browserProxySettings.trustedProxyTargets(),
+            options.getProxyStreamingSettings(),
+            options.getProxyConnectionPoolSettings(),
+            new ProxyResponseCache(
+                options.getProxyResponseCacheMaxBytes(),
+                options.getProxyConnectionPoolSettings().getSocketTimeoutMillis()
+            )
+        );
+        delayedResponseTimer = new HashedWheelTimer(
+            "wiremock-delayed-response-timer",
+            MoreExecutors.directExecutor()
+        );
         return new StubRequestHandler(
             this,
             new StubResponseRenderer(
-                options.filesRoot().child(FILES_ROOT),
+                fileSource.child(FILES_ROOT),
                 getGlobalSettingsHolder(),
-                new ProxyResponseRenderer(
-                    options.proxyVia(),
-                    options.httpsSettings().trustStore(),
-                    options.shouldPreserveHostHeader(),
-                    options.proxyHostHeader(),
-                    globalSettingsHolder,
-                    browserProxySettings.trustAllProxyTargets(),
-                    browserProxySettings.trustedProxyTargets()
-                ),
+                proxyResponseRenderer,
                 ImmutableList.copyOf(options.extensionsOfType(ResponseTransformer.class).values())
             ),
             this,
             postServeActions,
             requestJournal,
             getStubRequestFilters(),
-            options.getStubRequestLoggingDisabled()
+            options.getStubRequestLoggingDisabled(),
+            options.getJournalResponseBodyCapture(),
+            delayedResponseTimer,
+            servingMetrics
         );
     }
 
@@ -196,6 +228,16 @@ public class WireMockApp implements StubServer, Admin {
         return globalSettingsHolder;
     }
 
+    private static RequestJournal createRequestJournal(boolean requestJournalDisabled, Optional<Integer> maxRequestJournalEntries) {
+        if (requestJournalDisabled) {
+            return new DisabledRequestJournal();
+        }
+
+        return maxRequestJournalEntries.isPresent() ?
+            new BoundedInMemoryRequestJournal(maxRequestJournalEntries.get()) :
+            new InMemoryRequestJournal(maxRequestJournalEntries);
+    }
+
     private void loadDefaultMappings() {
         loadMappingsUsing(defaultMappingsLoader);
     }
@@ -211,7 +253,9 @@ public class WireMockApp implements StubServer, Admin {
         if (serveEvent.isNoExactMatch()) {
             LoggedRequest loggedRequest = LoggedRequest.createFrom(request);
             if (request.isBrowserProxyRequest() && browserProxyingEnabled) {
-                return ServeEvent.of(loggedRequest, ResponseDefinition.browserProxy(request));
+                ServeEvent browserProxyEvent = ServeEvent.of(loggedRequest, ResponseDefinition.browserProxy(request));
+                browserProxyEvent.recordPhaseTime(PhaseTimings.Phase.MATCH, serveEvent.getPhaseTimings().getMatchNanos());
+                return browserProxyEvent;
             }
         }
 
@@ -241,11 +285,13 @@ public class WireMockApp implements StubServer, Admin {
         }
 
         stubMappings.removeMapping(stubMapping);
+        servingMetrics.remove(stubMapping.getId());
     }
 
     @Override
     public void editStubMapping(StubMapping stubMapping) {
         stubMappings.editMapping(stubMapping);
+        servingMetrics.remove(stubMapping.getId());
         if (stubMapping.shouldBePersisted()) {
             mappingsSaver.save(stubMapping);
         }
@@ -272,6 +318,7 @@ public class WireMockApp implements StubServer, Admin {
     @Override
     public void resetAll() {
         resetToDefaultMappings();
+        resetProxyResponseCache();
     }
 
     @Override
@@ -282,6 +329,7 @@ public class WireMockApp implements StubServer, Admin {
     @Override
     public void resetToDefaultMappings() {
         stubMappings.reset();
+        servingMetrics.reset();
         resetRequests();
         loadDefaultMappings();
     }
@@ -295,6 +343,7 @@ public class WireMockApp implements StubServer, Admin {
     public void resetMappings() {
         mappingsSaver.removeAll();
         stubMappings.reset();
+        servingMetrics.reset();
     }
 
     @Override
@@ -310,6 +359,29 @@ public class WireMockApp implements StubServer, Admin {
         }
     }
 
+    @Override
+    public GetServeEventsResult getServeEvents(ServeEventQuery query) {
+        try {
+            UUID after = query.getAfter();
+            if (after != null && !requestJournal.getServeEvent(after).isPresent()) {
+                throw new InvalidInputException(Errors.validation("/after", "No serve event with ID " + after + " is in the request journal"));
+            }
+
+            return GetServeEventsResult.requestJournalEnabled(
+                new LimitAndSinceDatePaginator(
+                    requestJournal.getServeEventsAfter(after),
+                    requestJournal.getServeEventCount(),
+                    query.getLimit(),
+                    query.getSince()
+                )
+            );
+        } catch (RequestJournalDisabledException e) {
+            return GetServeEventsResult.requestJournalDisabled(
+                LimitAndOffsetPaginator.none(Collections.<ServeEvent>emptyList())
+            );
+        }
+    }
+
     @Override
     public SingleServedStubResult getServedStub(UUID id) {
         return SingleServedStubResult.fromOptional(requestJournal.getServeEvent(id));
@@ -389,11 +461,58 @@ public class WireMockApp implements StubServer, Admin {
         );
     }
 
+    @Override
+    public GetProxyConnectionPoolsResult getProxyConnectionPools() {
+        ProxyResponseRenderer renderer = proxyResponseRenderer;
+        if (renderer == null) {
+            return new GetProxyConnectionPoolsResult(ConnectionPoolStats.EMPTY, ConnectionPoolStats.EMPTY);
+        }
+
+        return new GetProxyConnectionPoolsResult(
+            renderer.getReverseProxyConnectionPoolStats(),
+            renderer.getBrowserProxyConnectionPoolStats(),
+            renderer.getReverseProxyHttp2ConnectionStats()
+        );
+    }
+
+    @Override
+    public GetDelayedResponsesResult getDelayedResponses() {
+        HashedWheelTimer timer = delayedResponseTimer;
+        return timer != null ? GetDelayedResponsesResult.from(timer) : GetDelayedResponsesResult.NONE;
+    }
+
+    @Override
+    public GetStubMetricsResult getStubMetrics() {
+        NotMatchedRenderer renderer = notMatchedRenderer;
+        return servingMetrics.snapshot(renderer != null ? renderer.getSuppressedDiagnosticsCount() : 0);
+    }
+
+    @Override
+    public GetProxyResponseCacheResult getProxyResponseCache() {
+        ProxyResponseRenderer renderer = proxyResponseRenderer;
+        return renderer != null ?
+            GetProxyResponseCacheResult.from(renderer.getResponseCache()) :
+            new GetProxyResponseCacheResult(0, 0, 0, 0, 0, 0, options.getProxyResponseCacheMaxBytes());
+    }
+
+    @Override
+    public void resetProxyResponseCache() {
+        ProxyResponseRenderer renderer = proxyResponseRenderer;
+        if (renderer != null) {
+            renderer.getResponseCache().clear();
+        }
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
         return new FindNearMissesResult(nearMissCalculator.findNearestTo(loggedRequest));
     }
 
+    @Override
+    public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest, NearMissBudget budget) {
+        return new FindNearMissesResult(nearMissCalculator.findNearestTo(loggedRequest, budget));
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(RequestPattern requestPattern) {
         return new FindNearMissesResult(nearMissCalculator.findNearestTo(requestPattern));
@@ -428,6 +547,34 @@ public class WireMockApp implements StubServer, Admin {
         return options;
     }
 
+    /**
+     * Starts the resources released by {@link #stop()} again, so that a stopped server can be restarted.
+     */
+    public void start() {
+        if (delayedResponseTimer != null) {
+            delayedResponseTimer.start();
+        }
+
+        ProxyResponseRenderer renderer = proxyResponseRenderer;
+        if (renderer != null) {
+            renderer.start();
+        }
+    }
+
+    /**
+     * Releases the threads and connections held between requests once the server has stopped.
+     */
+    public void stop() {
+        if (delayedResponseTimer != null) {
+            delayedResponseTimer.stop();
+        }
+
+        ProxyResponseRenderer renderer = proxyResponseRenderer;
+        if (renderer != null) {
+            renderer.stop();
+        }
+    }
+
     @Override
     public void shutdownServer() {
         container.shutdown();
@@ -448,24 +595,33 @@ public class WireMockApp implements StubServer, Admin {
 
     @Override
     public void startRecording(String targetBaseUrl) {
-        recorder.startRecording(RecordSpec.forBaseUrl(targetBaseUrl));
+        startRecording(RecordSpec.forBaseUrl(targetBaseUrl));
     }
 
     @Override
     public void startRecording(RecordSpec recordSpec) {
         recorder.startRecording(recordSpec);
+        suspendProxyStreaming(true);
     }
 
     @Override
     public void startRecording(RecordSpecBuilder recordSpec) {
-        recorder.startRecording(recordSpec.build());
+        startRecording(recordSpec.build());
     }
 
     @Override
     public SnapshotRecordResult stopRecording() {
+        suspendProxyStreaming(false);
         return recorder.stopRecording();
     }
 
+    private void suspendProxyStreaming(boolean suspended) {
+        ProxyResponseRenderer renderer = proxyResponseRenderer;
+        if (renderer != null) {
+            renderer.setStreamingSuspended(suspended);
+        }
+    }
+
     @Override
     public RecordingStatusResult getRecordingStatus() {
         return new RecordingStatusResult(recorder.getStatus().name());
@@ -22,6 +22,8 @@ import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.extension.ExtensionLoader;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.ProxyResponseCache;
+import com.github.tomakehurst.wiremock.http.ResponseBodyCapture;
 import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
 import com.github.tomakehurst.wiremock.http.trafficlistener.DoNothingWiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.WiremockNetworkTrafficListener;
@@ -104,6 +106,19 @@ public class WireMockConfiguration implements Options {
     private boolean requireHttpsForAdminApi = false;
 
     private NotMatchedRenderer notMatchedRenderer = new PlainTextStubNotMatchedRenderer();
+    private ResponseBodyCapture journalResponseBodyCapture = ResponseBodyCapture.FULL;
+    private long bodyFileCacheMaxBytes;
+    private boolean proxyStreamingEnabled;
+    private int proxyStreamingCaptureMaxBytes = ProxyStreamingSettings.DEFAULT_MAX_CAPTURED_BODY_BYTES;
+    private int proxyMaxConnections = ProxyConnectionPoolSettings.DEFAULTS.getMaxConnections();
+    private int proxyMaxConnectionsPerRoute = ProxyConnectionPoolSettings.DEFAULTS.getMaxConnectionsPerRoute();
+    private int proxyConnectTimeout = ProxyConnectionPoolSettings.DEFAULTS.getConnectTimeoutMillis();
+    private int proxyTimeout = ProxyConnectionPoolSettings.DEFAULTS.getSocketTimeoutMillis();
+    private long proxyKeepAlive = ProxyConnectionPoolSettings.DEFAULTS.getKeepAliveMillis();
+    private long proxyMaxIdle = ProxyConnectionPoolSettings.DEFAULTS.getMaxIdleMillis();
+    private int proxyValidateAfterInactivity = ProxyConnectionPoolSettings.DEFAULTS.getValidateAfterInactivityMillis();
+    private boolean proxyHttp2Enabled;
+    private long proxyResponseCacheMaxBytes = ProxyResponseCache.DEFAULT_MAX_BYTES;
     private boolean asynchronousResponseEnabled;
     private int asynchronousResponseThreads;
     private ChunkedEncodingPolicy chunkedEncodingPolicy;
@@ -376,6 +391,71 @@ public class WireMockConfiguration implements Options {
         return this;
     }
 
+    public WireMockConfiguration journalResponseBodyCapture(ResponseBodyCapture journalResponseBodyCapture) {
+        this.journalResponseBodyCapture = journalResponseBodyCapture;
+        return this;
+    }
+
+    public WireMockConfiguration bodyFileCacheMaxBytes(long bodyFileCacheMaxBytes) {
+        this.bodyFileCacheMaxBytes = bodyFileCacheMaxBytes;
+        return this;
+    }
+
+    public WireMockConfiguration proxyStreamingEnabled(boolean proxyStreamingEnabled) {
+        this.proxyStreamingEnabled = proxyStreamingEnabled;
+        return this;
+    }
+
+    public WireMockConfiguration proxyStreamingCaptureMaxBytes(int proxyStreamingCaptureMaxBytes) {
+        this.proxyStreamingCaptureMaxBytes = proxyStreamingCaptureMaxBytes;
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxConnections(int proxyMaxConnections) {
+        this.proxyMaxConnections = proxyMaxConnections;
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxConnectionsPerRoute(int proxyMaxConnectionsPerRoute) {
+        this.proxyMaxConnectionsPerRoute = proxyMaxConnectionsPerRoute;
+        return this;
+    }
+
+    public WireMockConfiguration proxyConnectTimeout(int proxyConnectTimeoutMillis) {
+        this.proxyConnectTimeout = proxyConnectTimeoutMillis;
+        return this;
+    }
+
+    public WireMockConfiguration proxyTimeout(int proxyTimeoutMillis) {
+        this.proxyTimeout = proxyTimeoutMillis;
+        return this;
+    }
+
+    public WireMockConfiguration proxyKeepAlive(long proxyKeepAliveMillis) {
+        this.proxyKeepAlive = proxyKeepAliveMillis;
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxIdle(long proxyMaxIdleMillis) {
+        this.proxyMaxIdle = proxyMaxIdleMillis;
+        return this;
+    }
+
+    public WireMockConfiguration proxyValidateAfterInactivity(int proxyValidateAfterInactivityMillis) {
+        this.proxyValidateAfterInactivity = proxyValidateAfterInactivityMillis;
+        return this;
+    }
+
+    public WireMockConfiguration proxyHttp2Enabled(boolean proxyHttp2Enabled) {
+        this.proxyHttp2Enabled = proxyHttp2Enabled;
+        return this;
+    }
+
+    public WireMockConfiguration proxyResponseCacheMaxBytes(long proxyResponseCacheMaxBytes) {
+        this.proxyResponseCacheMaxBytes = proxyResponseCacheMaxBytes;
+        return this;
+    }
+
     public WireMockConfiguration asynchronousResponseEnabled(boolean asynchronousResponseEnabled) {
         this.asynchronousResponseEnabled = asynchronousResponseEnabled;
         return this;
@@ -557,6 +637,40 @@ public class WireMockConfiguration implements Options {
         return notMatchedRenderer;
     }
 
+    @Override
+    public ResponseBodyCapture getJournalResponseBodyCapture() {
+        return journalResponseBodyCapture;
+    }
+
+    @Override
+    public long getBodyFileCacheMaxBytes() {
+        return bodyFileCacheMaxBytes;
+    }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return new ProxyStreamingSettings(proxyStreamingEnabled, proxyStreamingCaptureMaxBytes);
+    }
+
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        return new ProxyConnectionPoolSettings(
+            proxyMaxConnections,
+            proxyMaxConnectionsPerRoute,
+            proxyConnectTimeout,
+            proxyTimeout,
+            proxyKeepAlive,
+            proxyMaxIdle,
+            proxyValidateAfterInactivity,
+            proxyHttp2Enabled
+        );
+    }
+
+    @Override
+    public long getProxyResponseCacheMaxBytes() {
+        return proxyResponseCacheMaxBytes;
+    }
+
     @Override
     public AsynchronousResponseSettings getAsynchronousResponseSettings() {
         return new AsynchronousResponseSettings(asynchronousResponseEnabled, asynchronousResponseThreads);
@@ -18,6 +18,8 @@ package com.github.tomakehurst.wiremock.extension.responsetemplating.helpers;
 import com.github.jknack.handlebars.Options;
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.RenderCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidJsonException;
@@ -38,6 +40,13 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 
 public class HandlebarsJsonPathHelper extends HandlebarsHelper<Object> {
 
+    private static final long MAX_COMPILED_PATHS = 1000;
+
+    // Shared by every instance, since each template using the helper tends to use the same few expressions
+    private static final Cache<String, JsonPath> compiledPaths = CacheBuilder.newBuilder()
+        .maximumSize(MAX_COMPILED_PATHS)
+        .build();
+
     private final Configuration config = Configuration
         .defaultConfiguration()
         .addOptions(Option.DEFAULT_PATH_LEAF_TO_NULL);
@@ -58,7 +67,7 @@ public class HandlebarsJsonPathHelper extends HandlebarsHelper<Object> {
 
         try {
             final DocumentContext jsonDocument = getJsonDocument(input, options);
-            final JsonPath jsonPath = JsonPath.compile(jsonPathString);
+            final JsonPath jsonPath = compile(jsonPathString);
             Object result = getValue(jsonPath, jsonDocument, options);
             return JsonData.create(result);
         } catch (InvalidJsonException e) {
@@ -70,6 +79,16 @@ public class HandlebarsJsonPathHelper extends HandlebarsHelper<Object> {
         }
     }
 
+    private static JsonPath compile(String jsonPathString) {
+        JsonPath jsonPath = compiledPaths.getIfPresent(jsonPathString);
+        if (jsonPath == null) {
+            jsonPath = JsonPath.compile(jsonPathString);
+            compiledPaths.put(jsonPathString, jsonPath);
+        }
+
+        return jsonPath;
+    }
+
     private Object getValue(JsonPath jsonPath, DocumentContext jsonDocument, Options options) {
         RenderCache renderCache = getRenderCache(options);
         RenderCache.Key cacheKey = RenderCache.Key.keyFor(Object.class, jsonPath, jsonDocument);
@@ -19,6 +19,8 @@ import com.github.jknack.handlebars.Options;
 import com.github.tomakehurst.wiremock.common.ListOrSingle;
 import com.github.tomakehurst.wiremock.common.xml.*;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.RenderCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import java.io.IOException;
 
@@ -28,6 +30,12 @@ import java.io.IOException;
  */
 public class HandlebarsXPathHelper extends HandlebarsHelper<String> {
 
+    private static final long MAX_COMPILED_EXPRESSIONS = 1000;
+
+    private static final Cache<String, CompiledXPath> compiledExpressions = CacheBuilder.newBuilder()
+        .maximumSize(MAX_COMPILED_EXPRESSIONS)
+        .build();
+
     @Override
     public Object apply(final String inputXml, final Options options) throws IOException {
         if (inputXml == null ) {
@@ -66,13 +74,25 @@ public class HandlebarsXPathHelper extends HandlebarsHelper<String> {
         ListOrSingle<XmlNode> nodes = renderCache.get(cacheKey);
 
         if (nodes == null) {
-            nodes = doc.findNodes(xPathExpression);
+            nodes = doc.findNodes(compile(xPathExpression));
             renderCache.put(cacheKey, nodes);
         }
 
         return nodes;
     }
 
+    private static CompiledXPath compile(String xPathExpression) {
+        CompiledXPath xPath = compiledExpressions.getIfPresent(xPathExpression);
+        if (xPath == null) {
+            xPath = CompiledXPath.compile(xPathExpression);
+            if (xPath.isValid()) {
+                compiledExpressions.put(xPathExpression, xPath);
+            }
+        }
+
+        return xPath;
+    }
+
     private XmlDocument getXmlDocument(String xml, Options options) {
         RenderCache renderCache = getRenderCache(options);
         RenderCache.Key cacheKey = RenderCache.Key.keyFor(XmlDocument.class, xml);
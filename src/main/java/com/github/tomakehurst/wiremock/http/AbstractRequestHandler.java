@@ -16,13 +16,17 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.extension.requestfilter.*;
+import com.github.tomakehurst.wiremock.matching.ParsedBodyCache;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubServingMetrics;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Stopwatch;
 
 import java.util.List;
 
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static com.github.tomakehurst.wiremock.common.PhaseTimings.Phase.FILTERS;
+import static com.github.tomakehurst.wiremock.common.PhaseTimings.Phase.JOURNAL_WRITE;
 import static com.github.tomakehurst.wiremock.extension.requestfilter.FilterProcessor.processFilters;
 import static com.google.common.collect.Lists.newArrayList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -48,26 +52,37 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
 
 	@Override
 	public void handle(Request request, HttpResponder httpResponder) {
-        Stopwatch stopwatch = Stopwatch.createStarted();
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+		final long startNanos = System.nanoTime();
 
 		ServeEvent serveEvent;
 		Request processedRequest = request;
-		if (!requestFilters.isEmpty()) {
-			RequestFilterAction requestFilterAction = processFilters(request, requestFilters, RequestFilterAction.continueWith(request));
-			if (requestFilterAction instanceof ContinueAction) {
-				processedRequest = ((ContinueAction) requestFilterAction).getRequest();
-				serveEvent = handleRequest(processedRequest);
+		long filtersNanos = 0;
+		try {
+			if (!requestFilters.isEmpty()) {
+				RequestFilterAction requestFilterAction = processFilters(request, requestFilters, RequestFilterAction.continueWith(request));
+				filtersNanos = System.nanoTime() - startNanos;
+				if (requestFilterAction instanceof ContinueAction) {
+					processedRequest = ((ContinueAction) requestFilterAction).getRequest();
+					serveEvent = handleRequest(processedRequest);
+				} else {
+					serveEvent = ServeEvent.of(LoggedRequest.createFrom(request), ((StopAction) requestFilterAction).getResponseDefinition());
+				}
 			} else {
-				serveEvent = ServeEvent.of(LoggedRequest.createFrom(request), ((StopAction) requestFilterAction).getResponseDefinition());
+				serveEvent = handleRequest(request);
 			}
-		} else {
-			serveEvent = handleRequest(request);
+		} finally {
+			// Don't leave a parsed body pinned to this thread if matching fails
+			ParsedBodyCache.clear();
 		}
+		final long matchedNanos = System.nanoTime();
+		serveEvent.recordPhaseTime(FILTERS, filtersNanos);
 
 		ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
 		responseDefinition.setOriginalRequest(processedRequest);
-		Response response = responseRenderer.render(serveEvent);
-		ServeEvent completedServeEvent = serveEvent.complete(response, (int) stopwatch.elapsed(MILLISECONDS));
+		final Response response = responseRenderer.render(serveEvent);
+		final long renderedNanos = System.nanoTime();
+		final ServeEvent completedServeEvent = serveEvent.complete(response, (int) stopwatch.elapsed(MILLISECONDS), responseBodyCapture());
 
 		if (logRequests()) {
 			notifier().info("Request received:\n" +
@@ -80,15 +95,33 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
 			listener.requestReceived(processedRequest, response);
 		}
 
+		long journalStartNanos = System.nanoTime();
         beforeResponseSent(completedServeEvent, response);
+		completedServeEvent.recordPhaseTime(JOURNAL_WRITE, System.nanoTime() - journalStartNanos);
 
 		stopwatch.reset();
 		stopwatch.start();
-		httpResponder.respond(processedRequest, response);
-
-        completedServeEvent.afterSend((int) stopwatch.elapsed(MILLISECONDS));
-        afterResponseSent(completedServeEvent, response);
-        stopwatch.stop();
+		final long sendStartNanos = System.nanoTime();
+		httpResponder.respond(processedRequest, response, new Runnable() {
+			@Override
+			public void run() {
+				long sentNanos = System.nanoTime();
+				completedServeEvent.afterSend((int) stopwatch.elapsed(MILLISECONDS));
+
+				StubServingMetrics servingMetrics = servingMetrics();
+				if (servingMetrics != null) {
+					servingMetrics.record(
+						completedServeEvent,
+						matchedNanos - startNanos,
+						renderedNanos - matchedNanos,
+						sentNanos - sendStartNanos,
+						sentNanos - startNanos
+					);
+				}
+
+				afterResponseSent(completedServeEvent, response);
+			}
+		});
 	}
 
 	protected String formatRequest(Request request) {
@@ -115,5 +148,9 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
 
 	protected boolean logRequests() { return false; }
 
+	protected ResponseBodyCapture responseBodyCapture() { return ResponseBodyCapture.FULL; }
+
+	protected StubServingMetrics servingMetrics() { return null; }
+
 	protected abstract ServeEvent handleRequest(Request request);
 }
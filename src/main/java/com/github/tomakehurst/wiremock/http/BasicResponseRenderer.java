@@ -24,10 +24,16 @@ public class BasicResponseRenderer implements ResponseRenderer {
     @Override
     public Response render(ServeEvent serveEvent) {
         ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
-        return response()
+        Response.Builder response = response()
             .status(responseDefinition.getStatus())
-            .headers(responseDefinition.getHeaders())
-            .body(responseDefinition.getByteBody())
-            .build();
+            .headers(responseDefinition.getHeaders());
+
+        if (responseDefinition.getBodyStreamSource() != null) {
+            response.body(responseDefinition.getBodyStreamSource());
+        } else {
+            response.body(responseDefinition.getByteBody());
+        }
+
+        return response.build();
     }
 }
\ No newline at end of file
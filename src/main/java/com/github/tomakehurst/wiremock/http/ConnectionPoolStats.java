@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.util.List;
+
+/**
+ * A point-in-time snapshot of an upstream connection pool, in total and for each route it holds connections for.
+ */
+public class ConnectionPoolStats {
+
+    public static final ConnectionPoolStats EMPTY = new ConnectionPoolStats(0, 0, 0, 0, ImmutableList.<RouteStats>of());
+
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+    private final List<RouteStats> routes;
+
+    @JsonCreator
+    public ConnectionPoolStats(@JsonProperty("leased") int leased,
+                               @JsonProperty("pending") int pending,
+                               @JsonProperty("available") int available,
+                               @JsonProperty("max") int max,
+                               @JsonProperty("routes") List<RouteStats> routes) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+        this.routes = routes;
+    }
+
+    public static ConnectionPoolStats from(PoolingHttpClientConnectionManager connectionManager) {
+        ImmutableList.Builder<RouteStats> routes = ImmutableList.builder();
+        for (HttpRoute route: connectionManager.getRoutes()) {
+            PoolStats routeStats = connectionManager.getStats(route);
+            routes.add(new RouteStats(
+                route.getTargetHost().toURI(),
+                routeStats.getLeased(),
+                routeStats.getPending(),
+                routeStats.getAvailable(),
+                routeStats.getMax()
+            ));
+        }
+
+        PoolStats totals = connectionManager.getTotalStats();
+        return new ConnectionPoolStats(totals.getLeased(), totals.getPending(), totals.getAvailable(), totals.getMax(), routes.build());
+    }
+
+    public int getLeased() {
+        return leased;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public List<RouteStats> getRoutes() {
+        return routes;
+    }
+
+    public static class RouteStats {
+
+        private final String target;
+        private final int leased;
+        private final int pending;
+        private final int available;
+        private final int max;
+
+        @JsonCreator
+        public RouteStats(@JsonProperty("target") String target,
+                          @JsonProperty("leased") int leased,
+                          @JsonProperty("pending") int pending,
+                          @JsonProperty("available") int available,
+                          @JsonProperty("max") int max) {
+            this.target = target;
+            this.leased = leased;
+            this.pending = pending;
+            this.available = available;
+            this.max = max;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public int getLeased() {
+            return leased;
+        }
+
+        public int getPending() {
+            return pending;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+
+        public int getMax() {
+            return max;
+        }
+    }
+}
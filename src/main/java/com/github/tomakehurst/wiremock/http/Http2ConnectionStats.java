@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A point-in-time snapshot of the HTTP/2 connections held open to proxy targets and the streams multiplexed over them.
+ */
+public class Http2ConnectionStats {
+
+    private final int connections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int activeStreams;
+    private final long totalStreams;
+    private final List<TargetStats> targets;
+    private final List<String> http11FallbackTargets;
+
+    @JsonCreator
+    public Http2ConnectionStats(@JsonProperty("connections") int connections,
+                                @JsonProperty("activeConnections") int activeConnections,
+                                @JsonProperty("idleConnections") int idleConnections,
+                                @JsonProperty("activeStreams") int activeStreams,
+                                @JsonProperty("totalStreams") long totalStreams,
+                                @JsonProperty("targets") List<TargetStats> targets,
+                                @JsonProperty("http11FallbackTargets") List<String> http11FallbackTargets) {
+        this.connections = connections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.activeStreams = activeStreams;
+        this.totalStreams = totalStreams;
+        this.targets = targets;
+        this.http11FallbackTargets = http11FallbackTargets;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * @return the number of proxied requests currently in flight, each of which occupies one stream
+     */
+    public int getActiveStreams() {
+        return activeStreams;
+    }
+
+    public long getTotalStreams() {
+        return totalStreams;
+    }
+
+    public List<TargetStats> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return the targets proxied to over HTTP/1.1 because they didn't respond over HTTP/2
+     */
+    public List<String> getHttp11FallbackTargets() {
+        return http11FallbackTargets;
+    }
+
+    public static class TargetStats {
+
+        private final String target;
+        private final int connections;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int maxConnections;
+
+        @JsonCreator
+        public TargetStats(@JsonProperty("target") String target,
+                           @JsonProperty("connections") int connections,
+                           @JsonProperty("activeConnections") int activeConnections,
+                           @JsonProperty("idleConnections") int idleConnections,
+                           @JsonProperty("maxConnections") int maxConnections) {
+            this.target = target;
+            this.connections = connections;
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.maxConnections = maxConnections;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.google.common.collect.ImmutableList;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+import org.conscrypt.Conscrypt;
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.HttpProxy;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.client.api.Destination;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.util.BasicAuthentication;
+import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.client.util.FutureResponseListener;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+
+/**
+ * Sends proxied requests upstream over HTTP/2, multiplexing concurrent requests to the same target as streams
+ * on a shared connection and only opening another once the target's concurrent stream limit is reached.
+ * https targets negotiate HTTP/2 via ALPN and plain http targets are spoken to with prior knowledge (h2c).
+ *
+ * Targets that turn out not to speak HTTP/2 are remembered and sent every later request over HTTP/1.1 instead.
+ * A request is only resent over HTTP/1.1 if its HTTP/2 attempt failed before the request went out, so the target
+ * never sees it twice.
+ * TLS connections use the same trust store and client key material as the HTTP/1.1 proxy client.
+ */
+public class Http2UpstreamClient {
+
+    // Connection-specific headers aren't allowed in HTTP/2, and the authority comes from the target URL
+    private static final List<String> EXCLUDED_REQUEST_HEADERS = ImmutableList.of(
+        "host",
+        "connection",
+        "keep-alive",
+        "proxy-connection",
+        "transfer-encoding",
+        "upgrade",
+        "content-length"
+    );
+
+    private final HttpClient client;
+    // Whether each target (scheme, host and port) has answered over HTTP/2, or fell back to HTTP/1.1
+    private final ConcurrentMap<String, Boolean> http2ByTarget = new ConcurrentHashMap<>();
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final AtomicLong totalStreams = new AtomicLong();
+
+    public Http2UpstreamClient(ProxyConnectionPoolSettings poolSettings, ProxySettings proxySettings, KeyStoreSettings trustStoreSettings) {
+        // Jetty negotiates ALPN through Conscrypt, so the SSL context has to come from it
+        SslContextFactory.Client sslContextFactory = new SslContextFactory.Client();
+        sslContextFactory.setSslContext(HttpClientFactory.buildSslContext(
+            trustStoreSettings,
+            true,
+            Collections.<String>emptyList(),
+            Conscrypt.newProvider()
+        ));
+
+        HttpClientTransportOverHTTP2 transport = new HttpClientTransportOverHTTP2(new HTTP2Client());
+        transport.setUseALPN(true);
+        client = new HttpClient(transport, sslContextFactory);
+
+        QueuedThreadPool threadPool = new QueuedThreadPool();
+        threadPool.setName("wiremock-proxy-http2");
+        threadPool.setDaemon(true);
+        client.setExecutor(threadPool);
+        client.setScheduler(new ScheduledExecutorScheduler("wiremock-proxy-http2-scheduler", true));
+
+        client.setMaxConnectionsPerDestination(poolSettings.getMaxConnectionsPerRoute());
+        if (poolSettings.getConnectTimeoutMillis() > 0) {
+            client.setConnectTimeout(poolSettings.getConnectTimeoutMillis());
+        }
+        client.setIdleTimeout(poolSettings.getSocketTimeoutMillis());
+        client.setFollowRedirects(false);
+        client.setUserAgentField(null);
+        client.getContentDecoderFactories().clear();
+        configureProxy(client, proxySettings);
+
+        start();
+    }
+
+    private static void configureProxy(HttpClient client, ProxySettings proxySettings) {
+        if (proxySettings == null || proxySettings == ProxySettings.NO_PROXY) {
+            return;
+        }
+
+        client.getProxyConfiguration().getProxies().add(new HttpProxy(proxySettings.host(), proxySettings.port()));
+        if (proxySettings.getUsername() != null) {
+            client.getAuthenticationStore().addAuthenticationResult(new BasicAuthentication.BasicResult(
+                URI.create("http://" + proxySettings.host() + ":" + proxySettings.port()),
+                org.eclipse.jetty.http.HttpHeader.PROXY_AUTHORIZATION,
+                proxySettings.getUsername(),
+                proxySettings.getPassword()
+            ));
+        }
+    }
+
+    /**
+     * Sends a request built for the HTTP/1.1 client over HTTP/2 if the target supports it, or otherwise with the
+     * fallback. A target is only sent to with the fallback from then on if its first HTTP/2 exchange fails before
+     * the request is sent (on connecting, ALPN or the connection preface) and the fallback succeeds, so a target
+     * that's simply down isn't mistaken for one that only speaks HTTP/1.1.
+     */
+    public ProxyResponseCache.UpstreamResponse execute(HttpUriRequest httpRequest,
+                                                       ProxyResponseCache.UpstreamFetch http11Fallback) throws IOException {
+        String target = targetOf(httpRequest.getURI());
+        Boolean http2 = http2ByTarget.get(target);
+        if (Boolean.FALSE.equals(http2)) {
+            return http11Fallback.fetch();
+        }
+
+        ProxyResponseCache.UpstreamResponse response;
+        try {
+            response = execute(httpRequest);
+        } catch (NotSentException e) {
+            if (http2 != null) {
+                throw e;
+            }
+
+            response = http11Fallback.fetch();
+            if (http2ByTarget.putIfAbsent(target, false) == null) {
+                notifier().info(target + " didn't respond over HTTP/2, so requests proxied to it will use HTTP/1.1");
+            }
+            return response;
+        }
+
+        http2ByTarget.put(target, true);
+        return response;
+    }
+
+    private static String targetOf(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return uri.getScheme() + "://" + uri.getHost() + ":" + port;
+    }
+
+    /**
+     * Sends a request built for the HTTP/1.1 client and reads the whole response.
+     * The response headers are returned as received.
+     */
+    ProxyResponseCache.UpstreamResponse execute(HttpUriRequest httpRequest) throws IOException {
+        Request request = client.newRequest(httpRequest.getURI()).method(httpRequest.getMethod());
+        for (Header header: httpRequest.getAllHeaders()) {
+            if (!EXCLUDED_REQUEST_HEADERS.contains(header.getName().toLowerCase())) {
+                request.header(header.getName(), header.getValue());
+            }
+        }
+
+        if (httpRequest instanceof HttpEntityEnclosingRequest) {
+            addBody(request, ((HttpEntityEnclosingRequest) httpRequest).getEntity());
+        }
+
+        final AtomicBoolean committed = new AtomicBoolean();
+        request.onRequestCommit(new Request.CommitListener() {
+            @Override
+            public void onCommit(Request request) {
+                committed.set(true);
+            }
+        });
+
+        FutureResponseListener listener = new FutureResponseListener(request, Integer.MAX_VALUE);
+        activeStreams.incrementAndGet();
+        totalStreams.incrementAndGet();
+        try {
+            request.send(listener);
+            ContentResponse response = listener.get();
+            return new ProxyResponseCache.UpstreamResponse(response.getStatus(), headersFrom(response), response.getContent());
+        } catch (InterruptedException e) {
+            request.abort(e);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an HTTP/2 response from " + httpRequest.getURI());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (!committed.get()) {
+                throw new NotSentException(httpRequest.getURI(), cause);
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            activeStreams.decrementAndGet();
+        }
+    }
+
+    private static void addBody(Request request, HttpEntity entity) throws IOException {
+        if (entity == null) {
+            return;
+        }
+
+        addHeaderIfAbsent(request, entity.getContentType());
+        addHeaderIfAbsent(request, entity.getContentEncoding());
+
+        request.content(new BytesContentProvider(EntityUtils.toByteArray(entity)));
+    }
+
+    private static void addHeaderIfAbsent(Request request, Header header) {
+        if (header != null && !request.getHeaders().containsKey(header.getName())) {
+            request.header(header.getName(), header.getValue());
+        }
+    }
+
+    private static HttpHeaders headersFrom(ContentResponse response) {
+        List<HttpHeader> headers = new ArrayList<>();
+        for (HttpField field: response.getHeaders()) {
+            headers.add(new HttpHeader(field.getName(), field.getValue()));
+        }
+
+        return new HttpHeaders(headers);
+    }
+
+    /**
+     * The exchange failed before the request was sent, so it's safe to send it again some other way.
+     */
+    static class NotSentException extends IOException {
+
+        NotSentException(URI uri, Throwable cause) {
+            super("Couldn't send a request to " + uri + " over HTTP/2", cause);
+        }
+    }
+
+    public Http2ConnectionStats getStats() {
+        int connections = 0;
+        int active = 0;
+        int idle = 0;
+        ImmutableList.Builder<Http2ConnectionStats.TargetStats> targets = ImmutableList.builder();
+        for (Destination destination: client.getDestinations()) {
+            ConnectionPool connectionPool = ((HttpDestination) destination).getConnectionPool();
+            if (!(connectionPool instanceof AbstractConnectionPool)) {
+                continue;
+            }
+
+            AbstractConnectionPool pool = (AbstractConnectionPool) connectionPool;
+            connections += pool.getConnectionCount();
+            active += pool.getActiveConnectionCount();
+            idle += pool.getIdleConnectionCount();
+            targets.add(new Http2ConnectionStats.TargetStats(
+                destination.getScheme() + "://" + destination.getHost() + ":" + destination.getPort(),
+                pool.getConnectionCount(),
+                pool.getActiveConnectionCount(),
+                pool.getIdleConnectionCount(),
+                pool.getMaxConnectionCount()
+            ));
+        }
+
+        return new Http2ConnectionStats(
+            connections,
+            active,
+            idle,
+            activeStreams.get(),
+            totalStreams.get(),
+            targets.build(),
+            http11FallbackTargets()
+        );
+    }
+
+    private List<String> http11FallbackTargets() {
+        List<String> targets = new ArrayList<>();
+        for (Map.Entry<String, Boolean> target: http2ByTarget.entrySet()) {
+            if (!target.getValue()) {
+                targets.add(target.getKey());
+            }
+        }
+
+        Collections.sort(targets);
+        return targets;
+    }
+
+    /**
+     * Starts the client again after it has been stopped. Does nothing if it's already running.
+     */
+    public synchronized void start() {
+        if (client.isStarted()) {
+            return;
+        }
+
+        try {
+            client.start();
+        } catch (Exception e) {
+            throwUnchecked(e);
+        }
+    }
+
+    /**
+     * Closes the upstream connections and stops the client's threads.
+     */
+    public synchronized void stop() {
+        try {
+            client.stop();
+        } catch (Exception e) {
+            throwUnchecked(e);
+        }
+    }
+}
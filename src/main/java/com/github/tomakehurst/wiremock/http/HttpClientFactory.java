@@ -16,6 +16,7 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import com.github.tomakehurst.wiremock.http.ssl.HostVerifyingSSLSocketFactory;
 import com.github.tomakehurst.wiremock.http.ssl.SSLContextBuilder;
@@ -28,16 +29,22 @@ import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
 import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.NoConnectionReuseStrategy;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.ProxyAuthenticationStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.TextUtils;
 
@@ -46,6 +53,7 @@ import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
 import java.security.UnrecoverableEntryException;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -56,6 +64,7 @@ import static com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings.NO_STO
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 import static com.github.tomakehurst.wiremock.common.ProxySettings.NO_PROXY;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 public class HttpClientFactory {
@@ -96,6 +105,88 @@ public class HttpClientFactory {
             builder.useSystemProperties();
         }
 
+        configureProxy(builder, proxySettings);
+
+        final SSLContext sslContext = buildSslContext(trustStoreSettings, trustSelfSignedCertificates, trustedHosts);
+        LayeredConnectionSocketFactory sslSocketFactory = buildSslConnectionSocketFactory(sslContext);
+        builder.setSSLSocketFactory(sslSocketFactory);
+
+        return builder.build();
+	}
+
+    /**
+     * Creates a connection pool sized and validated according to the pool settings, whose statistics can be
+     * read while it's used by a client created with {@link #createClient(PoolingHttpClientConnectionManager, ProxyConnectionPoolSettings, ProxySettings, boolean)}.
+     */
+    public static PoolingHttpClientConnectionManager createConnectionManager(
+            ProxyConnectionPoolSettings poolSettings,
+            KeyStoreSettings trustStoreSettings,
+            boolean trustSelfSignedCertificates,
+            List<String> trustedHosts) {
+
+        SSLContext sslContext = buildSslContext(trustStoreSettings, trustSelfSignedCertificates, trustedHosts);
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", buildSslConnectionSocketFactory(sslContext))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(poolSettings.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(poolSettings.getMaxConnectionsPerRoute());
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(poolSettings.getSocketTimeoutMillis()).build());
+        connectionManager.setValidateAfterInactivity(poolSettings.getValidateAfterInactivityMillis());
+        return connectionManager;
+    }
+
+    public static CloseableHttpClient createClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            ProxyConnectionPoolSettings poolSettings,
+            ProxySettings proxySettings,
+            boolean useSystemProperties) {
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .disableAuthCaching()
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .disableRedirectHandling()
+                .disableContentCompression()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(poolSettings.getConnectTimeoutMillis())
+                        .setSocketTimeout(poolSettings.getSocketTimeoutMillis())
+                        .build());
+
+        if (poolSettings.isConnectionReuseEnabled()) {
+            builder.setKeepAliveStrategy(keepAliveAtMost(poolSettings.getKeepAliveMillis()));
+        } else {
+            builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE)
+                    .setKeepAliveStrategy(NO_KEEP_ALIVE);
+        }
+
+        if (poolSettings.getMaxIdleMillis() > 0) {
+            builder.evictIdleConnections(poolSettings.getMaxIdleMillis(), MILLISECONDS);
+        }
+
+        if (useSystemProperties) {
+            builder.useSystemProperties();
+        }
+
+        configureProxy(builder, proxySettings);
+
+        return builder.build();
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveAtMost(final long maxKeepAliveMillis) {
+        return new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                long upstreamKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return upstreamKeepAlive > 0 ? Math.min(upstreamKeepAlive, maxKeepAliveMillis) : maxKeepAliveMillis;
+            }
+        };
+    }
+
+    private static void configureProxy(HttpClientBuilder builder, ProxySettings proxySettings) {
         if (proxySettings != NO_PROXY) {
             HttpHost proxyHost = new HttpHost(proxySettings.host(), proxySettings.port());
             builder.setProxy(proxyHost);
@@ -108,13 +199,7 @@ public class HttpClientFactory {
                 builder.setDefaultCredentialsProvider(credentialsProvider);
             }
         }
-
-        final SSLContext sslContext = buildSslContext(trustStoreSettings, trustSelfSignedCertificates, trustedHosts);
-        LayeredConnectionSocketFactory sslSocketFactory = buildSslConnectionSocketFactory(sslContext);
-        builder.setSSLSocketFactory(sslSocketFactory);
-
-        return builder.build();
-	}
+    }
 
     private static LayeredConnectionSocketFactory buildSslConnectionSocketFactory(final SSLContext sslContext) {
         final String[] supportedProtocols = split(System.getProperty("https.protocols"));
@@ -143,14 +228,26 @@ public class HttpClientFactory {
         KeyStoreSettings trustStoreSettings,
         boolean trustSelfSignedCertificates,
         List<String> trustedHosts
+    ) {
+        return buildSslContext(trustStoreSettings, trustSelfSignedCertificates, trustedHosts, null);
+    }
+
+    /**
+     * Builds the SSL context used to connect to proxy targets, from the given security provider, or the default one if null.
+     */
+    static SSLContext buildSslContext(
+        KeyStoreSettings trustStoreSettings,
+        boolean trustSelfSignedCertificates,
+        List<String> trustedHosts,
+        Provider provider
     ) {
         if (trustStoreSettings != NO_STORE) {
-            return buildSSLContextWithTrustStore(trustStoreSettings, trustSelfSignedCertificates, trustedHosts);
+            return buildSSLContextWithTrustStore(trustStoreSettings, trustSelfSignedCertificates, trustedHosts, provider);
         } else if (trustSelfSignedCertificates) {
-            return buildAllowAnythingSSLContext();
+            return buildAllowAnythingSSLContext(provider);
         } else {
             try {
-                return SSLContextBuilder.create().loadTrustMaterial(new TrustSpecificHostsStrategy(trustedHosts)).build();
+                return SSLContextBuilder.create().setProvider(provider).loadTrustMaterial(new TrustSpecificHostsStrategy(trustedHosts)).build();
             } catch (NoSuchAlgorithmException | KeyManagementException e) {
                 return throwUnchecked(e, null);
             }
@@ -166,10 +263,11 @@ public class HttpClientFactory {
         return createClient(maxConnections, timeoutMilliseconds, proxySettings, trustStoreSettings, true, Collections.<String>emptyList(), useSystemProperties);
     }
 
-    private static SSLContext buildSSLContextWithTrustStore(KeyStoreSettings trustStoreSettings, boolean trustSelfSignedCertificates, List<String> trustedHosts) {
+    private static SSLContext buildSSLContextWithTrustStore(KeyStoreSettings trustStoreSettings, boolean trustSelfSignedCertificates, List<String> trustedHosts, Provider provider) {
         try {
             KeyStore trustStore = trustStoreSettings.loadStore();
             SSLContextBuilder sslContextBuilder = SSLContextBuilder.create()
+                    .setProvider(provider)
                     .loadKeyMaterial(trustStore, trustStoreSettings.password().toCharArray());
             if (trustSelfSignedCertificates) {
                 sslContextBuilder.loadTrustMaterial(new TrustSelfSignedStrategy());
@@ -200,9 +298,9 @@ public class HttpClientFactory {
         return false;
     }
 
-    private static SSLContext buildAllowAnythingSSLContext() {
+    private static SSLContext buildAllowAnythingSSLContext(Provider provider) {
         try {
-            return SSLContextBuilder.create().loadTrustMaterial(new TrustEverythingStrategy()).build();
+            return SSLContextBuilder.create().setProvider(provider).loadTrustMaterial(new TrustEverythingStrategy()).build();
         } catch (Exception e) {
             return throwUnchecked(e, null);
         }
@@ -16,5 +16,10 @@
 package com.github.tomakehurst.wiremock.http;
 
 public interface HttpResponder {
-    void respond(Request request, Response response);
+
+    /**
+     * @param afterSent run once the response has been written, which for delayed or dribbled responses is after
+     *                  this method has returned and on another thread
+     */
+    void respond(Request request, Response response, Runnable afterSent);
 }
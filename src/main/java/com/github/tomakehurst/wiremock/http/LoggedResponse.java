@@ -15,45 +15,147 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.tomakehurst.wiremock.common.BinaryFile;
 import com.github.tomakehurst.wiremock.common.Encoding;
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
 import com.github.tomakehurst.wiremock.common.Strings;
-import com.google.common.net.MediaType;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.google.common.net.MediaType.OCTET_STREAM;
 
 public class LoggedResponse {
 
+    private static final String DIGEST_PREFIX = "sha256:";
+
     private final int status;
     private final HttpHeaders headers;
     private final byte[] body;
     private final Fault fault;
+    private final BinaryFile bodyFile;
+    private final String bodyFileName;
+    private final String bodyDigest;
+    private final boolean bodyTruncated;
+    private final StreamedProxyBody streamedBody;
+
+    public LoggedResponse(int status, HttpHeaders headers, String bodyAsBase64, Fault fault, String ignoredBodyOnlyUsedForBinding) {
+        this(status, headers, bodyAsBase64, fault, ignoredBodyOnlyUsedForBinding, null, null, false);
+    }
 
+    @JsonCreator
     public LoggedResponse(@JsonProperty("status") int status,
                           @JsonProperty("headers") HttpHeaders headers,
                           @JsonProperty("bodyAsBase64") String bodyAsBase64,
                           @JsonProperty("fault") Fault fault,
-                          @JsonProperty("body") String ignoredBodyOnlyUsedForBinding) {
-        this(status, headers, Encoding.decodeBase64(bodyAsBase64), fault);
+                          @JsonProperty("body") String ignoredBodyOnlyUsedForBinding,
+                          @JsonProperty("bodyFileName") String bodyFileName,
+                          @JsonProperty("bodyDigest") String bodyDigest,
+                          @JsonProperty("bodyTruncated") boolean bodyTruncated) {
+        this(status, headers, Encoding.decodeBase64(bodyAsBase64), fault, null, bodyFileName, bodyDigest, bodyTruncated, null);
     }
 
     private LoggedResponse(int status, HttpHeaders headers, byte[] body, Fault fault) {
+        this(status, headers, body, fault, null, null, null, false, null);
+    }
+
+    private LoggedResponse(int status,
+                           HttpHeaders headers,
+                           byte[] body,
+                           Fault fault,
+                           BinaryFile bodyFile,
+                           String bodyFileName,
+                           String bodyDigest,
+                           boolean bodyTruncated,
+                           StreamedProxyBody streamedBody) {
         this.status = status;
         this.headers = headers;
         this.body = body;
         this.fault = fault;
+        this.bodyFile = bodyFile;
+        this.bodyFileName = bodyFileName;
+        this.bodyDigest = bodyDigest;
+        this.bodyTruncated = bodyTruncated;
+        this.streamedBody = streamedBody;
     }
 
     public static LoggedResponse from(Response response) {
-        return new LoggedResponse(
-            response.getStatus(),
-            response.getHeaders() == null || response.getHeaders().all().isEmpty() ? null : response.getHeaders(),
-            response.getBody(),
-            response.getFault()
-        );
+        return from(response, ResponseBodyCapture.FULL);
+    }
+
+    public static LoggedResponse from(Response response, ResponseBodyCapture bodyCapture) {
+        int status = response.getStatus();
+        HttpHeaders headers = response.getHeaders() == null || response.getHeaders().all().isEmpty() ? null : response.getHeaders();
+        Fault fault = response.getFault();
+
+        InputStreamSource bodySource = response.getBodyStreamSource();
+        if (bodySource instanceof StreamedProxyBody) {
+            // The body hasn't been sent yet, so refer to the copy that will be captured as it is
+            return new LoggedResponse(status, headers, null, fault, null, null, null, false, (StreamedProxyBody) bodySource);
+        }
+
+        if (response.isBodyStreamed()) {
+            return new LoggedResponse(status, headers, null, fault);
+        }
+
+        switch (response.isFromProxy() ? ResponseBodyCapture.Mode.FULL : bodyCapture.getMode()) {
+            case NONE:
+                return new LoggedResponse(status, headers, null, fault);
+            case TRUNCATED:
+                byte[] prefix = readAtMost(bodySource, bodyCapture.getMaxBytes() + 1);
+                if (prefix != null && prefix.length > bodyCapture.getMaxBytes()) {
+                    byte[] truncated = Arrays.copyOf(prefix, bodyCapture.getMaxBytes());
+                    return new LoggedResponse(status, headers, truncated, fault, null, null, null, true, null);
+                }
+                return new LoggedResponse(status, headers, prefix, fault);
+            case DIGEST:
+                return new LoggedResponse(status, headers, null, fault, null, null, digestOf(bodySource), false, null);
+            case FILE_REFERENCE:
+                if (bodySource instanceof BinaryFile) {
+                    BinaryFile bodyFile = (BinaryFile) bodySource;
+                    return new LoggedResponse(status, headers, null, fault, bodyFile, bodyFile.name(), null, false, null);
+                }
+                // Inline bodies are already held in memory by the stub, so fall through and keep them in full
+            default:
+                return new LoggedResponse(status, headers, response.getBody(), fault);
+        }
+    }
+
+    private static byte[] readAtMost(InputStreamSource source, int maxBytes) {
+        if (source == null) {
+            return null;
+        }
+
+        try (InputStream stream = source.getStream()) {
+            return ByteStreams.toByteArray(ByteStreams.limit(stream, maxBytes));
+        } catch (IOException e) {
+            return throwUnchecked(e, byte[].class);
+        }
+    }
+
+    private static String digestOf(InputStreamSource source) {
+        if (source == null) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher();
+        try (InputStream stream = source.getStream()) {
+            ByteStreams.copy(stream, Funnels.asOutputStream(hasher));
+        } catch (IOException e) {
+            return throwUnchecked(e, String.class);
+        }
+        return DIGEST_PREFIX + hasher.hash();
     }
 
     public int getStatus() {
@@ -72,6 +174,7 @@ public class LoggedResponse {
      */
     @JsonProperty("body")
     public String getBodyAsString() {
+        byte[] body = getBody();
         if (body == null) {
             return "";
         }
@@ -91,14 +194,36 @@ public class LoggedResponse {
         return headers == null ? Strings.DEFAULT_CHARSET : headers.getContentTypeHeader().charset();
     }
 
+    /**
+     * @return the captured body, or for a body file reference the file's current contents, which are read
+     * on every call rather than being kept. For a streamed proxy response this is the copy captured
+     * while sending it, which is capped in size.
+     */
     @JsonIgnore
     public byte[] getBody() {
-        return body;
+        if (streamedBody != null) {
+            return streamedBody.getCapturedBody();
+        }
+
+        return bodyFile != null ? bodyFile.readContents() : body;
     }
 
     @JsonProperty("bodyAsBase64")
     public String getBodyAsBase64() {
-        return Encoding.encodeBase64(body);
+        return Encoding.encodeBase64(getBody());
+    }
+
+    public String getBodyFileName() {
+        return bodyFileName;
+    }
+
+    public String getBodyDigest() {
+        return bodyDigest;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean isBodyTruncated() {
+        return streamedBody != null ? streamedBody.isCaptureTruncated() : bodyTruncated;
     }
 
     public Fault getFault() {
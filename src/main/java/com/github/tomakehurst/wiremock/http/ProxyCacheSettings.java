@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Opts a proxy stub in to caching upstream responses to GET and HEAD requests. Responses are kept for the
+ * TTL unless the upstream's Cache-Control header says otherwise, which can be ignored to cache regardless.
+ * With no TTL only responses the upstream marks as fresh with max-age or s-maxage are cached.
+ * Coalescing additionally makes concurrent requests with the same cache key wait on one upstream call.
+ */
+public class ProxyCacheSettings {
+
+    private final Integer ttlSeconds;
+    private final List<String> varyOnHeaders;
+    private final Boolean ignoreCacheControl;
+    private final Boolean coalesceRequests;
+
+    @JsonCreator
+    public ProxyCacheSettings(@JsonProperty("ttlSeconds") Integer ttlSeconds,
+                              @JsonProperty("varyOnHeaders") List<String> varyOnHeaders,
+                              @JsonProperty("ignoreCacheControl") Boolean ignoreCacheControl,
+                              @JsonProperty("coalesceRequests") Boolean coalesceRequests) {
+        this.ttlSeconds = ttlSeconds;
+        this.varyOnHeaders = varyOnHeaders;
+        this.ignoreCacheControl = ignoreCacheControl;
+        this.coalesceRequests = coalesceRequests;
+    }
+
+    public static ProxyCacheSettings cacheFor(int ttlSeconds) {
+        return new ProxyCacheSettings(ttlSeconds, null, null, null);
+    }
+
+    public static ProxyCacheSettings cacheAsDirectedByUpstream() {
+        return new ProxyCacheSettings(null, null, null, null);
+    }
+
+    /**
+     * Shares each upstream response between the requests waiting on it when it arrives, without caching it for later ones.
+     */
+    public static ProxyCacheSettings coalesceWithoutCaching() {
+        return new ProxyCacheSettings(0, null, true, true);
+    }
+
+    public ProxyCacheSettings varyingOnHeaders(String... headerNames) {
+        List<String> headers = ImmutableList.<String>builder()
+            .addAll(getVaryOnHeadersOrEmpty())
+            .addAll(asList(headerNames))
+            .build();
+        return new ProxyCacheSettings(ttlSeconds, headers, ignoreCacheControl, coalesceRequests);
+    }
+
+    public ProxyCacheSettings ignoringCacheControl() {
+        return new ProxyCacheSettings(ttlSeconds, varyOnHeaders, true, coalesceRequests);
+    }
+
+    public ProxyCacheSettings coalescingRequests() {
+        return new ProxyCacheSettings(ttlSeconds, varyOnHeaders, ignoreCacheControl, true);
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public List<String> getVaryOnHeaders() {
+        return varyOnHeaders;
+    }
+
+    public Boolean getIgnoreCacheControl() {
+        return ignoreCacheControl;
+    }
+
+    public Boolean getCoalesceRequests() {
+        return coalesceRequests;
+    }
+
+    @JsonIgnore
+    public List<String> getVaryOnHeadersOrEmpty() {
+        return varyOnHeaders != null ? varyOnHeaders : Collections.<String>emptyList();
+    }
+
+    @JsonIgnore
+    public boolean isCacheControlIgnored() {
+        return ignoreCacheControl != null && ignoreCacheControl;
+    }
+
+    @JsonIgnore
+    public boolean isCoalescingRequests() {
+        return coalesceRequests != null && coalesceRequests;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProxyCacheSettings that = (ProxyCacheSettings) o;
+        return Objects.equals(ttlSeconds, that.ttlSeconds) &&
+            Objects.equals(varyOnHeaders, that.varyOnHeaders) &&
+            Objects.equals(ignoreCacheControl, that.ignoreCacheControl) &&
+            Objects.equals(coalesceRequests, that.coalesceRequests);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ttlSeconds, varyOnHeaders, ignoreCacheControl, coalesceRequests);
+    }
+}
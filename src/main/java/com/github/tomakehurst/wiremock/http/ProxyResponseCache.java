@@ -0,0 +1,470 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.HEAD;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Upstream responses kept for proxy stubs that opt in with {@link ProxyCacheSettings}, keyed on the request method,
+ * the proxied URL, the Accept-Encoding header and the values of the headers the stub varies on. The cache is bounded
+ * by the total size of the bodies and headers it holds, evicting the least recently used responses first, and
+ * expired responses are dropped when they're next looked up. Stubs that coalesce requests also share a single
+ * in-flight upstream exchange between concurrent requests with the same key.
+ */
+public class ProxyResponseCache {
+
+    public static final long DEFAULT_MAX_BYTES = 10 * 1024 * 1024;
+
+    // The statuses RFC 7231 allows to be cached without explicit freshness information, less partial content
+    private static final Set<Integer> CACHEABLE_STATUSES = ImmutableSet.of(200, 203, 204, 300, 301, 404, 405, 410, 414, 501);
+
+    // Proxied responses aren't decompressed, so their encoding always depends on the client's Accept-Encoding
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String PROXY_AUTHORIZATION = "Proxy-Authorization";
+    private static final String COOKIE = "Cookie";
+    private static final String SET_COOKIE = "Set-Cookie";
+
+    private final long maxBytes;
+    private final long coalescedWaitTimeoutMillis;
+    private final Ticker ticker;
+    private final Cache<Key, Entry> cache;
+    private final ConcurrentMap<Key, CompletableFuture<UpstreamResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong sizeBytes = new AtomicLong();
+
+    public ProxyResponseCache(long maxBytes) {
+        this(maxBytes, ProxyConnectionPoolSettings.DEFAULTS.getSocketTimeoutMillis());
+    }
+
+    /**
+     * @param coalescedWaitTimeoutMillis how long a request waits on a coalesced upstream fetch before failing
+     */
+    public ProxyResponseCache(long maxBytes, long coalescedWaitTimeoutMillis) {
+        this(maxBytes, coalescedWaitTimeoutMillis, Ticker.systemTicker());
+    }
+
+    ProxyResponseCache(long maxBytes, long coalescedWaitTimeoutMillis, Ticker ticker) {
+        this.maxBytes = maxBytes;
+        this.coalescedWaitTimeoutMillis = coalescedWaitTimeoutMillis;
+        this.ticker = ticker;
+        // A single segment so that eviction is in least recently used order across the whole cache,
+        // and a response up to the full size can be held
+        this.cache = CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(maxBytes)
+            .weigher(new Weigher<Key, Entry>() {
+                @Override
+                public int weigh(Key key, Entry entry) {
+                    return entry.size;
+                }
+            })
+            .removalListener(new RemovalListener<Key, Entry>() {
+                @Override
+                public void onRemoval(RemovalNotification<Key, Entry> notification) {
+                    sizeBytes.addAndGet(-notification.getValue().size);
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * @return the cache key for the proxied request, or null if the stub doesn't share responses or the request method isn't cacheable
+     */
+    public static Key keyFor(ResponseDefinition responseDefinition) {
+        ProxyCacheSettings cacheSettings = responseDefinition.getProxyCache();
+        Request originalRequest = responseDefinition.getOriginalRequest();
+        if (cacheSettings == null || !originalRequest.getMethod().isOneOf(GET, HEAD)) {
+            return null;
+        }
+
+        ImmutableList.Builder<String> varyingHeaderValues = ImmutableList.builder();
+        varyingHeaderValues.add(headerValues(originalRequest, ACCEPT_ENCODING));
+        for (String headerName: cacheSettings.getVaryOnHeadersOrEmpty()) {
+            varyingHeaderValues.add(headerValues(originalRequest, headerName));
+        }
+
+        return new Key(
+            originalRequest.getMethod(),
+            responseDefinition.getProxyUrl(),
+            varyingHeaderValues.build(),
+            originalRequest.containsHeader(AUTHORIZATION),
+            originalRequest.containsHeader(AUTHORIZATION) ||
+                originalRequest.containsHeader(PROXY_AUTHORIZATION) ||
+                originalRequest.containsHeader(COOKIE)
+        );
+    }
+
+    private static String headerValues(Request request, String headerName) {
+        HttpHeader header = request.header(headerName);
+        return header.isPresent() ? header.values().toString() : "";
+    }
+
+    public UpstreamResponse get(Key key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.expiresAtNanos - ticker.read() <= 0) {
+            cache.asMap().remove(key, entry);
+            entry = null;
+        }
+
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.response;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Returns the cached response for the key, or fetches and caches one. When the stub coalesces requests, a fetch
+     * already in flight for the same key is waited on instead of making another upstream call, and its response or
+     * failure is shared with every request waiting on it. Requests with credentials of any kind, cookies included,
+     * are never coalesced, and a response that sets cookies or is marked private or no-store isn't shared with waiting
+     * requests, which fetch their own instead, whether or not the stub ignores Cache-Control.
+     */
+    public UpstreamResponse getOrFetch(Key key, ProxyCacheSettings cacheSettings, UpstreamFetch fetch) throws IOException {
+        UpstreamResponse cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (!cacheSettings.isCoalescingRequests() || key.credentialed) {
+            UpstreamResponse response = fetch.fetch();
+            put(key, cacheSettings, response);
+            return response;
+        }
+
+        CompletableFuture<UpstreamResponse> flight = new CompletableFuture<>();
+        CompletableFuture<UpstreamResponse> existingFlight = inFlight.putIfAbsent(key, flight);
+        if (existingFlight != null) {
+            coalesced.incrementAndGet();
+            UpstreamResponse shared = await(existingFlight);
+            return isShareableWithWaitingRequests(shared) ? shared : fetch.fetch();
+        }
+
+        try {
+            UpstreamResponse response = fetch.fetch();
+            put(key, cacheSettings, response);
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // Anything less would leave the requests waiting on this flight blocked
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private UpstreamResponse await(CompletableFuture<UpstreamResponse> flight) throws IOException {
+        try {
+            return flight.get(coalescedWaitTimeoutMillis, MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a coalesced proxy request");
+        } catch (TimeoutException e) {
+            throw new SocketTimeoutException("Timed out after " + coalescedWaitTimeoutMillis + "ms waiting for a coalesced proxy request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+
+            return throwUnchecked(cause, UpstreamResponse.class);
+        }
+    }
+
+    /**
+     * Caches the upstream response if its status, the stub's cache settings and, unless ignored, its Cache-Control
+     * header allow it and it doesn't vary on every request header.
+     */
+    public void put(Key key, ProxyCacheSettings cacheSettings, UpstreamResponse response) {
+        if (!isShareable(cacheSettings, response)) {
+            return;
+        }
+
+        long lifetimeSeconds = freshnessLifetimeSeconds(cacheSettings, key.authorized, response.status, response.headers);
+        if (lifetimeSeconds <= 0) {
+            return;
+        }
+
+        Entry entry = new Entry(response, ticker.read() + SECONDS.toNanos(lifetimeSeconds));
+        if (entry.size > maxBytes) {
+            return;
+        }
+
+        sizeBytes.addAndGet(entry.size);
+        cache.put(key, entry);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    public long getEntryCount() {
+        return cache.size();
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes.get();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    // Cookies are usually specific to the client they're set for, so responses setting them are only stored
+    // when the stub ignores the upstream's caching headers altogether
+    private static boolean isShareable(ProxyCacheSettings cacheSettings, UpstreamResponse response) {
+        return cacheSettings.isCacheControlIgnored() || !setsCookies(response);
+    }
+
+    private static boolean setsCookies(UpstreamResponse response) {
+        return response.headers.getHeader(SET_COOKIE).isPresent();
+    }
+
+    // Coalesced requests may come from different clients, so unlike a stored response this doesn't depend on the stub's settings
+    private static boolean isShareableWithWaitingRequests(UpstreamResponse response) {
+        if (setsCookies(response)) {
+            return false;
+        }
+
+        for (String directive: cacheControlDirectives(response.headers)) {
+            if (directive.equals("private") || directive.equals("no-store")) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static List<String> cacheControlDirectives(HttpHeaders headers) {
+        ImmutableList.Builder<String> directives = ImmutableList.builder();
+        HttpHeader cacheControl = headers.getHeader("Cache-Control");
+        for (String value: cacheControl.isPresent() ? cacheControl.values() : ImmutableList.<String>of()) {
+            for (String directive: value.split(",")) {
+                directives.add(directive.trim().toLowerCase());
+            }
+        }
+
+        return directives.build();
+    }
+
+    private static long freshnessLifetimeSeconds(ProxyCacheSettings cacheSettings, boolean authorizedRequest, int status, HttpHeaders headers) {
+        if (!CACHEABLE_STATUSES.contains(status)) {
+            return 0;
+        }
+
+        boolean storeForbidden = false;
+        boolean explicitlyShared = false;
+        Long maxAge = null;
+        Long sharedMaxAge = null;
+        for (String directive: cacheControlDirectives(headers)) {
+            if (directive.equals("no-store") ||
+                directive.equals("no-cache") ||
+                directive.equals("private")) {
+                storeForbidden = true;
+            } else if (directive.equals("public")) {
+                explicitlyShared = true;
+            } else if (directive.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(directive.substring("s-maxage=".length()));
+            } else if (directive.startsWith("max-age=")) {
+                maxAge = parseSeconds(directive.substring("max-age=".length()));
+            }
+        }
+
+        // A shared cache can only store a response to a request with credentials if the upstream says it can (RFC 7234 section 3.2)
+        if (authorizedRequest && !explicitlyShared && sharedMaxAge == null) {
+            return 0;
+        }
+
+        long ttlSeconds = cacheSettings.getTtlSeconds() != null ? cacheSettings.getTtlSeconds() : 0;
+        if (cacheSettings.isCacheControlIgnored()) {
+            return ttlSeconds;
+        }
+
+        if (storeForbidden) {
+            return 0;
+        }
+
+        // Other Vary headers are left to the stub's own list, as upstreams commonly vary on headers like User-Agent
+        // that would otherwise stop anything being cached
+        if (variesOnEverything(headers.getHeader("Vary"))) {
+            return 0;
+        }
+
+        if (sharedMaxAge != null) {
+            return sharedMaxAge;
+        }
+
+        return maxAge != null ? maxAge : ttlSeconds;
+    }
+
+    private static boolean variesOnEverything(HttpHeader vary) {
+        if (vary.isPresent()) {
+            for (String value: vary.values()) {
+                for (String headerName: value.split(",")) {
+                    if (headerName.trim().equals("*")) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static class Key {
+
+        private final RequestMethod method;
+        private final String url;
+        private final List<String> varyingHeaderValues;
+        // Not part of the key's identity, since a stored response may be served whether or not a request has credentials
+        private final boolean authorized;
+        private final boolean credentialed;
+
+        Key(RequestMethod method, String url, List<String> varyingHeaderValues, boolean authorized, boolean credentialed) {
+            this.method = method;
+            this.url = url;
+            this.varyingHeaderValues = varyingHeaderValues;
+            this.authorized = authorized;
+            this.credentialed = credentialed;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(method, key.method) &&
+                Objects.equals(url, key.url) &&
+                Objects.equals(varyingHeaderValues, key.varyingHeaderValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, url, varyingHeaderValues);
+        }
+    }
+
+    public interface UpstreamFetch {
+        UpstreamResponse fetch() throws IOException;
+    }
+
+    public static class UpstreamResponse {
+
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        public UpstreamResponse(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    private static class Entry {
+
+        private final UpstreamResponse response;
+        private final long expiresAtNanos;
+        private final int size;
+
+        Entry(UpstreamResponse response, long expiresAtNanos) {
+            this.response = response;
+            this.expiresAtNanos = expiresAtNanos;
+            this.size = (response.body != null ? response.body.length : 0) + sizeOf(response.headers);
+        }
+
+        private static int sizeOf(HttpHeaders headers) {
+            int size = 0;
+            for (HttpHeader header: headers.all()) {
+                for (String value: header.values()) {
+                    size += header.key().length() + value.length();
+                }
+            }
+
+            return size;
+        }
+    }
+}
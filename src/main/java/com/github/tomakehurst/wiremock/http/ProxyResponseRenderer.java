@@ -16,7 +16,9 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ProxyStreamingSettings;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.google.common.collect.ImmutableList;
@@ -27,9 +29,11 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
 import javax.net.ssl.SSLException;
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
@@ -45,9 +49,6 @@ import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 
 public class ProxyResponseRenderer implements ResponseRenderer {
 
-    private static final int MINUTES = 1000 * 60;
-    private static final int DEFAULT_SO_TIMEOUT = 5 * MINUTES;
-
     private static final String TRANSFER_ENCODING = "transfer-encoding";
     private static final String CONTENT_ENCODING = "content-encoding";
     private static final String CONTENT_LENGTH = "content-length";
@@ -62,11 +63,24 @@ public class ProxyResponseRenderer implements ResponseRenderer {
             "connection"
     );
 
-    private final CloseableHttpClient reverseProxyClient;
-    private final CloseableHttpClient forwardProxyClient;
+    private final ProxySettings proxySettings;
+    private final KeyStoreSettings trustStoreSettings;
+    private final boolean trustAllProxyTargets;
+    private final List<String> trustedProxyTargets;
+    private final ProxyConnectionPoolSettings poolSettings;
+    // Replaced when the renderer is started again after being stopped, as closing the clients can't be undone
+    private volatile PoolingHttpClientConnectionManager reverseProxyConnections;
+    private volatile PoolingHttpClientConnectionManager forwardProxyConnections;
+    private volatile CloseableHttpClient reverseProxyClient;
+    private volatile CloseableHttpClient forwardProxyClient;
+    private boolean clientsClosed;
+    private final Http2UpstreamClient reverseProxyHttp2Client;
     private final boolean preserveHostHeader;
     private final String hostHeaderValue;
     private final GlobalSettingsHolder globalSettingsHolder;
+    private final ProxyStreamingSettings streamingSettings;
+    private final ProxyResponseCache responseCache;
+    private volatile boolean streamingSuspended;
 
     public ProxyResponseRenderer(
         ProxySettings proxySettings,
@@ -76,15 +90,161 @@ public class ProxyResponseRenderer implements ResponseRenderer {
         GlobalSettingsHolder globalSettingsHolder,
         boolean trustAllProxyTargets,
         List<String> trustedProxyTargets
+    ) {
+        this(
+            proxySettings,
+            trustStoreSettings,
+            preserveHostHeader,
+            hostHeaderValue,
+            globalSettingsHolder,
+            trustAllProxyTargets,
+            trustedProxyTargets,
+            ProxyStreamingSettings.DISABLED
+        );
+    }
+
+    public ProxyResponseRenderer(
+        ProxySettings proxySettings,
+        KeyStoreSettings trustStoreSettings,
+        boolean preserveHostHeader,
+        String hostHeaderValue,
+        GlobalSettingsHolder globalSettingsHolder,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        ProxyStreamingSettings streamingSettings
+    ) {
+        this(
+            proxySettings,
+            trustStoreSettings,
+            preserveHostHeader,
+            hostHeaderValue,
+            globalSettingsHolder,
+            trustAllProxyTargets,
+            trustedProxyTargets,
+            streamingSettings,
+            ProxyConnectionPoolSettings.DEFAULTS
+        );
+    }
+
+    public ProxyResponseRenderer(
+        ProxySettings proxySettings,
+        KeyStoreSettings trustStoreSettings,
+        boolean preserveHostHeader,
+        String hostHeaderValue,
+        GlobalSettingsHolder globalSettingsHolder,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        ProxyStreamingSettings streamingSettings,
+        ProxyConnectionPoolSettings poolSettings
+    ) {
+        this(
+            proxySettings,
+            trustStoreSettings,
+            preserveHostHeader,
+            hostHeaderValue,
+            globalSettingsHolder,
+            trustAllProxyTargets,
+            trustedProxyTargets,
+            streamingSettings,
+            poolSettings,
+            new ProxyResponseCache(ProxyResponseCache.DEFAULT_MAX_BYTES, poolSettings.getSocketTimeoutMillis())
+        );
+    }
+
+    public ProxyResponseRenderer(
+        ProxySettings proxySettings,
+        KeyStoreSettings trustStoreSettings,
+        boolean preserveHostHeader,
+        String hostHeaderValue,
+        GlobalSettingsHolder globalSettingsHolder,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        ProxyStreamingSettings streamingSettings,
+        ProxyConnectionPoolSettings poolSettings,
+        ProxyResponseCache responseCache
     ) {
         this.globalSettingsHolder = globalSettingsHolder;
-        reverseProxyClient = HttpClientFactory.createClient(1000, DEFAULT_SO_TIMEOUT, proxySettings, trustStoreSettings, true, Collections.<String>emptyList(), true);
-        forwardProxyClient = HttpClientFactory.createClient(1000, DEFAULT_SO_TIMEOUT, proxySettings, trustStoreSettings, trustAllProxyTargets, trustAllProxyTargets ? Collections.emptyList() : trustedProxyTargets, false);
+        this.streamingSettings = streamingSettings;
+        this.responseCache = responseCache;
+        this.proxySettings = proxySettings;
+        this.trustStoreSettings = trustStoreSettings;
+        this.trustAllProxyTargets = trustAllProxyTargets;
+        this.trustedProxyTargets = trustedProxyTargets;
+        this.poolSettings = poolSettings;
+
+        createClients();
+        reverseProxyHttp2Client = poolSettings.isHttp2Enabled() ? new Http2UpstreamClient(poolSettings, proxySettings, trustStoreSettings) : null;
 
         this.preserveHostHeader = preserveHostHeader;
         this.hostHeaderValue = hostHeaderValue;
 	}
 
+    private void createClients() {
+        reverseProxyConnections = HttpClientFactory.createConnectionManager(poolSettings, trustStoreSettings, true, Collections.<String>emptyList());
+        reverseProxyClient = HttpClientFactory.createClient(reverseProxyConnections, poolSettings, proxySettings, true);
+        forwardProxyConnections = HttpClientFactory.createConnectionManager(poolSettings, trustStoreSettings, trustAllProxyTargets, trustAllProxyTargets ? Collections.<String>emptyList() : trustedProxyTargets);
+        forwardProxyClient = HttpClientFactory.createClient(forwardProxyConnections, poolSettings, proxySettings, false);
+    }
+
+    public ConnectionPoolStats getReverseProxyConnectionPoolStats() {
+        return ConnectionPoolStats.from(reverseProxyConnections);
+    }
+
+    public ConnectionPoolStats getBrowserProxyConnectionPoolStats() {
+        return ConnectionPoolStats.from(forwardProxyConnections);
+    }
+
+    /**
+     * @return the state of the HTTP/2 upstream connections, or null if reverse proxying doesn't use HTTP/2
+     */
+    public Http2ConnectionStats getReverseProxyHttp2ConnectionStats() {
+        return reverseProxyHttp2Client != null ? reverseProxyHttp2Client.getStats() : null;
+    }
+
+    public ProxyResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Creates the upstream clients again and restarts the HTTP/2 client if they were stopped along with the server.
+     */
+    public synchronized void start() {
+        if (clientsClosed) {
+            createClients();
+            clientsClosed = false;
+        }
+
+        if (reverseProxyHttp2Client != null) {
+            reverseProxyHttp2Client.start();
+        }
+    }
+
+    /**
+     * Closes the upstream clients and their connections, stopping their idle connection eviction threads,
+     * and stops the HTTP/2 client's threads.
+     */
+    public synchronized void stop() {
+        if (!clientsClosed) {
+            closeQuietly(reverseProxyClient);
+            closeQuietly(forwardProxyClient);
+            reverseProxyConnections.shutdown();
+            forwardProxyConnections.shutdown();
+            clientsClosed = true;
+        }
+
+        if (reverseProxyHttp2Client != null) {
+            reverseProxyHttp2Client.stop();
+        }
+    }
+
+    /**
+     * Reads proxied bodies in full even when streaming is enabled, so that a recording in progress
+     * captures whole bodies rather than the capped copy kept by a streamed body.
+     */
+    public void setStreamingSuspended(boolean streamingSuspended) {
+        this.streamingSuspended = streamingSuspended;
+    }
+
 	@Override
 	public Response render(ServeEvent serveEvent) {
         ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
@@ -92,28 +252,115 @@ public class ProxyResponseRenderer implements ResponseRenderer {
         addRequestHeaders(httpRequest, responseDefinition);
 
         addBodyIfPostPutOrPatch(httpRequest, responseDefinition);
-        CloseableHttpClient client = buildClient(serveEvent.getRequest().isBrowserProxyRequest());
-        try (CloseableHttpResponse httpResponse = client.execute(httpRequest)) {
-            return response()
-                    .status(httpResponse.getStatusLine().getStatusCode())
-                    .headers(headersFrom(httpResponse, responseDefinition))
-                    .body(getEntityAsByteArrayAndCloseStream(httpResponse))
-                    .fromProxy(true)
-                    .configureDelay(
-                        globalSettingsHolder.get().getFixedDelay(),
-                        globalSettingsHolder.get().getDelayDistribution(),
-                        responseDefinition.getFixedDelayMilliseconds(),
-                        responseDefinition.getDelayDistribution()
-                    )
-                    .chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay())
-                    .build();
+        boolean browserProxyRequest = serveEvent.getRequest().isBrowserProxyRequest();
+        CloseableHttpClient client = buildClient(browserProxyRequest);
+
+        ProxyResponseCache.Key cacheKey = ProxyResponseCache.keyFor(responseDefinition);
+        if (cacheKey != null || (reverseProxyHttp2Client != null && !browserProxyRequest)) {
+            return renderBuffered(cacheKey, upstreamFetchFor(browserProxyRequest, client, httpRequest), httpRequest, responseDefinition);
+        }
+
+        CloseableHttpResponse httpResponse = null;
+        try {
+            httpResponse = client.execute(httpRequest);
+            Response.Builder responseBuilder = responseBuilderFor(
+                httpResponse.getStatusLine().getStatusCode(),
+                headersFrom(httpResponse),
+                responseDefinition
+            );
+
+            if (streamingSettings.isEnabled() && !streamingSuspended && httpResponse.getEntity() != null) {
+                // The body keeps the upstream response open until it has been written to the client
+                responseBuilder.body(new StreamedProxyBody(httpResponse, streamingSettings.getMaxCapturedBodyBytes()));
+                httpResponse = null;
+            } else {
+                responseBuilder.body(getEntityAsByteArrayAndCloseStream(httpResponse));
+            }
+
+            return responseBuilder.build();
         } catch (SSLException e) {
             return proxyResponseError("SSL", httpRequest, e);
         } catch (IOException e) {
             return proxyResponseError("Network", httpRequest, e);
+        } finally {
+            closeQuietly(httpResponse);
         }
 	}
 
+    private Response renderBuffered(ProxyResponseCache.Key cacheKey,
+                                    ProxyResponseCache.UpstreamFetch upstreamFetch,
+                                    HttpUriRequest httpRequest,
+                                    ResponseDefinition responseDefinition) {
+        try {
+            ProxyResponseCache.UpstreamResponse upstreamResponse = cacheKey != null ?
+                responseCache.getOrFetch(cacheKey, responseDefinition.getProxyCache(), upstreamFetch) :
+                upstreamFetch.fetch();
+            return responseBuilderFor(upstreamResponse.getStatus(), upstreamResponse.getHeaders(), responseDefinition)
+                .body(upstreamResponse.getBody())
+                .build();
+        } catch (SSLException e) {
+            return proxyResponseError("SSL", httpRequest, e);
+        } catch (IOException e) {
+            return proxyResponseError("Network", httpRequest, e);
+        }
+    }
+
+    private ProxyResponseCache.UpstreamFetch upstreamFetchFor(boolean browserProxyRequest,
+                                                              final CloseableHttpClient client,
+                                                              final HttpUriRequest httpRequest) {
+        if (reverseProxyHttp2Client != null && !browserProxyRequest) {
+            // HTTP/2 responses are always read in full, so streaming doesn't apply to them
+            return () -> {
+                ProxyResponseCache.UpstreamResponse response = reverseProxyHttp2Client.execute(
+                    httpRequest,
+                    () -> fetchBuffered(client, httpRequest)
+                );
+                return new ProxyResponseCache.UpstreamResponse(
+                    response.getStatus(),
+                    transferableHeaders(response.getHeaders().all()),
+                    response.getBody()
+                );
+            };
+        }
+
+        return () -> fetchBuffered(client, httpRequest);
+    }
+
+    private ProxyResponseCache.UpstreamResponse fetchBuffered(CloseableHttpClient client, HttpUriRequest httpRequest) throws IOException {
+        CloseableHttpResponse httpResponse = client.execute(httpRequest);
+        try {
+            return new ProxyResponseCache.UpstreamResponse(
+                httpResponse.getStatusLine().getStatusCode(),
+                headersFrom(httpResponse),
+                getEntityAsByteArrayAndCloseStream(httpResponse)
+            );
+        } finally {
+            closeQuietly(httpResponse);
+        }
+    }
+
+    private Response.Builder responseBuilderFor(int status, HttpHeaders upstreamHeaders, ResponseDefinition responseDefinition) {
+        return response()
+                .status(status)
+                .headers(withStubHeaders(upstreamHeaders, responseDefinition))
+                .fromProxy(true)
+                .configureDelay(
+                    globalSettingsHolder.get().getFixedDelay(),
+                    globalSettingsHolder.get().getDelayDistribution(),
+                    responseDefinition.getFixedDelayMilliseconds(),
+                    responseDefinition.getDelayDistribution()
+                )
+                .chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay());
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
 
     private Response proxyResponseError(String type, HttpUriRequest request, Exception e) {
         return response()
@@ -130,19 +377,34 @@ public class ProxyResponseRenderer implements ResponseRenderer {
         }
     }
 
-    private HttpHeaders headersFrom(HttpResponse httpResponse, ResponseDefinition responseDefinition) {
+    private HttpHeaders headersFrom(HttpResponse httpResponse) {
 	    List<HttpHeader> httpHeaders = new LinkedList<>();
 	    for (Header header : httpResponse.getAllHeaders()) {
-	        if (responseHeaderShouldBeTransferred(header.getName())) {
-                httpHeaders.add(new HttpHeader(header.getName(), header.getValue()));
-            }
+	        httpHeaders.add(new HttpHeader(header.getName(), header.getValue()));
 	    }
 
-        if (responseDefinition.getHeaders() != null) {
-            httpHeaders.addAll(responseDefinition.getHeaders().all());
+	    return transferableHeaders(httpHeaders);
+    }
+
+    private static HttpHeaders transferableHeaders(Iterable<HttpHeader> upstreamHeaders) {
+        List<HttpHeader> httpHeaders = new LinkedList<>();
+        for (HttpHeader header: upstreamHeaders) {
+            if (responseHeaderShouldBeTransferred(header.key())) {
+                httpHeaders.add(header);
+            }
         }
-	    
-	    return new HttpHeaders(httpHeaders);
+
+        return new HttpHeaders(httpHeaders);
+    }
+
+    private static HttpHeaders withStubHeaders(HttpHeaders upstreamHeaders, ResponseDefinition responseDefinition) {
+        if (responseDefinition.getHeaders() == null) {
+            return upstreamHeaders;
+        }
+
+        List<HttpHeader> httpHeaders = new LinkedList<>(upstreamHeaders.all());
+        httpHeaders.addAll(responseDefinition.getHeaders().all());
+        return new HttpHeaders(httpHeaders);
     }
 
     public static HttpUriRequest getHttpRequestFor(ResponseDefinition response) {
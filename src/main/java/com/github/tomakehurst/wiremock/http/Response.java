@@ -16,14 +16,18 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.common.BinaryFile;
+import com.github.tomakehurst.wiremock.common.ByteArraySource;
 import com.github.tomakehurst.wiremock.common.InputStreamSource;
 import com.github.tomakehurst.wiremock.common.StreamSources;
+import com.github.tomakehurst.wiremock.common.StreamingBodySource;
 import com.github.tomakehurst.wiremock.common.Strings;
 import com.google.common.base.Optional;
 import com.google.common.io.ByteStreams;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import static com.github.tomakehurst.wiremock.http.HttpHeaders.noHeaders;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
@@ -121,8 +125,58 @@ public class Response {
         return bodyStreamSource == null ? null : bodyStreamSource.getStream();
     }
 
+    InputStreamSource getBodyStreamSource() {
+        return bodyStreamSource;
+    }
+
+    public BinaryFile getBodyFile() {
+        return bodyStreamSource instanceof BinaryFile ? (BinaryFile) bodyStreamSource : null;
+    }
+
+    /**
+     * The body as a read-only buffer, when it is already held in memory as bytes, otherwise null.
+     */
+    public ByteBuffer getBodyBuffer() {
+        if (bodyStreamSource instanceof ByteArraySource) {
+            byte[] bytes = ((ByteArraySource) bodyStreamSource).getBytes();
+            return bytes != null ? ByteBuffer.wrap(bytes).asReadOnlyBuffer() : null;
+        }
+
+        return null;
+    }
+
+    public long getBodyLength() {
+        BinaryFile bodyFile = getBodyFile();
+        if (bodyFile != null) {
+            return bodyFile.getLength();
+        }
+
+        if (bodyStreamSource instanceof ByteArraySource) {
+            byte[] bytes = ((ByteArraySource) bodyStreamSource).getBytes();
+            return bytes != null ? bytes.length : 0;
+        }
+
+        byte[] body = getBody();
+        return body != null ? body.length : 0;
+    }
+
     public boolean hasInlineBody() {
-	    return !BinaryFile.class.isAssignableFrom(bodyStreamSource.getClass());
+	    return !BinaryFile.class.isAssignableFrom(bodyStreamSource.getClass()) && !isBodyStreamed();
+    }
+
+    public boolean isBodyStreamed() {
+        return bodyStreamSource instanceof StreamingBodySource;
+    }
+
+    public void writeBodyTo(OutputStream out) throws IOException {
+        if (isBodyStreamed()) {
+            ((StreamingBodySource) bodyStreamSource).writeTo(out);
+            return;
+        }
+
+        try (InputStream stream = getBodyStream()) {
+            ByteStreams.copy(stream, out);
+        }
     }
 
 	public HttpHeaders getHeaders() {
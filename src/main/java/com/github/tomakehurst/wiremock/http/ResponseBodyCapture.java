@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import java.util.Objects;
+
+/**
+ * How much of each response body is kept with the serve events in the request journal.
+ * Bodies of proxied responses are always kept in full, so that they can be recorded as stubs.
+ */
+public class ResponseBodyCapture {
+
+    public enum Mode {
+        /** Keep a copy of the whole body */
+        FULL,
+        /** Keep no body at all */
+        NONE,
+        /** Keep at most a fixed number of bytes from the start of the body */
+        TRUNCATED,
+        /** Keep only a SHA-256 digest of the body */
+        DIGEST,
+        /** Keep the name of the body file and read it again when asked for the body. Inline bodies are kept in full */
+        FILE_REFERENCE
+    }
+
+    public static final int DEFAULT_MAX_BYTES = 1024;
+
+    public static final ResponseBodyCapture FULL = new ResponseBodyCapture(Mode.FULL, 0);
+
+    private final Mode mode;
+    private final int maxBytes;
+
+    private ResponseBodyCapture(Mode mode, int maxBytes) {
+        this.mode = mode;
+        this.maxBytes = maxBytes;
+    }
+
+    public static ResponseBodyCapture full() {
+        return FULL;
+    }
+
+    public static ResponseBodyCapture none() {
+        return new ResponseBodyCapture(Mode.NONE, 0);
+    }
+
+    public static ResponseBodyCapture truncatedTo(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Maximum number of response body bytes to capture must not be negative");
+        }
+        return new ResponseBodyCapture(Mode.TRUNCATED, maxBytes);
+    }
+
+    public static ResponseBodyCapture digest() {
+        return new ResponseBodyCapture(Mode.DIGEST, 0);
+    }
+
+    public static ResponseBodyCapture fileReference() {
+        return new ResponseBodyCapture(Mode.FILE_REFERENCE, 0);
+    }
+
+    public static ResponseBodyCapture fromMode(Mode mode, int maxBytes) {
+        return mode == Mode.TRUNCATED ? truncatedTo(maxBytes) : new ResponseBodyCapture(mode, 0);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ResponseBodyCapture that = (ResponseBodyCapture) o;
+        return maxBytes == that.maxBytes && mode == that.mode;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mode, maxBytes);
+    }
+
+    @Override
+    public String toString() {
+        return mode == Mode.TRUNCATED ? mode + " (" + maxBytes + " bytes)" : mode.toString();
+    }
+}
@@ -22,7 +22,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.StreamSources;
 import com.github.tomakehurst.wiremock.extension.AbstractTransformer;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.google.common.net.MediaType;
@@ -47,11 +49,13 @@ public class ResponseDefinition {
     private final DelayDistribution delayDistribution;
     private final ChunkedDribbleDelay chunkedDribbleDelay;
     private final String proxyBaseUrl;
+    private final ProxyCacheSettings proxyCache;
     private final Fault fault;
     private final List<String> transformers;
     private final Parameters transformerParameters;
 
     private String browserProxyUrl;
+    private InputStreamSource bodyStreamSource;
     private Boolean wasConfigured = true;
     private Request originalRequest;
 
@@ -68,11 +72,31 @@ public class ResponseDefinition {
                               @JsonProperty("delayDistribution") DelayDistribution delayDistribution,
                               @JsonProperty("chunkedDribbleDelay") ChunkedDribbleDelay chunkedDribbleDelay,
                               @JsonProperty("proxyBaseUrl") String proxyBaseUrl,
+                              @JsonProperty("proxyCache") ProxyCacheSettings proxyCache,
                               @JsonProperty("fault") Fault fault,
                               @JsonProperty("transformers") List<String> transformers,
                               @JsonProperty("transformerParameters") Parameters transformerParameters,
                               @JsonProperty("fromConfiguredStub") Boolean wasConfigured) {
-        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, proxyCache, fault, transformers, transformerParameters, wasConfigured);
+    }
+
+    public ResponseDefinition(int status,
+                              String statusMessage,
+                              String body,
+                              JsonNode jsonBody,
+                              String base64Body,
+                              String bodyFileName,
+                              HttpHeaders headers,
+                              HttpHeaders additionalProxyRequestHeaders,
+                              Integer fixedDelayMilliseconds,
+                              DelayDistribution delayDistribution,
+                              ChunkedDribbleDelay chunkedDribbleDelay,
+                              String proxyBaseUrl,
+                              Fault fault,
+                              List<String> transformers,
+                              Parameters transformerParameters,
+                              Boolean wasConfigured) {
+        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, null, fault, transformers, transformerParameters, wasConfigured);
     }
 
     public ResponseDefinition(int status,
@@ -87,11 +111,31 @@ public class ResponseDefinition {
                               DelayDistribution delayDistribution,
                               ChunkedDribbleDelay chunkedDribbleDelay,
                               String proxyBaseUrl,
+                              ProxyCacheSettings proxyCache,
                               Fault fault,
                               List<String> transformers,
                               Parameters transformerParameters,
                               Boolean wasConfigured) {
-        this(status, statusMessage, Body.fromOneOf(body, null, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+        this(status, statusMessage, Body.fromOneOf(body, null, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, proxyCache, fault, transformers, transformerParameters, wasConfigured);
+    }
+
+    public ResponseDefinition(int status,
+                              String statusMessage,
+                              byte[] body,
+                              JsonNode jsonBody,
+                              String base64Body,
+                              String bodyFileName,
+                              HttpHeaders headers,
+                              HttpHeaders additionalProxyRequestHeaders,
+                              Integer fixedDelayMilliseconds,
+                              DelayDistribution delayDistribution,
+                              ChunkedDribbleDelay chunkedDribbleDelay,
+                              String proxyBaseUrl,
+                              Fault fault,
+                              List<String> transformers,
+                              Parameters transformerParameters,
+                              Boolean wasConfigured) {
+        this(status, statusMessage, Body.fromOneOf(body, null, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, null, fault, transformers, transformerParameters, wasConfigured);
     }
 
     private ResponseDefinition(int status,
@@ -104,6 +148,7 @@ public class ResponseDefinition {
                                DelayDistribution delayDistribution,
                                ChunkedDribbleDelay chunkedDribbleDelay,
                                String proxyBaseUrl,
+                               ProxyCacheSettings proxyCache,
                                Fault fault,
                                List<String> transformers,
                                Parameters transformerParameters,
@@ -120,6 +165,7 @@ public class ResponseDefinition {
         this.delayDistribution = delayDistribution;
         this.chunkedDribbleDelay = chunkedDribbleDelay;
         this.proxyBaseUrl = proxyBaseUrl;
+        this.proxyCache = proxyCache;
         this.fault = fault;
         this.transformers = transformers;
         this.transformerParameters = transformerParameters;
@@ -127,15 +173,15 @@ public class ResponseDefinition {
     }
 
     public ResponseDefinition(final int statusCode, final String bodyContent) {
-        this(statusCode, null, Body.fromString(bodyContent), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(statusCode, null, Body.fromString(bodyContent), null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public ResponseDefinition(final int statusCode, final byte[] bodyContent) {
-        this(statusCode, null, Body.fromBytes(bodyContent), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(statusCode, null, Body.fromBytes(bodyContent), null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public ResponseDefinition() {
-        this(HTTP_OK, null, Body.none(), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(HTTP_OK, null, Body.none(), null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public static ResponseDefinition notFound() {
@@ -154,6 +200,15 @@ public class ResponseDefinition {
         return ResponseDefinitionBuilder.okForJson(body).build();
     }
 
+    public static ResponseDefinition okForStreamedJson(Object body) {
+        final ResponseDefinition response = ResponseDefinitionBuilder.responseDefinition()
+            .withStatus(HTTP_OK)
+            .withHeader(CONTENT_TYPE, "application/json")
+            .build();
+        response.bodyStreamSource = StreamSources.forJson(body);
+        return response;
+    }
+
     public static ResponseDefinition created() {
         return new ResponseDefinition(HTTP_CREATED, (byte[]) null);
     }
@@ -218,11 +273,13 @@ public class ResponseDefinition {
             this.delayDistribution,
             this.chunkedDribbleDelay,
             this.proxyBaseUrl,
+            this.proxyCache,
             this.fault,
             this.transformers,
             this.transformerParameters,
             this.wasConfigured
         );
+        newResponseDef.bodyStreamSource = this.bodyStreamSource;
         return newResponseDef;
     }
 
@@ -274,6 +331,11 @@ public class ResponseDefinition {
         return bodyFileName;
     }
 
+    @JsonIgnore
+    public InputStreamSource getBodyStreamSource() {
+        return bodyStreamSource;
+    }
+
     public boolean wasConfigured() {
         return wasConfigured == null || wasConfigured;
     }
@@ -307,6 +369,10 @@ public class ResponseDefinition {
         return proxyBaseUrl;
     }
 
+    public ProxyCacheSettings getProxyCache() {
+        return proxyCache;
+    }
+
     @JsonIgnore
     public boolean specifiesBodyFile() {
         return bodyFileName != null && body.isAbsent();
@@ -374,6 +440,7 @@ public class ResponseDefinition {
             Objects.equals(delayDistribution, that.delayDistribution) &&
             Objects.equals(chunkedDribbleDelay, that.chunkedDribbleDelay) &&
             Objects.equals(proxyBaseUrl, that.proxyBaseUrl) &&
+            Objects.equals(proxyCache, that.proxyCache) &&
             fault == that.fault &&
             Objects.equals(transformers, that.transformers) &&
             Objects.equals(transformerParameters, that.transformerParameters) &&
@@ -383,7 +450,7 @@ public class ResponseDefinition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(status, statusMessage, body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, browserProxyUrl, wasConfigured);
+        return Objects.hash(status, statusMessage, body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, proxyCache, fault, transformers, transformerParameters, browserProxyUrl, wasConfigured);
     }
 
     @Override
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.StreamingBodySource;
+import com.google.common.io.ByteStreams;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+
+/**
+ * The body of a proxied response, still held open on the upstream connection. Writing it pipes the upstream
+ * body to the client without holding it in memory, keeping a copy of at most a fixed number of bytes for the
+ * request journal, and releases the connection when done.
+ *
+ * Anything that reads the body before it's written, such as a response transformer, gets the whole
+ * body read into memory instead, which is then also what gets written.
+ */
+class StreamedProxyBody implements StreamingBodySource {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final CloseableHttpResponse upstreamResponse;
+    private final int maxCapturedBytes;
+    // Guards the captured copy and truncated flag, which the journal may read while the body is still being written
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+    private boolean consumed;
+    private boolean truncated;
+    private volatile byte[] buffered;
+
+    StreamedProxyBody(CloseableHttpResponse upstreamResponse, int maxCapturedBytes) {
+        this.upstreamResponse = upstreamResponse;
+        this.maxCapturedBytes = maxCapturedBytes;
+    }
+
+    @Override
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        if (buffered != null) {
+            out.write(buffered);
+            return;
+        }
+
+        HttpEntity entity = takeEntity();
+        if (entity == null) {
+            return;
+        }
+
+        try (InputStream in = entity.getContent()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                capture(buffer, read);
+            }
+        } finally {
+            upstreamResponse.close();
+        }
+    }
+
+    @Override
+    public synchronized InputStream getStream() {
+        if (buffered == null) {
+            buffered = readFully();
+        }
+
+        return new ByteArrayInputStream(buffered);
+    }
+
+    /**
+     * @return the body bytes captured so far, which are complete once the response has been sent
+     * unless the body was longer than the capture limit
+     */
+    byte[] getCapturedBody() {
+        byte[] fullBody = buffered;
+        if (fullBody != null) {
+            return fullBody;
+        }
+
+        synchronized (captured) {
+            return captured.toByteArray();
+        }
+    }
+
+    boolean isCaptureTruncated() {
+        if (buffered != null) {
+            return false;
+        }
+
+        synchronized (captured) {
+            return truncated;
+        }
+    }
+
+    private byte[] readFully() {
+        HttpEntity entity = takeEntity();
+        if (entity == null) {
+            return getCapturedBody();
+        }
+
+        try (InputStream in = entity.getContent()) {
+            return ByteStreams.toByteArray(in);
+        } catch (IOException e) {
+            return throwUnchecked(e, byte[].class);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private HttpEntity takeEntity() {
+        if (consumed) {
+            return null;
+        }
+
+        consumed = true;
+        return upstreamResponse.getEntity();
+    }
+
+    private void capture(byte[] bytes, int length) {
+        synchronized (captured) {
+            int remaining = maxCapturedBytes - captured.size();
+            if (length > remaining) {
+                truncated = true;
+            }
+
+            if (remaining > 0) {
+                captured.write(bytes, 0, Math.min(length, remaining));
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            upstreamResponse.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -15,12 +15,14 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
 import com.github.tomakehurst.wiremock.core.Admin;
 import com.github.tomakehurst.wiremock.core.StubServer;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.PostServeAction;
 import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilter;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubServingMetrics;
 import com.github.tomakehurst.wiremock.verification.RequestJournal;
 
 import java.util.List;
@@ -35,6 +37,9 @@ public class StubRequestHandler extends AbstractRequestHandler {
     private final Map<String, PostServeAction> postServeActions;
     private final RequestJournal requestJournal;
     private final boolean loggingDisabled;
+    private final ResponseBodyCapture responseBodyCapture;
+    private final HashedWheelTimer delayedResponseTimer;
+    private final StubServingMetrics servingMetrics;
 
 	public StubRequestHandler(StubServer stubServer,
                               ResponseRenderer responseRenderer,
@@ -43,12 +48,59 @@ public class StubRequestHandler extends AbstractRequestHandler {
                               RequestJournal requestJournal,
                               List<RequestFilter> requestFilters,
                               boolean loggingDisabled) {
+		this(stubServer, responseRenderer, admin, postServeActions, requestJournal, requestFilters, loggingDisabled, ResponseBodyCapture.FULL);
+	}
+
+	public StubRequestHandler(StubServer stubServer,
+                              ResponseRenderer responseRenderer,
+                              Admin admin,
+                              Map<String, PostServeAction> postServeActions,
+                              RequestJournal requestJournal,
+                              List<RequestFilter> requestFilters,
+                              boolean loggingDisabled,
+                              ResponseBodyCapture responseBodyCapture) {
+		this(stubServer, responseRenderer, admin, postServeActions, requestJournal, requestFilters, loggingDisabled, responseBodyCapture, null);
+	}
+
+	public StubRequestHandler(StubServer stubServer,
+                              ResponseRenderer responseRenderer,
+                              Admin admin,
+                              Map<String, PostServeAction> postServeActions,
+                              RequestJournal requestJournal,
+                              List<RequestFilter> requestFilters,
+                              boolean loggingDisabled,
+                              ResponseBodyCapture responseBodyCapture,
+                              HashedWheelTimer delayedResponseTimer) {
+		this(stubServer, responseRenderer, admin, postServeActions, requestJournal, requestFilters, loggingDisabled, responseBodyCapture, delayedResponseTimer, new StubServingMetrics());
+	}
+
+	public StubRequestHandler(StubServer stubServer,
+                              ResponseRenderer responseRenderer,
+                              Admin admin,
+                              Map<String, PostServeAction> postServeActions,
+                              RequestJournal requestJournal,
+                              List<RequestFilter> requestFilters,
+                              boolean loggingDisabled,
+                              ResponseBodyCapture responseBodyCapture,
+                              HashedWheelTimer delayedResponseTimer,
+                              StubServingMetrics servingMetrics) {
 		super(responseRenderer, requestFilters);
 		this.stubServer = stubServer;
         this.admin = admin;
         this.postServeActions = postServeActions;
         this.requestJournal = requestJournal;
         this.loggingDisabled = loggingDisabled;
+        this.responseBodyCapture = responseBodyCapture;
+        this.delayedResponseTimer = delayedResponseTimer;
+        this.servingMetrics = servingMetrics;
+    }
+
+    /**
+     * @return the timer that delayed responses are sent from when the container supports async processing,
+     * or null if delays should block the request thread
+     */
+    public HashedWheelTimer getDelayedResponseTimer() {
+        return delayedResponseTimer;
     }
 
 	@Override
@@ -61,6 +113,16 @@ public class StubRequestHandler extends AbstractRequestHandler {
 		return !loggingDisabled;
 	}
 
+	@Override
+	protected ResponseBodyCapture responseBodyCapture() {
+		return responseBodyCapture;
+	}
+
+	@Override
+	protected StubServingMetrics servingMetrics() {
+		return servingMetrics;
+	}
+
     @Override
     protected void beforeResponseSent(ServeEvent serveEvent, Response response) {
         requestJournal.requestReceived(serveEvent);
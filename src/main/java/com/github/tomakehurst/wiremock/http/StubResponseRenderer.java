@@ -18,13 +18,20 @@ package com.github.tomakehurst.wiremock.http;
 import com.github.tomakehurst.wiremock.common.BinaryFile;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 
+import static com.github.tomakehurst.wiremock.common.PhaseTimings.Phase.RENDER;
+import static com.github.tomakehurst.wiremock.common.PhaseTimings.Phase.RESPONSE_TRANSFORMERS;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.FILES_ROOT;
 import static com.github.tomakehurst.wiremock.http.Response.response;
 import static com.google.common.base.MoreObjects.firstNonNull;
@@ -35,6 +42,7 @@ public class StubResponseRenderer implements ResponseRenderer {
 	private final GlobalSettingsHolder globalSettingsHolder;
 	private final ProxyResponseRenderer proxyResponseRenderer;
 	private final List<ResponseTransformer> responseTransformers;
+	private final Cache<StubMapping, PreRenderedResponse> preRenderedResponses = CacheBuilder.newBuilder().weakKeys().build();
 
     public StubResponseRenderer(FileSource fileSource,
 								GlobalSettingsHolder globalSettingsHolder,
@@ -53,19 +61,50 @@ public class StubResponseRenderer implements ResponseRenderer {
 			return Response.notConfigured();
 		}
 
+		long startNanos = System.nanoTime();
 		Response response = buildResponse(serveEvent);
-		return applyTransformations(responseDefinition.getOriginalRequest(), responseDefinition, response, responseTransformers);
+		long renderedNanos = System.nanoTime();
+		Response transformedResponse = applyTransformations(responseDefinition.getOriginalRequest(), responseDefinition, response, responseTransformers);
+		long transformedNanos = System.nanoTime();
+
+		serveEvent.recordPhaseTime(RENDER, renderedNanos - startNanos);
+		serveEvent.recordPhaseTime(RESPONSE_TRANSFORMERS, transformedNanos - renderedNanos);
+		return transformedResponse;
 	}
 
 	private Response buildResponse(ServeEvent serveEvent) {
 		if (serveEvent.getResponseDefinition().isProxyResponse()) {
 			return proxyResponseRenderer.render(serveEvent);
+		} else if (serveEvent.getWasMatched() && serveEvent.getStubMapping() != null) {
+			return renderFromStub(serveEvent);
 		} else {
 			Response.Builder responseBuilder = renderDirectly(serveEvent);
 			return responseBuilder.build();
 		}
 	}
 
+	private Response renderFromStub(ServeEvent serveEvent) {
+		StubMapping stubMapping = serveEvent.getStubMapping();
+		ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+
+		PreRenderedResponse preRendered = preRenderedResponses.getIfPresent(stubMapping);
+		if (preRendered == null || !preRendered.isFor(responseDefinition, stubMapping)) {
+			if (!responseDefinition.equals(stubMapping.getResponse())) {
+				// Changed by a transformer for this request only, so there's nothing worth keeping
+				return renderDirectly(serveEvent).build();
+			}
+
+			preRendered = new PreRenderedResponse(responseDefinition, stubMapping, renderWithoutDelay(serveEvent).build());
+			preRenderedResponses.put(stubMapping, preRendered);
+		}
+
+		if (!hasDelay(responseDefinition)) {
+			return preRendered.response;
+		}
+
+		return addDelay(Response.Builder.like(preRendered.response), responseDefinition).build();
+	}
+
 	private Response applyTransformations(Request request,
 										  ResponseDefinition responseDefinition,
 										  Response response,
@@ -84,6 +123,10 @@ public class StubResponseRenderer implements ResponseRenderer {
 	}
 
 	private Response.Builder renderDirectly(ServeEvent serveEvent) {
+		return addDelay(renderWithoutDelay(serveEvent), serveEvent.getResponseDefinition());
+	}
+
+	private Response.Builder renderWithoutDelay(ServeEvent serveEvent) {
         ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
 
         HttpHeaders headers = responseDefinition.getHeaders();
@@ -103,12 +146,6 @@ public class StubResponseRenderer implements ResponseRenderer {
 				.statusMessage(responseDefinition.getStatusMessage())
                 .headers(headers)
                 .fault(responseDefinition.getFault())
-				.configureDelay(
-					globalSettingsHolder.get().getFixedDelay(),
-					globalSettingsHolder.get().getDelayDistribution(),
-					responseDefinition.getFixedDelayMilliseconds(),
-					responseDefinition.getDelayDistribution()
-				)
 				.chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay());
 
 		if (responseDefinition.specifiesBodyFile()) {
@@ -124,4 +161,48 @@ public class StubResponseRenderer implements ResponseRenderer {
 
         return responseBuilder;
 	}
+
+	private Response.Builder addDelay(Response.Builder responseBuilder, ResponseDefinition responseDefinition) {
+		return responseBuilder.configureDelay(
+			globalSettingsHolder.get().getFixedDelay(),
+			globalSettingsHolder.get().getDelayDistribution(),
+			responseDefinition.getFixedDelayMilliseconds(),
+			responseDefinition.getDelayDistribution()
+		);
+	}
+
+	private boolean hasDelay(ResponseDefinition responseDefinition) {
+		GlobalSettings globalSettings = globalSettingsHolder.get();
+		return globalSettings.getFixedDelay() != null ||
+			globalSettings.getDelayDistribution() != null ||
+			responseDefinition.getFixedDelayMilliseconds() != null ||
+			responseDefinition.getDelayDistribution() != null;
+	}
+
+	/**
+	 * The response for a stub, built once with its headers and body and reused for every request
+	 * it serves until the stub's response definition, ID or name changes. Delays are added per request,
+	 * as they can be random or change with the global settings.
+	 */
+	private static class PreRenderedResponse {
+
+		private final ResponseDefinition responseDefinition;
+		private final UUID stubId;
+		private final String stubName;
+		private final Response response;
+
+		PreRenderedResponse(ResponseDefinition responseDefinition, StubMapping stubMapping, Response response) {
+			this.responseDefinition = responseDefinition;
+			this.stubId = stubMapping.getId();
+			this.stubName = stubMapping.getName();
+			this.response = response;
+		}
+
+		boolean isFor(ResponseDefinition responseDefinition, StubMapping stubMapping) {
+			// Served definitions are copies sharing the stub's fields, so this is usually a series of identity checks
+			return this.responseDefinition.equals(responseDefinition) &&
+				Objects.equals(stubId, stubMapping.getId()) &&
+				Objects.equals(stubName, stubMapping.getName());
+		}
+	}
 }
@@ -29,6 +29,7 @@ import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
@@ -46,11 +47,17 @@ public class SSLContextBuilder {
 
     private final Set<KeyManager> keyManagers = new LinkedHashSet<>();
     private final Set<TrustManager> trustManagers = new LinkedHashSet<>();
+    private Provider provider;
 
     public static SSLContextBuilder create() {
         return new SSLContextBuilder();
     }
 
+    public SSLContextBuilder setProvider(Provider provider) {
+        this.provider = provider;
+        return this;
+    }
+
     public SSLContextBuilder loadTrustMaterial(final KeyStore truststore) throws KeyStoreException, NoSuchAlgorithmException {
         return loadTrustMaterial(truststore, null);
     }
@@ -142,7 +149,9 @@ public class SSLContextBuilder {
     }
 
     public SSLContext build() throws NoSuchAlgorithmException, KeyManagementException {
-        final SSLContext sslContext = SSLContext.getInstance("TLS");
+        final SSLContext sslContext = provider != null ?
+                SSLContext.getInstance("TLS", provider) :
+                SSLContext.getInstance("TLS");
         initSSLContext(sslContext, keyManagers, trustManagers);
         return sslContext;
     }
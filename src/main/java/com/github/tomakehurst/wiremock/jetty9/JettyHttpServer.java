@@ -45,11 +45,9 @@ import java.lang.reflect.Method;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.util.EnumSet;
-import java.util.concurrent.ScheduledExecutorService;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.ADMIN_CONTEXT_ROOT;
-import static java.util.concurrent.Executors.newScheduledThreadPool;
 
 public class JettyHttpServer implements HttpServer {
     private static final String FILES_URL_MATCH = String.format("/%s/*", WireMockApp.FILES_ROOT);
@@ -65,7 +63,6 @@ public class JettyHttpServer implements HttpServer {
     private final ServerConnector httpConnector;
     private final ServerConnector httpsConnector;
 
-    private ScheduledExecutorService scheduledExecutorService;
 
     public JettyHttpServer(
             Options options,
@@ -118,7 +115,6 @@ public class JettyHttpServer implements HttpServer {
         ServletContextHandler mockServiceContext = addMockServiceContext(
                 stubRequestHandler,
                 options.filesRoot(),
-                options.getAsynchronousResponseSettings(),
                 options.getChunkedEncodingPolicy(),
                 options.getStubCorsEnabled(),
                 notifier
@@ -212,10 +208,6 @@ public class JettyHttpServer implements HttpServer {
     @Override
     public void stop() {
         try {
-            if (scheduledExecutorService != null) {
-                scheduledExecutorService.shutdown();
-            }
-
             jettyServer.stop();
             jettyServer.join();
         } catch (Exception e) {
@@ -364,7 +356,6 @@ public class JettyHttpServer implements HttpServer {
     private ServletContextHandler addMockServiceContext(
             StubRequestHandler stubRequestHandler,
             FileSource fileSource,
-            AsynchronousResponseSettings asynchronousResponseSettings,
             Options.ChunkedEncodingPolicy chunkedEncodingPolicy,
             boolean stubCorsEnabled,
             Notifier notifier
@@ -386,9 +377,8 @@ public class JettyHttpServer implements HttpServer {
         servletHolder.setInitParameter(FaultInjectorFactory.INJECTOR_CLASS_KEY, JettyFaultInjectorFactory.class.getName());
         servletHolder.setInitParameter(WireMockHandlerDispatchingServlet.SHOULD_FORWARD_TO_FILES_CONTEXT, "true");
 
-        if (asynchronousResponseSettings.isEnabled()) {
-            scheduledExecutorService = newScheduledThreadPool(asynchronousResponseSettings.getThreads());
-            mockServiceContext.setAttribute(WireMockHandlerDispatchingServlet.ASYNCHRONOUS_RESPONSE_EXECUTOR, scheduledExecutorService);
+        if (stubRequestHandler.getDelayedResponseTimer() != null) {
+            mockServiceContext.setAttribute(WireMockHandlerDispatchingServlet.ASYNCHRONOUS_RESPONSE_EXECUTOR, stubRequestHandler.getDelayedResponseTimer());
         }
 
         mockServiceContext.setAttribute(MultipartRequestConfigurer.KEY, buildMultipartRequestConfigurer());
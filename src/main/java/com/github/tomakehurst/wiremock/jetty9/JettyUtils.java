@@ -17,13 +17,17 @@ package com.github.tomakehurst.wiremock.jetty9;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.Socket;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
@@ -31,6 +35,7 @@ import javax.servlet.http.HttpServletResponseWrapper;
 import org.eclipse.jetty.http.HttpURI;
 import org.eclipse.jetty.io.ssl.SslConnection;
 import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.HttpOutput;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Response;
 
@@ -82,6 +87,22 @@ public class JettyUtils {
         }
     }
 
+    public static boolean canSendContent(ServletOutputStream out) {
+        return out instanceof HttpOutput;
+    }
+
+    /**
+     * Hands the channel straight to Jetty, which writes it out through its own pooled (direct) buffers
+     * rather than copying it through a stream on the heap.
+     */
+    public static void sendContent(ServletOutputStream out, FileChannel channel) throws IOException {
+        ((HttpOutput) out).sendContent(channel);
+    }
+
+    public static void sendContent(ServletOutputStream out, ByteBuffer content) throws IOException {
+        ((HttpOutput) out).sendContent(content);
+    }
+
     public static boolean uriIsAbsolute(Request request) {
         HttpURI uri = getHttpUri(request);
         return uri.getScheme() != null;
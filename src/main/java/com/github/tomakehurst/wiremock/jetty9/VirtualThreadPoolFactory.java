@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.jetty9;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.eclipse.jetty.util.component.ContainerLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.eclipse.jetty.util.thread.TryExecutor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Runs each request on its own virtual thread rather than on a fixed pool of container threads,
+ * so that requests blocked on slow I/O don't limit how many can be handled at once. Jetty's acceptor and selector
+ * loops block for as long as the server runs, which would pin the virtual threads' carriers, so they're kept on
+ * platform threads instead.
+ * Virtual threads need Java 21 or later. WireMock is built for Java 8, so they're created
+ * reflectively and building a pool on an older JVM fails with an {@link IllegalStateException}.
+ */
+public class VirtualThreadPoolFactory implements ThreadPoolFactory {
+
+    private static final String THREAD_NAME_PREFIX = "wiremock-virtual-";
+
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public ThreadPool buildThreadPool(Options options) {
+        return new VirtualThreadPool(virtualThreadFactory());
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        if (!isSupported()) {
+            throw new IllegalStateException(
+                "Virtual threads need Java 21 or later, but this is Java " + System.getProperty("java.version")
+            );
+        }
+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create a virtual thread factory", e);
+        }
+    }
+
+    static class VirtualThreadPool extends ContainerLifeCycle implements ThreadPool, TryExecutor {
+
+        private final ThreadFactory threadFactory;
+        private final AtomicInteger threads = new AtomicInteger();
+        private volatile CountDownLatch stopped = new CountDownLatch(1);
+        private volatile ExecutorService platformExecutor;
+
+        VirtualThreadPool(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public void execute(final Runnable task) {
+            if (!isRunning() && !isStarting()) {
+                throw new RejectedExecutionException("Thread pool is not running");
+            }
+
+            if (isAcceptorOrSelector(task)) {
+                platformExecutor.execute(task);
+                return;
+            }
+
+            threads.incrementAndGet();
+            try {
+                threadFactory.newThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            task.run();
+                        } finally {
+                            threads.decrementAndGet();
+                        }
+                    }
+                }).start();
+            } catch (RuntimeException | Error e) {
+                threads.decrementAndGet();
+                throw e;
+            }
+        }
+
+        /**
+         * Refusing means a selector that finds a request to handle dispatches it with {@link #execute(Runnable)}
+         * and carries on selecting, rather than handling it on its own platform thread and handing selection over.
+         */
+        @Override
+        public boolean tryExecute(Runnable task) {
+            return false;
+        }
+
+        // Jetty 9.4 doesn't mark these tasks, so they're recognised by where they come from
+        private static boolean isAcceptorOrSelector(Runnable task) {
+            String taskClass = task.getClass().getName();
+            return taskClass.startsWith("org.eclipse.jetty.server.AbstractConnector$Acceptor") ||
+                taskClass.startsWith("org.eclipse.jetty.io.ManagedSelector") ||
+                taskClass.startsWith("org.eclipse.jetty.util.thread.strategy.EatWhatYouKill");
+        }
+
+        @Override
+        protected void doStart() throws Exception {
+            stopped = new CountDownLatch(1);
+            // Only as many threads as there are acceptors and selectors, which Jetty starts once
+            platformExecutor = new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE,
+                60, SECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("wiremock-selector-%d").setDaemon(true).build()
+            );
+            super.doStart();
+        }
+
+        @Override
+        protected void doStop() throws Exception {
+            super.doStop();
+            platformExecutor.shutdown();
+            stopped.countDown();
+        }
+
+        @Override
+        public void join() throws InterruptedException {
+            stopped.await();
+        }
+
+        @Override
+        public int getThreads() {
+            return threads.get();
+        }
+
+        @Override
+        public int getIdleThreads() {
+            return 0;
+        }
+
+        @Override
+        public boolean isLowOnThreads() {
+            return false;
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.github.tomakehurst.wiremock.matching;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import net.javacrumbs.jsonunit.core.Configuration;
 import net.javacrumbs.jsonunit.core.Option;
 import net.javacrumbs.jsonunit.core.internal.Diff;
@@ -32,65 +34,93 @@ public class EqualToJsonPattern extends StringValuePattern {
     private final Boolean ignoreExtraElements;
     private final Boolean serializeAsString;
 
+    private final Configuration diffConfig;
+    private final JsonShape expectedShape;
+    private final boolean expectedContainsPlaceholders;
+    private final int expectedDeepSize;
+
     public EqualToJsonPattern(@JsonProperty("equalToJson") String json,
                               @JsonProperty("ignoreArrayOrder") Boolean ignoreArrayOrder,
                               @JsonProperty("ignoreExtraElements") Boolean ignoreExtraElements) {
-        super(json);
-        expected = Json.read(json, JsonNode.class);
-        this.ignoreArrayOrder = ignoreArrayOrder;
-        this.ignoreExtraElements = ignoreExtraElements;
-        this.serializeAsString = true;
+        this(json, Json.read(json, JsonNode.class), ignoreArrayOrder, ignoreExtraElements, true);
     }
 
     public EqualToJsonPattern(JsonNode jsonNode,
                               Boolean ignoreArrayOrder,
                               Boolean ignoreExtraElements) {
-        super(Json.write(jsonNode));
+        this(Json.write(jsonNode), jsonNode, ignoreArrayOrder, ignoreExtraElements, false);
+    }
+
+    private EqualToJsonPattern(String json,
+                               JsonNode jsonNode,
+                               Boolean ignoreArrayOrder,
+                               Boolean ignoreExtraElements,
+                               boolean serializeAsString) {
+        super(json);
         expected = jsonNode;
         this.ignoreArrayOrder = ignoreArrayOrder;
         this.ignoreExtraElements = ignoreExtraElements;
-        this.serializeAsString = false;
+        this.serializeAsString = serializeAsString;
+
+        diffConfig = buildDiffConfig();
+        expectedShape = JsonShape.of(expected, shouldIgnoreArrayOrder(), shouldIgnoreExtraElements());
+        expectedContainsPlaceholders = expected != null && JsonShape.containsPlaceholders(expected);
+        expectedDeepSize = Json.deepSize(expected);
     }
 
-    @Override
-    public MatchResult match(String value) {
-        final CountingDiffListener diffListener = new CountingDiffListener();
-        Configuration diffConfig = Configuration.empty()
-                .withDifferenceListener(diffListener);
+    private Configuration buildDiffConfig() {
+        Configuration config = Configuration.empty();
 
         if (shouldIgnoreArrayOrder()) {
-            diffConfig = diffConfig.withOptions(Option.IGNORING_ARRAY_ORDER);
+            config = config.withOptions(Option.IGNORING_ARRAY_ORDER);
         }
 
         if (shouldIgnoreExtraElements()) {
-            diffConfig = diffConfig.withOptions(Option.IGNORING_EXTRA_ARRAY_ITEMS, Option.IGNORING_EXTRA_FIELDS);
+            config = config.withOptions(Option.IGNORING_EXTRA_ARRAY_ITEMS, Option.IGNORING_EXTRA_FIELDS);
         }
 
+        return config;
+    }
+
+    @Override
+    public MatchResult match(String value) {
         final JsonNode actual;
-        final Diff diff;
         try {
-            actual = Json.read(value, JsonNode.class);
-            diff = Diff.create(
-                    expected, // JsonUnit knows how to work with JsonNode
-                    actual,
-                    "",
-                    "",
-                    diffConfig
-            );
+            actual = ParsedBodyCache.json(value);
         } catch (Exception e) {
             return MatchResult.noMatch();
         }
 
+        // Identical documents are similar whatever the options, as long as no placeholders need interpreting
+        if (!expectedContainsPlaceholders && expected != null && expected.equals(actual)) {
+            return MatchResult.exactMatch();
+        }
+
+        final boolean couldBeSimilar = expectedShape.admits(actual);
+        final CountingDiffListener diffListener = new CountingDiffListener();
+        final Supplier<Diff> diff = Suppliers.memoize(new Supplier<Diff>() {
+            @Override
+            public Diff get() {
+                return Diff.create(
+                        expected, // JsonUnit knows how to work with JsonNode
+                        actual,
+                        "",
+                        "",
+                        diffConfig.withDifferenceListener(diffListener)
+                );
+            }
+        });
+
         return new MatchResult() {
             @Override
             public boolean isExactMatch() {
-                return diff.similar();
+                return couldBeSimilar && diff.get().similar();
             }
 
             @Override
             public double getDistance() {
-                diff.similar();
-                double maxNodes = maxDeepSize(expected, actual);
+                diff.get().similar();
+                double maxNodes = Math.max(expectedDeepSize, Json.deepSize(actual));
                 return diffListener.count / maxNodes;
             }
         };
@@ -145,6 +175,14 @@ public class EqualToJsonPattern extends StringValuePattern {
     }
 
     private static int deepSize(Object nodeObj) {
+        if (nodeObj instanceof JsonNode) {
+            return Json.deepSize((JsonNode) nodeObj);
+        }
+
+        if (nodeObj instanceof CharSequence || nodeObj instanceof Number || nodeObj instanceof Boolean) {
+            return 1;
+        }
+
         JsonNode jsonNode = Json.getObjectMapper().convertValue(nodeObj, JsonNode.class);
         return Json.deepSize(jsonNode);
     }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.matching;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A structural fingerprint of an expected JSON document - the key set of every object, the size of every array
+ * and the type of every leaf - built once so that documents which can't possibly be similar to it can be
+ * rejected without running a full diff. It only ever rules documents out: anything it admits still needs diffing.
+ * JsonUnit placeholders (e.g. <code>${json-unit.any-string}</code>) match anything, and containers holding
+ * them are only checked for their other keys.
+ */
+abstract class JsonShape {
+
+    private static final JsonShape ANYTHING = new JsonShape() {
+        @Override
+        boolean admits(JsonNode actual) {
+            return true;
+        }
+    };
+
+    static JsonShape of(JsonNode expected, boolean ignoreArrayOrder, boolean ignoreExtraElements) {
+        if (expected == null || isPlaceholder(expected)) {
+            return ANYTHING;
+        }
+
+        if (expected.isObject()) {
+            ImmutableMap.Builder<String, JsonShape> fields = ImmutableMap.builder();
+            Iterator<Map.Entry<String, JsonNode>> iterator = expected.fields();
+            while (iterator.hasNext()) {
+                Map.Entry<String, JsonNode> field = iterator.next();
+                fields.put(field.getKey(), of(field.getValue(), ignoreArrayOrder, ignoreExtraElements));
+            }
+            return new ObjectShape(fields.build(), ignoreExtraElements);
+        }
+
+        if (expected.isArray()) {
+            ImmutableList.Builder<JsonShape> elements = ImmutableList.builder();
+            for (JsonNode element: expected) {
+                elements.add(of(element, ignoreArrayOrder, ignoreExtraElements));
+            }
+            return new ArrayShape(elements.build(), !ignoreArrayOrder && !ignoreExtraElements, ignoreExtraElements);
+        }
+
+        return new LeafShape(expected.getNodeType());
+    }
+
+    static boolean containsPlaceholders(JsonNode node) {
+        if (isPlaceholder(node)) {
+            return true;
+        }
+
+        for (JsonNode child: node) {
+            if (containsPlaceholders(child)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isPlaceholder(JsonNode node) {
+        return node.isTextual() && node.textValue().contains("{json-unit.");
+    }
+
+    abstract boolean admits(JsonNode actual);
+
+    private static class ObjectShape extends JsonShape {
+
+        private final Map<String, JsonShape> fields;
+        private final boolean allowsExtraFields;
+
+        ObjectShape(Map<String, JsonShape> fields, boolean allowsExtraFields) {
+            this.fields = fields;
+            this.allowsExtraFields = allowsExtraFields || fields.containsValue(ANYTHING);
+        }
+
+        @Override
+        boolean admits(JsonNode actual) {
+            if (actual == null || !actual.isObject()) {
+                return false;
+            }
+
+            if (!allowsExtraFields && actual.size() != fields.size()) {
+                return false;
+            }
+
+            for (Map.Entry<String, JsonShape> field: fields.entrySet()) {
+                if (field.getValue() == ANYTHING) {
+                    continue;
+                }
+
+                if (!field.getValue().admits(actual.get(field.getKey()))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static class ArrayShape extends JsonShape {
+
+        private final List<JsonShape> elements;
+        private final boolean checksElements;
+        private final boolean allowsExtraItems;
+        private final boolean containsPlaceholders;
+
+        ArrayShape(List<JsonShape> elements, boolean checksElements, boolean allowsExtraItems) {
+            this.elements = elements;
+            this.checksElements = checksElements;
+            this.allowsExtraItems = allowsExtraItems;
+            this.containsPlaceholders = elements.contains(ANYTHING);
+        }
+
+        @Override
+        boolean admits(JsonNode actual) {
+            if (actual == null || !actual.isArray()) {
+                return false;
+            }
+
+            if (containsPlaceholders) {
+                return true;
+            }
+
+            if (allowsExtraItems ? actual.size() < elements.size() : actual.size() != elements.size()) {
+                return false;
+            }
+
+            if (checksElements) {
+                for (int i = 0; i < elements.size(); i++) {
+                    if (!elements.get(i).admits(actual.get(i))) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static class LeafShape extends JsonShape {
+
+        private final JsonNodeType type;
+
+        LeafShape(JsonNodeType type) {
+            this.type = type;
+        }
+
+        @Override
+        boolean admits(JsonNode actual) {
+            return actual != null && actual.getNodeType() == type;
+        }
+    }
+}
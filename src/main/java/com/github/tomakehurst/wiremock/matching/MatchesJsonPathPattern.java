@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.common.ListOrSingle;
+import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
@@ -33,9 +34,12 @@ import static java.util.stream.Collectors.toList;
 @JsonSerialize(using = JsonPathPatternJsonSerializer.class)
 public class MatchesJsonPathPattern extends PathPattern {
 
+    private final JsonPath jsonPath;
+
     public MatchesJsonPathPattern(@JsonProperty("matchesJsonPath") String expectedJsonPath,
                                   StringValuePattern valuePattern) {
         super(expectedJsonPath, valuePattern);
+        jsonPath = compileOrNull(expectedJsonPath);
     }
 
     public MatchesJsonPathPattern(String value) {
@@ -55,7 +59,7 @@ public class MatchesJsonPathPattern extends PathPattern {
             return MatchResult.noMatch();
         }
         try {
-            Object obj = JsonPath.read(value, expectedValue);
+            Object obj = read(value);
 
             boolean result;
             if (obj instanceof Collection) {
@@ -118,7 +122,7 @@ public class MatchesJsonPathPattern extends PathPattern {
 
         Object obj = null;
         try {
-            obj = JsonPath.read(value, expectedValue);
+            obj = read(value);
         } catch (PathNotFoundException pnfe) {
         } catch (Exception e) {
             String error;
@@ -149,4 +153,19 @@ public class MatchesJsonPathPattern extends PathPattern {
 
         return expressionResult;
     }
+
+    private Object read(String value) {
+        // An invalid expression is left uncompiled so it fails, and is reported, when matching as it always has
+        return jsonPath != null ?
+            ParsedBodyCache.jsonPathDocument(value).read(jsonPath) :
+            ParsedBodyCache.jsonPathDocument(value).read(expectedValue);
+    }
+
+    private static JsonPath compileOrNull(String expression) {
+        try {
+            return JsonPath.compile(expression);
+        } catch (InvalidPathException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
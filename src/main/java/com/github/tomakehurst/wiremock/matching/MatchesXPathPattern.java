@@ -37,6 +37,7 @@ import static com.google.common.collect.Sets.newTreeSet;
 public class MatchesXPathPattern extends PathPattern {
 
     private final Map<String, String> xpathNamespaces;
+    private final CompiledXPath compiledXPath;
 
     public MatchesXPathPattern(String xpath) {
         this(xpath, null, null);
@@ -55,6 +56,7 @@ public class MatchesXPathPattern extends PathPattern {
                                @JsonProperty("valuePattern") StringValuePattern valuePattern) {
         super(xpath, valuePattern);
         xpathNamespaces = namespaces == null || namespaces.isEmpty() ? null : namespaces;
+        compiledXPath = CompiledXPath.compile(xpath, xpathNamespaces);
     }
 
     public MatchesXPathPattern withXPathNamespace(String name, String namespaceUri) {
@@ -118,8 +120,8 @@ public class MatchesXPathPattern extends PathPattern {
         }
 
         try {
-            XmlDocument xmlDocument = Xml.parse(value);
-            return xmlDocument.findNodes(expectedValue, xpathNamespaces);
+            XmlDocument xmlDocument = ParsedBodyCache.xml(value);
+            return xmlDocument.findNodes(compiledXPath);
         } catch (XmlException e) {
             notifier().info(String.format(
                     "Warning: failed to parse the XML document. Reason: %s\nXML: %s", e.getMessage(), value));
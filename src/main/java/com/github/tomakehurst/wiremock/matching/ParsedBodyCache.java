@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.matching;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.xml.Xml;
+import com.github.tomakehurst.wiremock.common.xml.XmlDocument;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Holds the parsed forms of the request body currently being matched on this thread, so that
+ * every body pattern evaluated against the same request shares a single JSON, JsonPath and XML parse.
+ * A different body replaces the cached one, and request handlers call {@link #clear()} once a request is done.
+ * Parsed values are shared between patterns and must not be modified.
+ */
+public class ParsedBodyCache {
+
+    private static final ThreadLocal<ParsedBody> CURRENT = new ThreadLocal<>();
+
+    private ParsedBodyCache() {}
+
+    public static JsonNode json(String body) {
+        if (body == null) {
+            return Json.read(body, JsonNode.class);
+        }
+
+        ParsedBody parsedBody = parsedBodyFor(body);
+        if (parsedBody.json == null && parsedBody.jsonFailure == null) {
+            try {
+                parsedBody.json = Json.read(body, JsonNode.class);
+            } catch (RuntimeException e) {
+                parsedBody.jsonFailure = e;
+            }
+        }
+
+        return returnOrThrow(parsedBody.json, parsedBody.jsonFailure);
+    }
+
+    public static DocumentContext jsonPathDocument(String body) {
+        if (body == null) {
+            return JsonPath.parse(body);
+        }
+
+        ParsedBody parsedBody = parsedBodyFor(body);
+        if (parsedBody.jsonPathDocument == null && parsedBody.jsonPathFailure == null) {
+            try {
+                parsedBody.jsonPathDocument = JsonPath.parse(body);
+            } catch (RuntimeException e) {
+                parsedBody.jsonPathFailure = e;
+            }
+        }
+
+        return returnOrThrow(parsedBody.jsonPathDocument, parsedBody.jsonPathFailure);
+    }
+
+    public static XmlDocument xml(String body) {
+        if (body == null) {
+            return Xml.parse(body);
+        }
+
+        ParsedBody parsedBody = parsedBodyFor(body);
+        if (parsedBody.xml == null && parsedBody.xmlFailure == null) {
+            try {
+                parsedBody.xml = Xml.parse(body);
+            } catch (RuntimeException e) {
+                parsedBody.xmlFailure = e;
+            }
+        }
+
+        return returnOrThrow(parsedBody.xml, parsedBody.xmlFailure);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    private static ParsedBody parsedBodyFor(String body) {
+        ParsedBody parsedBody = CURRENT.get();
+        if (parsedBody == null || !parsedBody.isFor(body)) {
+            parsedBody = new ParsedBody(body);
+            CURRENT.set(parsedBody);
+        }
+
+        return parsedBody;
+    }
+
+    private static <T> T returnOrThrow(T value, RuntimeException failure) {
+        if (failure != null) {
+            throw failure;
+        }
+
+        return value;
+    }
+
+    private static class ParsedBody {
+
+        private final String body;
+
+        private JsonNode json;
+        private RuntimeException jsonFailure;
+        private DocumentContext jsonPathDocument;
+        private RuntimeException jsonPathFailure;
+        private XmlDocument xml;
+        private RuntimeException xmlFailure;
+
+        ParsedBody(String body) {
+            this.body = body;
+        }
+
+        boolean isFor(String otherBody) {
+            return body == otherBody || (body.length() == otherBody.length() && body.equals(otherBody));
+        }
+    }
+}
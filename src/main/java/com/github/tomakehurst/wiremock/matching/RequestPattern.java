@@ -56,6 +56,7 @@ public class RequestPattern implements NamedValueMatcher<Request> {
     private final List<MultipartValuePattern> multipartPatterns;
 
     private final CustomMatcherDefinition customMatcherDefinition;
+    private final ValueMatcher<Request> inlineCustomMatcher;
     private final ValueMatcher<Request> matcher;
     private final boolean hasInlineCustomMatcher;
 
@@ -84,6 +85,7 @@ public class RequestPattern implements NamedValueMatcher<Request> {
         this.bodyPatterns = bodyPatterns;
         this.customMatcherDefinition = customMatcherDefinition;
         this.multipartPatterns = multiPattern;
+        this.inlineCustomMatcher = customMatcher;
         this.hasInlineCustomMatcher = customMatcher != null;
 
         this.matcher = new RequestMatcher() {
@@ -339,8 +341,87 @@ public class RequestPattern implements NamedValueMatcher<Request> {
         return MatchResult.exactMatch();
     }
 
+    /**
+     * Equivalent to {@code match(request, customMatchers).isExactMatch()}, but checks the cheapest
+     * elements first and stops at the first one that doesn't match, so body patterns and custom matchers
+     * are only evaluated for requests that already match on everything else.
+     */
     public boolean isMatchedBy(Request request, Map<String, RequestMatcherExtension> customMatchers) {
-        return match(request, customMatchers).isExactMatch();
+        return method.match(request.getMethod()).isExactMatch() &&
+            url.match(request.getUrl()).isExactMatch() &&
+            schemeMatches(request).isExactMatch() &&
+            hostMatches(request).isExactMatch() &&
+            portMatches(request).isExactMatch() &&
+            allHeadersMatchExactly(request) &&
+            allQueryParamsMatchExactly(request) &&
+            allCookiesMatch(request).isExactMatch() &&
+            allBodyPatternsMatchExactly(request) &&
+            allMultipartPatternsMatch(request).isExactMatch() &&
+            customMatchersMatchExactly(request, customMatchers);
+    }
+
+    private boolean allHeadersMatchExactly(Request request) {
+        Map<String, MultiValuePattern> combinedHeaders = combineBasicAuthAndOtherHeaders();
+        if (combinedHeaders != null) {
+            for (Map.Entry<String, MultiValuePattern> headerPattern: combinedHeaders.entrySet()) {
+                if (!headerPattern.getValue().match(request.header(headerPattern.getKey())).isExactMatch()) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean allQueryParamsMatchExactly(Request request) {
+        if (queryParams != null) {
+            for (Map.Entry<String, MultiValuePattern> queryParamPattern: queryParams.entrySet()) {
+                if (!queryParamPattern.getValue().match(request.queryParameter(queryParamPattern.getKey())).isExactMatch()) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean allBodyPatternsMatchExactly(Request request) {
+        if (bodyPatterns == null || bodyPatterns.isEmpty() || request.getBody() == null) {
+            return true;
+        }
+
+        for (ContentPattern pattern: bodyPatterns) {
+            MatchResult matchResult;
+            if (StringValuePattern.class.isAssignableFrom(pattern.getClass())) {
+                String body = StringUtils.isEmpty(request.getBodyAsString()) ?
+                        null :
+                        request.getBodyAsString();
+                matchResult = pattern.match(body);
+            } else {
+                matchResult = pattern.match(request.getBody());
+            }
+
+            if (!matchResult.isExactMatch()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean customMatchersMatchExactly(Request request, Map<String, RequestMatcherExtension> customMatchers) {
+        if (hasInlineCustomMatcher && !inlineCustomMatcher.match(request).isExactMatch()) {
+            return false;
+        }
+
+        if (customMatcherDefinition != null) {
+            RequestMatcherExtension requestMatcher =
+                firstNonNull(customMatchers.get(customMatcherDefinition.getName()), NEVER);
+            return requestMatcher.match(request, customMatcherDefinition.getParameters()).isExactMatch();
+        }
+
+        return true;
     }
 
     public String getScheme() {
@@ -474,7 +555,7 @@ public class RequestPattern implements NamedValueMatcher<Request> {
         return new Predicate<Request>() {
             @Override
             public boolean apply(Request request) {
-                return pattern.match(request).isExactMatch();
+                return pattern.isMatchedBy(request, Collections.<String, RequestMatcherExtension>emptyMap());
             }
         };
     }
@@ -483,7 +564,7 @@ public class RequestPattern implements NamedValueMatcher<Request> {
         return new Predicate<ServeEvent>() {
             @Override
             public boolean apply(ServeEvent serveEvent) {
-                return pattern.match(serveEvent.getRequest()).isExactMatch();
+                return pattern.isMatchedBy(serveEvent.getRequest(), Collections.<String, RequestMatcherExtension>emptyMap());
             }
         };
     }
@@ -15,10 +15,13 @@
  */
 package com.github.tomakehurst.wiremock.matching;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.google.common.base.Objects;
 
+import static java.lang.Boolean.TRUE;
+
 public class UrlPattern implements NamedValueMatcher<String> {
 
     public static final UrlPattern ANY = new UrlPattern(new AnythingPattern(), false);
@@ -94,4 +97,18 @@ public class UrlPattern implements NamedValueMatcher<String> {
     public boolean isSpecified() {
         return pattern.getClass() != AnythingPattern.class;
     }
+
+    /**
+     * Returns the only URL (or path, for a path pattern) this pattern can match,
+     * or null if it could match more than one value.
+     */
+    @JsonIgnore
+    public String getExactValue() {
+        if (regex || pattern == null || pattern.getClass() != EqualToPattern.class) {
+            return null;
+        }
+
+        EqualToPattern equalToPattern = (EqualToPattern) pattern;
+        return TRUE.equals(equalToPattern.getCaseInsensitive()) ? null : equalToPattern.getValue();
+    }
 }
@@ -92,6 +92,21 @@ public class Recorder {
         return result;
     }
 
+    // Only part of a streamed proxy body is journaled once it's over the capture limit,
+    // so a stub recorded from it would serve the wrong body
+    private static final Predicate<ServeEvent> WITH_COMPLETE_RESPONSE_BODY = new Predicate<ServeEvent>() {
+        @Override
+        public boolean apply(ServeEvent serveEvent) {
+            if (serveEvent.getResponse() != null && serveEvent.getResponse().isBodyTruncated()) {
+                notifier().error("Not recording a stub for " + serveEvent.getRequest().getUrl() +
+                    " because only part of its response body was kept in the request journal");
+                return false;
+            }
+
+            return true;
+        }
+    };
+
     private static Predicate<ServeEvent> withId(final UUID id) {
         return new Predicate<ServeEvent>() {
             @Override
@@ -127,6 +142,7 @@ public class Recorder {
     ) {
         final Iterable<StubMapping> stubMappings = from(serveEventsResult)
             .filter(serveEventFilters)
+            .filter(WITH_COMPLETE_RESPONSE_BODY)
             .transform(stubMappingGenerator);
 
         return stubMappingPostProcessor.process(stubMappings);
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.servlet;
+
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Writes a chunked body with a pause before each chunk using non-blocking servlet output. Each chunk is written by
+ * a task on a shared timer, so a response waiting for its next chunk doesn't hold a thread.
+ */
+class ChunkedDribbleWriter implements WriteListener {
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final HashedWheelTimer timer;
+    private final byte[][] chunks;
+    private final long chunkIntervalMillis;
+
+    private int nextChunk;
+    private boolean chunkDue;
+    private boolean flushPending;
+    private boolean waitingForInterval;
+    private boolean completed;
+
+    private ChunkedDribbleWriter(AsyncContext asyncContext,
+                                 ServletOutputStream out,
+                                 HashedWheelTimer timer,
+                                 byte[][] chunks,
+                                 long chunkIntervalMillis) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.timer = timer;
+        this.chunks = chunks;
+        this.chunkIntervalMillis = chunkIntervalMillis;
+    }
+
+    static void start(AsyncContext asyncContext,
+                      ServletOutputStream out,
+                      HashedWheelTimer timer,
+                      byte[][] chunks,
+                      long chunkIntervalMillis) {
+        // The dribble can legitimately outlast the container's default async timeout
+        asyncContext.setTimeout(0);
+        out.setWriteListener(new ChunkedDribbleWriter(asyncContext, out, timer, chunks, chunkIntervalMillis));
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+        while (!completed && !waitingForInterval && out.isReady()) {
+            if (flushPending) {
+                flushPending = false;
+                out.flush();
+            } else if (nextChunk == chunks.length) {
+                complete();
+            } else if (chunkDue) {
+                chunkDue = false;
+                flushPending = true;
+                out.write(chunks[nextChunk++]);
+            } else {
+                scheduleNextChunk();
+            }
+        }
+    }
+
+    private void scheduleNextChunk() {
+        waitingForInterval = true;
+        try {
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    writeDueChunk();
+                }
+            }, chunkIntervalMillis, MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The server is shutting down
+            complete();
+        }
+    }
+
+    private synchronized void writeDueChunk() {
+        waitingForInterval = false;
+        chunkDue = true;
+        try {
+            onWritePossible();
+        } catch (IOException e) {
+            // Most likely the client has gone away, which is a perfectly valid outcome for a slow response
+            complete();
+        }
+    }
+
+    @Override
+    public synchronized void onError(Throwable t) {
+        complete();
+    }
+
+    private void complete() {
+        if (!completed) {
+            completed = true;
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException ignored) {
+                // The container has already completed the response after an error
+            }
+        }
+    }
+}
@@ -22,6 +22,8 @@ import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.ProxyResponseCache;
+import com.github.tomakehurst.wiremock.http.ResponseBodyCapture;
 import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
 import com.github.tomakehurst.wiremock.http.trafficlistener.DoNothingWiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.WiremockNetworkTrafficListener;
@@ -175,6 +177,31 @@ public class WarConfiguration implements Options {
         return new PlainTextStubNotMatchedRenderer();
     }
 
+    @Override
+    public ResponseBodyCapture getJournalResponseBodyCapture() {
+        return ResponseBodyCapture.FULL;
+    }
+
+    @Override
+    public long getBodyFileCacheMaxBytes() {
+        return 0;
+    }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return ProxyStreamingSettings.DISABLED;
+    }
+
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        return ProxyConnectionPoolSettings.DEFAULTS;
+    }
+
+    @Override
+    public long getProxyResponseCacheMaxBytes() {
+        return ProxyResponseCache.DEFAULT_MAX_BYTES;
+    }
+
     @Override
     public AsynchronousResponseSettings getAsynchronousResponseSettings() {
         return new AsynchronousResponseSettings(false, 0);
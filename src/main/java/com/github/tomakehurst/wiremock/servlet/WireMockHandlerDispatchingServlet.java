@@ -15,14 +15,18 @@
  */
 package com.github.tomakehurst.wiremock.servlet;
 
+import com.github.tomakehurst.wiremock.common.BinaryFile;
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
 import com.github.tomakehurst.wiremock.common.LocalNotifier;
 import com.github.tomakehurst.wiremock.common.Notifier;
 import com.github.tomakehurst.wiremock.core.FaultInjector;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockApp;
 import com.github.tomakehurst.wiremock.http.*;
+import com.github.tomakehurst.wiremock.jetty9.JettyUtils;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServlet;
@@ -30,7 +34,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.ScheduledExecutorService;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.core.Options.ChunkedEncodingPolicy.BODY_FILE;
@@ -41,7 +46,6 @@ import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.net.URLDecoder.decode;
-import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class WireMockHandlerDispatchingServlet extends HttpServlet {
@@ -49,10 +53,12 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
     public static final String SHOULD_FORWARD_TO_FILES_CONTEXT = "shouldForwardToFilesContext";
     public static final String ASYNCHRONOUS_RESPONSE_EXECUTOR = WireMockHandlerDispatchingServlet.class.getSimpleName() + ".asynchronousResponseExecutor";
     public static final String MAPPED_UNDER_KEY = "mappedUnder";
+    private static final String ASYNCHRONOUS_DRIBBLE_STARTED = WireMockHandlerDispatchingServlet.class.getSimpleName() + ".asynchronousDribbleStarted";
 
 	private static final long serialVersionUID = -6602042274260495538L;
 
-    private ScheduledExecutorService scheduledExecutorService;
+    private HashedWheelTimer delayedResponseTimer;
+    private HashedWheelTimer dribbleTimer;
 
     private RequestHandler requestHandler;
     private FaultInjectorFactory faultHandlerFactory;
@@ -72,7 +78,7 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 	        wiremockFileSourceRoot = context.getInitParameter("WireMockFileSourceRoot");
 	    }
 
-        scheduledExecutorService = (ScheduledExecutorService) context.getAttribute(ASYNCHRONOUS_RESPONSE_EXECUTOR);
+        delayedResponseTimer = (HashedWheelTimer) context.getAttribute(ASYNCHRONOUS_RESPONSE_EXECUTOR);
 
         String handlerClassName = config.getInitParameter(RequestHandler.HANDLER_CLASS_KEY);
 		String faultInjectorFactoryClassName = config.getInitParameter(FaultInjectorFactory.INJECTOR_CLASS_KEY);
@@ -95,6 +101,14 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
                 Options.ChunkedEncodingPolicy.ALWAYS;
 	}
 
+	@Override
+	public synchronized void destroy() {
+		if (dribbleTimer != null) {
+			dribbleTimer.stop();
+			dribbleTimer = null;
+		}
+	}
+
 	private String getNormalizedMappedUnder(ServletConfig config) {
 		String mappedUnder = config.getInitParameter(MAPPED_UNDER_KEY);
 		if(mappedUnder == null) {
@@ -132,7 +146,7 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 		}
 
 		@Override
-		public void respond(final Request request, final Response response) {
+		public void respond(final Request request, final Response response, Runnable afterSent) {
 			if (Thread.currentThread().isInterrupted()) {
 				return;
 			}
@@ -140,12 +154,37 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 			httpServletRequest.setAttribute(ORIGINAL_REQUEST_KEY, LoggedRequest.createFrom(request));
 
             if (isAsyncSupported(response, httpServletRequest)) {
-                respondAsync(request, response);
+                respondAsync(request, response, afterSent);
             } else {
                 respondSync(request, response);
+                if (httpServletRequest.isAsyncStarted()) {
+                    // The body is still being dribbled out
+                    runWhenComplete(httpServletRequest.getAsyncContext(), afterSent);
+                } else {
+                    afterSent.run();
+                }
             }
         }
 
+        private void runWhenComplete(AsyncContext asyncContext, final Runnable afterSent) {
+            asyncContext.addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    LocalNotifier.set(notifier);
+                    afterSent.run();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+            });
+        }
+
         private void respondSync(Request request, Response response) {
             delayIfRequired(response.getInitialDelay());
             respondTo(request, response);
@@ -161,20 +200,33 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
         }
 
         private boolean isAsyncSupported(Response response, HttpServletRequest httpServletRequest) {
-            return scheduledExecutorService != null && response.getInitialDelay() > 0 && httpServletRequest.isAsyncSupported();
+            return delayedResponseTimer != null && response.getInitialDelay() > 0 && httpServletRequest.isAsyncSupported();
         }
 
-        private void respondAsync(final Request request, final Response response) {
+        private void respondAsync(final Request request, final Response response, Runnable afterSent) {
             final AsyncContext asyncContext = httpServletRequest.startAsync();
-            scheduledExecutorService.schedule(new Runnable() {
+            runWhenComplete(asyncContext, afterSent);
+            final Runnable respond = new Runnable() {
                 @Override
                 public void run() {
+                    LocalNotifier.set(notifier);
                     try {
                         respondTo(request, response);
                     } finally {
-                        asyncContext.complete();
+                        if (httpServletRequest.getAttribute(ASYNCHRONOUS_DRIBBLE_STARTED) == null) {
+                            asyncContext.complete();
+                        }
                     }
                 }
+            };
+
+            // The timer's thread only hands the response back to the container, so a slow client holds up one
+            // of the server's request threads rather than every other delayed response
+            delayedResponseTimer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    asyncContext.start(respond);
+                }
             }, response.getInitialDelay(), MILLISECONDS);
         }
 
@@ -216,13 +268,15 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 
         if ((chunkedEncodingPolicy == NEVER || (chunkedEncodingPolicy == BODY_FILE && response.hasInlineBody())) &&
                 httpServletResponse.getHeader(CONTENT_LENGTH) == null) {
-            httpServletResponse.setContentLength(response.getBody().length);
+            httpServletResponse.setContentLengthLong(response.getBodyLength());
         }
 
-        if (response.shouldAddChunkedDribbleDelay()) {
+        if (response.shouldAddChunkedDribbleDelay() && httpServletRequest.isAsyncSupported()) {
+            dribbleAsynchronously(httpServletRequest, httpServletResponse, response.getBodyStream(), response.getChunkedDribbleDelay());
+        } else if (response.shouldAddChunkedDribbleDelay()) {
 			writeAndTranslateExceptionsWithChunkedDribbleDelay(httpServletResponse, response.getBodyStream(), response.getChunkedDribbleDelay());
 		} else {
-			writeAndTranslateExceptions(httpServletResponse, response.getBodyStream());
+			writeAndTranslateExceptions(httpServletResponse, response);
 		}
     }
 
@@ -230,21 +284,85 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 	    return faultHandlerFactory.buildFaultInjector(httpServletRequest, httpServletResponse);
 	}
 
-    private static void writeAndTranslateExceptions(HttpServletResponse httpServletResponse, InputStream content) {
+    private static void writeAndTranslateExceptions(HttpServletResponse httpServletResponse, Response response) {
         try (ServletOutputStream out = httpServletResponse.getOutputStream()) {
-            ByteStreams.copy(content, out);
+            boolean canSendContent = JettyUtils.isJetty() && JettyUtils.canSendContent(out);
+            BinaryFile bodyFile = response.getBodyFile();
+            ByteBuffer bodyBuffer = response.getBodyBuffer();
+            if (canSendContent && bodyFile != null && (bodyFile.isCached() || bodyFile.isLocalFile())) {
+                sendBodyFile(httpServletResponse, out, bodyFile);
+            } else if (canSendContent && bodyBuffer != null) {
+                commitHeadersUnlessContentLengthSet(httpServletResponse, out);
+                JettyUtils.sendContent(out, bodyBuffer);
+            } else {
+                response.writeBodyTo(out);
+            }
             out.flush();
         } catch (IOException e) {
             throwUnchecked(e);
-        } finally {
-            try {
-                content.close();
-            } catch (IOException e) {
-                // well, we tried
+        }
+    }
+
+    private static void sendBodyFile(HttpServletResponse httpServletResponse, ServletOutputStream out, BinaryFile bodyFile) throws IOException {
+        if (bodyFile.isCached()) {
+            ByteBuffer contents = ByteBuffer.wrap(bodyFile.readContents());
+            commitHeadersUnlessContentLengthSet(httpServletResponse, out);
+            JettyUtils.sendContent(out, contents);
+            return;
+        }
+
+        try (FileChannel channel = bodyFile.openChannel()) {
+            commitHeadersUnlessContentLengthSet(httpServletResponse, out);
+            JettyUtils.sendContent(out, channel);
+        }
+    }
+
+    private static void commitHeadersUnlessContentLengthSet(HttpServletResponse httpServletResponse, ServletOutputStream out) throws IOException {
+        if (httpServletResponse.getHeader(CONTENT_LENGTH) == null) {
+            // Otherwise Jetty sets a Content-Length for content sent in one go, regardless of the chunked encoding policy
+            out.flush();
+        }
+    }
+
+    private void dribbleAsynchronously(HttpServletRequest httpServletRequest,
+                                       HttpServletResponse httpServletResponse,
+                                       InputStream bodyStream,
+                                       ChunkedDribbleDelay chunkedDribbleDelay) {
+        try {
+            ServletOutputStream out = httpServletResponse.getOutputStream();
+            byte[] body = ByteStreams.toByteArray(bodyStream);
+            if (body.length < 1) {
+                notifier.error("Cannot chunk dribble delay when no body set");
+                out.flush();
+                return;
             }
+
+            byte[][] chunkedBody = BodyChunker.chunkBody(body, chunkedDribbleDelay.getNumberOfChunks());
+            int chunkInterval = chunkedDribbleDelay.getTotalDuration() / chunkedBody.length;
+
+            AsyncContext asyncContext = httpServletRequest.isAsyncStarted() ?
+                httpServletRequest.getAsyncContext() :
+                httpServletRequest.startAsync();
+            httpServletRequest.setAttribute(ASYNCHRONOUS_DRIBBLE_STARTED, true);
+            ChunkedDribbleWriter.start(asyncContext, out, getDribbleTimer(), chunkedBody, chunkInterval);
+        } catch (IOException e) {
+            throwUnchecked(e);
         }
     }
 
+    private synchronized HashedWheelTimer getDribbleTimer() {
+        if (delayedResponseTimer != null) {
+            return delayedResponseTimer;
+        }
+
+        // Chunk writes never block, so they can run on the timer's own thread
+        if (dribbleTimer == null) {
+            dribbleTimer = new HashedWheelTimer("wiremock-chunked-dribble-timer", MoreExecutors.directExecutor());
+        }
+
+        return dribbleTimer;
+    }
+
     private void writeAndTranslateExceptionsWithChunkedDribbleDelay(HttpServletResponse httpServletResponse, InputStream bodyStream, ChunkedDribbleDelay chunkedDribbleDelay) {
         try (ServletOutputStream out = httpServletResponse.getOutputStream()) {
             byte[] body = ByteStreams.toByteArray(bodyStream);
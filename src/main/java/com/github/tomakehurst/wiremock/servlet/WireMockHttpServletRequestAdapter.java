@@ -56,6 +56,7 @@ public class WireMockHttpServletRequestAdapter implements Request {
     private final HttpServletRequest request;
     private final MultipartRequestConfigurer multipartRequestConfigurer;
     private byte[] cachedBody;
+    private String cachedBodyAsString;
     private final Supplier<Map<String, QueryParameter>> cachedQueryParams;
     private String urlPrefixToRemove;
     private Collection<Part> cachedMultiparts;
@@ -160,7 +161,11 @@ public class WireMockHttpServletRequestAdapter implements Request {
 
     @Override
     public String getBodyAsString() {
-        return stringFromBytes(getBody(), encodingFromContentTypeHeaderOrUtf8());
+        if (cachedBodyAsString == null) {
+            cachedBodyAsString = stringFromBytes(getBody(), encodingFromContentTypeHeaderOrUtf8());
+        }
+
+        return cachedBodyAsString;
     }
 
     @Override
@@ -27,16 +27,22 @@ import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.ProxyResponseCache;
+import com.github.tomakehurst.wiremock.http.ResponseBodyCapture;
 import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
 import com.github.tomakehurst.wiremock.http.trafficlistener.ConsoleNotifyingWiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.DoNothingWiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.WiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
+import com.github.tomakehurst.wiremock.jetty9.VirtualThreadPoolFactory;
 import com.github.tomakehurst.wiremock.security.Authenticator;
 import com.github.tomakehurst.wiremock.security.BasicAuthenticator;
 import com.github.tomakehurst.wiremock.security.NoAuthenticator;
+import com.github.tomakehurst.wiremock.verification.NearMissBudget;
+import com.github.tomakehurst.wiremock.verification.notmatched.NotMatchedDiagnostics;
 import com.github.tomakehurst.wiremock.verification.notmatched.NotMatchedRenderer;
 import com.github.tomakehurst.wiremock.verification.notmatched.PlainTextStubNotMatchedRenderer;
+import com.github.tomakehurst.wiremock.verification.notmatched.StaticNotMatchedRenderer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
@@ -61,6 +67,7 @@ import static com.github.tomakehurst.wiremock.common.ProxySettings.NO_PROXY;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.MAPPINGS_ROOT;
 import static com.github.tomakehurst.wiremock.extension.ExtensionLoader.valueAssignableFrom;
 import static com.github.tomakehurst.wiremock.http.CaseInsensitiveKey.TO_CASE_INSENSITIVE_KEYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class CommandLineOptions implements Options {
 
@@ -96,6 +103,7 @@ public class CommandLineOptions implements Options {
     private static final String JETTY_IDLE_TIMEOUT = "jetty-idle-timeout";
     private static final String ROOT_DIR = "root-dir";
     private static final String CONTAINER_THREADS = "container-threads";
+    private static final String VIRTUAL_THREADS = "virtual-threads";
     private static final String GLOBAL_RESPONSE_TEMPLATING = "global-response-templating";
     private static final String LOCAL_RESPONSE_TEMPLATING = "local-response-templating";
     private static final String ADMIN_API_BASIC_AUTH = "admin-api-basic-auth";
@@ -113,6 +121,24 @@ public class CommandLineOptions implements Options {
     private static final String HTTPS_CA_KEYSTORE = "ca-keystore";
     private static final String HTTPS_CA_KEYSTORE_PASSWORD = "ca-keystore-password";
     private static final String HTTPS_CA_KEYSTORE_TYPE = "ca-keystore-type";
+    private static final String NOT_MATCHED_MODE = "not-matched-mode";
+    private static final String NOT_MATCHED_MAX_CANDIDATES = "not-matched-max-candidates";
+    private static final String NOT_MATCHED_TIME_BUDGET = "not-matched-time-budget";
+    private static final String NOT_MATCHED_MAX_LOGS_PER_SECOND = "not-matched-max-logs-per-second";
+    private static final String JOURNAL_RESPONSE_BODY = "journal-response-body";
+    private static final String JOURNAL_RESPONSE_BODY_MAX_BYTES = "journal-response-body-max-bytes";
+    private static final String BODY_FILE_CACHE_MAX_BYTES = "body-file-cache-max-bytes";
+    private static final String PROXY_STREAMING = "proxy-streaming";
+    private static final String PROXY_STREAMING_CAPTURE_MAX_BYTES = "proxy-streaming-capture-max-bytes";
+    private static final String PROXY_MAX_CONNECTIONS = "proxy-max-connections";
+    private static final String PROXY_MAX_CONNECTIONS_PER_ROUTE = "proxy-max-connections-per-route";
+    private static final String PROXY_CONNECT_TIMEOUT = "proxy-connect-timeout";
+    private static final String PROXY_TIMEOUT = "proxy-timeout";
+    private static final String PROXY_KEEP_ALIVE = "proxy-keep-alive";
+    private static final String PROXY_MAX_IDLE = "proxy-max-idle";
+    private static final String PROXY_VALIDATE_AFTER_INACTIVITY = "proxy-validate-after-inactivity";
+    private static final String PROXY_CACHE_MAX_BYTES = "proxy-cache-max-bytes";
+    private static final String PROXY_HTTP2 = "proxy-http2";
 
     private final OptionSet optionSet;
     private final FileSource fileSource;
@@ -130,6 +156,7 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(HTTPS_PORT, "If this option is present WireMock will enable HTTPS on the specified port").withRequiredArg();
         optionParser.accepts(BIND_ADDRESS, "The IP to listen connections").withRequiredArg();
         optionParser.accepts(CONTAINER_THREADS, "The number of container threads").withRequiredArg();
+        optionParser.accepts(VIRTUAL_THREADS, "Handle each request on its own virtual thread instead of a fixed pool of container threads. Requires Java 21 or later.");
         optionParser.accepts(REQUIRE_CLIENT_CERT, "Make the server require a trusted client certificate to enable a connection");
         optionParser.accepts(HTTPS_TRUSTSTORE_TYPE, "The HTTPS trust store type").withRequiredArg().defaultsTo("JKS");
         optionParser.accepts(HTTPS_TRUSTSTORE_PASSWORD, "Password for the trust store").withRequiredArg().defaultsTo("password");
@@ -160,8 +187,8 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(LOCAL_RESPONSE_TEMPLATING, "Preprocess selected responses with Handlebars templates");
         optionParser.accepts(ADMIN_API_BASIC_AUTH, "Require HTTP Basic authentication for admin API calls with the supplied credentials in username:password format").withRequiredArg();
         optionParser.accepts(ADMIN_API_REQUIRE_HTTPS, "Require HTTPS to be used to access the admin API");
-        optionParser.accepts(ASYNCHRONOUS_RESPONSE_ENABLED, "Enable asynchronous response").withRequiredArg().defaultsTo("false");
-        optionParser.accepts(ASYNCHRONOUS_RESPONSE_THREADS, "Number of asynchronous response threads").withRequiredArg().defaultsTo("10");
+        optionParser.accepts(ASYNCHRONOUS_RESPONSE_ENABLED, "Enable asynchronous response. Delayed responses are now always sent asynchronously where the container supports it, so this has no effect.").withRequiredArg().defaultsTo("false");
+        optionParser.accepts(ASYNCHRONOUS_RESPONSE_THREADS, "Number of asynchronous response threads. Unused: delayed responses are sent on the server's request threads").withRequiredArg().defaultsTo("10");
         optionParser.accepts(USE_CHUNKED_ENCODING, "Whether to use Transfer-Encoding: chunked in responses. Can be set to always, never or body_file.").withRequiredArg().defaultsTo("always");
         optionParser.accepts(MAX_TEMPLATE_CACHE_ENTRIES, "The maximum number of response template fragments that can be cached. Only has any effect when templating is enabled. Defaults to no limit.").withOptionalArg();
         optionParser.accepts(PERMITTED_SYSTEM_KEYS, "A list of case-insensitive regular expressions for names of permitted system properties and environment vars. Only has any effect when templating is enabled. Defaults to no limit.").withOptionalArg().ofType(String.class).withValuesSeparatedBy(",");
@@ -174,6 +201,28 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(HTTPS_CA_KEYSTORE_PASSWORD, "Password for the alternative CA keystore.").availableIf(HTTPS_CA_KEYSTORE).withRequiredArg().defaultsTo(DEFAULT_CA_KESTORE_PASSWORD);
         optionParser.accepts(HTTPS_CA_KEYSTORE_TYPE, "Type of the alternative CA keystore (jks or pkcs12).").availableIf(HTTPS_CA_KEYSTORE).withRequiredArg().defaultsTo("jks");
 
+        optionParser.accepts(NOT_MATCHED_MODE, "How to answer requests that match no stub. Can be set to diff, which shows the nearest miss, or static, which returns a plain 404 without looking for near misses.").withRequiredArg().defaultsTo("diff");
+        optionParser.accepts(NOT_MATCHED_MAX_CANDIDATES, "The maximum number of stubs scored when looking for the nearest miss to an unmatched request. Defaults to no limit.").withRequiredArg();
+        optionParser.accepts(NOT_MATCHED_TIME_BUDGET, "Time in milliseconds after which the search for the nearest miss to an unmatched request stops. Defaults to no limit.").withRequiredArg();
+        optionParser.accepts(NOT_MATCHED_MAX_LOGS_PER_SECOND, "The maximum number of unmatched request diffs logged per second. When set, diffs are logged asynchronously and any over the limit are dropped. Defaults to no limit.").withRequiredArg();
+        optionParser.accepts(JOURNAL_RESPONSE_BODY, "How much of each response body to keep in the request journal. Can be set to full, none, truncated, digest or file_reference. Proxied response bodies are always kept in full.").withRequiredArg().defaultsTo("full");
+        optionParser.accepts(JOURNAL_RESPONSE_BODY_MAX_BYTES, "The number of response body bytes kept in the request journal when the journal response body is truncated").availableIf(JOURNAL_RESPONSE_BODY).withRequiredArg().defaultsTo(String.valueOf(ResponseBodyCapture.DEFAULT_MAX_BYTES));
+
+        optionParser.accepts(BODY_FILE_CACHE_MAX_BYTES, "Keep the contents of recently served body files in memory, up to this many bytes in total. Cached files are reloaded when their modification time or size changes. Defaults to 0, which disables the cache.").withRequiredArg();
+
+        optionParser.accepts(PROXY_STREAMING, "Pipe proxied response bodies straight through to the client instead of reading them into memory first");
+        optionParser.accepts(PROXY_STREAMING_CAPTURE_MAX_BYTES, "The number of bytes of each streamed proxy response body kept for the request journal. Proxied bodies are read in full while recording").availableIf(PROXY_STREAMING).withRequiredArg().defaultsTo(String.valueOf(ProxyStreamingSettings.DEFAULT_MAX_CAPTURED_BODY_BYTES));
+
+        optionParser.accepts(PROXY_MAX_CONNECTIONS, "The maximum number of upstream connections open at once for each of the reverse and browser proxy connection pools").withRequiredArg();
+        optionParser.accepts(PROXY_MAX_CONNECTIONS_PER_ROUTE, "The maximum number of upstream connections open at once to a single proxy target").withRequiredArg();
+        optionParser.accepts(PROXY_CONNECT_TIMEOUT, "Timeout in milliseconds for connecting to a proxy target").withRequiredArg();
+        optionParser.accepts(PROXY_TIMEOUT, "Socket timeout in milliseconds for reading responses from a proxy target").withRequiredArg();
+        optionParser.accepts(PROXY_KEEP_ALIVE, "The longest time in milliseconds an upstream connection is kept open for reuse by later proxied requests. Defaults to 0, which closes connections after each request.").withRequiredArg();
+        optionParser.accepts(PROXY_MAX_IDLE, "Close pooled upstream connections that have been idle for longer than this many milliseconds").withRequiredArg();
+        optionParser.accepts(PROXY_VALIDATE_AFTER_INACTIVITY, "Check that a pooled upstream connection is still open before reusing it if it has been idle for this many milliseconds").withRequiredArg();
+        optionParser.accepts(PROXY_HTTP2, "Send reverse proxied requests upstream over HTTP/2, multiplexing them over a few connections to each target. Plain http targets must accept HTTP/2 with prior knowledge (h2c).");
+        optionParser.accepts(PROXY_CACHE_MAX_BYTES, "The total size in bytes of the upstream responses kept for proxy stubs that cache their responses").withRequiredArg();
+
         optionParser.accepts(HELP, "Print this message").forHelp();
 
 		optionSet = optionParser.parse(args);
@@ -223,6 +272,28 @@ public class CommandLineOptions implements Options {
         if (optionSet.has(RECORD_MAPPINGS) && optionSet.has(DISABLE_REQUEST_JOURNAL)) {
             throw new IllegalArgumentException("Request journal must be enabled to record stubs");
         }
+
+        String notMatchedMode = (String) optionSet.valueOf(NOT_MATCHED_MODE);
+        if (!"diff".equalsIgnoreCase(notMatchedMode) && !"static".equalsIgnoreCase(notMatchedMode)) {
+            throw new IllegalArgumentException("Not matched mode must be either diff or static");
+        }
+
+        String journalResponseBody = (String) optionSet.valueOf(JOURNAL_RESPONSE_BODY);
+        if (journalResponseBodyMode(journalResponseBody) == null) {
+            throw new IllegalArgumentException("Journal response body must be one of " +
+                Joiner.on(", ").join(ResponseBodyCapture.Mode.values()).toLowerCase() +
+                " but was " + journalResponseBody);
+        }
+    }
+
+    private static ResponseBodyCapture.Mode journalResponseBodyMode(String value) {
+        for (ResponseBodyCapture.Mode mode: ResponseBodyCapture.Mode.values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+
+        return null;
     }
 
     private void captureHelpTextIfRequested(OptionParser optionParser) {
@@ -272,6 +343,10 @@ public class CommandLineOptions implements Options {
 
     @Override
     public ThreadPoolFactory threadPoolFactory() {
+        if (optionSet.has(VIRTUAL_THREADS)) {
+            return new VirtualThreadPoolFactory();
+        }
+
         return new QueuedThreadPoolFactory();
     }
 
@@ -418,9 +493,76 @@ public class CommandLineOptions implements Options {
         return optionSet.has(ADMIN_API_REQUIRE_HTTPS);
     }
 
+    @Override
+    public ResponseBodyCapture getJournalResponseBodyCapture() {
+        return ResponseBodyCapture.fromMode(
+                journalResponseBodyMode((String) optionSet.valueOf(JOURNAL_RESPONSE_BODY)),
+                Integer.parseInt(optionSet.valueOf(JOURNAL_RESPONSE_BODY_MAX_BYTES).toString())
+        );
+    }
+
+    @Override
+    public long getBodyFileCacheMaxBytes() {
+        return optionSet.has(BODY_FILE_CACHE_MAX_BYTES) ?
+            Long.parseLong((String) optionSet.valueOf(BODY_FILE_CACHE_MAX_BYTES)) :
+            0;
+    }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return new ProxyStreamingSettings(
+            optionSet.has(PROXY_STREAMING),
+            Integer.parseInt((String) optionSet.valueOf(PROXY_STREAMING_CAPTURE_MAX_BYTES))
+        );
+    }
+
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        ProxyConnectionPoolSettings defaults = ProxyConnectionPoolSettings.DEFAULTS;
+        return new ProxyConnectionPoolSettings(
+            intOption(PROXY_MAX_CONNECTIONS, defaults.getMaxConnections()),
+            intOption(PROXY_MAX_CONNECTIONS_PER_ROUTE, defaults.getMaxConnectionsPerRoute()),
+            intOption(PROXY_CONNECT_TIMEOUT, defaults.getConnectTimeoutMillis()),
+            intOption(PROXY_TIMEOUT, defaults.getSocketTimeoutMillis()),
+            longOption(PROXY_KEEP_ALIVE, defaults.getKeepAliveMillis()),
+            longOption(PROXY_MAX_IDLE, defaults.getMaxIdleMillis()),
+            intOption(PROXY_VALIDATE_AFTER_INACTIVITY, defaults.getValidateAfterInactivityMillis()),
+            optionSet.has(PROXY_HTTP2)
+        );
+    }
+
+    @Override
+    public long getProxyResponseCacheMaxBytes() {
+        return longOption(PROXY_CACHE_MAX_BYTES, ProxyResponseCache.DEFAULT_MAX_BYTES);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return optionSet.has(name) ? Integer.parseInt((String) optionSet.valueOf(name)) : defaultValue;
+    }
+
+    private long longOption(String name, long defaultValue) {
+        return optionSet.has(name) ? Long.parseLong((String) optionSet.valueOf(name)) : defaultValue;
+    }
+
     @Override
     public NotMatchedRenderer getNotMatchedRenderer() {
-        return new PlainTextStubNotMatchedRenderer();
+        if ("static".equalsIgnoreCase((String) optionSet.valueOf(NOT_MATCHED_MODE))) {
+            return new StaticNotMatchedRenderer();
+        }
+
+        NearMissBudget nearMissBudget = NearMissBudget.unlimited();
+        if (optionSet.has(NOT_MATCHED_MAX_CANDIDATES)) {
+            nearMissBudget = nearMissBudget.withMaxCandidates(Integer.parseInt((String) optionSet.valueOf(NOT_MATCHED_MAX_CANDIDATES)));
+        }
+        if (optionSet.has(NOT_MATCHED_TIME_BUDGET)) {
+            nearMissBudget = nearMissBudget.withMaxTime(Long.parseLong((String) optionSet.valueOf(NOT_MATCHED_TIME_BUDGET)), MILLISECONDS);
+        }
+
+        NotMatchedDiagnostics diagnostics = optionSet.has(NOT_MATCHED_MAX_LOGS_PER_SECOND) ?
+                NotMatchedDiagnostics.atMostPerSecond(Integer.parseInt((String) optionSet.valueOf(NOT_MATCHED_MAX_LOGS_PER_SECOND))) :
+                NotMatchedDiagnostics.unlimited();
+
+        return new PlainTextStubNotMatchedRenderer(nearMissBudget, diagnostics);
     }
 
     /**
@@ -559,6 +701,34 @@ public class CommandLineOptions implements Options {
             builder.put(ADMIN_API_REQUIRE_HTTPS, "true");
         }
 
+        if (optionSet.has(NOT_MATCHED_MODE)) {
+            builder.put(NOT_MATCHED_MODE, optionSet.valueOf(NOT_MATCHED_MODE));
+        }
+
+        if (optionSet.has(JOURNAL_RESPONSE_BODY)) {
+            builder.put(JOURNAL_RESPONSE_BODY, getJournalResponseBodyCapture());
+        }
+
+        if (optionSet.has(PROXY_STREAMING)) {
+            builder.put(PROXY_STREAMING, "true");
+        }
+
+        if (optionSet.has(PROXY_KEEP_ALIVE)) {
+            builder.put(PROXY_KEEP_ALIVE, getProxyConnectionPoolSettings().getKeepAliveMillis());
+        }
+
+        if (optionSet.has(PROXY_HTTP2)) {
+            builder.put(PROXY_HTTP2, "true");
+        }
+
+        if (optionSet.has(PROXY_CACHE_MAX_BYTES)) {
+            builder.put(PROXY_CACHE_MAX_BYTES, getProxyResponseCacheMaxBytes());
+        }
+
+        if (optionSet.has(BODY_FILE_CACHE_MAX_BYTES)) {
+            builder.put(BODY_FILE_CACHE_MAX_BYTES, getBodyFileCacheMaxBytes());
+        }
+
         StringBuilder sb = new StringBuilder();
         for (Map.Entry<String, Object> param: builder.build().entrySet()) {
             int paddingLength = 29 - param.getKey().length();
@@ -33,6 +33,8 @@ import com.google.common.collect.ImmutableList;
 import java.util.*;
 
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static com.github.tomakehurst.wiremock.common.PhaseTimings.Phase.DEFINITION_TRANSFORMERS;
+import static com.github.tomakehurst.wiremock.common.PhaseTimings.Phase.MATCH;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.FILES_ROOT;
 import static com.github.tomakehurst.wiremock.http.ResponseDefinition.copyOf;
 import static com.google.common.base.MoreObjects.firstNonNull;
@@ -70,22 +72,29 @@ public class InMemoryStubMappings implements StubMappings {
 
 	@Override
 	public ServeEvent serveFor(Request request) {
+		long startNanos = System.nanoTime();
 		StubMapping matchingMapping = find(
-				mappings,
+				mappings.findCandidatesFor(request),
 				mappingMatchingAndInCorrectScenarioState(request),
 				StubMapping.NOT_CONFIGURED);
+		long matchedNanos = System.nanoTime();
 		
 		scenarios.onStubServed(matchingMapping);
 
+        long transformStartNanos = System.nanoTime();
         ResponseDefinition responseDefinition = applyTransformations(request,
             matchingMapping.getResponse(),
             ImmutableList.copyOf(transformers.values()));
+        long transformedNanos = System.nanoTime();
 
-		return ServeEvent.of(
+		ServeEvent serveEvent = ServeEvent.of(
             LoggedRequest.createFrom(request),
             copyOf(responseDefinition),
             matchingMapping
         );
+		serveEvent.recordPhaseTime(MATCH, matchedNanos - startNanos);
+		serveEvent.recordPhaseTime(DEFINITION_TRANSFORMERS, transformedNanos - transformStartNanos);
+		return serveEvent;
 	}
 
     private ResponseDefinition applyTransformations(Request request,
@@ -224,7 +233,7 @@ public class InMemoryStubMappings implements StubMappings {
     private Predicate<StubMapping> mappingMatchingAndInCorrectScenarioStateNew(final Request request) {
 		return new Predicate<StubMapping>() {
 			public boolean apply(StubMapping mapping) {
-				return mapping.getRequest().match(request, customMatchers).isExactMatch() &&
+				return mapping.getRequest().isMatchedBy(request, customMatchers) &&
 				(mapping.isIndependentOfScenarioState() || scenarios.mappingMatchesScenarioState(mapping));
 			}
 		};
@@ -19,10 +19,12 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.common.PhaseTimings;
 import com.github.tomakehurst.wiremock.common.Timing;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.http.LoggedResponse;
 import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.ResponseBodyCapture;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Function;
@@ -33,6 +35,8 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.google.common.base.MoreObjects.firstNonNull;
+
 public class ServeEvent {
 
     private final UUID id;
@@ -41,6 +45,7 @@ public class ServeEvent {
     private final ResponseDefinition responseDefinition;
     private final LoggedResponse response;
     private final AtomicReference<Timing> timing;
+    private final AtomicReference<PhaseTimings> phaseTimings;
 
     @JsonCreator
     public ServeEvent(@JsonProperty("id") UUID id,
@@ -50,12 +55,23 @@ public class ServeEvent {
                       @JsonProperty("response") LoggedResponse response,
                       @JsonProperty("wasMatched") boolean ignoredReadOnly,
                       @JsonProperty("timing") Timing timing) {
+        this(id, request, stubMapping, responseDefinition, response, timing, new AtomicReference<>(timing != null ? timing.getPhases() : null));
+    }
+
+    private ServeEvent(UUID id,
+                       LoggedRequest request,
+                       StubMapping stubMapping,
+                       ResponseDefinition responseDefinition,
+                       LoggedResponse response,
+                       Timing timing,
+                       AtomicReference<PhaseTimings> phaseTimings) {
         this.id = id;
         this.request = request;
         this.responseDefinition = responseDefinition;
         this.stubMapping = stubMapping;
         this.response = response;
         this.timing = new AtomicReference<>(timing);
+        this.phaseTimings = phaseTimings;
     }
 
     public ServeEvent(LoggedRequest request, StubMapping stubMapping, ResponseDefinition responseDefinition) {
@@ -83,13 +99,30 @@ public class ServeEvent {
     }
 
     public ServeEvent complete(Response response, int processTimeMillis) {
-        return new ServeEvent(id, request, stubMapping, responseDefinition, LoggedResponse.from(response), false, new Timing((int) response.getInitialDelay(), processTimeMillis));
+        return complete(response, processTimeMillis, ResponseBodyCapture.FULL);
+    }
+
+    public ServeEvent complete(Response response, int processTimeMillis, ResponseBodyCapture bodyCapture) {
+        // The completed event shares its phase timings with this one, so phases timed after completion show up in both
+        return new ServeEvent(id, request, stubMapping, responseDefinition, LoggedResponse.from(response, bodyCapture), new Timing((int) response.getInitialDelay(), processTimeMillis), phaseTimings);
     }
 
     public void afterSend(int responseSendTimeMillis) {
         timing.set(timing.get().withResponseSendTime(responseSendTimeMillis));
     }
 
+    public void recordPhaseTime(PhaseTimings.Phase phase, long nanos) {
+        PhaseTimings current;
+        do {
+            current = phaseTimings.get();
+        } while (!phaseTimings.compareAndSet(current, firstNonNull(current, PhaseTimings.NONE).with(phase, nanos)));
+    }
+
+    @JsonIgnore
+    public PhaseTimings getPhaseTimings() {
+        return firstNonNull(phaseTimings.get(), PhaseTimings.NONE);
+    }
+
     @JsonIgnore
     public boolean isNoExactMatch() {
         return !responseDefinition.wasConfigured();
@@ -120,7 +153,11 @@ public class ServeEvent {
     }
 
     public Timing getTiming() {
-        return timing.get();
+        Timing currentTiming = timing.get();
+        PhaseTimings phases = phaseTimings.get();
+        return currentTiming != null && phases != null && phases != currentTiming.getPhases() ?
+            currentTiming.withPhases(phases) :
+            currentTiming;
     }
 
     @JsonIgnore
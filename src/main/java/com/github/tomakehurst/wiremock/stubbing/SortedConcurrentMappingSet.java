@@ -15,23 +15,49 @@
  */
 package com.github.tomakehurst.wiremock.stubbing;
 
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPathPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
 import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static com.google.common.collect.Iterables.removeIf;
-
+/**
+ * Holds stub mappings sorted by priority then reverse insertion order, alongside an index of
+ * candidate mappings keyed on HTTP method and literal URL or path. Mappings whose URL pattern
+ * can't be reduced to a literal (regex, any-URL, case-insensitive) live in a per-method fallback bucket.
+ */
 public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
 
+	private static final String URL_KEY = " url ";
+	private static final String PATH_KEY = " path ";
+	private static final String FALLBACK_KEY = " *";
+
+	private static final String ANY_METHOD = RequestMethod.ANY.getName();
+
 	private AtomicLong insertionCount;
 	private ConcurrentSkipListSet<StubMapping> mappingSet;
+	private ConcurrentMap<String, Set<StubMapping>> candidateIndex;
+	private Comparator<StubMapping> comparator;
 	
 	public SortedConcurrentMappingSet() {
 		insertionCount = new AtomicLong();
-		mappingSet = new ConcurrentSkipListSet<StubMapping>(sortedByPriorityThenReverseInsertionOrder());
+		comparator = sortedByPriorityThenReverseInsertionOrder();
+		mappingSet = new ConcurrentSkipListSet<StubMapping>(comparator);
+		candidateIndex = new ConcurrentHashMap<>();
 	}
 	
 	private Comparator<StubMapping> sortedByPriorityThenReverseInsertionOrder() {
@@ -51,14 +77,52 @@ public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
 	public Iterator<StubMapping> iterator() {
 		return mappingSet.iterator();
 	}
+
+	/**
+	 * Returns the mappings that could possibly match the request, in the same order as {@link #iterator()}.
+	 * Every mapping whose request pattern matches the request is guaranteed to be included.
+	 */
+	public Iterable<StubMapping> findCandidatesFor(Request request) {
+		String url = request.getUrl();
+		List<Iterable<StubMapping>> buckets = new ArrayList<>(6);
+		for (String method: methodKeysFor(request)) {
+			if (url != null) {
+				addBucket(buckets, method + URL_KEY + url);
+				addBucket(buckets, method + PATH_KEY + Urls.getPath(url));
+			}
+			addBucket(buckets, method + FALLBACK_KEY);
+		}
+
+		return Iterables.mergeSorted(buckets, comparator);
+	}
+
+	private List<String> methodKeysFor(Request request) {
+		String method = request.getMethod() != null ? request.getMethod().getName() : null;
+		if (method == null || method.equals(ANY_METHOD)) {
+			return Collections.singletonList(ANY_METHOD);
+		}
+
+		List<String> methods = new ArrayList<>(2);
+		methods.add(method);
+		methods.add(ANY_METHOD);
+		return methods;
+	}
+
+	private void addBucket(List<Iterable<StubMapping>> buckets, String key) {
+		Set<StubMapping> bucket = candidateIndex.get(key);
+		if (bucket != null && !bucket.isEmpty()) {
+			buckets.add(bucket);
+		}
+	}
 	
 	public void add(StubMapping mapping) {
 		mapping.setInsertionIndex(insertionCount.getAndIncrement());
 		mappingSet.add(mapping);
+		addToIndex(mapping);
 	}
 
 	public boolean remove(final StubMapping mappingToRemove) {
-		boolean removedByUuid = removeIf(mappingSet, new Predicate<StubMapping>() {
+		boolean removedByUuid = removeIf(new Predicate<StubMapping>() {
             @Override
             public boolean apply(StubMapping mapping) {
                 return mappingToRemove.getUuid() != null &&
@@ -67,7 +131,7 @@ public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
             }
         });
 
-        boolean removedByRequestPattern = !removedByUuid && removeIf(mappingSet, new Predicate<StubMapping>() {
+        boolean removedByRequestPattern = !removedByUuid && removeIf(new Predicate<StubMapping>() {
             @Override
             public boolean apply(StubMapping mapping) {
                 return mappingToRemove.getRequest().equals(mapping.getRequest());
@@ -77,10 +141,27 @@ public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
         return removedByUuid || removedByRequestPattern;
 	}
 
+	private boolean removeIf(Predicate<StubMapping> predicate) {
+		boolean removed = false;
+		Iterator<StubMapping> iterator = mappingSet.iterator();
+		while (iterator.hasNext()) {
+			StubMapping mapping = iterator.next();
+			if (predicate.apply(mapping)) {
+				iterator.remove();
+				removeFromIndex(mapping);
+				removed = true;
+			}
+		}
+
+		return removed;
+	}
+
 	public boolean replace(StubMapping existingStubMapping, StubMapping newStubMapping) {
 
 		if ( mappingSet.remove(existingStubMapping) ) {
+			removeFromIndex(existingStubMapping);
 			mappingSet.add(newStubMapping);
+			addToIndex(newStubMapping);
 			return true;
 		}
 		return false;
@@ -88,6 +169,43 @@ public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
 
 	public void clear() {
 		mappingSet.clear();
+		candidateIndex.clear();
+	}
+
+	private void addToIndex(StubMapping mapping) {
+		String key = indexKeyFor(mapping);
+		Set<StubMapping> bucket = candidateIndex.get(key);
+		if (bucket == null) {
+			Set<StubMapping> newBucket = new ConcurrentSkipListSet<>(comparator);
+			bucket = candidateIndex.putIfAbsent(key, newBucket);
+			if (bucket == null) {
+				bucket = newBucket;
+			}
+		}
+
+		bucket.add(mapping);
+	}
+
+	private void removeFromIndex(StubMapping mapping) {
+		Set<StubMapping> bucket = candidateIndex.get(indexKeyFor(mapping));
+		if (bucket != null) {
+			bucket.remove(mapping);
+		}
+	}
+
+	private String indexKeyFor(StubMapping mapping) {
+		RequestPattern requestPattern = mapping.getRequest();
+		String method = requestPattern.getMethod().getName();
+		UrlPattern urlPattern = requestPattern.getUrlMatcher();
+		String exactValue = urlPattern.getExactValue();
+
+		if (exactValue != null && urlPattern.getClass() == UrlPathPattern.class) {
+			return method + PATH_KEY + exactValue;
+		} else if (exactValue != null && urlPattern.getClass() == UrlPattern.class) {
+			return method + URL_KEY + exactValue;
+		}
+
+		return method + FALLBACK_KEY;
 	}
 	
 	@Override
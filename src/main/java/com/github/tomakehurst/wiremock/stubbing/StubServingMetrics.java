@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.stubbing;
+
+import com.github.tomakehurst.wiremock.admin.model.GetStubMetricsResult;
+import com.github.tomakehurst.wiremock.admin.model.LatencyStats;
+import com.github.tomakehurst.wiremock.admin.model.StubMetrics;
+import com.github.tomakehurst.wiremock.common.LatencyHistogram;
+import com.github.tomakehurst.wiremock.common.PhaseTimings;
+import com.github.tomakehurst.wiremock.common.PhaseTimings.Phase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the requests served by each stub, and unmatched requests, with latency histograms for the time
+ * spent matching, rendering and sending each response. The finer grained phase timings of every request
+ * are aggregated across all stubs. Unlike the request journal these are kept when journalling is disabled,
+ * and recording a request never takes a lock.
+ */
+public class StubServingMetrics {
+
+    private final ConcurrentMap<UUID, Recorder> byStub = new ConcurrentHashMap<>();
+    private volatile Recorder unmatched = new Recorder();
+    private volatile Map<Phase, LatencyHistogram> phases = newPhaseHistograms();
+
+    public void record(ServeEvent serveEvent, long matchNanos, long renderNanos, long sendNanos, long totalNanos) {
+        PhaseTimings phaseTimings = serveEvent.getPhaseTimings();
+        for (Map.Entry<Phase, LatencyHistogram> phase: phases.entrySet()) {
+            phase.getValue().recordNanos(phaseTimings.get(phase.getKey()));
+        }
+
+        StubMapping stubMapping = serveEvent.getStubMapping();
+        if (!serveEvent.getWasMatched()) {
+            unmatched.record(matchNanos, renderNanos, sendNanos, totalNanos);
+        } else if (stubMapping != null && stubMapping.getId() != null) {
+            Recorder recorder = recorderFor(stubMapping.getId());
+            recorder.name = stubMapping.getName();
+            recorder.record(matchNanos, renderNanos, sendNanos, totalNanos);
+        }
+    }
+
+    /**
+     * @param suppressedNotMatchedDiagnostics the not matched renderer's count, which is reported alongside these
+     */
+    public GetStubMetricsResult snapshot(long suppressedNotMatchedDiagnostics) {
+        List<StubMetrics> stubs = new ArrayList<>(byStub.size());
+        for (Map.Entry<UUID, Recorder> entry: byStub.entrySet()) {
+            stubs.add(entry.getValue().toStubMetrics(entry.getKey()));
+        }
+
+        Collections.sort(stubs, new Comparator<StubMetrics>() {
+            @Override
+            public int compare(StubMetrics one, StubMetrics two) {
+                return Long.compare(two.getRequests(), one.getRequests());
+            }
+        });
+
+        Map<String, LatencyStats> phaseStats = new LinkedHashMap<>();
+        for (Map.Entry<Phase, LatencyHistogram> phase: phases.entrySet()) {
+            phaseStats.put(phase.getKey().getName(), LatencyStats.from(phase.getValue().snapshot()));
+        }
+
+        return new GetStubMetricsResult(stubs, unmatched.toStubMetrics(null), phaseStats, suppressedNotMatchedDiagnostics);
+    }
+
+    /**
+     * Forgets a stub that has been removed, or edited so that its earlier figures no longer describe it.
+     */
+    public void remove(UUID stubId) {
+        if (stubId != null) {
+            byStub.remove(stubId);
+        }
+    }
+
+    public void reset() {
+        byStub.clear();
+        unmatched = new Recorder();
+        phases = newPhaseHistograms();
+    }
+
+    private static Map<Phase, LatencyHistogram> newPhaseHistograms() {
+        Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+        for (Phase phase: Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+
+        return histograms;
+    }
+
+    private Recorder recorderFor(UUID stubId) {
+        Recorder recorder = byStub.get(stubId);
+        if (recorder == null) {
+            Recorder newRecorder = new Recorder();
+            recorder = byStub.putIfAbsent(stubId, newRecorder);
+            if (recorder == null) {
+                recorder = newRecorder;
+            }
+        }
+
+        return recorder;
+    }
+
+    private static class Recorder {
+
+        private final LongAdder requests = new LongAdder();
+        private final LatencyHistogram match = new LatencyHistogram();
+        private final LatencyHistogram render = new LatencyHistogram();
+        private final LatencyHistogram send = new LatencyHistogram();
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        private volatile String name;
+
+        void record(long matchNanos, long renderNanos, long sendNanos, long totalNanos) {
+            requests.increment();
+            match.recordNanos(matchNanos);
+            render.recordNanos(renderNanos);
+            send.recordNanos(sendNanos);
+            total.recordNanos(totalNanos);
+        }
+
+        StubMetrics toStubMetrics(UUID id) {
+            return new StubMetrics(
+                id,
+                name,
+                requests.sum(),
+                LatencyStats.from(match.snapshot()),
+                LatencyStats.from(render.snapshot()),
+                LatencyStats.from(send.snapshot()),
+                LatencyStats.from(total.snapshot())
+            );
+        }
+    }
+}
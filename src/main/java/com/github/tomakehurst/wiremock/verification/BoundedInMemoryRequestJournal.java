@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.github.tomakehurst.wiremock.matching.RequestPattern.thatMatch;
+import static com.github.tomakehurst.wiremock.matching.RequestPattern.withRequstMatching;
+import static com.github.tomakehurst.wiremock.verification.InMemoryRequestJournal.withStubMetadataMatching;
+import static com.google.common.collect.Iterables.filter;
+import static com.google.common.collect.Iterables.transform;
+
+/**
+ * A request journal holding at most a fixed number of serve events in a lock-free ring buffer.
+ * Appending overwrites the oldest slot, so eviction is constant time and never needs to count the entries.
+ */
+public class BoundedInMemoryRequestJournal implements RequestJournal {
+
+	private final int maxEntries;
+	private final AtomicReference<Ring> ring;
+
+	public BoundedInMemoryRequestJournal(int maxEntries) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Maximum number of entries of journal must be greater than zero");
+		}
+		this.maxEntries = maxEntries;
+		this.ring = new AtomicReference<>(new Ring(maxEntries));
+	}
+
+	@Override
+	public int countRequestsMatching(RequestPattern requestPattern) {
+		return Iterables.size(filter(getRequests(ring.get().candidatesFor(requestPattern)), thatMatch(requestPattern)));
+	}
+
+	@Override
+	public List<LoggedRequest> getRequestsMatching(RequestPattern requestPattern) {
+		return ImmutableList.copyOf(filter(getRequests(ring.get().candidatesFor(requestPattern)), thatMatch(requestPattern)));
+	}
+
+	@Override
+	public void requestReceived(ServeEvent serveEvent) {
+		ring.get().add(serveEvent);
+	}
+
+	@Override
+	public void removeEvent(final UUID eventId) {
+		ring.get().remove(eventId);
+	}
+
+	@Override
+	public List<ServeEvent> removeEventsMatching(RequestPattern requestPattern) {
+		return ring.get().removeIf(requestPattern, withRequstMatching(requestPattern));
+	}
+
+	@Override
+	public List<ServeEvent> removeServeEventsForStubsMatchingMetadata(StringValuePattern metadataPattern) {
+		return ring.get().removeForStubsMatching(withStubMetadataMatching(metadataPattern));
+	}
+
+	@Override
+	public List<ServeEvent> getAllServeEvents() {
+		return Lists.reverse(ring.get().oldestFirst());
+	}
+
+	@Override
+	public Optional<ServeEvent> getServeEvent(final UUID id) {
+		return Optional.fromNullable(ring.get().get(id));
+	}
+
+	@Override
+	public Iterable<ServeEvent> getServeEventsAfter(UUID id) {
+		Ring current = ring.get();
+		if (id == null) {
+			return current.newestFirstBefore(Long.MAX_VALUE);
+		}
+
+		Long sequence = current.index.sequenceOf(id);
+		return sequence != null ?
+			current.newestFirstBefore(sequence) :
+			ImmutableList.<ServeEvent>of();
+	}
+
+	@Override
+	public int getServeEventCount() {
+		return size();
+	}
+
+	@Override
+	public void reset() {
+		ring.set(new Ring(maxEntries));
+	}
+
+	public int size() {
+		return ring.get().size.get();
+	}
+
+	int indexedEventCount() {
+		return ring.get().index.size();
+	}
+
+	private Iterable<LoggedRequest> getRequests(Iterable<ServeEvent> events) {
+		return transform(events, new Function<ServeEvent, LoggedRequest>() {
+			public LoggedRequest apply(ServeEvent input) {
+				return input.getRequest();
+			}
+		});
+	}
+
+	private static class Ring {
+
+		private final int capacity;
+		private final AtomicReferenceArray<Slot> slots;
+		private final AtomicLong nextSequence = new AtomicLong();
+		private final AtomicInteger size = new AtomicInteger();
+		private final ServeEventIndex index = new ServeEventIndex();
+
+		Ring(int capacity) {
+			this.capacity = capacity;
+			this.slots = new AtomicReferenceArray<>(capacity);
+		}
+
+		void add(ServeEvent serveEvent) {
+			if (capacity == 0) {
+				return;
+			}
+
+			long sequence = nextSequence.getAndIncrement();
+			Slot slot = new Slot(sequence, serveEvent);
+			int index = indexOf(sequence);
+
+			// Index before publishing, so that a writer lapping this slot always finds the entries it needs to remove
+			this.index.add(sequence, serveEvent);
+			while (true) {
+				Slot current = slots.get(index);
+				if (current != null && current.sequence > sequence) {
+					// A writer that lapped us already filled this slot, so this event has been evicted
+					this.index.remove(sequence, serveEvent);
+					return;
+				}
+
+				if (slots.compareAndSet(index, current, slot)) {
+					if (current == null) {
+						size.incrementAndGet();
+					} else {
+						this.index.remove(current.sequence, current.serveEvent);
+					}
+					return;
+				}
+			}
+		}
+
+		ServeEvent get(long sequence) {
+			if (capacity == 0) {
+				return null;
+			}
+
+			Slot slot = slots.get(indexOf(sequence));
+			return slot != null && slot.sequence == sequence ? slot.serveEvent : null;
+		}
+
+		ServeEvent get(UUID id) {
+			Long sequence = index.sequenceOf(id);
+			return sequence != null ? get(sequence) : null;
+		}
+
+		List<ServeEvent> oldestFirst() {
+			long last = nextSequence.get() - 1;
+			long first = Math.max(0, last - capacity + 1);
+			List<ServeEvent> events = new ArrayList<>(Math.max(0, size.get()));
+			for (long sequence = first; sequence <= last; sequence++) {
+				ServeEvent serveEvent = get(sequence);
+				if (serveEvent != null) {
+					events.add(serveEvent);
+				}
+			}
+
+			return ImmutableList.copyOf(events);
+		}
+
+		Iterable<ServeEvent> newestFirstBefore(final long end) {
+			return new Iterable<ServeEvent>() {
+				@Override
+				public Iterator<ServeEvent> iterator() {
+					final long next = nextSequence.get();
+					final long first = Math.max(0, next - capacity);
+					return new AbstractIterator<ServeEvent>() {
+						private long sequence = Math.min(end, next) - 1;
+
+						@Override
+						protected ServeEvent computeNext() {
+							while (sequence >= first) {
+								ServeEvent serveEvent = get(sequence--);
+								if (serveEvent != null) {
+									return serveEvent;
+								}
+							}
+
+							return endOfData();
+						}
+					};
+				}
+			};
+		}
+
+		Iterable<ServeEvent> candidatesFor(RequestPattern requestPattern) {
+			Collection<Long> candidates = index.candidatesFor(requestPattern);
+			if (candidates == null) {
+				return oldestFirst();
+			}
+
+			List<ServeEvent> events = new ArrayList<>(candidates.size());
+			for (Long sequence: candidates) {
+				ServeEvent serveEvent = get(sequence);
+				if (serveEvent != null) {
+					events.add(serveEvent);
+				}
+			}
+
+			return events;
+		}
+
+		void remove(UUID id) {
+			Long sequence = index.sequenceOf(id);
+			if (sequence != null) {
+				remove(sequence);
+			}
+		}
+
+		List<ServeEvent> removeIf(RequestPattern requestPattern, Predicate<ServeEvent> predicate) {
+			SortedSet<Long> toDelete = new TreeSet<>();
+			Collection<Long> candidates = index.candidatesFor(requestPattern);
+			if (candidates != null) {
+				addMatching(candidates, predicate, toDelete);
+			} else {
+				long last = nextSequence.get() - 1;
+				for (long sequence = Math.max(0, last - capacity + 1); sequence <= last; sequence++) {
+					ServeEvent serveEvent = get(sequence);
+					if (serveEvent != null && predicate.apply(serveEvent)) {
+						toDelete.add(sequence);
+					}
+				}
+			}
+
+			return removeAll(toDelete);
+		}
+
+		List<ServeEvent> removeForStubsMatching(Predicate<ServeEvent> predicate) {
+			SortedSet<Long> toDelete = new TreeSet<>();
+			for (NavigableSet<Long> stubSequences: index.byStub()) {
+				addMatching(stubSequences, predicate, toDelete);
+			}
+
+			return removeAll(toDelete);
+		}
+
+		private void addMatching(Collection<Long> sequences, Predicate<ServeEvent> predicate, SortedSet<Long> matching) {
+			for (Long sequence: ImmutableList.copyOf(sequences)) {
+				ServeEvent serveEvent = get(sequence);
+				if (serveEvent != null && predicate.apply(serveEvent)) {
+					matching.add(sequence);
+				}
+			}
+		}
+
+		private List<ServeEvent> removeAll(Iterable<Long> sequences) {
+			ImmutableList.Builder<ServeEvent> removed = ImmutableList.builder();
+			for (Long sequence: sequences) {
+				ServeEvent serveEvent = remove(sequence);
+				if (serveEvent != null) {
+					removed.add(serveEvent);
+				}
+			}
+
+			return removed.build();
+		}
+
+		private ServeEvent remove(long sequence) {
+			int slotIndex = indexOf(sequence);
+			Slot slot = slots.get(slotIndex);
+			if (slot != null && slot.sequence == sequence && slots.compareAndSet(slotIndex, slot, null)) {
+				size.decrementAndGet();
+				index.remove(sequence, slot.serveEvent);
+				return slot.serveEvent;
+			}
+
+			return null;
+		}
+
+		private int indexOf(long sequence) {
+			return (int) (sequence % capacity);
+		}
+	}
+
+	private static class Slot {
+
+		private final long sequence;
+		private final ServeEvent serveEvent;
+
+		Slot(long sequence, ServeEvent serveEvent) {
+			this.sequence = sequence;
+			this.serveEvent = serveEvent;
+		}
+	}
+}
@@ -45,6 +45,16 @@ public class DisabledRequestJournal implements RequestJournal {
         throw new RequestJournalDisabledException();
     }
 
+    @Override
+    public Iterable<ServeEvent> getServeEventsAfter(UUID id) {
+        throw new RequestJournalDisabledException();
+    }
+
+    @Override
+    public int getServeEventCount() {
+        throw new RequestJournalDisabledException();
+    }
+
     @Override
     public void reset() {
     }
@@ -23,21 +23,34 @@ import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.collect.FluentIterable;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.github.tomakehurst.wiremock.matching.RequestPattern.thatMatch;
 import static com.github.tomakehurst.wiremock.matching.RequestPattern.withRequstMatching;
-import static com.google.common.collect.Iterables.*;
+import static com.google.common.collect.Iterables.filter;
+import static com.google.common.collect.Iterables.transform;
 
 public class InMemoryRequestJournal implements RequestJournal {
 
-	private final Queue<ServeEvent> serveEvents = new ConcurrentLinkedQueue<ServeEvent>();
+	private final ConcurrentNavigableMap<Long, ServeEvent> serveEvents = new ConcurrentSkipListMap<>();
+	private final AtomicLong nextSequence = new AtomicLong();
+	private final AtomicInteger size = new AtomicInteger();
+	private final ServeEventIndex index = new ServeEventIndex();
 
 	private final Optional<Integer> maxEntries;
 
@@ -50,74 +63,140 @@ public class InMemoryRequestJournal implements RequestJournal {
 
 	@Override
 	public int countRequestsMatching(RequestPattern requestPattern) {
-		return size(filter(getRequests(), thatMatch(requestPattern)));
+		return Iterables.size(filter(getRequests(candidatesFor(requestPattern)), thatMatch(requestPattern)));
 	}
 
 	@Override
 	public List<LoggedRequest> getRequestsMatching(RequestPattern requestPattern) {
-		return ImmutableList.copyOf(filter(getRequests(), thatMatch(requestPattern)));
+		return ImmutableList.copyOf(filter(getRequests(candidatesFor(requestPattern)), thatMatch(requestPattern)));
 	}
 
 	@Override
 	public void requestReceived(ServeEvent serveEvent) {
-		serveEvents.add(serveEvent);
+		long sequence = nextSequence.getAndIncrement();
+		serveEvents.put(sequence, serveEvent);
+		index.add(sequence, serveEvent);
+		size.incrementAndGet();
         removeOldEntries();
 	}
 
 	@Override
 	public void removeEvent(final UUID eventId) {
-		removeServeEvents(new Predicate<ServeEvent>() {
-			@Override
-			public boolean apply(ServeEvent input) {
-				return input.getId().equals(eventId);
-			}
-		});
+		Long sequence = index.sequenceOf(eventId);
+		if (sequence != null) {
+			remove(sequence);
+		}
 	}
 
 	@Override
 	public List<ServeEvent> removeEventsMatching(RequestPattern requestPattern) {
-		return removeServeEvents(withRequstMatching(requestPattern));
+		return removeServeEvents(index.candidatesFor(requestPattern), withRequstMatching(requestPattern));
 	}
 
 	@Override
 	public List<ServeEvent> removeServeEventsForStubsMatchingMetadata(StringValuePattern metadataPattern) {
-		return removeServeEvents(withStubMetadataMatching(metadataPattern));
+		Predicate<ServeEvent> predicate = withStubMetadataMatching(metadataPattern);
+		SortedSet<Long> toDelete = new TreeSet<>();
+		for (NavigableSet<Long> stubSequences: index.byStub()) {
+			for (Long sequence: stubSequences) {
+				ServeEvent serveEvent = serveEvents.get(sequence);
+				if (serveEvent != null && predicate.apply(serveEvent)) {
+					toDelete.add(sequence);
+				}
+			}
+		}
+
+		return removeAll(toDelete);
+	}
+
+	private List<ServeEvent> removeServeEvents(Collection<Long> candidates, Predicate<ServeEvent> predicate) {
+		Iterable<Long> sequences = candidates != null ? ImmutableList.copyOf(candidates) : serveEvents.keySet();
+		SortedSet<Long> toDelete = new TreeSet<>();
+		for (Long sequence: sequences) {
+			ServeEvent serveEvent = serveEvents.get(sequence);
+			if (serveEvent != null && predicate.apply(serveEvent)) {
+				toDelete.add(sequence);
+			}
+		}
+
+		return removeAll(toDelete);
 	}
 
-	private List<ServeEvent> removeServeEvents(Predicate<ServeEvent> predicate) {
-		List<ServeEvent> toDelete = FluentIterable.from(serveEvents)
-				.filter(predicate)
-				.toList();
+	private List<ServeEvent> removeAll(Iterable<Long> sequences) {
+		ImmutableList.Builder<ServeEvent> removed = ImmutableList.builder();
+		for (Long sequence: sequences) {
+			ServeEvent serveEvent = remove(sequence);
+			if (serveEvent != null) {
+				removed.add(serveEvent);
+			}
+		}
+
+		return removed.build();
+	}
 
-		for (ServeEvent event: toDelete) {
-			serveEvents.remove(event);
+	private ServeEvent remove(long sequence) {
+		ServeEvent serveEvent = serveEvents.remove(sequence);
+		if (serveEvent != null) {
+			index.remove(sequence, serveEvent);
+			size.decrementAndGet();
 		}
 
-		return toDelete;
+		return serveEvent;
 	}
 
 	@Override
     public List<ServeEvent> getAllServeEvents() {
-        return ImmutableList.copyOf(serveEvents).reverse();
+        return ImmutableList.copyOf(serveEvents.descendingMap().values());
     }
 
 	@Override
 	public Optional<ServeEvent> getServeEvent(final UUID id) {
-		return tryFind(serveEvents, new Predicate<ServeEvent>() {
-			@Override
-			public boolean apply(ServeEvent input) {
-				return input.getId().equals(id);
-			}
-		});
+		Long sequence = index.sequenceOf(id);
+		return sequence != null ?
+			Optional.fromNullable(serveEvents.get(sequence)) :
+			Optional.<ServeEvent>absent();
+	}
+
+	@Override
+	public Iterable<ServeEvent> getServeEventsAfter(UUID id) {
+		if (id == null) {
+			return serveEvents.descendingMap().values();
+		}
+
+		Long sequence = index.sequenceOf(id);
+		return sequence != null ?
+			serveEvents.headMap(sequence, false).descendingMap().values() :
+			ImmutableList.<ServeEvent>of();
+	}
+
+	@Override
+	public int getServeEventCount() {
+		return size.get();
 	}
 
 	@Override
 	public void reset() {
 		serveEvents.clear();
+		index.clear();
+		size.set(0);
+	}
+
+	private Iterable<ServeEvent> candidatesFor(RequestPattern requestPattern) {
+		Collection<Long> candidates = index.candidatesFor(requestPattern);
+		if (candidates == null) {
+			return serveEvents.values();
+		}
+
+		return filter(transform(candidates, new Function<Long, ServeEvent>() {
+			@Override
+			public ServeEvent apply(Long sequence) {
+				return serveEvents.get(sequence);
+			}
+		}), Predicates.notNull());
 	}
 
-	private Iterable<LoggedRequest> getRequests() {
-		return transform(serveEvents, new Function<ServeEvent, LoggedRequest>() {
+	private Iterable<LoggedRequest> getRequests(Iterable<ServeEvent> events) {
+		return transform(events, new Function<ServeEvent, LoggedRequest>() {
 			public LoggedRequest apply(ServeEvent input) {
 				return input.getRequest();
 			}
@@ -126,20 +205,33 @@ public class InMemoryRequestJournal implements RequestJournal {
 
 	private void removeOldEntries() {
 		if (maxEntries.isPresent()) {
-			while (serveEvents.size() > maxEntries.get()) {
-				serveEvents.poll();
+			while (size.get() > maxEntries.get()) {
+				Map.Entry<Long, ServeEvent> oldest = serveEvents.firstEntry();
+				if (oldest == null) {
+					return;
+				}
+				remove(oldest.getKey());
 			}
 		}
 	}
 
-	private static Predicate<ServeEvent> withStubMetadataMatching(final StringValuePattern metadataPattern) {
+	/**
+	 * Stubs are shared by many serve events, so each one's metadata is only serialised and matched once.
+	 */
+	static Predicate<ServeEvent> withStubMetadataMatching(final StringValuePattern metadataPattern) {
+		final Map<StubMapping, Boolean> resultsByStub = new IdentityHashMap<>();
 		return new Predicate<ServeEvent>() {
 			@Override
 			public boolean apply(ServeEvent serveEvent) {
 				StubMapping stub = serveEvent.getStubMapping();
 				if (stub != null) {
-					String metadataJson = Json.write(stub.getMetadata());
-					return metadataPattern.match(metadataJson).isExactMatch();
+					Boolean result = resultsByStub.get(stub);
+					if (result == null) {
+						String metadataJson = Json.write(stub.getMetadata());
+						result = metadataPattern.match(metadataJson).isExactMatch();
+						resultsByStub.put(stub, result);
+					}
+					return result;
 				}
 
 				return false;
@@ -65,6 +65,8 @@ public class LoggedRequest implements Request {
     private final Date loggedDate;
     private final Collection<Part> multiparts;
 
+    private String cachedBodyAsString;
+
     public static LoggedRequest createFrom(Request request) {
         return new LoggedRequest(
             request.getUrl(),
@@ -217,7 +219,11 @@ public class LoggedRequest implements Request {
     @Override
     @JsonProperty("body")
     public String getBodyAsString() {
-        return stringFromBytes(body, encodingFromContentTypeHeaderOrUtf8());
+        if (cachedBodyAsString == null) {
+            cachedBodyAsString = stringFromBytes(body, encodingFromContentTypeHeaderOrUtf8());
+        }
+
+        return cachedBodyAsString;
     }
 
     @Override
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the work done finding the near misses for a request, by the number of stubs scored and
+ * by the time spent scoring them. When the time runs out the nearest misses found so far are returned.
+ */
+public class NearMissBudget {
+
+    public static final NearMissBudget UNLIMITED = new NearMissBudget(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int maxCandidates;
+    private final long maxTimeNanos;
+
+    private NearMissBudget(int maxCandidates, long maxTimeNanos) {
+        this.maxCandidates = maxCandidates;
+        this.maxTimeNanos = maxTimeNanos;
+    }
+
+    public static NearMissBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    public NearMissBudget withMaxCandidates(int maxCandidates) {
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("Maximum number of near miss candidates must be at least 1");
+        }
+        return new NearMissBudget(maxCandidates, maxTimeNanos);
+    }
+
+    public NearMissBudget withMaxTime(long duration, TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Near miss time budget must not be negative");
+        }
+        return new NearMissBudget(maxCandidates, unit.toNanos(duration));
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public boolean isTimeLimited() {
+        return maxTimeNanos != Long.MAX_VALUE;
+    }
+
+    public long getMaxTimeNanos() {
+        return maxTimeNanos;
+    }
+}
@@ -17,21 +17,43 @@ package com.github.tomakehurst.wiremock.verification;
 
 import com.github.tomakehurst.wiremock.matching.MatchResult;
 import com.github.tomakehurst.wiremock.matching.MemoizingMatchResult;
+import com.github.tomakehurst.wiremock.matching.ParsedBodyCache;
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
 import com.github.tomakehurst.wiremock.stubbing.*;
 import com.google.common.base.Function;
-import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-
-import static com.google.common.collect.FluentIterable.from;
-import static java.lang.Math.min;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
 
 public class NearMissCalculator {
 
     public static final int NEAR_MISS_COUNT = 3;
 
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // Large lists are scored on workers of their own rather than the common pool, whose threads are shared with
+    // the rest of the JVM. Idle workers are retired by the pool, so it's never shut down.
+    private static final ForkJoinPool SCORING_POOL = new ForkJoinPool(
+        Runtime.getRuntime().availableProcessors(),
+        new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("wiremock-near-miss-" + thread.getPoolIndex());
+                return thread;
+            }
+        },
+        null,
+        false
+    );
+
     public static final Comparator<NearMiss> NEAR_MISS_ASCENDING_COMPARATOR = new Comparator<NearMiss>() {
         public int compare(NearMiss o1, NearMiss o2) {
             return o1.compareTo(o2);
@@ -49,15 +71,23 @@ public class NearMissCalculator {
     }
 
     public List<NearMiss> findNearestTo(final LoggedRequest request) {
+        return findNearestTo(request, NearMissBudget.UNLIMITED);
+    }
+
+    public List<NearMiss> findNearestTo(final LoggedRequest request, NearMissBudget budget) {
         List<StubMapping> allMappings = stubMappings.getAll();
+        List<StubMapping> candidates = allMappings.size() > budget.getMaxCandidates() ?
+            allMappings.subList(0, budget.getMaxCandidates()) :
+            allMappings;
+        long deadline = budget.isTimeLimited() ? System.nanoTime() + budget.getMaxTimeNanos() : NO_DEADLINE;
 
-        return sortAndTruncate(from(allMappings).transform(new Function<StubMapping, NearMiss>() {
+        return nearest(candidates, deadline, new Function<StubMapping, NearMiss>() {
             public NearMiss apply(StubMapping stubMapping) {
                 MatchResult matchResult = new MemoizingMatchResult(stubMapping.getRequest().match(request));
                 String actualScenarioState = getScenarioStateOrNull(stubMapping);
                 return new NearMiss(request, stubMapping, matchResult, actualScenarioState);
             }
-        }), allMappings.size());
+        });
     }
 
     private String getScenarioStateOrNull(StubMapping stubMapping) {
@@ -71,19 +101,131 @@ public class NearMissCalculator {
 
     public List<NearMiss> findNearestTo(final RequestPattern requestPattern) {
         List<ServeEvent> serveEvents = requestJournal.getAllServeEvents();
-        return sortAndTruncate(from(serveEvents).transform(new Function<ServeEvent, NearMiss>() {
+        return nearest(serveEvents, NO_DEADLINE, new Function<ServeEvent, NearMiss>() {
             public NearMiss apply(ServeEvent serveEvent) {
                 MatchResult matchResult = new MemoizingMatchResult(requestPattern.match(serveEvent.getRequest()));
                 return new NearMiss(serveEvent.getRequest(), requestPattern, matchResult);
             }
-        }), serveEvents.size());
+        });
+    }
+
+    private static <T> List<NearMiss> nearest(List<T> candidates, long deadline, Function<T, NearMiss> toNearMiss) {
+        ScoringTask<T> task = new ScoringTask<>(candidates, 0, candidates.size(), deadline, toNearMiss);
+        TopNearMisses top = candidates.size() > ScoringTask.THRESHOLD ? SCORING_POOL.invoke(task) : task.compute();
+        return top.toSortedList();
+    }
+
+    private static boolean isPast(long deadline) {
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline > 0;
+    }
+
+    /**
+     * Scores a range of candidates, splitting it in half and forking while it's bigger than {@link #THRESHOLD}.
+     * Only large stub lists and journals are scored in parallel, on {@link #SCORING_POOL} - smaller ones run entirely
+     * on the calling thread. Each range clears the parsed body it leaves behind on the thread that scored it.
+     * Once the deadline passes each range stops after scoring its first candidate.
+     */
+    private static class ScoringTask<T> extends RecursiveTask<TopNearMisses> {
+
+        private static final int THRESHOLD = 256;
+
+        private final List<T> candidates;
+        private final int start;
+        private final int end;
+        private final long deadline;
+        private final Function<T, NearMiss> toNearMiss;
+
+        ScoringTask(List<T> candidates, int start, int end, long deadline, Function<T, NearMiss> toNearMiss) {
+            this.candidates = candidates;
+            this.start = start;
+            this.end = end;
+            this.deadline = deadline;
+            this.toNearMiss = toNearMiss;
+        }
+
+        @Override
+        protected TopNearMisses compute() {
+            if (end - start <= THRESHOLD) {
+                TopNearMisses top = new TopNearMisses();
+                try {
+                    for (int i = start; i < end && (i == start || !isPast(deadline)); i++) {
+                        NearMiss nearMiss = toNearMiss.apply(candidates.get(i));
+                        // Score now, on this thread, rather than whenever the heap first compares it
+                        nearMiss.getMatchResult().getDistance();
+                        top.offer(i, nearMiss);
+                    }
+                } finally {
+                    // Worker threads are pooled, so don't leave the parsed body behind on them
+                    ParsedBodyCache.clear();
+                }
+                return top;
+            }
+
+            int middle = (start + end) >>> 1;
+            ScoringTask<T> left = new ScoringTask<>(candidates, start, middle, deadline, toNearMiss);
+            ScoringTask<T> right = new ScoringTask<>(candidates, middle, end, deadline, toNearMiss);
+            left.fork();
+            TopNearMisses top = right.compute();
+            return top.addAll(left.join());
+        }
     }
 
-    private static List<NearMiss> sortAndTruncate(FluentIterable<NearMiss> nearMisses, int originalSize) {
-        return nearMisses
-            .toSortedList(NEAR_MISS_ASCENDING_COMPARATOR)
-            .subList(0, min(NEAR_MISS_COUNT, originalSize));
+    /**
+     * Keeps the {@link #NEAR_MISS_COUNT} nearest misses seen so far in a bounded max-heap, so the furthest of
+     * them can be dropped in constant time. Ties are broken by position in the original list, which
+     * keeps the result the same as a stable sort of every candidate.
+     */
+    private static class TopNearMisses {
+
+        private static final Comparator<Ranked> ASCENDING = new Comparator<Ranked>() {
+            @Override
+            public int compare(Ranked one, Ranked two) {
+                int result = NEAR_MISS_ASCENDING_COMPARATOR.compare(one.nearMiss, two.nearMiss);
+                return result != 0 ? result : Integer.compare(one.position, two.position);
+            }
+        };
+
+        private final PriorityQueue<Ranked> furthestFirst = new PriorityQueue<>(NEAR_MISS_COUNT + 1, Collections.reverseOrder(ASCENDING));
+
+        void offer(int position, NearMiss nearMiss) {
+            offer(new Ranked(position, nearMiss));
+        }
+
+        private void offer(Ranked ranked) {
+            if (furthestFirst.size() < NEAR_MISS_COUNT) {
+                furthestFirst.add(ranked);
+            } else if (ASCENDING.compare(ranked, furthestFirst.peek()) < 0) {
+                furthestFirst.poll();
+                furthestFirst.add(ranked);
+            }
+        }
+
+        TopNearMisses addAll(TopNearMisses other) {
+            for (Ranked ranked: other.furthestFirst) {
+                offer(ranked);
+            }
+            return this;
+        }
+
+        List<NearMiss> toSortedList() {
+            List<Ranked> ranked = new ArrayList<>(furthestFirst);
+            Collections.sort(ranked, ASCENDING);
+            ImmutableList.Builder<NearMiss> nearMisses = ImmutableList.builder();
+            for (Ranked each: ranked) {
+                nearMisses.add(each.nearMiss);
+            }
+            return nearMisses.build();
+        }
     }
 
+    private static class Ranked {
+
+        private final int position;
+        private final NearMiss nearMiss;
 
+        Ranked(int position, NearMiss nearMiss) {
+            this.position = position;
+            this.nearMiss = nearMiss;
+        }
+    }
 }
@@ -31,6 +31,13 @@ public interface RequestJournal {
     List<ServeEvent> getAllServeEvents();
     Optional<ServeEvent> getServeEvent(UUID id);
 
+    /**
+     * Returns a live, newest first view of the journal, starting with the event logged just before the
+     * one with the given ID, or with the newest event if the ID is null. The view is empty if the ID isn't in the journal.
+     */
+    Iterable<ServeEvent> getServeEventsAfter(UUID id);
+    int getServeEventCount();
+
 	void reset();
 
     void requestReceived(ServeEvent serveEvent);
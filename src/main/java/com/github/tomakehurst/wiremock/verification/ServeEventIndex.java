@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPathPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes over the serve events in a request journal, holding the journal's own sequence numbers
+ * so that results can be returned in journal order. Events are indexed by ID, by URL and path, and by the ID
+ * of the stub mapping they were served from.
+ */
+class ServeEventIndex {
+
+    private static final String URL_KEY = "url ";
+    private static final String PATH_KEY = "path ";
+
+    private final ConcurrentMap<UUID, Long> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableSet<Long>> byUrl = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, NavigableSet<Long>> byStubId = new ConcurrentHashMap<>();
+
+    void add(long sequence, ServeEvent serveEvent) {
+        byId.put(serveEvent.getId(), sequence);
+
+        String url = serveEvent.getRequest().getUrl();
+        if (url != null) {
+            addToBucket(byUrl, URL_KEY + url, sequence);
+            addToBucket(byUrl, PATH_KEY + Urls.getPath(url), sequence);
+        }
+
+        StubMapping stubMapping = serveEvent.getStubMapping();
+        if (stubMapping != null && stubMapping.getId() != null) {
+            addToBucket(byStubId, stubMapping.getId(), sequence);
+        }
+    }
+
+    void remove(long sequence, ServeEvent serveEvent) {
+        byId.remove(serveEvent.getId(), sequence);
+
+        String url = serveEvent.getRequest().getUrl();
+        if (url != null) {
+            removeFromBucket(byUrl, URL_KEY + url, sequence);
+            removeFromBucket(byUrl, PATH_KEY + Urls.getPath(url), sequence);
+        }
+
+        StubMapping stubMapping = serveEvent.getStubMapping();
+        if (stubMapping != null && stubMapping.getId() != null) {
+            removeFromBucket(byStubId, stubMapping.getId(), sequence);
+        }
+    }
+
+    void clear() {
+        byId.clear();
+        byUrl.clear();
+        byStubId.clear();
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    Long sequenceOf(UUID serveEventId) {
+        return byId.get(serveEventId);
+    }
+
+    /**
+     * Returns the sequence numbers of every event that could match the pattern, or null
+     * if the pattern's URL can't be used to narrow the search.
+     */
+    Collection<Long> candidatesFor(RequestPattern requestPattern) {
+        UrlPattern urlPattern = requestPattern.getUrlMatcher();
+        String exactValue = urlPattern.getExactValue();
+        if (exactValue == null) {
+            return null;
+        }
+
+        String key;
+        if (urlPattern.getClass() == UrlPathPattern.class) {
+            key = PATH_KEY + exactValue;
+        } else if (urlPattern.getClass() == UrlPattern.class) {
+            key = URL_KEY + exactValue;
+        } else {
+            return null;
+        }
+
+        NavigableSet<Long> bucket = byUrl.get(key);
+        return bucket != null ? bucket : Collections.<Long>emptySet();
+    }
+
+    Collection<NavigableSet<Long>> byStub() {
+        return byStubId.values();
+    }
+
+    private static <K> void addToBucket(ConcurrentMap<K, NavigableSet<Long>> index, K key, final long sequence) {
+        index.compute(key, (k, bucket) -> {
+            NavigableSet<Long> result = bucket != null ? bucket : new ConcurrentSkipListSet<Long>();
+            result.add(sequence);
+            return result;
+        });
+    }
+
+    private static <K> void removeFromBucket(ConcurrentMap<K, NavigableSet<Long>> index, K key, final long sequence) {
+        index.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(sequence);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+}
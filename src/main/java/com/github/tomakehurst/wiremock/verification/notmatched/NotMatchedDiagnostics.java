@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification.notmatched;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs the diagnostics rendered for unmatched requests. Unlimited diagnostics are logged straight away on the
+ * request thread. Rate limited ones are logged by a background thread, and any over the limit, or arriving while
+ * the backlog is full, are dropped. Every dropped diagnostic is counted.
+ */
+public class NotMatchedDiagnostics {
+
+    public static final int UNLIMITED = -1;
+
+    private static final int MAX_QUEUED = 100;
+
+    private final RateLimiter rateLimiter;
+    private final ExecutorService executor;
+    private final AtomicLong suppressedCount = new AtomicLong();
+
+    private NotMatchedDiagnostics(int maxPerSecond) {
+        if (maxPerSecond == UNLIMITED) {
+            rateLimiter = null;
+            executor = null;
+        } else {
+            if (maxPerSecond < 0) {
+                throw new IllegalArgumentException("Maximum not matched diagnostics per second must not be negative");
+            }
+            rateLimiter = maxPerSecond > 0 ? RateLimiter.create(maxPerSecond) : null;
+            executor = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(MAX_QUEUED),
+                new ThreadFactoryBuilder().setNameFormat("wiremock-not-matched-log-%d").setDaemon(true).build()
+            );
+        }
+    }
+
+    public static NotMatchedDiagnostics unlimited() {
+        return new NotMatchedDiagnostics(UNLIMITED);
+    }
+
+    public static NotMatchedDiagnostics atMostPerSecond(int maxPerSecond) {
+        return new NotMatchedDiagnostics(maxPerSecond);
+    }
+
+    public boolean isRateLimited() {
+        return executor != null;
+    }
+
+    public void log(final Notifier notifier, final String diagnostic) {
+        if (executor == null) {
+            notifier.error(diagnostic);
+            return;
+        }
+
+        if (rateLimiter == null || !rateLimiter.tryAcquire()) {
+            suppress();
+            return;
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    notifier.error(diagnostic);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            suppress();
+        }
+    }
+
+    public void suppress() {
+        suppressedCount.incrementAndGet();
+    }
+
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+}
@@ -29,4 +29,11 @@ public abstract class NotMatchedRenderer implements AdminTask {
     }
 
     protected abstract ResponseDefinition render(Admin admin, Request request);
+
+    /**
+     * @return the number of unmatched requests whose diagnostics were skipped or not logged, to bound their cost
+     */
+    public long getSuppressedDiagnosticsCount() {
+        return 0;
+    }
 }
@@ -22,6 +22,7 @@ import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.github.tomakehurst.wiremock.verification.NearMiss;
+import com.github.tomakehurst.wiremock.verification.NearMissBudget;
 import com.github.tomakehurst.wiremock.verification.diff.Diff;
 import com.github.tomakehurst.wiremock.verification.diff.PlainTextDiffRenderer;
 
@@ -35,10 +36,22 @@ public class PlainTextStubNotMatchedRenderer extends NotMatchedRenderer {
 
     public static final String CONSOLE_WIDTH_HEADER_KEY = "X-WireMock-Console-Width";
 
+    private final NearMissBudget nearMissBudget;
+    private final NotMatchedDiagnostics diagnostics;
+
+    public PlainTextStubNotMatchedRenderer() {
+        this(NearMissBudget.UNLIMITED, NotMatchedDiagnostics.unlimited());
+    }
+
+    public PlainTextStubNotMatchedRenderer(NearMissBudget nearMissBudget, NotMatchedDiagnostics diagnostics) {
+        this.nearMissBudget = nearMissBudget;
+        this.diagnostics = diagnostics;
+    }
+
     @Override
     public ResponseDefinition render(Admin admin, Request request) {
         LoggedRequest loggedRequest = LoggedRequest.createFrom(request.getOriginalRequest().or(request));
-        List<NearMiss> nearMisses = admin.findTopNearMissesFor(loggedRequest).getNearMisses();
+        List<NearMiss> nearMisses = admin.findTopNearMissesFor(loggedRequest, nearMissBudget).getNearMisses();
 
         Map<String, RequestMatcherExtension> customMatcherExtensions =
                 admin.getOptions().extensionsOfType(RequestMatcherExtension.class);
@@ -55,7 +68,7 @@ public class PlainTextStubNotMatchedRenderer extends NotMatchedRenderer {
             body = diffRenderer.render(firstDiff);
         }
 
-        notifier().error(body);
+        diagnostics.log(notifier(), body);
 
         return ResponseDefinitionBuilder.responseDefinition()
             .withStatus(404)
@@ -63,4 +76,9 @@ public class PlainTextStubNotMatchedRenderer extends NotMatchedRenderer {
             .withBody(body)
             .build();
     }
+
+    @Override
+    public long getSuppressedDiagnosticsCount() {
+        return diagnostics.getSuppressedCount();
+    }
 }
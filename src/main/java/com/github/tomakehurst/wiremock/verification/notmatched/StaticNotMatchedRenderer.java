@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification.notmatched;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * Answers unmatched requests with a plain 404 naming the request, without looking for near misses or logging
+ * a diff, so that the cost of unmatched traffic stays constant however many stubs there are.
+ */
+public class StaticNotMatchedRenderer extends NotMatchedRenderer {
+
+    private final AtomicLong suppressedCount = new AtomicLong();
+
+    @Override
+    protected ResponseDefinition render(Admin admin, Request request) {
+        suppressedCount.incrementAndGet();
+
+        Request originalRequest = request.getOriginalRequest().or(request);
+        return ResponseDefinitionBuilder.responseDefinition()
+            .withStatus(404)
+            .withHeader(CONTENT_TYPE, "text/plain")
+            .withBody("Request was not matched: " + originalRequest.getMethod() + " " + originalRequest.getUrl() + "\n")
+            .build();
+    }
+
+    @Override
+    public long getSuppressedDiagnosticsCount() {
+        return suppressedCount.get();
+    }
+}
@@ -261,6 +261,42 @@ public class AdminApiTest extends AcceptanceTestBase {
         check.field("requests").hasSize(3);
     }
 
+    @Test
+    public void getLoggedRequestsAfterCursor() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            testClient.get("/received-request/" + i);
+        }
+
+        String firstPage = testClient.get("/__admin/requests?limit=2").content();
+        String cursor = Json.node(firstPage).get("requests").get(1).get("id").textValue();
+
+        String body = testClient.get("/__admin/requests?limit=2&after=" + cursor).content();
+
+        JsonVerifiable check = JsonAssertion.assertThat(body);
+        check.field("meta").field("total").isEqualTo(5);
+        check.field("requests").hasSize(2);
+        check.field("requests").elementWithIndex(0).field("request").field("url").isEqualTo("/received-request/3");
+        check.field("requests").elementWithIndex(1).field("request").field("url").isEqualTo("/received-request/2");
+    }
+
+    @Test
+    public void returnsBadRequestWhenCursorIsNotInTheJournal() {
+        testClient.get("/received-request/1");
+
+        WireMockResponse response = testClient.get("/__admin/requests?after=" + UUID.randomUUID());
+
+        assertThat(response.statusCode(), is(422));
+    }
+
+    @Test
+    public void returnsBadRequestWhenCursorIsNotAValidId() {
+        WireMockResponse response = testClient.get("/__admin/requests?after=not-a-uuid");
+
+        assertThat(response.statusCode(), is(422));
+        assertThat(response.content(), containsString("not-a-uuid is not a valid serve event ID"));
+        assertThat(response.content(), containsString("/after"));
+    }
+
     @Test
     public void getLoggedRequestById() throws Exception {
         for (int i = 1; i <= 3; i++) {
@@ -21,6 +21,7 @@ import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.http.HttpClientFactory;
+import com.github.tomakehurst.wiremock.http.Http2ConnectionStats;
 import com.google.common.io.Resources;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.http.HttpResponse;
@@ -255,6 +256,28 @@ public class HttpsAcceptanceTest {
         assertThat(response.getStatusLine().getStatusCode(), is(200));
     }
 
+    @Test
+    public void supportsProxyingOverHttp2WhenTargetRequiresClientCert() throws Exception {
+        startServerEnforcingClientCert(KEY_STORE_PATH, TRUST_STORE_PATH, TRUST_STORE_PASSWORD);
+        wireMockServer.stubFor(get(urlEqualTo("/client-cert-proxy-h2")).willReturn(aResponse().withStatus(200)));
+
+        proxy = new WireMockServer(wireMockConfig()
+                .port(Options.DYNAMIC_PORT)
+                .proxyHttp2Enabled(true)
+                .trustStorePath(TRUST_STORE_PATH)
+                .trustStorePassword(TRUST_STORE_PASSWORD));
+        proxy.start();
+        proxy.stubFor(get(urlEqualTo("/client-cert-proxy-h2")).willReturn(aResponse().proxiedFrom("https://localhost:" + wireMockServer.httpsPort())));
+
+        HttpGet get = new HttpGet("http://localhost:" + proxy.port() + "/client-cert-proxy-h2");
+        HttpResponse response = httpClient.execute(get);
+        assertThat(response.getStatusLine().getStatusCode(), is(200));
+
+        Http2ConnectionStats http2 = proxy.getProxyConnectionPools().getReverseProxyHttp2();
+        assertThat(http2.getTotalStreams(), is(1L));
+        assertThat(http2.getHttp11FallbackTargets().isEmpty(), is(true));
+    }
+
     @Test
     public void proxyingFailsWhenTargetServiceRequiresClientCertificatesAndProxyDoesNotSend() throws Exception {
         startServerEnforcingClientCert(KEY_STORE_PATH, TRUST_STORE_PATH, TRUST_STORE_PASSWORD);
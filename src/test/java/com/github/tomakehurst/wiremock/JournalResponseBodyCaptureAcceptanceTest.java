@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.http.ResponseBodyCapture;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.testsupport.TestFiles.defaultTestFilesRoot;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+public class JournalResponseBodyCaptureAcceptanceTest {
+
+    WireMockServer wm;
+    WireMockTestClient testClient;
+
+    @After
+    public void stop() {
+        wm.stop();
+    }
+
+    @Test
+    public void journalsAReferenceToTheBodyFileAndReadsItWhenTheServeEventIsFetched() {
+        start(ResponseBodyCapture.fileReference());
+        wm.stubFor(get("/file").willReturn(aResponse().withBodyFile("plain-example.txt")));
+
+        testClient.get("/file");
+
+        LoggedResponse response = WireMock.getAllServeEvents().get(0).getResponse();
+        assertThat(response.getBodyFileName(), endsWith("plain-example.txt"));
+        assertThat(response.getBodyAsString(), startsWith("Some example test from a file"));
+    }
+
+    @Test
+    public void journalsOnlyTheStartOfTheBodyWhenTruncated() {
+        start(ResponseBodyCapture.truncatedTo(4));
+        wm.stubFor(get("/inline").willReturn(aResponse().withBody("0123456789")));
+
+        testClient.get("/inline");
+
+        LoggedResponse response = WireMock.getAllServeEvents().get(0).getResponse();
+        assertThat(response.getBodyAsString(), is("0123"));
+        assertThat(response.isBodyTruncated(), is(true));
+    }
+
+    private void start(ResponseBodyCapture bodyCapture) {
+        wm = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .withRootDirectory(defaultTestFilesRoot())
+            .journalResponseBodyCapture(bodyCapture));
+        wm.start();
+        testClient = new WireMockTestClient(wm.port());
+        WireMock.configureFor(wm.port());
+    }
+}
@@ -31,8 +31,11 @@ import com.github.tomakehurst.wiremock.testsupport.TestHttpHeader;
 import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
 import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
 import com.github.tomakehurst.wiremock.verification.diff.PlainTextDiffRenderer;
+import com.github.tomakehurst.wiremock.verification.NearMissBudget;
+import com.github.tomakehurst.wiremock.verification.notmatched.NotMatchedDiagnostics;
 import com.github.tomakehurst.wiremock.verification.notmatched.NotMatchedRenderer;
 import com.github.tomakehurst.wiremock.verification.notmatched.PlainTextStubNotMatchedRenderer;
+import com.github.tomakehurst.wiremock.verification.notmatched.StaticNotMatchedRenderer;
 import org.apache.http.HttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.junit.After;
@@ -167,6 +170,35 @@ public class NotMatchedPageAcceptanceTest {
         assertThat(response.content(), is("No you don't!"));
     }
 
+    @Test
+    public void returnsAPlainNotFoundWithoutADiffWhenStaticRendererConfigured() {
+        StaticNotMatchedRenderer renderer = new StaticNotMatchedRenderer();
+        configure(wireMockConfig().notMatchedRenderer(renderer));
+        stubFor(get("/thing").willReturn(ok()));
+
+        WireMockResponse response = testClient.get("/thin");
+
+        assertThat(response.statusCode(), is(404));
+        assertThat(response.firstHeader(CONTENT_TYPE), is("text/plain"));
+        assertThat(response.content(), is("Request was not matched: GET /thin\n"));
+        assertThat(renderer.getSuppressedDiagnosticsCount(), is(1L));
+    }
+
+    @Test
+    public void rendersADiffAgainstTheNearestStubWithinTheNearMissBudget() {
+        configure(wireMockConfig().notMatchedRenderer(new PlainTextStubNotMatchedRenderer(
+            NearMissBudget.unlimited().withMaxCandidates(1),
+            NotMatchedDiagnostics.unlimited()
+        )));
+        stubFor(get("/thing").withName("Far").willReturn(ok()));
+        stubFor(get("/thin").withName("Near").atPriority(10).willReturn(ok()));
+
+        WireMockResponse response = testClient.get("/thi");
+
+        assertThat(response.statusCode(), is(404));
+        assertThat(response.content(), containsString("Far"));
+    }
+
     @Test
     public void returns404AndDiffReportWhenPlusSymbolInQuery() {
         configure();
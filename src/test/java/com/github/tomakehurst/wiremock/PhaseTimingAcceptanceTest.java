@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.admin.model.GetStubMetricsResult;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.PhaseTimings;
+import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilterAction;
+import com.github.tomakehurst.wiremock.extension.requestfilter.StubRequestFilter;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PhaseTimingAcceptanceTest {
+
+    WireMockServer wm;
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        wm = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .extensions(new PassThroughFilter(), new ResponseTemplateTransformer(true)));
+        wm.start();
+        client = new WireMockTestClient(wm.port());
+    }
+
+    @After
+    public void stopServer() {
+        wm.stop();
+    }
+
+    @Test
+    public void recordsTheTimeSpentInEachPhaseOfServingARequest() {
+        wm.stubFor(get("/phases").willReturn(ok("{{request.path}}")));
+
+        client.get("/phases");
+
+        PhaseTimings phases = wm.getAllServeEvents().get(0).getTiming().getPhases();
+        assertThat(phases.getFiltersNanos(), greaterThan(0L));
+        assertThat(phases.getMatchNanos(), greaterThan(0L));
+        assertThat(phases.getDefinitionTransformersNanos(), greaterThan(0L));
+        assertThat(phases.getRenderNanos(), greaterThan(0L));
+        assertThat(phases.getResponseTransformersNanos(), greaterThanOrEqualTo(0L));
+        assertThat(phases.getJournalWriteNanos(), greaterThan(0L));
+    }
+
+    @Test
+    public void includesPhaseTimingsInServeEventJson() {
+        wm.stubFor(get("/phases/json").willReturn(ok()));
+        client.get("/phases/json");
+
+        String json = client.get("/__admin/requests").content();
+        assertThat(json, allOf(
+            containsString("\"phases\""),
+            containsString("\"filtersNanos\""),
+            containsString("\"matchNanos\""),
+            containsString("\"journalWriteNanos\"")
+        ));
+
+        ServeEvent serveEvent = new WireMock(wm.port()).getServeEvents().get(0);
+        assertThat(serveEvent.getTiming().getPhases().getMatchNanos(), greaterThan(0L));
+    }
+
+    @Test
+    public void aggregatesPhaseTimingsInTheStubMetrics() {
+        wm.stubFor(get("/phases/metrics").willReturn(ok()));
+
+        client.get("/phases/metrics");
+        client.get("/phases/not-stubbed");
+
+        await().atMost(5, SECONDS).until(new Callable<Long>() {
+            @Override
+            public Long call() {
+                return wm.getStubMetrics().getPhases().get("match").getCount();
+            }
+        }, is(2L));
+
+        GetStubMetricsResult metrics = wm.getStubMetrics();
+        assertThat(metrics.getPhases().keySet(), contains(
+            "filters", "match", "definitionTransformers", "render", "responseTransformers", "journalWrite"
+        ));
+        assertThat(metrics.getPhases().get("journalWrite").getCount(), is(2L));
+        assertThat(client.get("/__admin/metrics/prometheus").content(),
+            containsString("wiremock_request_phase_seconds_count{phase=\"render\"} 2\n"));
+    }
+
+    public static class PassThroughFilter extends StubRequestFilter {
+
+        @Override
+        public RequestFilterAction filter(Request request) {
+            return RequestFilterAction.continueWith(request);
+        }
+
+        @Override
+        public String getName() {
+            return "pass-through";
+        }
+    }
+}
@@ -34,6 +34,7 @@ import org.junit.Test;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.github.tomakehurst.wiremock.PostServeActionExtensionTest.CounterNameParameter.counterNameParameter;
 import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.responseDefinition;
@@ -41,8 +42,10 @@ import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -131,6 +134,34 @@ public class PostServeActionExtensionTest {
             .until(getValue(finalStatus), is(418));
     }
 
+    @Test
+    public void runsActionsOnceADelayedResponseHasBeenSent() {
+        final AtomicInteger responseSendTime = new AtomicInteger(-1);
+        final AtomicLong ranAtNanos = new AtomicLong();
+        initWithOptions(options().dynamicPort().extensions(new PostServeAction() {
+            @Override
+            public String getName() {
+                return "delayed-response-test";
+            }
+
+            @Override
+            public void doGlobalAction(ServeEvent serveEvent, Admin admin) {
+                ranAtNanos.set(System.nanoTime());
+                responseSendTime.set(serveEvent.getTiming().getResponseSendTime());
+            }
+        }));
+
+        wm.stubFor(get(urlPathEqualTo("/delayed")).willReturn(aResponse().withFixedDelay(300)));
+
+        long requestedAtNanos = System.nanoTime();
+        client.get("/delayed");
+
+        await()
+            .atMost(5, SECONDS)
+            .until(getValue(responseSendTime), greaterThanOrEqualTo(300));
+        assertThat(NANOSECONDS.toMillis(ranAtNanos.get() - requestedAtNanos), greaterThanOrEqualTo(300L));
+    }
+
     private Callable<Integer> getValue(final AtomicInteger value) {
         return new Callable<Integer>() {
             @Override
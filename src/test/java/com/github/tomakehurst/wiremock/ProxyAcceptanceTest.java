@@ -19,18 +19,32 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.tomakehurst.wiremock.admin.model.GetProxyConnectionPoolsResult;
+import com.github.tomakehurst.wiremock.admin.model.GetProxyResponseCacheResult;
+import com.github.tomakehurst.wiremock.client.HttpAdminClient;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.ConnectionPoolStats;
+import com.github.tomakehurst.wiremock.http.Http2ConnectionStats;
 import com.github.tomakehurst.wiremock.http.HttpClientFactory;
+import com.github.tomakehurst.wiremock.http.LoggedResponse;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
 import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
@@ -49,14 +63,19 @@ import org.junit.Test;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.http.ProxyCacheSettings.cacheFor;
+import static com.github.tomakehurst.wiremock.http.ProxyCacheSettings.coalesceWithoutCaching;
 import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.http.entity.ContentType.TEXT_PLAIN;
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertFalse;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -121,6 +140,304 @@ public class ProxyAcceptanceTest {
 		assertThat(response.firstHeader("Content-Type"), is("text/plain"));
 	}
 	
+    @Test
+    public void streamsLargeProxiedBodiesAndJournalsACappedCopy() {
+        init(wireMockConfig().proxyStreamingEnabled(true).proxyStreamingCaptureMaxBytes(1024));
+
+        String largeBody = Strings.repeat("0123456789", 20000);
+        target.register(get(urlEqualTo("/streamed/large")).willReturn(ok(largeBody)));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        WireMockResponse response = testClient.get("/streamed/large");
+
+        assertThat(response.content(), is(largeBody));
+        LoggedResponse journaled = proxyingService.getAllServeEvents().get(0).getResponse();
+        assertThat(journaled.getBody().length, is(1024));
+        assertThat(journaled.isBodyTruncated(), is(true));
+    }
+
+    @Test
+    public void recordsStreamedProxiedBodiesLargerThanTheCaptureLimitInFull() {
+        init(wireMockConfig().proxyStreamingEnabled(true).proxyStreamingCaptureMaxBytes(1024));
+
+        String largeBody = Strings.repeat("0123456789", 20000);
+        target.register(get(urlEqualTo("/recorded/large")).willReturn(ok(largeBody)));
+
+        proxyingService.startRecording(recordSpec().forTarget(targetServiceBaseUrl).extractTextBodiesOver(Long.MAX_VALUE).extractBinaryBodiesOver(Long.MAX_VALUE).makeStubsPersistent(false));
+        WireMockResponse response = testClient.get("/recorded/large");
+        List<StubMapping> recorded = proxyingService.stopRecording().getStubMappings();
+
+        assertThat(response.content(), is(largeBody));
+        assertThat(recorded.size(), is(1));
+        assertThat(new String(recorded.get(0).getResponse().getByteBody()), is(largeBody));
+    }
+
+    @Test
+    public void doesNotSnapshotStreamedProxiedBodiesThatWereTruncated() {
+        init(wireMockConfig().proxyStreamingEnabled(true).proxyStreamingCaptureMaxBytes(1024));
+
+        target.register(get(urlEqualTo("/snapshot/large")).willReturn(ok(Strings.repeat("0123456789", 20000))));
+        target.register(get(urlEqualTo("/snapshot/small")).willReturn(ok("Small body")));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        testClient.get("/snapshot/large");
+        testClient.get("/snapshot/small");
+        List<StubMapping> snapshot = proxyingService.snapshotRecord(recordSpec().extractTextBodiesOver(Long.MAX_VALUE).extractBinaryBodiesOver(Long.MAX_VALUE).makeStubsPersistent(false)).getStubMappings();
+
+        assertThat(snapshot.size(), is(1));
+        assertThat(snapshot.get(0).getRequest().getUrl(), is("/snapshot/small"));
+        assertThat(new String(snapshot.get(0).getResponse().getByteBody()), is("Small body"));
+    }
+
+    @Test
+    public void journalsSmallStreamedProxiedBodiesInFull() {
+        init(wireMockConfig().proxyStreamingEnabled(true));
+
+        target.register(get(urlEqualTo("/streamed/small")).willReturn(ok("Small streamed body")));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        WireMockResponse response = testClient.get("/streamed/small");
+
+        assertThat(response.content(), is("Small streamed body"));
+        LoggedResponse journaled = proxyingService.getAllServeEvents().get(0).getResponse();
+        assertThat(journaled.getBodyAsString(), is("Small streamed body"));
+        assertThat(journaled.isBodyTruncated(), is(false));
+    }
+
+    @Test
+    public void keepsUpstreamConnectionsPooledWhenKeepAliveIsSet() {
+        init(wireMockConfig().proxyKeepAlive(30000).proxyMaxConnections(20));
+
+        target.register(get(urlEqualTo("/pooled")).willReturn(ok("Pooled")));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        testClient.get("/pooled");
+        testClient.get("/pooled");
+
+        GetProxyConnectionPoolsResult pools = new HttpAdminClient("localhost", proxyingService.port()).getProxyConnectionPools();
+        ConnectionPoolStats reverseProxyPool = pools.getReverseProxy();
+        assertThat(reverseProxyPool.getMax(), is(20));
+        assertThat(reverseProxyPool.getLeased(), is(0));
+        assertThat(reverseProxyPool.getRoutes().size(), is(1));
+        assertThat(reverseProxyPool.getRoutes().get(0).getTarget(), is(targetServiceBaseUrl));
+        assertThat(reverseProxyPool.getRoutes().get(0).getAvailable(), is(1));
+        assertThat(pools.getBrowserProxy().getRoutes().size(), is(0));
+    }
+
+    @Test
+    public void closesUpstreamConnectionsAfterEachRequestByDefault() {
+        initWithDefaultConfig();
+
+        target.register(get(urlEqualTo("/not-pooled")).willReturn(ok("Not pooled")));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        testClient.get("/not-pooled");
+
+        assertThat(proxyingService.getProxyConnectionPools().getReverseProxy().getAvailable(), is(0));
+    }
+
+    @Test
+    public void servesRepeatedRequestsFromTheCacheWhenTheStubCachesResponses() {
+        initWithDefaultConfig();
+
+        target.register(get(urlEqualTo("/cached")).willReturn(ok("Cached content")));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse()
+            .proxiedFrom(targetServiceBaseUrl)
+            .withCache(cacheFor(60))));
+
+        assertThat(testClient.get("/cached").content(), is("Cached content"));
+        assertThat(testClient.get("/cached").content(), is("Cached content"));
+
+        target.verifyThat(1, getRequestedFor(urlEqualTo("/cached")));
+        HttpAdminClient proxyAdmin = new HttpAdminClient("localhost", proxyingService.port());
+        GetProxyResponseCacheResult cacheStats = proxyAdmin.getProxyResponseCache();
+        assertThat(cacheStats.getHits(), is(1L));
+        assertThat(cacheStats.getMisses(), is(1L));
+        assertThat(cacheStats.getEntries(), is(1L));
+
+        proxyAdmin.resetProxyResponseCache();
+        testClient.get("/cached");
+
+        target.verifyThat(2, getRequestedFor(urlEqualTo("/cached")));
+    }
+
+    @Test
+    public void coalescesConcurrentIdenticalRequestsIntoOneUpstreamCall() throws Exception {
+        initWithDefaultConfig();
+
+        target.register(get(urlEqualTo("/coalesced")).willReturn(ok("Coalesced content").withFixedDelay(1000)));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse()
+            .proxiedFrom(targetServiceBaseUrl)
+            .withCache(coalesceWithoutCaching())));
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<WireMockResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(executor.submit(() -> testClient.get("/coalesced")));
+        }
+        executor.shutdown();
+
+        for (Future<WireMockResponse> response: responses) {
+            assertThat(response.get().content(), is("Coalesced content"));
+        }
+        target.verifyThat(1, getRequestedFor(urlEqualTo("/coalesced")));
+        assertThat(proxyingService.getProxyResponseCache().getCoalesced(), is(4L));
+    }
+
+    @Test
+    public void multiplexesConcurrentRequestsOverOneHttp2ConnectionWhenHttp2IsEnabled() throws Exception {
+        init(wireMockConfig().proxyHttp2Enabled(true));
+
+        target.register(get(urlEqualTo("/multiplexed")).willReturn(ok("Multiplexed content").withFixedDelay(500)));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<WireMockResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(executor.submit(() -> testClient.get("/multiplexed")));
+        }
+        executor.shutdown();
+
+        for (Future<WireMockResponse> response: responses) {
+            assertThat(response.get().content(), is("Multiplexed content"));
+        }
+        target.verifyThat(5, getRequestedFor(urlEqualTo("/multiplexed")));
+
+        Http2ConnectionStats http2 = proxyingService.getProxyConnectionPools().getReverseProxyHttp2();
+        assertThat(http2.getTotalStreams(), is(5L));
+        assertThat(http2.getActiveStreams(), is(0));
+        assertThat(http2.getConnections(), is(1));
+        assertThat(http2.getTargets().get(0).getTarget(), is(targetServiceBaseUrl));
+    }
+
+    @Test
+    public void proxiesToHttpsTargetsOverHttp2WhenHttp2IsEnabled() {
+        init(wireMockConfig().proxyHttp2Enabled(true));
+
+        target.register(post(urlEqualTo("/h2")).willReturn(ok("Secure HTTP/2 content").withHeader("X-Upstream", "yes")));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom("https://localhost:" + targetService.httpsPort())));
+
+        WireMockResponse response = testClient.postWithBody("/h2", "Request body", "text/plain", "utf-8");
+
+        assertThat(response.content(), is("Secure HTTP/2 content"));
+        // HTTP/2 header names are always lower case
+        assertThat(response.firstHeader("x-upstream"), is("yes"));
+        target.verifyThat(postRequestedFor(urlEqualTo("/h2")).withRequestBody(equalTo("Request body")));
+        assertThat(proxyingService.getProxyConnectionPools().getReverseProxyHttp2().getTotalStreams(), is(1L));
+    }
+
+    @Test
+    public void fallsBackToHttp11ForTargetsThatDoNotSpeakHttp2() throws Exception {
+        init(wireMockConfig().proxyHttp2Enabled(true));
+
+        HttpServer http11Target = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        http11Target.createContext("/http11", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = ("Over " + exchange.getProtocol()).getBytes();
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            }
+        });
+        http11Target.start();
+        String http11TargetBaseUrl = "http://localhost:" + http11Target.getAddress().getPort();
+
+        try {
+            proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(http11TargetBaseUrl)));
+
+            assertThat(testClient.get("/http11").content(), is("Over HTTP/1.1"));
+            assertThat(testClient.get("/http11").content(), is("Over HTTP/1.1"));
+
+            Http2ConnectionStats http2 = proxyingService.getProxyConnectionPools().getReverseProxyHttp2();
+            assertThat(http2.getHttp11FallbackTargets(), hasItems(http11TargetBaseUrl));
+            assertThat(http2.getTotalStreams(), is(1L));
+        } finally {
+            http11Target.stop(0);
+        }
+    }
+
+    @Test
+    public void doesNotResendAPostOverHttp11WhenItTimesOutOverHttp2() throws Exception {
+        init(wireMockConfig().proxyHttp2Enabled(true).proxyTimeout(500));
+
+        target.register(post(urlEqualTo("/slow-post")).willReturn(ok("Too late").withFixedDelay(1500)));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        WireMockResponse response = testClient.postWithBody("/slow-post", "Only once", "text/plain", "utf-8");
+        Thread.sleep(500);
+
+        assertThat(response.statusCode(), is(500));
+        target.verifyThat(1, postRequestedFor(urlEqualTo("/slow-post")));
+        assertThat(proxyingService.getProxyConnectionPools().getReverseProxyHttp2().getHttp11FallbackTargets().isEmpty(), is(true));
+    }
+
+    @Test
+    public void stopsTheHttp2ClientWhenTheServerStops() {
+        init(wireMockConfig().proxyHttp2Enabled(true));
+
+        target.register(get(urlEqualTo("/h2")).willReturn(ok("HTTP/2 content")));
+        proxy.register(any(anyUrl()).atPriority(10).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+        assertThat(testClient.get("/h2").content(), is("HTTP/2 content"));
+        assertThat(http2ClientThreads() > 0, is(true));
+
+        proxyingService.stop();
+        assertThat(http2ClientThreads(), is(0));
+
+        proxyingService.start();
+        testClient = new WireMockTestClient(proxyingService.port());
+        assertThat(testClient.get("/h2").content(), is("HTTP/2 content"));
+    }
+
+    @Test
+    public void closesTheUpstreamClientsWhenTheServerStops() {
+        init(wireMockConfig().proxyMaxIdle(30000));
+
+        register200StubOnProxyAndTarget("/restarted");
+        assertThat(testClient.get("/restarted").statusCode(), is(200));
+        final int runningEvictors = idleConnectionEvictorThreads();
+
+        proxyingService.stop();
+        await().atMost(5, SECONDS).until(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return idleConnectionEvictorThreads();
+            }
+        }, is(runningEvictors - 2));
+
+        proxyingService.start();
+        testClient = new WireMockTestClient(proxyingService.port());
+        assertThat(testClient.get("/restarted").statusCode(), is(200));
+        assertThat(idleConnectionEvictorThreads(), is(runningEvictors));
+        assertThat(proxyingService.getProxyConnectionPools().getReverseProxy().getLeased(), is(0));
+    }
+
+    private static int http2ClientThreads() {
+        return liveThreadsNamed("wiremock-proxy-http2");
+    }
+
+    private static int idleConnectionEvictorThreads() {
+        return liveThreadsNamed("Connection evictor");
+    }
+
+    private static int liveThreadsNamed(String namePrefix) {
+        int count = 0;
+        for (Thread thread: Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith(namePrefix)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Test
+    public void doesNotReportHttp2ConnectionsWhenHttp2IsDisabled() {
+        initWithDefaultConfig();
+
+        assertThat(proxyingService.getProxyConnectionPools().getReverseProxyHttp2(), nullValue());
+    }
+
 	@Test
 	public void successfullyGetsResponseFromOtherServiceViaProxyWhenInjectingAddtionalRequestHeaders() {
         initWithDefaultConfig();
@@ -15,6 +15,7 @@
  */
 package com.github.tomakehurst.wiremock;
 
+import com.github.tomakehurst.wiremock.admin.model.GetDelayedResponsesResult;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.http.HttpClientFactory;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
@@ -30,15 +31,20 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static java.lang.Thread.sleep;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -79,6 +85,36 @@ public class ResponseDelayAcceptanceTest {
         assertThat(duration, greaterThanOrEqualTo(500));
     }
 
+    @Test
+    public void delaysResponsesWithoutHoldingContainerThreads() throws Exception {
+        WireMockServer smallServer = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(12));
+        smallServer.start();
+        try {
+            smallServer.stubFor(get("/many-delays").willReturn(ok("Delayed").withFixedDelay(1000)));
+
+            final WireMockTestClient smallServerClient = new WireMockTestClient(smallServer.port());
+            ExecutorService executor = Executors.newFixedThreadPool(40);
+            List<Future<WireMockResponse>> responses = new ArrayList<>();
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < 40; i++) {
+                responses.add(executor.submit(() -> smallServerClient.get("/many-delays")));
+            }
+            executor.shutdown();
+
+            for (Future<WireMockResponse> response: responses) {
+                assertThat(response.get().content(), is("Delayed"));
+            }
+            long duration = System.currentTimeMillis() - start;
+
+            assertThat(duration, lessThan(2500L));
+            GetDelayedResponsesResult delayedResponses = smallServer.getDelayedResponses();
+            assertThat(delayedResponses.getSent(), is(40L));
+            assertThat(delayedResponses.getPending(), is(0));
+        } finally {
+            smallServer.stop();
+        }
+    }
+
     @Test
     public void responseWithByteDribble() {
         byte[] body = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
@@ -19,13 +19,19 @@ import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.http.HttpClientFactory;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
+import com.google.common.io.Files;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -34,6 +40,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.greaterThan;
@@ -46,6 +53,9 @@ public class ResponseDelayAsynchronousAcceptanceTest {
 
     private ExecutorService httpClientExecutor = Executors.newCachedThreadPool();
 
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
     @Rule
     public WireMockRule wireMockRule = new WireMockRule(getOptions());
 
@@ -84,6 +94,57 @@ public class ResponseDelayAsynchronousAcceptanceTest {
         }
     }
 
+    @Test
+    public void sendsDelayedResponsesWhileMoreClientsThanAsynchronousResponseThreadsAreSlowToRead() throws Exception {
+        File filesRoot = tempDir.newFolder("__files");
+        Files.write(Strings.repeat("a", 16 * 1024 * 1024).getBytes(), new File(filesRoot, "large.txt"));
+
+        WireMockServer wireMockServer = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .withRootDirectory(tempDir.getRoot().getAbsolutePath())
+            .containerThreads(40)
+            .asynchronousResponseThreads(2));
+        wireMockServer.start();
+        List<Socket> slowClients = new ArrayList<>();
+        try {
+            wireMockServer.stubFor(get("/large").willReturn(ok().withBodyFile("large.txt").withFixedDelay(10)));
+            wireMockServer.stubFor(get("/delayed").willReturn(ok().withFixedDelay(10)));
+
+            // Each of these blocks the thread writing its response once the socket buffers fill up
+            for (int i = 0; i < 4; i++) {
+                Socket socket = new Socket("localhost", wireMockServer.port());
+                socket.setReceiveBufferSize(1024);
+                OutputStream out = socket.getOutputStream();
+                out.write("GET /large HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes());
+                out.flush();
+                slowClients.add(socket);
+            }
+            Thread.sleep(1000);
+
+            CloseableHttpResponse response = HttpClientFactory
+                .createClient(SOCKET_TIMEOUT_MILLISECONDS)
+                .execute(new HttpGet(String.format("http://localhost:%d/delayed", wireMockServer.port())));
+            assertThat(response.getStatusLine().getStatusCode(), is(200));
+        } finally {
+            for (Socket socket: slowClients) {
+                socket.close();
+            }
+            wireMockServer.stop();
+        }
+    }
+
+    @Test
+    public void addsDelaysAsynchronouslyAfterTheServerIsRestarted() throws Exception {
+        stubFor(get("/delayed").willReturn(ok().withFixedDelay(SHORTER_THAN_SOCKET_TIMEOUT)));
+
+        wireMockRule.stop();
+        wireMockRule.start();
+
+        TimedHttpResponse timedResponse = httpClientExecutor.submit(getHttpRequestCallables(1).get(0)).get();
+        assertThat(timedResponse.response.getStatusLine().getStatusCode(), is(200));
+        assertThat(timedResponse.milliseconds, greaterThan((double) SHORTER_THAN_SOCKET_TIMEOUT));
+    }
+
     private List<Callable<TimedHttpResponse>> getHttpRequestCallables(int requestCount) throws IOException {
         List<Callable<TimedHttpResponse>> requests = new ArrayList<>();
         for (int i = 0; i < requestCount; i++) {
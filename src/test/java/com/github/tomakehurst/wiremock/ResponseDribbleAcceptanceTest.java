@@ -28,9 +28,15 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.Options.DYNAMIC_PORT;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.github.tomakehurst.wiremock.testsupport.Assumptions.doNotRunOnMacOSXInCI;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.lessThan;
@@ -117,6 +123,40 @@ public class ResponseDribbleAcceptanceTest {
         assertThat(duration, lessThan(SOCKET_TIMEOUT_MILLISECONDS));
     }
 
+    @Test
+    public void slowDribblingResponsesDoNotHoldContainerThreads() throws Exception {
+        WireMockServer smallServer = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(12));
+        smallServer.start();
+        try {
+            smallServer.stubFor(get("/manyDribbles").willReturn(
+                ok()
+                    .withBody(BODY_BYTES)
+                    .withChunkedDribbleDelay(4, 1000)));
+
+            final String url = String.format("http://localhost:%d/manyDribbles", smallServer.port());
+            ExecutorService executor = Executors.newFixedThreadPool(40);
+            List<Future<byte[]>> responses = new ArrayList<>();
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < 40; i++) {
+                responses.add(executor.submit(() -> {
+                    HttpClient client = HttpClientFactory.createClient(5000);
+                    return EntityUtils.toByteArray(client.execute(new HttpGet(url)).getEntity());
+                }));
+            }
+            executor.shutdown();
+
+            for (Future<byte[]> response: responses) {
+                assertThat(response.get(), is(BODY_BYTES));
+            }
+            long duration = System.currentTimeMillis() - start;
+
+            // Holding a thread per response would take several times the dribble duration with this few threads
+            assertThat(duration, lessThan(2500L));
+        } finally {
+            smallServer.stop();
+        }
+    }
+
     private static Matcher<Double> isWithinTolerance(double value, double tolerance) {
         double maxDelta = value * tolerance;
         return closeTo(value, maxDelta);
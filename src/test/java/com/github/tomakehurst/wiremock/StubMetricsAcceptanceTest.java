@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.admin.model.GetStubMetricsResult;
+import com.github.tomakehurst.wiremock.admin.model.StubMetrics;
+import com.github.tomakehurst.wiremock.client.HttpAdminClient;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import com.github.tomakehurst.wiremock.verification.notmatched.StaticNotMatchedRenderer;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StubMetricsAcceptanceTest extends AcceptanceTestBase {
+
+    @Test
+    public void countsRequestsServedByEachStub() {
+        StubMapping often = stubFor(get("/metrics/often").withName("Often").willReturn(ok()));
+        StubMapping rarely = stubFor(get("/metrics/rarely").willReturn(ok()));
+
+        testClient.get("/metrics/often");
+        testClient.get("/metrics/often");
+        testClient.get("/metrics/often");
+        testClient.get("/metrics/rarely");
+        awaitRequests(wireMockServer, often.getId(), 3);
+        awaitRequests(wireMockServer, rarely.getId(), 1);
+
+        GetStubMetricsResult metrics = wireMockServer.getStubMetrics();
+        StubMetrics oftenMetrics = metrics.forStub(often.getId());
+        assertThat(oftenMetrics.getName(), is("Often"));
+        assertThat(oftenMetrics.getRequests(), is(3L));
+        assertThat(oftenMetrics.getMatch().getCount(), is(3L));
+        assertThat(oftenMetrics.getRender().getCount(), is(3L));
+        assertThat(oftenMetrics.getSend().getCount(), is(3L));
+        assertThat(oftenMetrics.getTotal().getCount(), is(3L));
+        assertThat(metrics.forStub(rarely.getId()).getRequests(), is(1L));
+        assertThat(metrics.getStubs().get(0).getId(), is(often.getId()));
+    }
+
+    @Test
+    public void countsUnmatchedRequests() {
+        testClient.get("/metrics/nothing-here");
+        testClient.get("/metrics/nothing-here-either");
+        awaitUnmatchedRequests(2);
+
+        GetStubMetricsResult metrics = wireMockServer.getStubMetrics();
+        assertThat(metrics.getUnmatched().getRequests(), is(2L));
+        assertThat(metrics.getUnmatched().getId(), nullValue());
+        assertThat(metrics.getStubs(), empty());
+    }
+
+    @Test
+    public void recordsTheTotalTimeTakenToServeEachRequest() {
+        StubMapping delayed = stubFor(get("/metrics/delayed").willReturn(ok().withFixedDelay(200)));
+
+        testClient.get("/metrics/delayed");
+        awaitRequests(wireMockServer, delayed.getId(), 1);
+
+        StubMetrics metrics = wireMockServer.getStubMetrics().forStub(delayed.getId());
+        assertThat(metrics.getTotal().getMaxMillis(), greaterThanOrEqualTo(metrics.getMatch().getMaxMillis()));
+        assertThat(metrics.getTotal().getP50Millis(), greaterThan(0.0));
+    }
+
+    @Test
+    public void includesTheDelayInTheSendTimeOfDelayedResponses() {
+        StubMapping delayed = stubFor(get("/metrics/delayed-send").willReturn(ok().withFixedDelay(300)));
+        StubMapping dribbled = stubFor(get("/metrics/dribbled").willReturn(ok("Dribbled").withChunkedDribbleDelay(4, 300)));
+
+        testClient.get("/metrics/delayed-send");
+        testClient.get("/metrics/dribbled");
+        awaitRequests(wireMockServer, delayed.getId(), 1);
+        awaitRequests(wireMockServer, dribbled.getId(), 1);
+
+        GetStubMetricsResult metrics = wireMockServer.getStubMetrics();
+        assertThat(metrics.forStub(delayed.getId()).getSend().getMaxMillis(), greaterThanOrEqualTo(250.0));
+        assertThat(metrics.forStub(delayed.getId()).getTotal().getMaxMillis(), greaterThanOrEqualTo(250.0));
+        assertThat(metrics.forStub(dribbled.getId()).getSend().getMaxMillis(), greaterThanOrEqualTo(200.0));
+    }
+
+    @Test
+    public void dropsMetricsForRemovedStubs() {
+        StubMapping stub = stubFor(get("/metrics/removed").willReturn(ok()));
+        testClient.get("/metrics/removed");
+        awaitRequests(wireMockServer, stub.getId(), 1);
+
+        removeStub(stub);
+
+        assertThat(wireMockServer.getStubMetrics().forStub(stub.getId()), nullValue());
+    }
+
+    @Test
+    public void startsCountingAgainWhenAStubIsEdited() {
+        UUID id = UUID.randomUUID();
+        stubFor(get("/metrics/edited").withId(id).willReturn(ok()));
+        testClient.get("/metrics/edited");
+        testClient.get("/metrics/edited");
+        awaitRequests(wireMockServer, id, 2);
+
+        editStub(get("/metrics/edited").withId(id).willReturn(ok("Edited")));
+        testClient.get("/metrics/edited");
+        awaitRequests(wireMockServer, id, 1);
+
+        assertThat(wireMockServer.getStubMetrics().forStub(id).getRequests(), is(1L));
+    }
+
+    @Test
+    public void fetchesMetricsViaTheAdminApi() {
+        StubMapping stub = stubFor(get("/metrics/remote").willReturn(ok()));
+        testClient.get("/metrics/remote");
+        awaitRequests(wireMockServer, stub.getId(), 1);
+
+        GetStubMetricsResult metrics = new HttpAdminClient("localhost", wireMockServer.port()).getStubMetrics();
+
+        assertThat(metrics.forStub(stub.getId()).getRequests(), is(1L));
+        assertThat(metrics.forStub(stub.getId()).getTotal().getCount(), is(1L));
+    }
+
+    @Test
+    public void clearsMetricsOnReset() {
+        StubMapping stub = stubFor(get("/metrics/reset").willReturn(ok()));
+        testClient.get("/metrics/reset");
+        testClient.get("/metrics/unmatched");
+        awaitRequests(wireMockServer, stub.getId(), 1);
+        awaitUnmatchedRequests(1);
+
+        reset();
+
+        GetStubMetricsResult metrics = wireMockServer.getStubMetrics();
+        assertThat(metrics.getStubs(), empty());
+        assertThat(metrics.getUnmatched().getRequests(), is(0L));
+    }
+
+    @Test
+    public void rendersMetricsInPrometheusFormat() {
+        StubMapping stub = stubFor(get("/metrics/prometheus").withName("A \"quoted\" name").willReturn(ok()));
+        testClient.get("/metrics/prometheus");
+        testClient.get("/metrics/prometheus");
+        testClient.get("/metrics/unmatched");
+        awaitRequests(wireMockServer, stub.getId(), 2);
+        awaitUnmatchedRequests(1);
+
+        WireMockResponse response = testClient.get("/__admin/metrics/prometheus");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.firstHeader("Content-Type"), startsWith("text/plain; version=0.0.4"));
+        String labels = "stub_id=\"" + stub.getId() + "\",stub_name=\"A \\\"quoted\\\" name\"";
+        assertThat(response.content(), allOf(
+            containsString("# TYPE wiremock_stub_requests_total counter\n"),
+            containsString("wiremock_stub_requests_total{" + labels + "} 2\n"),
+            containsString("wiremock_unmatched_requests_total 1\n"),
+            containsString("wiremock_suppressed_not_matched_diagnostics_total 0\n"),
+            containsString("# TYPE wiremock_stub_latency_seconds summary\n"),
+            containsString("wiremock_stub_latency_seconds{" + labels + ",phase=\"match\",quantile=\"0.99\"} "),
+            containsString("wiremock_stub_latency_seconds_count{" + labels + ",phase=\"send\"} 2\n"),
+            containsString("wiremock_unmatched_latency_seconds_count{phase=\"total\"} 1\n")
+        ));
+    }
+
+    @Test
+    public void countsRequestsWhenTheJournalIsDisabled() {
+        WireMockServer noJournal = new WireMockServer(wireMockConfig().dynamicPort().disableRequestJournal());
+        noJournal.start();
+        try {
+            StubMapping stub = noJournal.stubFor(get("/metrics/no-journal").willReturn(ok()));
+            WireMockTestClient client = new WireMockTestClient(noJournal.port());
+
+            client.get("/metrics/no-journal");
+            client.get("/metrics/no-journal");
+
+            awaitRequests(noJournal, stub.getId(), 2);
+        } finally {
+            noJournal.stop();
+        }
+    }
+
+    @Test
+    public void reportsSuppressedNotMatchedDiagnostics() {
+        WireMockServer staticNotMatched = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .notMatchedRenderer(new StaticNotMatchedRenderer()));
+        staticNotMatched.start();
+        try {
+            WireMockTestClient client = new WireMockTestClient(staticNotMatched.port());
+            client.get("/metrics/not-matched");
+            client.get("/metrics/not-matched-either");
+
+            GetStubMetricsResult metrics = new HttpAdminClient("localhost", staticNotMatched.port()).getStubMetrics();
+            assertThat(metrics.getSuppressedNotMatchedDiagnostics(), is(2L));
+
+            assertThat(client.get("/__admin/metrics/prometheus").content(), allOf(
+                containsString("# TYPE wiremock_suppressed_not_matched_diagnostics_total counter\n"),
+                containsString("wiremock_suppressed_not_matched_diagnostics_total 2\n")
+            ));
+        } finally {
+            staticNotMatched.stop();
+        }
+    }
+
+    // Metrics are recorded once the response has been sent, so can lag slightly behind the client receiving it
+    private static void awaitRequests(final WireMockServer server, final UUID stubId, long expected) {
+        await().atMost(5, SECONDS).until(new Callable<Long>() {
+            @Override
+            public Long call() {
+                StubMetrics stubMetrics = server.getStubMetrics().forStub(stubId);
+                return stubMetrics != null ? stubMetrics.getRequests() : 0;
+            }
+        }, is(expected));
+    }
+
+    private static void awaitUnmatchedRequests(long expected) {
+        await().atMost(5, SECONDS).until(new Callable<Long>() {
+            @Override
+            public Long call() {
+                return wireMockServer.getStubMetrics().getUnmatched().getRequests();
+            }
+        }, is(expected));
+    }
+}
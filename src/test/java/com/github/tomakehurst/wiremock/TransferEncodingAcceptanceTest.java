@@ -26,6 +26,9 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.junit.After;
 import org.junit.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.github.tomakehurst.wiremock.testsupport.TestFiles.filePath;
@@ -54,6 +57,22 @@ public class TransferEncodingAcceptanceTest {
         assertThat(response.firstHeader("Content-Length"), is(expectedContentLength));
     }
 
+    @Test
+    public void sendsContentLengthFromFileSizeForBodyFileWhenTransferEncodingChunkedPolicyIsNever() throws Exception {
+        startWithChunkedEncodingPolicy(Options.ChunkedEncodingPolicy.NEVER);
+
+        final String url = "/content-length-body-file";
+        wm.stubFor(get(url).willReturn(ok().withBodyFile("plain-example.txt")));
+
+        WireMockResponse response = testClient.get(url);
+        assertThat(response.statusCode(), is(200));
+
+        byte[] fileContents = Files.readAllBytes(Paths.get(filePath("test-file-root/__files/plain-example.txt")));
+        assertThat(response.firstHeader("Transfer-Encoding"), nullValue());
+        assertThat(response.firstHeader("Content-Length"), is(String.valueOf(fileContents.length)));
+        assertThat(response.binaryContent(), is(fileContents));
+    }
+
     @Test
     public void sendsTransferEncodingChunkedWhenPolicyIsAlways() {
         startWithChunkedEncodingPolicy(Options.ChunkedEncodingPolicy.ALWAYS);
@@ -91,6 +110,28 @@ public class TransferEncodingAcceptanceTest {
         assertThat(response.firstHeader("Content-Length"), notNullValue());
     }
 
+    @Test
+    public void servesCachedBodyFilesWithTheSameEncodingAsUncachedOnes() throws Exception {
+        wm = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .withRootDirectory(filePath("test-file-root"))
+                .useChunkedTransferEncoding(Options.ChunkedEncodingPolicy.BODY_FILE)
+                .bodyFileCacheMaxBytes(1024 * 1024)
+        );
+        wm.start();
+        testClient = new WireMockTestClient(wm.port());
+
+        wm.stubFor(get("/cached-body-file").willReturn(ok().withBodyFile("plain-example.txt")));
+        byte[] fileContents = Files.readAllBytes(Paths.get(filePath("test-file-root/__files/plain-example.txt")));
+
+        for (int i = 0; i < 2; i++) {
+            WireMockResponse response = testClient.get("/cached-body-file");
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.firstHeader("Transfer-Encoding"), is("chunked"));
+            assertThat(response.binaryContent(), is(fileContents));
+        }
+    }
+
     @Test
     public void sendsContentLengthWhenTransferEncodingChunkedPolicyIsNeverAndDribbleDelayIsApplied() {
         startWithChunkedEncodingPolicy(Options.ChunkedEncodingPolicy.NEVER);
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.jetty9.VirtualThreadPoolFactory;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assume.assumeTrue;
+
+public class VirtualThreadPoolAcceptanceTest {
+
+    WireMockServer wm;
+    WireMockTestClient client;
+
+    @Before
+    public void init() {
+        assumeTrue("Virtual threads need Java 21 or later", VirtualThreadPoolFactory.isSupported());
+
+        wm = new WireMockServer(options().dynamicPort().threadPoolFactory(new VirtualThreadPoolFactory()));
+        wm.start();
+        client = new WireMockTestClient(wm.port());
+    }
+
+    @After
+    public void stopServer() {
+        if (wm != null) {
+            wm.stop();
+        }
+    }
+
+    @Test
+    public void servesRequestsOnVirtualThreads() {
+        wm.stubFor(get("/virtual").willReturn(ok("Served")));
+
+        WireMockResponse response = client.get("/virtual");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("Served"));
+    }
+
+    @Test
+    public void servesDelayedResponses() {
+        wm.stubFor(get("/virtual/delayed").willReturn(ok("Delayed").withFixedDelay(50)));
+
+        WireMockResponse response = client.get("/virtual/delayed");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("Delayed"));
+    }
+}
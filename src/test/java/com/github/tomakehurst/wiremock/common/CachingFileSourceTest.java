@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.github.tomakehurst.wiremock.security.NotAuthorisedException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CachingFileSourceTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    File root;
+    CachingFileSource fileSource;
+
+    @Before
+    public void init() throws IOException {
+        root = tempDir.newFolder("root");
+        fileSource = new CachingFileSource(new SingleRootFileSource(root), 1024);
+    }
+
+    @Test
+    public void servesFileContentsFromTheCacheOnceRead() throws IOException {
+        File file = write("body.txt", "cached");
+
+        assertThat(fileSource.getBinaryFileNamed("body.txt").readContents(), is("cached".getBytes(UTF_8)));
+        assertThat(fileSource.getContentsCache().size(), is(1L));
+
+        BinaryFile second = fileSource.getBinaryFileNamed("body.txt");
+        assertThat(second.isCached(), is(true));
+        assertThat(second.getLength(), is(6L));
+        assertThat(new String(second.readContents(), UTF_8), is("cached"));
+        assertThat(fileSource.getContentsCache().size(), is(1L));
+    }
+
+    @Test
+    public void reloadsFileWhenItsModificationTimeChanges() throws IOException {
+        File file = write("body.txt", "before");
+        assertThat(fileSource.getTextFileNamed("body.txt").readContentsAsString(), is("before"));
+
+        Files.write(file.toPath(), "after!".getBytes(UTF_8));
+        file.setLastModified(file.lastModified() + 5000);
+
+        assertThat(fileSource.getTextFileNamed("body.txt").readContentsAsString(), is("after!"));
+    }
+
+    @Test
+    public void reloadsFileWhenItsLengthChanges() throws IOException {
+        File file = write("body.txt", "short");
+        long lastModified = file.lastModified();
+        assertThat(fileSource.getTextFileNamed("body.txt").readContentsAsString(), is("short"));
+
+        Files.write(file.toPath(), "a bit longer".getBytes(UTF_8));
+        file.setLastModified(lastModified);
+
+        assertThat(fileSource.getTextFileNamed("body.txt").readContentsAsString(), is("a bit longer"));
+    }
+
+    @Test
+    public void writesThroughChildSourcesInvalidateTheSharedCache() throws IOException {
+        tempDir.newFolder("root", "__files");
+        FileSource files = fileSource.child("__files");
+        files.writeTextFile("body.txt", "first");
+        File file = new File(root, "__files/body.txt");
+        long lastModified = file.lastModified();
+        assertThat(files.getTextFileNamed("body.txt").readContentsAsString(), is("first"));
+
+        files.writeTextFile("body.txt", "again");
+        file.setLastModified(lastModified);
+
+        assertThat(fileSource.child("__files").getTextFileNamed("body.txt").readContentsAsString(), is("again"));
+    }
+
+    @Test
+    public void doesNotCacheFilesLargerThanTheMaximumSize() throws IOException {
+        write("large.bin", new String(new char[2048]).replace('\0', 'x'));
+
+        assertThat(fileSource.getBinaryFileNamed("large.bin").readContents().length, is(2048));
+        assertThat(fileSource.getContentsCache().size(), is(0L));
+    }
+
+    @Test
+    public void cachesFilesLargerThanAQuarterOfTheMaximumSize() throws IOException {
+        write("medium.bin", new String(new char[900]).replace('\0', 'x'));
+
+        assertThat(fileSource.getBinaryFileNamed("medium.bin").readContents().length, is(900));
+        assertThat(fileSource.getContentsCache().size(), is(1L));
+        assertThat(fileSource.getBinaryFileNamed("medium.bin").isCached(), is(true));
+    }
+
+    @Test(expected = NotAuthorisedException.class)
+    public void stillRejectsFilesOutsideTheRoot() {
+        fileSource.getBinaryFileNamed("../outside.txt");
+    }
+
+    private File write(String name, String contents) throws IOException {
+        File file = new File(root, name);
+        Files.write(file.toPath(), contents.getBytes(UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+public class HashedWheelTimerTest {
+
+    HashedWheelTimer timer = new HashedWheelTimer("test-timer", 5, 8, MoreExecutors.directExecutor());
+
+    @After
+    public void stop() {
+        timer.stop();
+    }
+
+    @Test
+    public void runsTasksNoEarlierThanTheirDelay() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicLong ranAt = new AtomicLong();
+        long start = System.nanoTime();
+
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                ranAt.set(System.nanoTime());
+                done.countDown();
+            }
+        }, 100, MILLISECONDS);
+
+        assertThat(done.await(5, SECONDS), is(true));
+        assertThat(NANOSECONDS.toMillis(ranAt.get() - start), greaterThanOrEqualTo(100L));
+    }
+
+    @Test
+    public void runsTasksWhoseDelaysSpanSeveralTurnsOfTheWheel() throws Exception {
+        final CountDownLatch done = new CountDownLatch(3);
+        Runnable countDown = new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        };
+
+        // With 8 slots of 5ms one turn is 40ms
+        timer.schedule(countDown, 10, MILLISECONDS);
+        timer.schedule(countDown, 45, MILLISECONDS);
+        timer.schedule(countDown, 130, MILLISECONDS);
+        assertThat(timer.getPendingTasks(), is(3));
+
+        assertThat(done.await(5, SECONDS), is(true));
+        assertThat(timer.getPendingTasks(), is(0));
+        assertThat(timer.getFiredTasks(), is(3L));
+    }
+
+    @Test
+    public void recordsHowLateTasksStartRunning() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        }, 20, MILLISECONDS);
+
+        assertThat(done.await(5, SECONDS), is(true));
+        assertThat(timer.getMeanLagMillis() >= 0, is(true));
+        assertThat(timer.getMaxLagMillis(), greaterThanOrEqualTo(0L));
+    }
+
+    @Test
+    public void runsManyTasksScheduledConcurrently() throws Exception {
+        final int count = 10000;
+        final CountDownLatch done = new CountDownLatch(count);
+        final Runnable countDown = new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        };
+
+        Thread[] schedulers = new Thread[4];
+        for (int i = 0; i < schedulers.length; i++) {
+            schedulers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < count / 4; j++) {
+                        timer.schedule(countDown, j % 100, MILLISECONDS);
+                    }
+                }
+            });
+            schedulers[i].start();
+        }
+
+        assertThat(done.await(10, SECONDS), is(true));
+        assertThat(timer.getFiredTasks(), is((long) count));
+    }
+
+    @Test
+    public void runsTasksScheduledWhileTheWorkerIsExiting() throws Exception {
+        // Exiting as soon as it runs out of work makes the worker race with every new task
+        timer = new HashedWheelTimer("exiting-timer", 1, 8, 0, MoreExecutors.directExecutor());
+
+        for (int i = 0; i < 2000; i++) {
+            final CountDownLatch done = new CountDownLatch(1);
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            }, 0, MILLISECONDS);
+
+            assertThat("Task " + i + " ran", done.await(5, SECONDS), is(true));
+        }
+    }
+
+    @Test
+    public void keepsRunningTasksAfterOneThrows() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("Boom");
+            }
+        }, 10, MILLISECONDS);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        }, 20, MILLISECONDS);
+
+        assertThat(done.await(5, SECONDS), is(true));
+    }
+
+    @Test
+    public void discardsWaitingTasksWhenStoppedAndAcceptsNewOnesOnceStartedAgain() throws Exception {
+        final AtomicLong discardedRuns = new AtomicLong();
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                discardedRuns.incrementAndGet();
+            }
+        }, 200, MILLISECONDS);
+
+        timer.stop();
+        timer.start();
+
+        final CountDownLatch done = new CountDownLatch(1);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        }, 300, MILLISECONDS);
+
+        assertThat(done.await(5, SECONDS), is(true));
+        assertThat(discardedRuns.get(), is(0L));
+        assertThat(timer.getPendingTasks(), is(0));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void rejectsTasksOnceStopped() {
+        timer.stop();
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {}
+        }, 10, MILLISECONDS);
+    }
+}
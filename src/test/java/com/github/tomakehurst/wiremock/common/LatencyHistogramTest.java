@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LatencyHistogramTest {
+
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void reportsNothingWhenEmpty() {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount(), is(0L));
+        assertThat(snapshot.getMeanMicros(), is(0.0));
+        assertThat(snapshot.getValueAtPercentile(99), is(0L));
+    }
+
+    @Test
+    public void countsTotalsAndTracksTheMaximum() {
+        histogram.recordNanos(MILLISECONDS.toNanos(2));
+        histogram.recordNanos(MILLISECONDS.toNanos(4));
+        histogram.recordNanos(MILLISECONDS.toNanos(9));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount(), is(3L));
+        assertThat(snapshot.getTotalMicros(), is(15000L));
+        assertThat(snapshot.getMeanMicros(), is(5000.0));
+        assertThat(snapshot.getMaxMicros(), is(9000L));
+    }
+
+    @Test
+    public void reportsPercentilesWithinTheBucketPrecision() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordNanos(MILLISECONDS.toNanos(i));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat((double) snapshot.getValueAtPercentile(50), closeTo(500000, 500000 * 0.125));
+        assertThat((double) snapshot.getValueAtPercentile(99), closeTo(990000, 990000 * 0.125));
+        assertThat(snapshot.getValueAtPercentile(50), greaterThanOrEqualTo(500000L));
+        assertThat(snapshot.getValueAtPercentile(100), is(1000000L));
+    }
+
+    @Test
+    public void recordsSmallValuesExactly() {
+        histogram.recordNanos(MICROSECONDS.toNanos(3));
+        histogram.recordNanos(MICROSECONDS.toNanos(5));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getValueAtPercentile(50), is(3L));
+        assertThat(snapshot.getValueAtPercentile(100), is(5L));
+    }
+
+    @Test
+    public void bucketsCoverEveryValueWithoutGaps() {
+        long previousHighest = -1;
+        for (int i = 0; i < LatencyHistogram.bucketIndexOf(Long.MAX_VALUE >>> 23); i++) {
+            long highest = LatencyHistogram.highestValueIn(i);
+            assertThat(LatencyHistogram.bucketIndexOf(previousHighest + 1), is(i));
+            assertThat(LatencyHistogram.bucketIndexOf(highest), is(i));
+            previousHighest = highest;
+        }
+    }
+}
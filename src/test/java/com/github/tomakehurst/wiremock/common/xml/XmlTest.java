@@ -16,11 +16,13 @@
 package com.github.tomakehurst.wiremock.common.xml;
 
 import com.github.tomakehurst.wiremock.common.ListOrSingle;
+import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
 
 import static com.github.tomakehurst.wiremock.testsupport.WireMatchers.equalsMultiLine;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
 
 public class XmlTest {
 
@@ -122,4 +124,27 @@ public class XmlTest {
 
         assertThat(xmlNodes.toString(), is("<fl:inner fl:code=\"D1\" id=\"123\">Innards</fl:inner>"));
     }
+
+    @Test
+    public void reusesCompiledNamespacedXPathAcrossDocuments() {
+        CompiledXPath xPath = CompiledXPath.compile("/s:things/s:thing", ImmutableMap.of("s", "https://stuff.biz"));
+
+        for (int i = 1; i <= 3; i++) {
+            XmlDocument xmlDocument = Xml.parse(
+                    "<things xmlns=\"https://stuff.biz\"><thing>" + i + "</thing><other/></things>");
+
+            ListOrSingle<XmlNode> nodes = xmlDocument.findNodes(xPath);
+
+            assertThat(nodes.size(), is(1));
+            assertThat(nodes.getFirst().getText(), is(String.valueOf(i)));
+        }
+    }
+
+    @Test(expected = XPathException.class)
+    public void throwsXPathExceptionOnEveryEvaluationOfAnInvalidExpression() {
+        CompiledXPath xPath = CompiledXPath.compile("/things[");
+        assertFalse(xPath.isValid());
+
+        Xml.parse("<things/>").findNodes(xPath);
+    }
 }
@@ -0,0 +1,419 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.http.ProxyResponseCache.UpstreamResponse;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.http.HttpHeader.httpHeader;
+import static com.github.tomakehurst.wiremock.http.ProxyCacheSettings.cacheAsDirectedByUpstream;
+import static com.github.tomakehurst.wiremock.http.ProxyCacheSettings.cacheFor;
+import static com.github.tomakehurst.wiremock.http.ProxyCacheSettings.coalesceWithoutCaching;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+
+public class ProxyResponseCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ProxyResponseCache cache = new ProxyResponseCache(1000, 5000, new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    });
+
+    @Test
+    public void servesCachedResponseUntilTheTtlExpires() {
+        ProxyResponseCache.Key key = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing"));
+        cache.put(key, cacheFor(60), new UpstreamResponse(200, new HttpHeaders(), "Thing".getBytes()));
+
+        nanos.addAndGet(SECONDS.toNanos(59));
+        assertThat(new String(cache.get(key).getBody()), is("Thing"));
+
+        nanos.addAndGet(SECONDS.toNanos(1));
+        assertThat(cache.get(key), nullValue());
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getEntryCount(), is(0L));
+    }
+
+    @Test
+    public void doesNotCacheRequestsWithUnsafeMethods() {
+        assertThat(keyFor(cacheFor(60), mockRequest().method(POST).url("/thing")), nullValue());
+    }
+
+    @Test
+    public void keysOnTheHeadersTheStubVariesOn() {
+        ProxyCacheSettings cacheSettings = cacheFor(60).varyingOnHeaders("Accept");
+        ProxyResponseCache.Key jsonKey = keyFor(cacheSettings, mockRequest().method(GET).url("/thing").header("Accept", "application/json"));
+        ProxyResponseCache.Key xmlKey = keyFor(cacheSettings, mockRequest().method(GET).url("/thing").header("Accept", "text/xml"));
+
+        cache.put(jsonKey, cacheSettings, new UpstreamResponse(200, new HttpHeaders(), "{}".getBytes()));
+
+        assertThat(cache.get(jsonKey), notNullValue());
+        assertThat(cache.get(xmlKey), nullValue());
+    }
+
+    @Test
+    public void honoursUpstreamCacheControlUnlessIgnored() {
+        ProxyResponseCache.Key key = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing"));
+        HttpHeaders noStore = new HttpHeaders(httpHeader("Cache-Control", "no-store"));
+
+        cache.put(key, cacheFor(60), new UpstreamResponse(200, noStore, "Thing".getBytes()));
+        assertThat(cache.get(key), nullValue());
+
+        cache.put(key, cacheFor(60).ignoringCacheControl(), new UpstreamResponse(200, noStore, "Thing".getBytes()));
+        assertThat(cache.get(key), notNullValue());
+    }
+
+    @Test
+    public void usesTheUpstreamMaxAgeInPlaceOfTheTtl() {
+        ProxyResponseCache.Key key = keyFor(cacheAsDirectedByUpstream(), mockRequest().method(GET).url("/thing"));
+
+        cache.put(key, cacheAsDirectedByUpstream(), new UpstreamResponse(200, new HttpHeaders(), "Thing".getBytes()));
+        assertThat(cache.get(key), nullValue());
+
+        cache.put(key, cacheAsDirectedByUpstream(), new UpstreamResponse(200, new HttpHeaders(httpHeader("Cache-Control", "public, max-age=10")), "Thing".getBytes()));
+        nanos.addAndGet(SECONDS.toNanos(9));
+        assertThat(cache.get(key), notNullValue());
+        nanos.addAndGet(SECONDS.toNanos(1));
+        assertThat(cache.get(key), nullValue());
+    }
+
+    @Test
+    public void doesNotCacheWhenTheUpstreamVariesOnEverything() {
+        ProxyResponseCache.Key key = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing"));
+
+        cache.put(key, cacheFor(60), new UpstreamResponse(200, new HttpHeaders(httpHeader("Vary", "Accept-Language, *")), "Thing".getBytes()));
+
+        assertThat(cache.get(key), nullValue());
+    }
+
+    @Test
+    public void alwaysKeysOnAcceptEncoding() {
+        ProxyResponseCache.Key gzipKey = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing").header("Accept-Encoding", "gzip"));
+        ProxyResponseCache.Key identityKey = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing"));
+
+        cache.put(gzipKey, cacheFor(60), new UpstreamResponse(200, new HttpHeaders(httpHeader("Vary", "Accept-Encoding")), "Thing".getBytes()));
+
+        assertThat(cache.get(gzipKey), notNullValue());
+        assertThat(cache.get(identityKey), nullValue());
+    }
+
+    @Test
+    public void onlyStoresResponsesToRequestsWithCredentialsWhenTheUpstreamMarksThemShared() {
+        ProxyResponseCache.Key key = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing").header("Authorization", "Bearer abc"));
+
+        cache.put(key, cacheFor(60), new UpstreamResponse(200, new HttpHeaders(), "Mine".getBytes()));
+        assertThat(cache.get(key), nullValue());
+
+        cache.put(key, cacheFor(60).ignoringCacheControl(), new UpstreamResponse(200, new HttpHeaders(), "Mine".getBytes()));
+        assertThat(cache.get(key), nullValue());
+
+        cache.put(key, cacheFor(60), new UpstreamResponse(200, new HttpHeaders(httpHeader("Cache-Control", "public")), "Everyone's".getBytes()));
+        assertThat(new String(cache.get(key).getBody()), is("Everyone's"));
+
+        cache.clear();
+        cache.put(key, cacheFor(60), new UpstreamResponse(200, new HttpHeaders(httpHeader("Cache-Control", "s-maxage=30")), "Everyone's".getBytes()));
+        assertThat(cache.get(key), notNullValue());
+    }
+
+    @Test
+    public void doesNotStoreResponsesSettingCookiesUnlessCacheControlIsIgnored() {
+        ProxyResponseCache.Key key = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing"));
+        HttpHeaders setCookie = new HttpHeaders(httpHeader("Set-Cookie", "session=123"));
+
+        cache.put(key, cacheFor(60), new UpstreamResponse(200, setCookie, "Thing".getBytes()));
+        assertThat(cache.get(key), nullValue());
+
+        cache.put(key, cacheFor(60).ignoringCacheControl(), new UpstreamResponse(200, setCookie, "Thing".getBytes()));
+        assertThat(cache.get(key), notNullValue());
+    }
+
+    @Test
+    public void doesNotCoalesceRequestsWithCredentials() throws Exception {
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/slow").header("Authorization", "Bearer abc"));
+        final AtomicInteger fetches = new AtomicInteger();
+        final ProxyResponseCache.UpstreamFetch fetch = () -> {
+            fetches.incrementAndGet();
+            return new UpstreamResponse(200, new HttpHeaders(), "Mine".getBytes());
+        };
+
+        for (Future<UpstreamResponse> response: submitConcurrently(3, () -> cache.getOrFetch(key, coalesceWithoutCaching(), fetch))) {
+            assertThat(new String(response.get().getBody()), is("Mine"));
+        }
+        assertThat(fetches.get(), is(3));
+        assertThat(cache.getCoalescedCount(), is(0L));
+    }
+
+    @Test
+    public void doesNotCoalesceRequestsWithCookies() throws Exception {
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/slow").header("Cookie", "session=abc"));
+        final AtomicInteger fetches = new AtomicInteger();
+        final CountDownLatch allFetching = new CountDownLatch(3);
+        final ProxyResponseCache.UpstreamFetch fetch = () -> {
+            fetches.incrementAndGet();
+            allFetching.countDown();
+            awaitQuietly(allFetching);
+            return new UpstreamResponse(200, new HttpHeaders(), "Mine".getBytes());
+        };
+
+        for (Future<UpstreamResponse> response: submitConcurrently(3, () -> cache.getOrFetch(key, coalesceWithoutCaching(), fetch))) {
+            assertThat(new String(response.get().getBody()), is("Mine"));
+        }
+        assertThat(fetches.get(), is(3));
+        assertThat(cache.getCoalescedCount(), is(0L));
+    }
+
+    @Test
+    public void requestsWaitingOnAPrivateResponseFetchTheirOwn() throws Exception {
+        assertWaitingRequestsFetchTheirOwn("private, max-age=60");
+    }
+
+    @Test
+    public void requestsWaitingOnANoStoreResponseFetchTheirOwn() throws Exception {
+        assertWaitingRequestsFetchTheirOwn("no-store");
+    }
+
+    @Test
+    public void requestsWaitingOnAResponseThatSetsCookiesFetchTheirOwn() throws Exception {
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/slow"));
+        final AtomicInteger fetches = new AtomicInteger();
+        final CountDownLatch upstreamReleased = new CountDownLatch(1);
+        final ProxyResponseCache.UpstreamFetch fetch = () -> {
+            int fetchNumber = fetches.incrementAndGet();
+            awaitQuietly(upstreamReleased);
+            return new UpstreamResponse(200, new HttpHeaders(httpHeader("Set-Cookie", "session=" + fetchNumber)), "Slow".getBytes());
+        };
+
+        List<Future<UpstreamResponse>> responses = submitConcurrently(3, () -> cache.getOrFetch(key, coalesceWithoutCaching(), fetch));
+        waitUntilCoalesced(2);
+        upstreamReleased.countDown();
+
+        Set<String> cookies = new HashSet<>();
+        for (Future<UpstreamResponse> response: responses) {
+            cookies.add(response.get().getHeaders().getHeader("Set-Cookie").firstValue());
+        }
+        assertThat(fetches.get(), is(3));
+        assertThat(cookies.size(), is(3));
+    }
+
+    @Test
+    public void doesNotCacheServerErrors() {
+        ProxyResponseCache.Key key = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing"));
+
+        cache.put(key, cacheFor(60), new UpstreamResponse(503, new HttpHeaders(), "Unavailable".getBytes()));
+
+        assertThat(cache.get(key), nullValue());
+    }
+
+    @Test
+    public void evictsResponsesToStayWithinTheMaximumSize() {
+        for (int i = 0; i < 5; i++) {
+            ProxyResponseCache.Key key = keyFor(cacheFor(60), mockRequest().method(GET).url("/thing/" + i));
+            cache.put(key, cacheFor(60), new UpstreamResponse(200, new HttpHeaders(), new byte[300]));
+        }
+
+        assertThat(cache.getSizeBytes() <= 1000, is(true));
+        assertThat(cache.getEntryCount(), is(3L));
+        assertThat(cache.getEvictionCount(), is(2L));
+    }
+
+    @Test
+    public void concurrentRequestsWithTheSameKeyShareOneUpstreamFetch() throws Exception {
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/slow"));
+        final AtomicInteger fetches = new AtomicInteger();
+        final CountDownLatch upstreamReleased = new CountDownLatch(1);
+        final ProxyResponseCache.UpstreamFetch slowFetch = () -> {
+            fetches.incrementAndGet();
+            awaitQuietly(upstreamReleased);
+            return new UpstreamResponse(200, new HttpHeaders(), "Slow".getBytes());
+        };
+
+        List<Future<UpstreamResponse>> responses = submitConcurrently(5, () -> cache.getOrFetch(key, coalesceWithoutCaching(), slowFetch));
+        waitUntilCoalesced(4);
+        upstreamReleased.countDown();
+
+        for (Future<UpstreamResponse> response: responses) {
+            assertThat(new String(response.get().getBody()), is("Slow"));
+        }
+        assertThat(fetches.get(), is(1));
+        assertThat(cache.getCoalescedCount(), is(4L));
+        assertThat(cache.getEntryCount(), is(0L));
+    }
+
+    @Test
+    public void sharesAFailedUpstreamFetchWithEveryWaitingRequest() throws Exception {
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/failing"));
+        final CountDownLatch upstreamReleased = new CountDownLatch(1);
+        final ProxyResponseCache.UpstreamFetch failingFetch = () -> {
+            awaitQuietly(upstreamReleased);
+            throw new IOException("Connection refused");
+        };
+
+        List<Future<UpstreamResponse>> responses = submitConcurrently(3, () -> cache.getOrFetch(key, coalesceWithoutCaching(), failingFetch));
+        waitUntilCoalesced(2);
+        upstreamReleased.countDown();
+
+        for (Future<UpstreamResponse> response: responses) {
+            try {
+                response.get();
+                fail("Expected the upstream failure to be shared");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(IOException.class));
+            }
+        }
+    }
+
+    @Test
+    public void sharesAnErrorFromTheUpstreamFetchWithEveryWaitingRequest() throws Exception {
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/erroring"));
+        final CountDownLatch upstreamReleased = new CountDownLatch(1);
+        final ProxyResponseCache.UpstreamFetch erroringFetch = () -> {
+            awaitQuietly(upstreamReleased);
+            throw new StackOverflowError();
+        };
+
+        List<Future<UpstreamResponse>> responses = submitConcurrently(3, () -> cache.getOrFetch(key, coalesceWithoutCaching(), erroringFetch));
+        waitUntilCoalesced(2);
+        upstreamReleased.countDown();
+
+        for (Future<UpstreamResponse> response: responses) {
+            try {
+                response.get(5, SECONDS);
+                fail("Expected the upstream error to be shared");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(StackOverflowError.class));
+            }
+        }
+    }
+
+    @Test
+    public void waitingRequestsTimeOutIfTheUpstreamFetchTakesTooLong() throws Exception {
+        final ProxyResponseCache quickCache = new ProxyResponseCache(1000, 100);
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/stuck"));
+        final CountDownLatch upstreamReleased = new CountDownLatch(1);
+        final ProxyResponseCache.UpstreamFetch stuckFetch = () -> {
+            awaitQuietly(upstreamReleased);
+            return new UpstreamResponse(200, new HttpHeaders(), "Late".getBytes());
+        };
+
+        List<Future<UpstreamResponse>> responses = submitConcurrently(2, () -> quickCache.getOrFetch(key, coalesceWithoutCaching(), stuckFetch));
+        waitUntilCoalesced(quickCache, 1);
+
+        int timedOut = 0;
+        for (Future<UpstreamResponse> response: responses) {
+            try {
+                response.get(1, SECONDS);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(SocketTimeoutException.class));
+                timedOut++;
+            } catch (TimeoutException e) {
+                upstreamReleased.countDown();
+            }
+        }
+        upstreamReleased.countDown();
+
+        assertThat(timedOut, is(1));
+    }
+
+    private void assertWaitingRequestsFetchTheirOwn(final String cacheControl) throws Exception {
+        final ProxyResponseCache.Key key = keyFor(coalesceWithoutCaching(), mockRequest().method(GET).url("/slow"));
+        final AtomicInteger fetches = new AtomicInteger();
+        final CountDownLatch upstreamReleased = new CountDownLatch(1);
+        final ProxyResponseCache.UpstreamFetch fetch = () -> {
+            int fetchNumber = fetches.incrementAndGet();
+            awaitQuietly(upstreamReleased);
+            return new UpstreamResponse(200, new HttpHeaders(httpHeader("Cache-Control", cacheControl)), ("Slow " + fetchNumber).getBytes());
+        };
+
+        List<Future<UpstreamResponse>> responses = submitConcurrently(3, () -> cache.getOrFetch(key, coalesceWithoutCaching(), fetch));
+        waitUntilCoalesced(2);
+        upstreamReleased.countDown();
+
+        Set<String> bodies = new HashSet<>();
+        for (Future<UpstreamResponse> response: responses) {
+            bodies.add(new String(response.get().getBody()));
+        }
+        assertThat(fetches.get(), is(3));
+        assertThat(bodies.size(), is(3));
+    }
+
+    private void waitUntilCoalesced(long count) throws InterruptedException {
+        waitUntilCoalesced(cache, count);
+    }
+
+    private static void waitUntilCoalesced(ProxyResponseCache cache, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + SECONDS.toNanos(5);
+        while (cache.getCoalescedCount() < count && System.nanoTime() < deadline) {
+            MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static List<Future<UpstreamResponse>> submitConcurrently(int count, Callable<UpstreamResponse> call) {
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        List<Future<UpstreamResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(executor.submit(call));
+        }
+        executor.shutdown();
+        return futures;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ProxyResponseCache.Key keyFor(ProxyCacheSettings cacheSettings, Request request) {
+        ResponseDefinition responseDefinition = aResponse()
+            .proxiedFrom("http://upstream.example.com")
+            .withCache(cacheSettings)
+            .build();
+        responseDefinition.setOriginalRequest(request);
+        return ProxyResponseCache.keyFor(responseDefinition);
+    }
+}
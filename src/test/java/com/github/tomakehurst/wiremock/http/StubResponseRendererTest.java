@@ -20,6 +20,7 @@ import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
 import com.github.tomakehurst.wiremock.global.GlobalSettings;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import org.jmock.Mockery;
 import org.jmock.integration.junit4.JMock;
@@ -30,8 +31,12 @@ import org.junit.runner.RunWith;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.http.ResponseDefinition.copyOf;
 import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 @RunWith(JMock.class)
@@ -113,6 +118,60 @@ public class StubResponseRendererTest {
         assertThat(response.getInitialDelay(), is(2123L));
     }
 
+    @Test
+    public void reusesTheSameResponseForEachRequestToAStaticStub() {
+        StubMapping stub = get("/static").willReturn(ok("Static body").withHeader("X-Thing", "one")).withName("Static").build();
+
+        Response first = stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+        Response second = stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.getBodyAsString(), is("Static body"));
+        assertThat(second.getHeaders().getHeader("X-Thing").firstValue(), is("one"));
+        assertThat(second.getHeaders().getHeader("Matched-Stub-Id").firstValue(), is(stub.getId().toString()));
+        assertThat(second.getHeaders().getHeader("Matched-Stub-Name").firstValue(), is("Static"));
+    }
+
+    @Test
+    public void addsDelaysToTheReusedResponseForEachRequest() {
+        StubMapping stub = get("/static").willReturn(ok("Static body")).build();
+        Response undelayed = stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+
+        globalSettingsHolder.replaceWith(GlobalSettings.builder().fixedDelay(50).build());
+        Response delayed = stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+
+        assertThat(undelayed.getInitialDelay(), is(0L));
+        assertThat(delayed.getInitialDelay(), is(50L));
+        assertThat(delayed.getBodyAsString(), is("Static body"));
+    }
+
+    @Test
+    public void rendersAgainWhenTheStubResponseChanges() {
+        StubMapping stub = get("/static").willReturn(ok("Before")).build();
+        stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+
+        stub.setResponse(ok("After").build());
+        Response response = stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+
+        assertThat(response.getBodyAsString(), is("After"));
+    }
+
+    @Test
+    public void doesNotReuseResponsesChangedForASingleRequest() {
+        StubMapping stub = get("/static").willReturn(ok("Original")).build();
+        stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+
+        Response transformed = stubResponseRenderer.render(serveEventFor(stub, ok("Transformed").build()));
+        Response original = stubResponseRenderer.render(serveEventFor(stub, copyOf(stub.getResponse())));
+
+        assertThat(transformed.getBodyAsString(), is("Transformed"));
+        assertThat(original.getBodyAsString(), is("Original"));
+    }
+
+    private ServeEvent serveEventFor(StubMapping stub, ResponseDefinition responseDefinition) {
+        return ServeEvent.of(LoggedRequest.createFrom(mockRequest()), responseDefinition, stub);
+    }
+
     private ServeEvent createServeEvent(Integer fixedDelayMillis) {
         return ServeEvent.of(LoggedRequest.createFrom(mockRequest()),
             new ResponseDefinition(
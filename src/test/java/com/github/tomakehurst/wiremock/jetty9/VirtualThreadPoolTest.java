@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.jetty9;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class VirtualThreadPoolTest {
+
+    // Stands in for virtual threads, which need Java 21, so that which tasks go where can be checked on any JVM
+    private static final String REQUEST_THREAD_PREFIX = "test-request-thread-";
+
+    private static final ThreadPoolFactory REQUESTS_ON_PLATFORM_THREADS = new ThreadPoolFactory() {
+        @Override
+        public ThreadPool buildThreadPool(Options options) {
+            return new VirtualThreadPoolFactory.VirtualThreadPool(
+                new ThreadFactoryBuilder().setNameFormat(REQUEST_THREAD_PREFIX + "%d").setDaemon(true).build()
+            );
+        }
+    };
+
+    WireMockServer wm;
+
+    @After
+    public void stopServer() {
+        if (wm != null) {
+            wm.stop();
+        }
+    }
+
+    @Test
+    public void keepsAcceptorsAndSelectorsOnPlatformThreads() {
+        wm = new WireMockServer(options().dynamicPort().threadPoolFactory(REQUESTS_ON_PLATFORM_THREADS));
+        wm.start();
+
+        assertThat(liveThreads("wiremock-selector-"), greaterThan(0));
+        assertThat(liveThreads(REQUEST_THREAD_PREFIX), is(0));
+
+        wm.stubFor(get("/pooled").willReturn(ok("Served")));
+        assertThat(new WireMockTestClient(wm.port()).get("/pooled").content(), is("Served"));
+
+        await().atMost(5, SECONDS).until(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return liveThreads(REQUEST_THREAD_PREFIX);
+            }
+        }, is(0));
+    }
+
+    @Test
+    public void stopsThePlatformThreadsWithTheServer() {
+        wm = new WireMockServer(options().dynamicPort().threadPoolFactory(REQUESTS_ON_PLATFORM_THREADS));
+        wm.start();
+        wm.stop();
+
+        await().atMost(5, SECONDS).until(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return liveThreads("wiremock-selector-");
+            }
+        }, is(0));
+    }
+
+    private static int liveThreads(String namePrefix) {
+        int count = 0;
+        for (Thread thread: Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith(namePrefix)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
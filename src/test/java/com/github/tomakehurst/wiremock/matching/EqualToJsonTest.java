@@ -595,6 +595,54 @@ public class EqualToJsonTest {
         assertThat(nonMatch.isExactMatch(), is(false));
     }
 
+    @Test
+    public void supportsPlaceholdersForValuesOfADifferentType() {
+        String expected = "{ \"id\": \"${json-unit.any-number}\", \"tags\": [\"${json-unit.ignore}\"] }";
+
+        MatchResult match = new EqualToJsonPattern(expected, false, false).match("{ \"id\": 123, \"tags\": [1] }");
+
+        assertThat(match.isExactMatch(), is(true));
+    }
+
+    @Test
+    public void supportsIgnoreElementPlaceholderForMissingAttributes() {
+        String expected = "{ \"id\": \"${json-unit.ignore-element}\", \"name\": \"Tom\" }";
+
+        MatchResult match = new EqualToJsonPattern(expected, false, false).match("{ \"name\": \"Tom\" }");
+
+        assertThat(match.isExactMatch(), is(true));
+    }
+
+    @Test
+    public void returnsNonMatchWithDistanceWhenLeafTypesDiffer() {
+        EqualToJsonPattern pattern = new EqualToJsonPattern("{ \"one\": 1, \"two\": 2, \"three\": 3, \"four\": 4 }", false, false);
+
+        MatchResult match = pattern.match("{ \"one\": \"1\", \"two\": 2, \"three\": 3, \"four\": 4 }");
+
+        assertThat(match.isExactMatch(), is(false));
+        assertThat(match.getDistance(), is(0.2));
+    }
+
+    @Test
+    public void returnsNonMatchWithDistanceWhenAttributesDiffer() {
+        EqualToJsonPattern pattern = new EqualToJsonPattern("{ \"one\": 1, \"two\": 2 }", false, true);
+
+        MatchResult match = pattern.match("{ \"one\": 1, \"three\": 3 }");
+
+        assertThat(match.isExactMatch(), is(false));
+        assertThat(match.getDistance() > 0, is(true));
+    }
+
+    @Test
+    public void matchesIdenticalDocumentsWithoutOptions() {
+        EqualToJsonPattern pattern = new EqualToJsonPattern("{ \"things\": [1, 2, { \"three\": [] }] }", true, true);
+
+        MatchResult match = pattern.match("{\"things\":[1,2,{\"three\":[]}]}");
+
+        assertThat(match.isExactMatch(), is(true));
+        assertThat(match.getDistance(), is(0.0));
+    }
+
     private static void assumeJava8OrHigher() {
         assumeThat(isJavaVersionAtLeast(JAVA_1_8), is(true));
     }
@@ -119,6 +119,13 @@ public class MatchesJsonPathPatternTest {
         assertFalse("Expected the match to fail", pattern.match("{ \"nothing\": 1 }").isExactMatch());
     }
 
+    @Test
+    public void doesNotMatchWhenJsonPathExpressionIsInvalid() {
+        StringValuePattern pattern = WireMock.matchingJsonPath("$.things[?(@.name == ");
+
+        assertFalse("Expected the match to fail", pattern.match("{ \"things\": [] }").isExactMatch());
+    }
+
     @Test
     public void doesNotMatchWhenJsonPathWouldResolveToEmptyArray() {
         String json = "{\n" +
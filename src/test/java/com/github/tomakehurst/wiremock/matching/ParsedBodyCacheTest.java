@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.matching;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.JsonException;
+import com.github.tomakehurst.wiremock.common.xml.XmlDocument;
+import com.github.tomakehurst.wiremock.common.xml.XmlException;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ParsedBodyCacheTest {
+
+    @After
+    public void clearCache() {
+        ParsedBodyCache.clear();
+    }
+
+    @Test
+    public void returnsTheSameParsedJsonForEqualBodies() {
+        JsonNode first = ParsedBodyCache.json("{ \"thing\": 1 }");
+        JsonNode second = ParsedBodyCache.json(new String("{ \"thing\": 1 }"));
+
+        assertThat(second, sameInstance(first));
+        assertThat(first.get("thing").asInt(), is(1));
+    }
+
+    @Test
+    public void reparsesWhenTheBodyChanges() {
+        JsonNode first = ParsedBodyCache.json("{ \"thing\": 1 }");
+        JsonNode second = ParsedBodyCache.json("{ \"thing\": 2 }");
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(second.get("thing").asInt(), is(2));
+    }
+
+    @Test
+    public void reparsesAfterClearing() {
+        XmlDocument first = ParsedBodyCache.xml("<thing />");
+        ParsedBodyCache.clear();
+        XmlDocument second = ParsedBodyCache.xml("<thing />");
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void sharesJsonPathDocumentBetweenReads() {
+        String body = "{ \"thing\": { \"id\": 5 } }";
+
+        assertThat(ParsedBodyCache.jsonPathDocument(body), sameInstance(ParsedBodyCache.jsonPathDocument(body)));
+        assertThat(ParsedBodyCache.jsonPathDocument(body).<Integer>read("$.thing.id"), is(5));
+    }
+
+    @Test(expected = JsonException.class)
+    public void rethrowsJsonParseFailureOnEachRequest() {
+        try {
+            ParsedBodyCache.json("<not-json />");
+        } catch (JsonException e) {
+            // expected
+        }
+
+        ParsedBodyCache.json("<not-json />");
+    }
+
+    @Test(expected = XmlException.class)
+    public void throwsXmlParseFailure() {
+        ParsedBodyCache.xml("<not-closed>");
+    }
+}
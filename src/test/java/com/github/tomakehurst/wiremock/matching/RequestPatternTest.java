@@ -16,6 +16,7 @@
 package com.github.tomakehurst.wiremock.matching;
 
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -23,6 +24,10 @@ import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.*;
@@ -33,6 +38,8 @@ import static org.junit.Assert.*;
 
 public class RequestPatternTest {
 
+    private static final Map<String, RequestMatcherExtension> NO_CUSTOM_MATCHERS = Collections.emptyMap();
+
     @Test
     public void matchesExactlyWith0DistanceWhenUrlAndMethodAreExactMatch() {
         RequestPattern requestPattern =
@@ -501,6 +508,59 @@ public class RequestPatternTest {
         JSONAssert.assertEquals(ALL_BODY_PATTERNS_EXAMPLE, json, true);
     }
 
+    @Test
+    public void isMatchedByStopsBeforeCustomMatcherWhenMethodOrUrlDoesNotMatch() {
+        final AtomicBoolean customMatcherCalled = new AtomicBoolean(false);
+        RequestPattern requestPattern = newRequestPattern(POST, urlEqualTo("/my/url"))
+            .andMatching(new ValueMatcher<Request>() {
+                @Override
+                public MatchResult match(Request value) {
+                    customMatcherCalled.set(true);
+                    return MatchResult.exactMatch();
+                }
+            })
+            .build();
+
+        assertFalse(requestPattern.isMatchedBy(mockRequest().method(GET).url("/my/url"), NO_CUSTOM_MATCHERS));
+        assertFalse(requestPattern.isMatchedBy(mockRequest().method(POST).url("/other/url"), NO_CUSTOM_MATCHERS));
+        assertFalse(customMatcherCalled.get());
+
+        assertTrue(requestPattern.isMatchedBy(mockRequest().method(POST).url("/my/url"), NO_CUSTOM_MATCHERS));
+        assertTrue(customMatcherCalled.get());
+    }
+
+    @Test
+    public void isMatchedByAgreesWithFullMatchResult() {
+        RequestPattern requestPattern = newRequestPattern(PUT, urlPathEqualTo("/my/url"))
+            .withHeader("Content-Type", containing("json"))
+            .withQueryParam("q", equalTo("1"))
+            .withRequestBody(equalToJson("{ \"thing\": 1 }"))
+            .build();
+
+        MockRequest matching = mockRequest()
+            .method(PUT)
+            .url("/my/url?q=1")
+            .header("Content-Type", "application/json")
+            .body("{ \"thing\": 1 }");
+        MockRequest wrongHeader = mockRequest()
+            .method(PUT)
+            .url("/my/url?q=1")
+            .header("Content-Type", "text/plain")
+            .body("{ \"thing\": 1 }");
+        MockRequest wrongBody = mockRequest()
+            .method(PUT)
+            .url("/my/url?q=1")
+            .header("Content-Type", "application/json")
+            .body("{ \"thing\": 2 }");
+
+        assertTrue(requestPattern.match(matching).isExactMatch());
+        assertTrue(requestPattern.isMatchedBy(matching, NO_CUSTOM_MATCHERS));
+        assertFalse(requestPattern.match(wrongHeader).isExactMatch());
+        assertFalse(requestPattern.isMatchedBy(wrongHeader, NO_CUSTOM_MATCHERS));
+        assertFalse(requestPattern.match(wrongBody).isExactMatch());
+        assertFalse(requestPattern.isMatchedBy(wrongBody, NO_CUSTOM_MATCHERS));
+    }
+
     static Matcher<ContentPattern<?>> valuePattern(final Class<? extends StringValuePattern> patternClass, final String expectedValue) {
         return new TypeSafeDiagnosingMatcher<ContentPattern<?>>() {
             @Override
@@ -18,6 +18,7 @@ package com.github.tomakehurst.wiremock.standalone;
 import com.github.tomakehurst.wiremock.client.BasicCredentials;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.extension.Parameters;
@@ -25,12 +26,18 @@ import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
 import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
+import com.github.tomakehurst.wiremock.http.ProxyResponseCache;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.http.ResponseBodyCapture;
 import com.github.tomakehurst.wiremock.http.trafficlistener.ConsoleNotifyingWiremockNetworkTrafficListener;
+import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
+import com.github.tomakehurst.wiremock.jetty9.VirtualThreadPoolFactory;
 import com.github.tomakehurst.wiremock.matching.MatchResult;
 import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
 import com.github.tomakehurst.wiremock.security.Authenticator;
+import com.github.tomakehurst.wiremock.verification.notmatched.PlainTextStubNotMatchedRenderer;
+import com.github.tomakehurst.wiremock.verification.notmatched.StaticNotMatchedRenderer;
 import com.google.common.base.Optional;
 import org.junit.Test;
 
@@ -46,6 +53,7 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 public class CommandLineOptionsTest {
 
@@ -275,6 +283,18 @@ public class CommandLineOptionsTest {
         assertThat(options.containerThreads(), is(25));
     }
 
+    @Test
+    public void usesQueuedThreadPoolByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.threadPoolFactory(), instanceOf(QueuedThreadPoolFactory.class));
+    }
+
+    @Test
+    public void usesVirtualThreadsWhenEnabled() {
+        CommandLineOptions options = new CommandLineOptions("--virtual-threads");
+        assertThat(options.threadPoolFactory(), instanceOf(VirtualThreadPoolFactory.class));
+    }
+
     @Test
     public void returnsCorrectlyParsedJettyAcceptorThreads() {
         CommandLineOptions options = new CommandLineOptions("--jetty-acceptor-threads", "400");
@@ -425,6 +445,119 @@ public class CommandLineOptionsTest {
         assertThat(options.getAsynchronousResponseSettings().getThreads(), is(20));
     }
 
+    @Test
+    public void rendersADiffForUnmatchedRequestsByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getNotMatchedRenderer(), instanceOf(PlainTextStubNotMatchedRenderer.class));
+    }
+
+    @Test
+    public void returnsAStaticNotFoundForUnmatchedRequestsInStaticMode() {
+        CommandLineOptions options = new CommandLineOptions("--not-matched-mode", "static");
+        assertThat(options.getNotMatchedRenderer(), instanceOf(StaticNotMatchedRenderer.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void preventsUnknownNotMatchedMode() {
+        new CommandLineOptions("--not-matched-mode", "verbose");
+    }
+
+    @Test
+    public void preventsUnknownJournalResponseBodyMode() {
+        try {
+            new CommandLineOptions("--journal-response-body", "partial");
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Journal response body must be one of full, none, truncated, digest, file_reference but was partial"));
+        }
+    }
+
+    @Test
+    public void capturesFullResponseBodiesInTheJournalByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getJournalResponseBodyCapture(), is(ResponseBodyCapture.full()));
+    }
+
+    @Test
+    public void setsTruncatedJournalResponseBodyCapture() {
+        CommandLineOptions options = new CommandLineOptions("--journal-response-body", "truncated", "--journal-response-body-max-bytes", "64");
+        assertThat(options.getJournalResponseBodyCapture(), is(ResponseBodyCapture.truncatedTo(64)));
+    }
+
+    @Test
+    public void setsFileReferenceJournalResponseBodyCapture() {
+        CommandLineOptions options = new CommandLineOptions("--journal-response-body", "file_reference");
+        assertThat(options.getJournalResponseBodyCapture(), is(ResponseBodyCapture.fileReference()));
+    }
+
+    @Test
+    public void disablesBodyFileCacheByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getBodyFileCacheMaxBytes(), is(0L));
+    }
+
+    @Test
+    public void setsBodyFileCacheMaxBytes() {
+        CommandLineOptions options = new CommandLineOptions("--body-file-cache-max-bytes", "1048576");
+        assertThat(options.getBodyFileCacheMaxBytes(), is(1048576L));
+    }
+
+    @Test
+    public void disablesProxyStreamingByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getProxyStreamingSettings().isEnabled(), is(false));
+    }
+
+    @Test
+    public void setsProxyStreamingAndCaptureSize() {
+        CommandLineOptions options = new CommandLineOptions("--proxy-streaming", "--proxy-streaming-capture-max-bytes", "2048");
+        assertThat(options.getProxyStreamingSettings().isEnabled(), is(true));
+        assertThat(options.getProxyStreamingSettings().getMaxCapturedBodyBytes(), is(2048));
+    }
+
+    @Test
+    public void usesDefaultProxyConnectionPoolSettingsWhenNoneAreSpecified() {
+        CommandLineOptions options = new CommandLineOptions();
+        ProxyConnectionPoolSettings poolSettings = options.getProxyConnectionPoolSettings();
+        assertThat(poolSettings.getMaxConnections(), is(1000));
+        assertThat(poolSettings.getSocketTimeoutMillis(), is(300000));
+        assertThat(poolSettings.isConnectionReuseEnabled(), is(false));
+    }
+
+    @Test
+    public void setsProxyConnectionPoolSettings() {
+        CommandLineOptions options = new CommandLineOptions(
+            "--proxy-max-connections", "200",
+            "--proxy-max-connections-per-route", "50",
+            "--proxy-connect-timeout", "1000",
+            "--proxy-timeout", "20000",
+            "--proxy-keep-alive", "60000",
+            "--proxy-max-idle", "30000",
+            "--proxy-validate-after-inactivity", "500"
+        );
+        ProxyConnectionPoolSettings poolSettings = options.getProxyConnectionPoolSettings();
+        assertThat(poolSettings.getMaxConnections(), is(200));
+        assertThat(poolSettings.getMaxConnectionsPerRoute(), is(50));
+        assertThat(poolSettings.getConnectTimeoutMillis(), is(1000));
+        assertThat(poolSettings.getSocketTimeoutMillis(), is(20000));
+        assertThat(poolSettings.getKeepAliveMillis(), is(60000L));
+        assertThat(poolSettings.getMaxIdleMillis(), is(30000L));
+        assertThat(poolSettings.getValidateAfterInactivityMillis(), is(500));
+        assertThat(poolSettings.isConnectionReuseEnabled(), is(true));
+    }
+
+    @Test
+    public void setsProxyResponseCacheMaxBytes() {
+        assertThat(new CommandLineOptions().getProxyResponseCacheMaxBytes(), is(ProxyResponseCache.DEFAULT_MAX_BYTES));
+        assertThat(new CommandLineOptions("--proxy-cache-max-bytes", "5000").getProxyResponseCacheMaxBytes(), is(5000L));
+    }
+
+    @Test
+    public void enablesHttp2ForProxiedRequests() {
+        assertThat(new CommandLineOptions().getProxyConnectionPoolSettings().isHttp2Enabled(), is(false));
+        assertThat(new CommandLineOptions("--proxy-http2").getProxyConnectionPoolSettings().isHttp2Enabled(), is(true));
+    }
+
     @Test
     public void setsChunkedEncodingPolicy() {
         CommandLineOptions options = new CommandLineOptions("--use-chunked-encoding", "always");
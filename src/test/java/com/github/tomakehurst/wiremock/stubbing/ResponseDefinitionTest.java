@@ -26,7 +26,9 @@ import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
 import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.responseDefinition;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.http.HttpHeader.httpHeader;
+import static com.github.tomakehurst.wiremock.http.ProxyCacheSettings.cacheFor;
 import static com.github.tomakehurst.wiremock.http.ResponseDefinition.copyOf;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertFalse;
@@ -157,4 +159,20 @@ public class ResponseDefinitionTest {
         assertThat(json, not(containsString("transformerParameters")));
     }
 
+    @Test
+    public void correctlyMarshalsAndUnmarshalsProxyCacheSettings() throws Exception {
+        ResponseDefinition responseDef = aResponse()
+            .proxiedFrom("http://upstream.example.com")
+            .withCache(cacheFor(60).varyingOnHeaders("Accept"))
+            .build();
+
+        String json = Json.write(responseDef);
+        JSONAssert.assertEquals(
+            "{ \"proxyBaseUrl\": \"http://upstream.example.com\", \"proxyCache\": { \"ttlSeconds\": 60, \"varyOnHeaders\": [\"Accept\"] } }",
+            json,
+            false
+        );
+        assertThat(Json.read(json, ResponseDefinition.class), is(responseDef));
+    }
+
 }
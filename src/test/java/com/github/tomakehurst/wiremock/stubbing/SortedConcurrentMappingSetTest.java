@@ -15,8 +15,10 @@
  */
 package com.github.tomakehurst.wiremock.stubbing;
 
+import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
@@ -25,8 +27,17 @@ import org.junit.Test;
 
 import java.util.Iterator;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToIgnoreCase;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.ANY;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.PUT;
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
 import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
 import static com.github.tomakehurst.wiremock.testsupport.WireMatchers.hasExactly;
 import static org.hamcrest.Matchers.is;
@@ -135,6 +146,84 @@ public class SortedConcurrentMappingSetTest {
 		assertThat(it.hasNext(), is(false));
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void findsOnlyCandidatesWithMatchingMethodAndLiteralUrlOrPathPlusFallbacks() {
+		mappingSet.add(aMapping(5, GET, urlEqualTo("/things?q=1")));
+		mappingSet.add(aMapping(5, GET, urlEqualTo("/other")));
+		mappingSet.add(aMapping(5, POST, urlEqualTo("/things?q=1")));
+		mappingSet.add(aMapping(5, GET, urlPathEqualTo("/things")));
+		mappingSet.add(aMapping(5, ANY, urlMatching("/thi.*")));
+		mappingSet.add(aMapping(5, PUT, urlMatching("/thi.*")));
+
+		Iterable<StubMapping> candidates = mappingSet.findCandidatesFor(mockRequest().method(GET).url("/things?q=1"));
+
+		assertThat(candidates, hasExactly(
+				requestUrlMatcherIs(urlMatching("/thi.*")),
+				requestUrlMatcherIs(urlPathEqualTo("/things")),
+				requestUrlMatcherIs(urlEqualTo("/things?q=1"))));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void returnsCandidatesInPriorityThenInsertionOrder() {
+		mappingSet.add(aMapping(3, GET, urlEqualTo("/things")));
+		mappingSet.add(aMapping(6, ANY, anyUrl()));
+		mappingSet.add(aMapping(1, GET, urlPathEqualTo("/things")));
+		mappingSet.add(aMapping(3, ANY, urlPathMatching("/.*")));
+
+		Iterable<StubMapping> candidates = mappingSet.findCandidatesFor(mockRequest().method(GET).url("/things"));
+
+		assertThat(candidates, hasExactly(
+				requestUrlMatcherIs(urlPathEqualTo("/things")),
+				requestUrlMatcherIs(urlPathMatching("/.*")),
+				requestUrlMatcherIs(urlEqualTo("/things")),
+				requestUrlMatcherIs(anyUrl())));
+	}
+
+	@Test
+	public void removedAndReplacedMappingsAreNoLongerCandidates() {
+		StubMapping removed = aMapping(1, GET, urlEqualTo("/removed"));
+		StubMapping replaced = aMapping(1, GET, urlEqualTo("/replaced"));
+		mappingSet.add(removed);
+		mappingSet.add(replaced);
+
+		mappingSet.remove(removed);
+		mappingSet.replace(replaced, aMapping(1, GET, urlEqualTo("/replacement")));
+
+		assertThat(mappingSet.findCandidatesFor(mockRequest().method(GET).url("/removed")).iterator().hasNext(), is(false));
+		assertThat(mappingSet.findCandidatesFor(mockRequest().method(GET).url("/replaced")).iterator().hasNext(), is(false));
+		assertThat(mappingSet.findCandidatesFor(mockRequest().method(GET).url("/replacement")).iterator().hasNext(), is(true));
+	}
+
+	@Test
+	public void caseInsensitiveUrlsAreAlwaysCandidates() {
+		mappingSet.add(aMapping(1, GET, new UrlPattern(equalToIgnoreCase("/Things"), false)));
+
+		assertThat(mappingSet.findCandidatesFor(mockRequest().method(GET).url("/THINGS")).iterator().hasNext(), is(true));
+	}
+
+	private StubMapping aMapping(Integer priority, RequestMethod method, UrlPattern urlPattern) {
+		StubMapping mapping = new StubMapping(newRequestPattern(method, urlPattern).build(), new ResponseDefinition());
+		mapping.setPriority(priority);
+		return mapping;
+	}
+
+	private Matcher<StubMapping> requestUrlMatcherIs(final UrlPattern expectedUrlPattern) {
+		return new TypeSafeMatcher<StubMapping>() {
+
+			@Override
+			public void describeTo(Description desc) {
+				desc.appendText("a mapping with URL pattern " + expectedUrlPattern);
+			}
+
+			@Override
+			public boolean matchesSafely(StubMapping actualMapping) {
+				return actualMapping.getRequest().getUrlMatcher().equals(expectedUrlPattern);
+			}
+		};
+	}
+
 	private StubMapping aMapping(Integer priority, String url) {
 		RequestPattern requestPattern = newRequestPattern(ANY, urlEqualTo(url)).build();
 		StubMapping mapping = new StubMapping(requestPattern, new ResponseDefinition());
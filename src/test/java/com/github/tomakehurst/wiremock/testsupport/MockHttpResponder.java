@@ -24,7 +24,8 @@ public class MockHttpResponder implements HttpResponder {
     public Response response;
 
     @Override
-    public void respond(Request request, Response response) {
+    public void respond(Request request, Response response, Runnable afterSent) {
         this.response = response;
+        afterSent.run();
     }
 }
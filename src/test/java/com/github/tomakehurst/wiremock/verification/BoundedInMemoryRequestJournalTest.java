@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.jmock.Mockery;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.matching.RequestPattern.everything;
+import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRequest;
+import static com.github.tomakehurst.wiremock.verification.LoggedRequest.createFrom;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.is;
+
+public class BoundedInMemoryRequestJournalTest {
+
+    private ServeEvent serveEvent1, serveEvent2, serveEvent3;
+
+    @Before
+    public void createTestRequests() {
+        Mockery context = new Mockery();
+        serveEvent1 = ServeEvent.of(createFrom(aRequest(context, "log1").withUrl("/logging1").build()), null);
+        serveEvent2 = ServeEvent.of(createFrom(aRequest(context, "log2").withUrl("/logging2").build()), null);
+        serveEvent3 = ServeEvent.of(createFrom(aRequest(context, "log3").withUrl("/logging3").build()), null);
+    }
+
+    @Test
+    public void discardsOldestRequestsOnceFull() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(2);
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        assertThat(journal.size(), is(2));
+
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.size(), is(2));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(0));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging2")).build()), is(1));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging3")).build()), is(1));
+    }
+
+    @Test
+    public void returnsAllServeEventsNewestFirst() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(5);
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getAllServeEvents(), contains(serveEvent3, serveEvent2, serveEvent1));
+    }
+
+    @Test
+    public void returnsServeEventsAfterTheGivenIdNewestFirst() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(2);
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getServeEventsAfter(null), contains(serveEvent3, serveEvent2));
+        assertThat(journal.getServeEventsAfter(serveEvent3.getId()), contains(serveEvent2));
+        assertThat(journal.getServeEventsAfter(serveEvent1.getId()), emptyIterable());
+        assertThat(journal.getServeEventCount(), is(2));
+    }
+
+    @Test
+    public void removesEventsById() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(5);
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+
+        journal.removeEvent(serveEvent1.getId());
+
+        assertThat(journal.getAllServeEvents(), contains(serveEvent2));
+        assertThat(journal.getServeEvent(serveEvent1.getId()).isPresent(), is(false));
+        assertThat(journal.size(), is(1));
+    }
+
+    @Test
+    public void removesEventsMatchingARequestPatternOldestFirst() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(5);
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        List<ServeEvent> removed = journal.removeEventsMatching(everything());
+
+        assertThat(removed, contains(serveEvent1, serveEvent2, serveEvent3));
+        assertThat(journal.size(), is(0));
+    }
+
+    @Test
+    public void evictedEventsAreNoLongerFoundByIdOrUrl() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(1);
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+
+        assertThat(journal.getServeEvent(serveEvent1.getId()).isPresent(), is(false));
+        assertThat(journal.getServeEvent(serveEvent2.getId()).get(), is(serveEvent2));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(0));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging2")).build()), is(1));
+    }
+
+    @Test
+    public void resettingTheJournalClearsAllEntries() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(2);
+        journal.requestReceived(serveEvent1);
+
+        journal.reset();
+
+        assertThat(journal.countRequestsMatching(everything()), is(0));
+        assertThat(journal.size(), is(0));
+    }
+
+    @Test
+    public void keepsNothingWhenMaxEntriesIsZero() {
+        BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(0);
+        journal.requestReceived(serveEvent1);
+
+        assertThat(journal.getAllServeEvents().isEmpty(), is(true));
+    }
+
+    @Test
+    public void holdsExactlyTheMaximumAfterConcurrentWrites() throws Exception {
+        final BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 1000; j++) {
+                        journal.requestReceived(serveEvent1);
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(journal.size(), is(100));
+        assertThat(journal.getAllServeEvents().size(), is(100));
+    }
+
+    @Test
+    public void leavesNoIndexEntriesForEvictedEventsAfterConcurrentWrites() throws Exception {
+        final BoundedInMemoryRequestJournal journal = new BoundedInMemoryRequestJournal(2);
+        final LoggedRequest[] requests = {
+            serveEvent1.getRequest(), serveEvent2.getRequest(), serveEvent3.getRequest()
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 10000; j++) {
+                        journal.requestReceived(ServeEvent.of(requests[j % requests.length], null));
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertThat(journal.size(), is(2));
+        assertThat(journal.indexedEventCount(), is(2));
+    }
+}
@@ -16,16 +16,28 @@
 package com.github.tomakehurst.wiremock.verification;
 
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.google.common.base.Optional;
 import org.jmock.Mockery;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.common.Metadata.metadata;
 import static com.github.tomakehurst.wiremock.matching.RequestPattern.everything;
 import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRequest;
 import static com.github.tomakehurst.wiremock.verification.LoggedRequest.createFrom;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -82,6 +94,70 @@ public class InMemoryRequestJournalTest {
         assertOnlyLastTwoRequestsLeft(journal);
     }
 
+    @Test
+    public void findsAndRemovesServeEventsById() {
+        RequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+
+        assertThat(journal.getServeEvent(serveEvent2.getId()).get(), is(serveEvent2));
+
+        journal.removeEvent(serveEvent2.getId());
+
+        assertThat(journal.getServeEvent(serveEvent2.getId()).isPresent(), is(false));
+        assertThat(journal.getAllServeEvents(), contains(serveEvent1));
+    }
+
+    @Test
+    public void returnsServeEventsAfterTheGivenIdNewestFirst() {
+        RequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getServeEventsAfter(null), contains(serveEvent3, serveEvent2, serveEvent1));
+        assertThat(journal.getServeEventsAfter(serveEvent3.getId()), contains(serveEvent2, serveEvent1));
+        assertThat(journal.getServeEventsAfter(serveEvent1.getId()), emptyIterable());
+        assertThat(journal.getServeEventsAfter(UUID.randomUUID()), emptyIterable());
+        assertThat(journal.getServeEventCount(), is(3));
+    }
+
+    @Test
+    public void countsAndRemovesRequestsMatchingUrlAndPathPatterns() {
+        Mockery context = new Mockery();
+        ServeEvent withQuery = ServeEvent.of(createFrom(aRequest(context, "query").withUrl("/logging1?q=1").build()), null);
+        RequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(withQuery);
+        journal.requestReceived(serveEvent2);
+
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlPathEqualTo("/logging1")).build()), is(2));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1?q=1")).build()), is(1));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlMatching("/logging.*")).build()), is(3));
+
+        List<ServeEvent> removed = journal.removeEventsMatching(getRequestedFor(urlPathEqualTo("/logging1")).build());
+
+        assertThat(removed, contains(serveEvent1, withQuery));
+        assertThat(journal.getAllServeEvents(), contains(serveEvent2));
+    }
+
+    @Test
+    public void removesServeEventsForStubsMatchingMetadata() {
+        StubMapping taggedStub = get("/logging1").withMetadata(metadata().attr("tag", "remove-me")).build();
+        StubMapping otherStub = get("/logging2").build();
+        ServeEvent tagged = ServeEvent.of(serveEvent1.getRequest(), null, taggedStub);
+        ServeEvent other = ServeEvent.of(serveEvent2.getRequest(), null, otherStub);
+        RequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+        journal.requestReceived(tagged);
+        journal.requestReceived(other);
+        journal.requestReceived(serveEvent3);
+
+        List<ServeEvent> removed = journal.removeServeEventsForStubsMatchingMetadata(matchingJsonPath("$.tag", equalTo("remove-me")));
+
+        assertThat(removed, contains(tagged));
+        assertThat(journal.getAllServeEvents(), contains(serveEvent3, other));
+    }
+
     private void assertOnlyLastTwoRequestsLeft(RequestJournal journal) {
         assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(0));
         assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging2")).build()), is(1));
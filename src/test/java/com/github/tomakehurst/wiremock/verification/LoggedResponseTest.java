@@ -30,10 +30,21 @@
  */
 package com.github.tomakehurst.wiremock.verification;
 
+import com.github.tomakehurst.wiremock.common.BinaryFile;
+import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.http.*;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
 
 import static com.github.tomakehurst.wiremock.http.HttpHeader.httpHeader;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.*;
@@ -42,6 +53,9 @@ public class LoggedResponseTest {
     private static String ISO_8859_1_RESPONSE_BODY = "köttfärssås";
     private static String UTF8_RESPONSE_BODY = "Foo © bar 𝌆 baz ☃ qux";
 
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
     @Test
     public void returnsEmptyStringForBodyWhenNotConfigured() {
         LoggedResponse loggedResponse = LoggedResponse.from(Response.notConfigured());
@@ -68,4 +82,98 @@ public class LoggedResponseTest {
         );
         assertThat(UTF8_RESPONSE_BODY, is(equalTo(loggedResponse.getBodyAsString())));
     }
+
+    @Test
+    public void keepsNoBodyWhenCaptureIsNone() {
+        LoggedResponse loggedResponse = LoggedResponse.from(
+            Response.response().body("the body").build(),
+            ResponseBodyCapture.none()
+        );
+
+        assertThat(loggedResponse.getBody(), is(nullValue()));
+        assertThat(loggedResponse.getBodyAsString(), is(""));
+    }
+
+    @Test
+    public void keepsTheStartOfTheBodyWhenCaptureIsTruncated() {
+        LoggedResponse loggedResponse = LoggedResponse.from(
+            Response.response().body("0123456789").build(),
+            ResponseBodyCapture.truncatedTo(4)
+        );
+
+        assertThat(loggedResponse.getBodyAsString(), is("0123"));
+        assertThat(loggedResponse.isBodyTruncated(), is(true));
+        assertThat(Json.write(loggedResponse), containsString("\"bodyTruncated\" : true"));
+    }
+
+    @Test
+    public void doesNotMarkBodiesWithinTheLimitAsTruncated() {
+        LoggedResponse loggedResponse = LoggedResponse.from(
+            Response.response().body("0123").build(),
+            ResponseBodyCapture.truncatedTo(4)
+        );
+
+        assertThat(loggedResponse.getBodyAsString(), is("0123"));
+        assertThat(loggedResponse.isBodyTruncated(), is(false));
+        assertThat(Json.write(loggedResponse), not(containsString("bodyTruncated")));
+    }
+
+    @Test
+    public void keepsOnlyADigestOfTheBodyWhenCaptureIsDigest() {
+        LoggedResponse loggedResponse = LoggedResponse.from(
+            Response.response().body("abc").build(),
+            ResponseBodyCapture.digest()
+        );
+
+        assertThat(loggedResponse.getBody(), is(nullValue()));
+        assertThat(loggedResponse.getBodyDigest(), is("sha256:ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+    }
+
+    @Test
+    public void readsTheBodyFileOnlyWhenAskedWhenCaptureIsFileReference() throws Exception {
+        File bodyFile = tempDir.newFile("body.txt");
+        Files.write(bodyFile.toPath(), "original".getBytes(UTF_8));
+
+        LoggedResponse loggedResponse = LoggedResponse.from(
+            Response.response().body(new BinaryFile(bodyFile.toURI())).build(),
+            ResponseBodyCapture.fileReference()
+        );
+        Files.write(bodyFile.toPath(), "changed".getBytes(UTF_8));
+
+        assertThat(loggedResponse.getBodyFileName(), is(bodyFile.toURI().toString()));
+        assertThat(loggedResponse.getBodyAsString(), is("changed"));
+    }
+
+    @Test
+    public void alwaysKeepsTheWholeBodyOfProxiedResponses() {
+        LoggedResponse loggedResponse = LoggedResponse.from(
+            Response.response().body("proxied body").fromProxy(true).build(),
+            ResponseBodyCapture.none()
+        );
+
+        assertThat(loggedResponse.getBodyAsString(), is("proxied body"));
+    }
+
+    @Test
+    public void canStillBeCreatedWithoutTheBodyCaptureDetails() {
+        LoggedResponse loggedResponse = new LoggedResponse(200, null, "aGVsbG8=", null, null);
+
+        assertThat(loggedResponse.getBodyAsString(), is("hello"));
+        assertThat(loggedResponse.getBodyFileName(), is(nullValue()));
+        assertThat(loggedResponse.getBodyDigest(), is(nullValue()));
+        assertThat(loggedResponse.isBodyTruncated(), is(false));
+    }
+
+    @Test
+    public void readsTheBodyCaptureDetailsFromJson() {
+        LoggedResponse loggedResponse = Json.read(
+            "{ \"status\": 200, \"bodyDigest\": \"sha256:abc\", \"bodyFileName\": \"body.txt\", \"bodyTruncated\": true }",
+            LoggedResponse.class
+        );
+
+        assertThat(loggedResponse.getStatus(), is(200));
+        assertThat(loggedResponse.getBodyDigest(), is("sha256:abc"));
+        assertThat(loggedResponse.getBodyFileName(), is("body.txt"));
+        assertThat(loggedResponse.isBodyTruncated(), is(true));
+    }
 }
@@ -18,17 +18,25 @@ package com.github.tomakehurst.wiremock.verification;
 import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.ParsedBodyCache;
+import com.github.tomakehurst.wiremock.matching.ValueMatcher;
 import com.github.tomakehurst.wiremock.stubbing.Scenarios;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.stubbing.StubMappings;
 import com.google.common.base.Function;
+import com.google.common.collect.Sets;
 import org.jmock.Expectations;
 import org.jmock.Mockery;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.*;
@@ -37,7 +45,10 @@ import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.new
 import static com.github.tomakehurst.wiremock.matching.WeightedMatchResult.weight;
 import static com.github.tomakehurst.wiremock.verification.NearMissCalculator.NEAR_MISS_COUNT;
 import static com.google.common.collect.FluentIterable.from;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class NearMissCalculatorTest {
@@ -79,6 +90,87 @@ public class NearMissCalculatorTest {
         assertThat(nearest.get(2).getStubMapping().getRequest().getUrl(), is("/almost-right"));
     }
 
+    @Test
+    public void returnsNearest3MissesInStubOrderWhenScoringALargeNumberOfStubs() {
+        List<MappingBuilder> mappingBuilders = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            mappingBuilders.add(get(urlEqualTo("/totally-wrong-" + i)).withName("wrong " + i).willReturn(aResponse()));
+        }
+        mappingBuilders.add(1500, get(urlEqualTo("/righ")).withName("second").willReturn(aResponse()));
+        mappingBuilders.add(700, get(urlEqualTo("/righ")).withName("first").willReturn(aResponse()));
+        mappingBuilders.add(get(urlEqualTo("/rig")).withName("third").willReturn(aResponse()));
+        givenStubMappings(mappingBuilders.toArray(new MappingBuilder[0]));
+
+        List<NearMiss> nearest = nearMissCalculator.findNearestTo(mockRequest().url("/right").asLoggedRequest());
+
+        assertThat(nearest.size(), is(NEAR_MISS_COUNT));
+        assertThat(nearest.get(0).getStubMapping().getName(), is("first"));
+        assertThat(nearest.get(1).getStubMapping().getName(), is("second"));
+        assertThat(nearest.get(2).getStubMapping().getName(), is("third"));
+    }
+
+    @Test
+    public void doesNotLeaveParsedBodiesBehindOnTheThreadsThatScoreALargeNumberOfStubs() {
+        final Set<Object> parsedBodies = Collections.synchronizedSet(Sets.newIdentityHashSet());
+        final Set<String> scoringThreads = Collections.synchronizedSet(new HashSet<String>());
+        ValueMatcher<Request> parsingMatcher = new ValueMatcher<Request>() {
+            @Override
+            public MatchResult match(Request request) {
+                parsedBodies.add(ParsedBodyCache.json(request.getBodyAsString()));
+                scoringThreads.add(Thread.currentThread().getName());
+                return MatchResult.noMatch();
+            }
+        };
+        List<MappingBuilder> mappingBuilders = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            mappingBuilders.add(post(urlEqualTo("/thing")).andMatching(parsingMatcher).willReturn(aResponse()));
+        }
+        givenStubMappings(mappingBuilders.toArray(new MappingBuilder[0]));
+
+        nearMissCalculator.findNearestTo(mockRequest().method(POST).url("/thing").body("{ \"thing\": 1 }").asLoggedRequest());
+        Set<Object> firstParsedBodies = Sets.newIdentityHashSet();
+        firstParsedBodies.addAll(parsedBodies);
+        parsedBodies.clear();
+        nearMissCalculator.findNearestTo(mockRequest().method(POST).url("/thing").body("{ \"thing\": 1 }").asLoggedRequest());
+
+        assertThat(Sets.intersection(firstParsedBodies, parsedBodies).isEmpty(), is(true));
+        assertThat(scoringThreads, everyItem(startsWith("wiremock-near-miss-")));
+    }
+
+    @Test
+    public void onlyScoresStubsWithinTheCandidateBudget() {
+        givenStubMappings(
+            get(urlEqualTo("/totally-wrong")).withName("wrong").willReturn(aResponse()),
+            get(urlEqualTo("/rig")).withName("near").willReturn(aResponse()),
+            get(urlEqualTo("/righ")).withName("nearest but out of budget").willReturn(aResponse())
+        );
+
+        List<NearMiss> nearest = nearMissCalculator.findNearestTo(
+            mockRequest().url("/right").asLoggedRequest(),
+            NearMissBudget.unlimited().withMaxCandidates(2)
+        );
+
+        assertThat(nearest.size(), is(2));
+        assertThat(nearest.get(0).getStubMapping().getName(), is("near"));
+        assertThat(nearest.get(1).getStubMapping().getName(), is("wrong"));
+    }
+
+    @Test
+    public void returnsTheNearestMissesScoredBeforeTheTimeBudgetRanOut() {
+        givenStubMappings(
+            get(urlEqualTo("/rig")).withName("first").willReturn(aResponse()),
+            get(urlEqualTo("/righ")).withName("second").willReturn(aResponse())
+        );
+
+        List<NearMiss> nearest = nearMissCalculator.findNearestTo(
+            mockRequest().url("/right").asLoggedRequest(),
+            NearMissBudget.unlimited().withMaxTime(0, MILLISECONDS)
+        );
+
+        assertThat(nearest.size(), is(1));
+        assertThat(nearest.get(0).getStubMapping().getName(), is("first"));
+    }
+
     @Test
     public void returns0NearMissesForSingleRequestWhenNoStubsPresent() {
         givenStubMappings();
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification.notmatched;
+
+import com.github.tomakehurst.wiremock.testsupport.TestNotifier;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class NotMatchedDiagnosticsTest {
+
+    @Test
+    public void logsEveryDiagnosticOnTheCallingThreadWhenUnlimited() {
+        NotMatchedDiagnostics diagnostics = NotMatchedDiagnostics.unlimited();
+        TestNotifier notifier = new TestNotifier();
+
+        diagnostics.log(notifier, "one");
+        diagnostics.log(notifier, "two");
+
+        assertThat(notifier.getErrorMessages(), contains("one", "two"));
+        assertThat(diagnostics.getSuppressedCount(), is(0L));
+    }
+
+    @Test
+    public void dropsAndCountsDiagnosticsOverTheRateLimit() {
+        NotMatchedDiagnostics diagnostics = NotMatchedDiagnostics.atMostPerSecond(1);
+        final TestNotifier notifier = new TestNotifier();
+
+        diagnostics.log(notifier, "one");
+        diagnostics.log(notifier, "two");
+        diagnostics.log(notifier, "three");
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> notifier.getErrorMessages().size() == 1);
+        assertThat(notifier.getErrorMessages(), contains("one"));
+        assertThat(diagnostics.getSuppressedCount(), is(2L));
+    }
+}